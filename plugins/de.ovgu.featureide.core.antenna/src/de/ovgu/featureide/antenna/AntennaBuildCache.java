@@ -0,0 +1,133 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.antenna;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Stores the outcome of the last full build for every source file of an Antenna project. A file whose content, configuration, and feature model did not
+ * change since the last build does not need to be checked and preprocessed again. Instead, its builder markers and used features are restored from this
+ * cache.
+ *
+ * @author agent
+ */
+class AntennaBuildCache {
+
+	/**
+	 * A builder marker of a source file.
+	 */
+	static final class MarkerData {
+
+		final String message;
+		final int lineNumber;
+		final int severity;
+
+		MarkerData(String message, int lineNumber, int severity) {
+			this.message = message;
+			this.lineNumber = lineNumber;
+			this.severity = severity;
+		}
+
+	}
+
+	/**
+	 * The outcome of building a single source file.
+	 */
+	static final class Entry {
+
+		/** hash of the file content after preprocessing, i.e., the content that is currently stored on disk */
+		private final byte[] contentHash;
+		private final int configurationHash;
+		private final int featureModelHash;
+
+		final Set<String> usedFeatures;
+		final List<MarkerData> markers;
+
+		Entry(byte[] contentHash, int configurationHash, int featureModelHash, Set<String> usedFeatures, List<MarkerData> markers) {
+			this.contentHash = contentHash;
+			this.configurationHash = configurationHash;
+			this.featureModelHash = featureModelHash;
+			this.usedFeatures = usedFeatures;
+			this.markers = markers;
+		}
+
+		boolean matches(byte[] contentHash, int configurationHash, int featureModelHash) {
+			return (this.configurationHash == configurationHash) && (this.featureModelHash == featureModelHash)
+				&& Arrays.equals(this.contentHash, contentHash);
+		}
+
+	}
+
+	private final Map<IFile, Entry> entries = new HashMap<>();
+
+	synchronized Entry get(IFile file) {
+		return entries.get(file);
+	}
+
+	synchronized void put(IFile file, Entry entry) {
+		entries.put(file, entry);
+	}
+
+	/**
+	 * Removes the entries of all files that are not contained in the given collection (e.g., deleted files).
+	 *
+	 * @param files the current source files
+	 */
+	synchronized void retain(Collection<IFile> files) {
+		entries.keySet().retainAll(new HashSet<>(files));
+	}
+
+	synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Computes a hash of the given lines that is used to detect changed files.
+	 *
+	 * @param lines all lines of a file
+	 * @return the SHA-1 hash of the lines
+	 */
+	static byte[] computeContentHash(List<String> lines) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (final String line : lines) {
+			digest.update(line.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '\n');
+		}
+		return digest.digest();
+	}
+
+}
@@ -36,9 +36,21 @@ import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -47,6 +59,9 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -96,6 +111,17 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/** antenna preprocessor used from external library */
 	private Preprocessor preprocessor;
 
+	/** comma separated list of the activated features of the current build */
+	private String defines = "";
+
+	/** results of the last full build, used to skip unchanged files */
+	private final AntennaBuildCache buildCache = new AntennaBuildCache();
+
+	/** if <code>true</code>, full builds only check and preprocess files that changed since the last build */
+	private boolean incrementalBuild = true;
+
+	private static final String BUILDER_MARKER = CorePlugin.PLUGIN_ID + ".builderProblemMarker";
+
 	private AntennaModelBuilder antennaModelBuilder;
 
 	/** pattern for replacing preprocessor commands like "//#if" */
@@ -135,6 +161,21 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		return EXTENSIONS;
 	}
 
+	public boolean isIncrementalBuild() {
+		return incrementalBuild;
+	}
+
+	/**
+	 * @param incrementalBuild if <code>true</code>, full builds skip all files whose content, configuration, and feature model did not change since the last
+	 *        build
+	 */
+	public void setIncrementalBuild(boolean incrementalBuild) {
+		this.incrementalBuild = incrementalBuild;
+		if (!incrementalBuild) {
+			buildCache.clear();
+		}
+	}
+
 	@Override
 	public void performFullBuild(Path config) {
 		if (!prepareFullBuild(config)) {
@@ -154,8 +195,9 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		// add source files
 		try {
 			// add activated features as definitions to preprocessor
+			defines = featureList.toString();
 			preprocessor.clearDefines();
-			preprocessor.addDefines(featureList.toString());
+			preprocessor.addDefines(defines);
 
 			// preprocess for all files in source folder
 			startPreprocessingSourceFiles(featureProject.getBuildFolder(), true);
@@ -267,12 +309,8 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		try {
 			preprocessSourceFiles(sourceFolder, performFullBuild);
 			setModelMarkers();
-		} catch (final FileNotFoundException e) {
-			AntennaCorePlugin.getDefault().logError(e);
 		} catch (final CoreException e) {
 			AntennaCorePlugin.getDefault().logError(e);
-		} catch (final IOException e) {
-			AntennaCorePlugin.getDefault().logError(e);
 		}
 	}
 
@@ -280,59 +318,237 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	 * preprocess all files in folder
 	 *
 	 * @param sourceFolder folder with files to preprocess
+	 * @param performFullBuild if <code>false</code>, files are only checked, but not preprocessed
 	 * @throws CoreException
-	 * @throws FileNotFoundException
-	 * @throws IOException
 	 */
-	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, FileNotFoundException, IOException {
-		for (final IResource res : sourceFolder.members()) {
+	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException {
+		final List<IFile> files = new ArrayList<>();
+		collectSourceFiles(sourceFolder, files);
+
+		if (!performFullBuild) {
+			// markers of all files were removed, thus, the cached markers are outdated
+			buildCache.clear();
+			for (final IFile file : files) {
+				processLinesOfFile(loadStringsFromFile(file), file);
+			}
+			return;
+		}
+
+		buildCache.retain(files);
+		final int configurationHash = defines.hashCode();
+		final int featureModelHash = computeFeatureModelHash();
+
+		final Map<IFile, AntennaBuildCache.Entry> unchangedFiles = new LinkedHashMap<>();
+		final List<PreprocessingResult> changedFiles = new ArrayList<>();
+		for (final IFile file : files) {
+			final Vector<String> lines = loadStringsFromFile(file);
+			final byte[] contentHash = AntennaBuildCache.computeContentHash(lines);
+			final AntennaBuildCache.Entry entry = incrementalBuild ? buildCache.get(file) : null;
+			if ((entry != null) && entry.matches(contentHash, configurationHash, featureModelHash)) {
+				unchangedFiles.put(file, entry);
+			} else {
+				changedFiles.add(new PreprocessingResult(file, lines, contentHash, file.getCharset()));
+			}
+		}
+
+		// run antenna preprocessor on changed files, while the checks are done in this thread
+		final int numberOfThreads = Math.min(Runtime.getRuntime().availableProcessors(), changedFiles.size());
+		final List<PreprocessingBatch> batches = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			batches.add(new PreprocessingBatch(defines));
+		}
+		for (int i = 0; i < changedFiles.size(); i++) {
+			batches.get(i % numberOfThreads).results.add(changedFiles.get(i));
+		}
+		final ExecutorService executor = numberOfThreads > 1 ? Executors.newFixedThreadPool(numberOfThreads) : null;
+		try {
+			final List<Future<Void>> futures = new ArrayList<>(numberOfThreads);
+			for (final PreprocessingBatch batch : batches) {
+				if (executor != null) {
+					futures.add(executor.submit(batch));
+				} else {
+					final FutureTask<Void> task = new FutureTask<>(batch);
+					task.run();
+					futures.add(task);
+				}
+			}
+
+			// update all markers and files in one workspace operation
+			final IWorkspaceRunnable updateResources = monitor -> {
+				for (final Map.Entry<IFile, AntennaBuildCache.Entry> unchangedFile : unchangedFiles.entrySet()) {
+					final AntennaBuildCache.Entry entry = unchangedFile.getValue();
+					for (final AntennaBuildCache.MarkerData marker : entry.markers) {
+						featureProject.createBuilderMarker(unchangedFile.getKey(), marker.message, marker.lineNumber, marker.severity);
+					}
+					usedFeatures.addAll(entry.usedFeatures);
+				}
+
+				for (final PreprocessingResult result : changedFiles) {
+					// delete all existing builder markers
+					featureProject.deleteBuilderMarkers(result.file, 0);
+
+					// do checking and some stuff
+					result.usedFeatures = processLinesOfFile(result);
+				}
+
+				awaitPreprocessing(futures);
+
+				for (final PreprocessingResult result : changedFiles) {
+					saveSourceFile(result);
+					buildCache.put(result.file, new AntennaBuildCache.Entry(result.getContentHash(), configurationHash, featureModelHash, result.usedFeatures,
+							getBuilderMarkers(result.file)));
+				}
+			};
+			ResourcesPlugin.getWorkspace().run(updateResources, sourceFolder, IWorkspace.AVOID_UPDATE, null);
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private void collectSourceFiles(IFolder folder, List<IFile> files) throws CoreException {
+		for (final IResource res : folder.members()) {
 			if (res instanceof IFolder) {
 				// for folders do recursively
-				preprocessSourceFiles((IFolder) res, performFullBuild);
+				collectSourceFiles((IFolder) res, files);
 			} else if (res instanceof IFile) {
-				// delete all existing builder markers
-				if (performFullBuild) {
-					featureProject.deleteBuilderMarkers(res, 0);
-				}
+				files.add((IFile) res);
+			}
+		}
+	}
 
-				// get all lines from file
-				final Vector<String> lines = loadStringsFromFile((IFile) res);
+	/**
+	 * Computes a hash of all parts of the feature model that influence the checks of a source file.
+	 */
+	private int computeFeatureModelHash() {
+		return Objects.hash(featureProject.getFeatureModelManager().getPersistentFormula().getCNF(), String.valueOf(patternIsConcreteFeature),
+				String.valueOf(patternIsAbstractFeature));
+	}
 
-				// do checking and some stuff
-				processLinesOfFile(lines, (IFile) res);
+	/**
+	 * Does the checking for the original lines of the given file and collects the features that are used in the file.
+	 *
+	 * @return the features used in the file
+	 */
+	private Set<String> processLinesOfFile(PreprocessingResult result) {
+		final HashSet<String> allUsedFeatures = usedFeatures;
+		final HashSet<String> fileUsedFeatures = new HashSet<>();
+		usedFeatures = fileUsedFeatures;
+		try {
+			processLinesOfFile(result.originalLines, result.file);
+		} finally {
+			usedFeatures = allUsedFeatures;
+		}
+		allUsedFeatures.addAll(fileUsedFeatures);
+		return fileUsedFeatures;
+	}
 
-				if (!performFullBuild) {
-					continue;
-				}
+	private void awaitPreprocessing(List<Future<Void>> futures) throws CoreException {
+		try {
+			for (final Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CoreException(new Status(IStatus.CANCEL, AntennaCorePlugin.PLUGIN_ID, e.getMessage(), e));
+		} catch (final ExecutionException e) {
+			throw new CoreException(new Status(IStatus.ERROR, AntennaCorePlugin.PLUGIN_ID, e.getCause().getMessage(), e.getCause()));
+		}
+	}
 
-				boolean changed = false;
+	/**
+	 * Creates the marker for a preprocessor error and saves the file if the preprocessor changed it.
+	 */
+	private void saveSourceFile(PreprocessingResult result) throws CoreException {
+		final IFile res = result.file;
+		if (result.exception != null) {
+			final PPException e = result.exception;
+			final int lineNumber = e.getLineNumber();
+			featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
+					IMarker.SEVERITY_ERROR);
+			AntennaCorePlugin.getDefault().logError(e);
+		}
 
+		// if preprocessor changed file: save & refresh
+		if (result.changed) {
+			try (FileOutputStream ostr = new FileOutputStream(res.getRawLocation().toOSString())) {
+				Preprocessor.saveStrings(result.lines, ostr, result.charset);
+			} catch (final IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, AntennaCorePlugin.PLUGIN_ID, e.getMessage(), e));
+			}
+			// use touch to support e.g. linux
+			res.touch(null);
+			res.refreshLocal(IResource.DEPTH_ZERO, null);
+		}
+	}
+
+	private static List<AntennaBuildCache.MarkerData> getBuilderMarkers(IFile file) throws CoreException {
+		final IMarker[] markers = file.findMarkers(BUILDER_MARKER, false, IResource.DEPTH_ZERO);
+		final List<AntennaBuildCache.MarkerData> markerData = new ArrayList<>(markers.length);
+		for (final IMarker marker : markers) {
+			markerData.add(new AntennaBuildCache.MarkerData(marker.getAttribute(IMarker.MESSAGE, ""), marker.getAttribute(IMarker.LINE_NUMBER, -1),
+					marker.getAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING)));
+		}
+		return markerData;
+	}
+
+	/**
+	 * Runs the antenna preprocessor on a set of files. Each batch uses its own preprocessor, as preprocessor instances must not be shared between threads.
+	 */
+	private static final class PreprocessingBatch implements Callable<Void> {
+
+		private final String defines;
+		private final List<PreprocessingResult> results = new ArrayList<>();
+
+		private PreprocessingBatch(String defines) {
+			this.defines = defines;
+		}
+
+		@Override
+		public Void call() throws IOException, PPException {
+			final Preprocessor preprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
+			preprocessor.addDefines(defines);
+			for (final PreprocessingResult result : results) {
 				try {
-					// run antenna preprocessor
-					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
+					result.changed = preprocessor.preprocess(result.lines, result.charset);
 				} catch (final PPException e) {
-					final int lineNumber = e.getLineNumber();
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
-							IMarker.SEVERITY_ERROR);
-					AntennaCorePlugin.getDefault().logError(e);
-				}
-
-				// if preprocessor changed file: save & refresh
-				if (changed) {
-					FileOutputStream ostr = null;
-					try {
-						ostr = new FileOutputStream(res.getRawLocation().toOSString());
-						Preprocessor.saveStrings(lines, ostr, ((IFile) res).getCharset());
-					} finally {
-						if (ostr != null) {
-							ostr.close();
-						}
-					}
-					// use touch to support e.g. linux
-					res.touch(null);
-					res.refreshLocal(IResource.DEPTH_ZERO, null);
+					result.exception = e;
 				}
 			}
+			return null;
+		}
+	}
+
+	/**
+	 * The state of a single changed file during a full build.
+	 */
+	private static final class PreprocessingResult {
+
+		private final IFile file;
+		private final String charset;
+
+		/** lines as loaded from disk, used for checking */
+		private final Vector<String> originalLines;
+		private final byte[] originalContentHash;
+
+		/** lines that are modified by the antenna preprocessor */
+		private final Vector<String> lines;
+
+		private boolean changed = false;
+		private PPException exception;
+		private Set<String> usedFeatures;
+
+		private PreprocessingResult(IFile file, Vector<String> lines, byte[] contentHash, String charset) {
+			this.file = file;
+			this.charset = charset;
+			originalLines = lines;
+			originalContentHash = contentHash;
+			this.lines = new Vector<>(lines);
+		}
+
+		private byte[] getContentHash() {
+			return changed ? AntennaBuildCache.computeContentHash(lines) : originalContentHash;
 		}
 	}
 
@@ -28,7 +28,6 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -44,12 +43,9 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -59,7 +55,6 @@ import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanation;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.PreprocessorExplanationCreatorFactory;
@@ -118,6 +113,11 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected boolean voidFeatureModel;
 
+	/**
+	 * Checks the presence conditions of all annotations. Created in {@link #prepareFullBuild(Path)}.
+	 */
+	private PresenceConditionOracle presenceConditionOracle;
+
 	/**
 	 * Preprocessor name used for messages in build markers (must set in subclass).
 	 */
@@ -211,12 +211,9 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			patternIsConcreteFeature = Pattern.compile(concreteFeatures.substring(0, concreteFeatures.length() - 1));
 		}
 
-		// create expression of feature model
-		try {
-			voidFeatureModel = !new SatSolver(AdvancedNodeCreator.createNodes(featureModel), 1000).hasSolution();
-		} catch (final TimeoutException e) {
-			voidFeatureModel = false;
-		}
+		// create oracle for the presence conditions of this build
+		presenceConditionOracle = new PresenceConditionOracle(persistentFormula);
+		voidFeatureModel = presenceConditionOracle.isVoidFeatureModel();
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(featureModel.getFeatures()));
 
@@ -234,60 +231,18 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	protected AnnotationStatus isContradictionOrTautology() {
 		final Node expression = expressionStack.peek();
 
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 1, children.length); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
+		// Exclude the topmost expression because it is examined separately.
+		final List<Node> nestedExpressions = new ArrayList<>(expressionStack);
+		nestedExpressions.remove(0);
 
 		try {
-			return isContradictionOrTautology(expression, AdvancedNodeCreator.createNodes(featureModel), nestedExpressions);
+			return presenceConditionOracle.getStatus(expression, nestedExpressions);
 		} catch (final TimeoutException e) {
 			CorePlugin.getDefault().logError(e);
 			return AnnotationStatus.NORMAL;
 		}
 	}
 
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
-		if (voidFeatureModel) {
-			return AnnotationStatus.VOID;
-		}
-
-		/*
-		 * -SAT(expression)
-		 */
-		if (!new SatSolver(expression, 1000).hasSolution()) {
-			return AnnotationStatus.CONTRADICTION;
-		}
-
-		/*
-		 * -SAT(-expression)
-		 */
-		if (!new SatSolver(new Not(expression), 1000).hasSolution()) {
-			return AnnotationStatus.TAUTOLOGY;
-		}
-
-		final Node context = (nestedExpressions != null) ? new And(featureModel, nestedExpressions) : featureModel;
-
-		/*
-		 * -SAT(FM & nestedExpressions & expression)
-		 */
-		if (!new SatSolver(new And(context, expression), 1000).hasSolution()) {
-			return AnnotationStatus.DEAD;
-		}
-
-		/*
-		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
-		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
-		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).hasSolution()) {
-			return AnnotationStatus.SUPERFLUOUS;
-		}
-
-		return AnnotationStatus.NORMAL;
-	}
-
 	/**
 	 * Set marker for tautology or contradiction on given line in given file.
 	 *
@@ -0,0 +1,242 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Checks presence conditions of preprocessor annotations against a feature model during a single build.<br> Uses one incremental solver on the cached
+ * {@link CNF} of the feature model. Literals of presence conditions are passed as assumptions, remaining clauses are added temporarily. Results are memorized
+ * for each distinct presence condition, as the same conditions usually occur in many files.
+ *
+ * @author agent
+ */
+public class PresenceConditionOracle {
+
+	private static final int TIMEOUT = 1000;
+
+	private final FeatureModelFormula formula;
+	private final Variables variables;
+	private final ModifiableSatSolver solver;
+	private final boolean voidFeatureModel;
+
+	private final Map<String, AnnotationStatus> expressionStatus = new HashMap<>();
+	private final Map<String, AnnotationStatus> presenceConditionStatus = new HashMap<>();
+
+	private Node featureModelNode;
+
+	private int numberOfSolverCalls = 0;
+
+	public PresenceConditionOracle(FeatureModelFormula formula) {
+		this.formula = formula;
+		final CNF cnf = formula.getCNF();
+		variables = cnf.getVariables();
+		ModifiableSatSolver newSolver;
+		try {
+			newSolver = new ModifiableSatSolver(cnf);
+			newSolver.setTimeout(TIMEOUT);
+		} catch (final RuntimeContradictionException e) {
+			newSolver = null;
+		}
+		solver = newSolver;
+		voidFeatureModel = (solver == null) || (solver.hasSolution() == SatResult.FALSE);
+	}
+
+	public boolean isVoidFeatureModel() {
+		return voidFeatureModel;
+	}
+
+	/**
+	 * @return the number of satisfiability checks against the feature model since the creation of this oracle
+	 */
+	public int getNumberOfSolverCalls() {
+		return numberOfSolverCalls;
+	}
+
+	/**
+	 * Computes the status of an annotation.
+	 *
+	 * @param expression the expression of the annotation
+	 * @param nestedExpressions the expressions of all enclosing annotations
+	 * @return the status of the annotation
+	 * @throws TimeoutException if the solver could not decide satisfiability in time
+	 */
+	public AnnotationStatus getStatus(Node expression, List<Node> nestedExpressions) throws TimeoutException {
+		if (voidFeatureModel) {
+			return AnnotationStatus.VOID;
+		}
+
+		final String expressionKey = expression.toString();
+		AnnotationStatus status = expressionStatus.get(expressionKey);
+		if (status == null) {
+			status = getExpressionStatus(expression);
+			expressionStatus.put(expressionKey, status);
+		}
+		if (status != AnnotationStatus.NORMAL) {
+			return status;
+		}
+
+		final String presenceConditionKey = getPresenceConditionKey(expressionKey, nestedExpressions);
+		status = presenceConditionStatus.get(presenceConditionKey);
+		if (status == null) {
+			status = getPresenceConditionStatus(expression, nestedExpressions);
+			presenceConditionStatus.put(presenceConditionKey, status);
+		}
+		return status;
+	}
+
+	/**
+	 * Normalizes a presence condition. As all nested expressions are conjunctively connected, their order is irrelevant.
+	 */
+	private static String getPresenceConditionKey(String expressionKey, List<Node> nestedExpressions) {
+		final List<String> nestedKeys = new ArrayList<>(nestedExpressions.size());
+		for (final Node nestedExpression : nestedExpressions) {
+			nestedKeys.add(nestedExpression.toString());
+		}
+		Collections.sort(nestedKeys);
+		final StringBuilder sb = new StringBuilder(expressionKey);
+		for (final String nestedKey : nestedKeys) {
+			sb.append('\n');
+			sb.append(nestedKey);
+		}
+		return sb.toString();
+	}
+
+	private static AnnotationStatus getExpressionStatus(Node expression) throws TimeoutException {
+		/*
+		 * -SAT(expression)
+		 */
+		if (!new SatSolver(expression, TIMEOUT).hasSolution()) {
+			return AnnotationStatus.CONTRADICTION;
+		}
+
+		/*
+		 * -SAT(-expression)
+		 */
+		if (!new SatSolver(new Not(expression), TIMEOUT).hasSolution()) {
+			return AnnotationStatus.TAUTOLOGY;
+		}
+		return AnnotationStatus.NORMAL;
+	}
+
+	private AnnotationStatus getPresenceConditionStatus(Node expression, List<Node> nestedExpressions) throws TimeoutException {
+		/*
+		 * -SAT(FM & nestedExpressions & expression)
+		 */
+		if (!hasSolution(nestedExpressions, expression)) {
+			return AnnotationStatus.DEAD;
+		}
+
+		/*
+		 * TAUT(FM & nestedExpressions => expression) = -SAT(FM & nestedExpressions & -expression)
+		 */
+		if (!hasSolution(nestedExpressions, new Not(expression))) {
+			return AnnotationStatus.SUPERFLUOUS;
+		}
+
+		return AnnotationStatus.NORMAL;
+	}
+
+	private boolean hasSolution(List<Node> nestedExpressions, Node expression) throws TimeoutException {
+		numberOfSolverCalls++;
+		final List<Node> conjuncts = new ArrayList<>(nestedExpressions);
+		conjuncts.add(expression);
+		final Node node = new And(conjuncts);
+		for (final String name : node.getUniqueContainedFeatures()) {
+			if (variables.getVariable(name) == 0) {
+				// Expressions that contain unknown features are checked against the complete feature model formula
+				if (featureModelNode == null) {
+					featureModelNode = AdvancedNodeCreator.createNodes(formula.getFeatureModel());
+				}
+				return new SatSolver(new And(featureModelNode, node), TIMEOUT).hasSolution();
+			}
+		}
+
+		final List<LiteralSet> clauses = new ArrayList<>();
+		final List<Integer> assumptions = new ArrayList<>();
+		for (final Node clause : node.toRegularCNF().getChildren()) {
+			final Node[] literals = clause.getChildren();
+			if (literals.length == 0) {
+				return false;
+			} else if (literals.length == 1) {
+				assumptions.add(getLiteral((Literal) literals[0]));
+			} else {
+				final int[] clauseLiterals = new int[literals.length];
+				for (int i = 0; i < literals.length; i++) {
+					clauseLiterals[i] = getLiteral((Literal) literals[i]);
+				}
+				clauses.add(new LiteralSet(clauseLiterals));
+			}
+		}
+
+		final int assignmentSize = solver.getAssignmentSize();
+		try {
+			solver.addClauses(clauses);
+		} catch (final RuntimeContradictionException e) {
+			return false;
+		}
+		try {
+			for (final Integer literal : assumptions) {
+				solver.assignmentPush(literal);
+			}
+			final SatResult result = solver.hasSolution();
+			switch (result) {
+			case FALSE:
+				return false;
+			case TIMEOUT:
+				throw new TimeoutException();
+			case TRUE:
+				return true;
+			default:
+				throw new AssertionError(result);
+			}
+		} finally {
+			solver.assignmentClear(assignmentSize);
+			solver.removeLastClauses(clauses.size());
+		}
+	}
+
+	private int getLiteral(Literal literal) {
+		return variables.getVariable((String) literal.var, literal.positive);
+	}
+
+}
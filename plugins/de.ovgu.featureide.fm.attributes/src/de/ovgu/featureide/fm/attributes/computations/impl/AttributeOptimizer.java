@@ -0,0 +1,268 @@
+package de.ovgu.featureide.fm.attributes.computations.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.ovgu.featureide.fm.attributes.base.IExtendedFeature;
+import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+
+/**
+ * Computes the exact minimum and maximum sum of a numerical attribute over all valid configurations that comply with a given partial configuration. In
+ * contrast to {@link EstimatedMinimumComputation} and {@link EstimatedMaximumComputation}, cross-tree constraints are considered.<br> The optimum is computed
+ * on the {@link DDNNF d-DNNF} of the feature model, which is compiled only once per {@link FeatureModelFormula}. Thus, after changing the configuration, the
+ * optimum can be recomputed in linear time with respect to the size of the d-DNNF.<br> Sums of {@link LongFeatureAttribute long} attributes are computed
+ * exactly. The compilation of the d-DNNF can be limited by a {@link #setTimeout(long) timeout}.
+ *
+ * @author agent
+ */
+public class AttributeOptimizer {
+
+	/**
+	 * An optimal configuration and its attribute sum.
+	 */
+	public static class Optimum {
+
+		private final FeatureModelFormula formula;
+		private final LiteralSet solution;
+		private final Number value;
+
+		private Optimum(FeatureModelFormula formula, LiteralSet solution, Number value) {
+			this.formula = formula;
+			this.solution = solution;
+			this.value = value;
+		}
+
+		/**
+		 * @return the attribute sum, a {@link Long} if all values of the attribute are {@link LongFeatureAttribute long} values and a {@link Double}
+		 *         otherwise
+		 */
+		public Number getValue() {
+			return value;
+		}
+
+		/**
+		 * @return the optimal solution (using the variables of the {@link FeatureModelFormula#getCNF() CNF})
+		 */
+		public LiteralSet getSolution() {
+			return solution;
+		}
+
+		public List<IFeature> getSelectedFeatures() {
+			final Variables variables = formula.getCNF().getVariables();
+			final List<IFeature> selectedFeatures = new ArrayList<>();
+			for (final int literal : solution.getLiterals()) {
+				if ((literal > 0) && !variables.isAuxiliary(literal)) {
+					selectedFeatures.add(formula.getFeatureModel().getFeature(variables.getName(literal)));
+				}
+			}
+			return selectedFeatures;
+		}
+
+		/**
+		 * @return a new complete configuration that witnesses the optimum
+		 */
+		public Configuration createConfiguration() {
+			final Configuration configuration = new Configuration(formula);
+			final Variables variables = formula.getCNF().getVariables();
+			for (final int literal : solution.getLiterals()) {
+				if (!variables.isAuxiliary(literal)) {
+					configuration.setManual(variables.getName(literal), literal > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+				}
+			}
+			return configuration;
+		}
+
+	}
+
+	private final FeatureModelFormula formula;
+	private final String attributeName;
+
+	private long timeout = 0;
+	private boolean timeoutOccurred = false;
+
+	private long[] longWeights;
+	private double[] doubleWeights;
+
+	/**
+	 * @param formula the formula of an extended feature model
+	 * @param attributeName the name of a {@link LongFeatureAttribute long} or {@link DoubleFeatureAttribute double} attribute
+	 */
+	public AttributeOptimizer(FeatureModelFormula formula, String attributeName) {
+		this.formula = formula;
+		this.attributeName = attributeName;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets a timeout for the compilation of the d-DNNF. The timeout has no effect, if the d-DNNF was already compiled. If the compilation exceeds the
+	 * timeout once, this optimizer does not try to compile the d-DNNF again.
+	 *
+	 * @param timeout the timeout in milliseconds (a value less than or equal to 0 means no timeout)
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Computes the maximum attribute sum.
+	 *
+	 * @param configuration a partial configuration; may be {@code null}
+	 * @return the optimum or {@code null} if there is no valid configuration that complies with the given configuration
+	 *
+	 * @throws RuntimeTimeoutException if the compilation of the d-DNNF exceeds the {@link #setTimeout(long) timeout}
+	 */
+	public Optimum getMaximum(Configuration configuration) {
+		return optimize(configuration, 1);
+	}
+
+	/**
+	 * Computes the minimum attribute sum.
+	 *
+	 * @param configuration a partial configuration; may be {@code null}
+	 * @return the optimum or {@code null} if there is no valid configuration that complies with the given configuration
+	 *
+	 * @throws RuntimeTimeoutException if the compilation of the d-DNNF exceeds the {@link #setTimeout(long) timeout}
+	 */
+	public Optimum getMinimum(Configuration configuration) {
+		return optimize(configuration, -1);
+	}
+
+	private Optimum optimize(Configuration configuration, int sign) {
+		final DDNNF ddnnf = getDDNNF();
+		final Variables variables = ddnnf.getVariables();
+		computeWeights(variables);
+		final LiteralSet assumptions = getAssumptions(variables, configuration);
+
+		if (doubleWeights == null) {
+			final long[] signedWeights = new long[longWeights.length];
+			for (int i = 0; i < longWeights.length; i++) {
+				signedWeights[i] = sign * longWeights[i];
+			}
+			final LiteralSet solution = ddnnf.getMaximumSolution(signedWeights, assumptions);
+			if (solution == null) {
+				return null;
+			}
+			long value = 0;
+			for (final int literal : solution.getLiterals()) {
+				if (literal > 0) {
+					value = Math.addExact(value, longWeights[literal]);
+				}
+			}
+			return new Optimum(formula, solution, value);
+		} else {
+			final double[] signedWeights = new double[doubleWeights.length];
+			for (int i = 0; i < doubleWeights.length; i++) {
+				signedWeights[i] = sign * doubleWeights[i];
+			}
+			final LiteralSet solution = ddnnf.getMaximumSolution(signedWeights, assumptions);
+			if (solution == null) {
+				return null;
+			}
+			double value = 0;
+			for (final int literal : solution.getLiterals()) {
+				if (literal > 0) {
+					value += doubleWeights[literal];
+				}
+			}
+			return new Optimum(formula, solution, value);
+		}
+	}
+
+	private DDNNF getDDNNF() {
+		if (timeoutOccurred) {
+			throw new RuntimeTimeoutException();
+		}
+		if (timeout > 0) {
+			// Prefer a d-DNNF that was already compiled without a timeout
+			final DDNNF cachedDDNNF = formula.getCachedElement(new DDNNFCreator());
+			if (cachedDDNNF != null) {
+				return cachedDDNNF;
+			}
+		}
+		final DDNNF ddnnf = formula.getElement(new DDNNFCreator(new CNFCreator(), timeout));
+		if (ddnnf == null) {
+			timeoutOccurred = true;
+			throw new RuntimeTimeoutException();
+		}
+		return ddnnf;
+	}
+
+	/**
+	 * Computes the weights of all variables. Uses {@link #longWeights long weights}, if all values of the attribute are {@link LongFeatureAttribute long}
+	 * values, and {@link #doubleWeights double weights} otherwise.
+	 */
+	private void computeWeights(Variables variables) {
+		if ((longWeights != null) || (doubleWeights != null)) {
+			return;
+		}
+		final long[] newLongWeights = new long[variables.maxVariableID() + 1];
+		final double[] newDoubleWeights = new double[variables.maxVariableID() + 1];
+		boolean hasDoubleValues = false;
+		for (final IFeature feature : formula.getFeatureModel().getFeatures()) {
+			final int variable = variables.getVariable(feature.getName());
+			if ((variable != 0) && (feature instanceof IExtendedFeature)) {
+				for (final IFeatureAttribute attribute : ((IExtendedFeature) feature).getAttributes()) {
+					if (attribute.getName().equals(attributeName) && (attribute.getValue() != null)) {
+						if (attribute instanceof LongFeatureAttribute) {
+							newLongWeights[variable] = Math.addExact(newLongWeights[variable], (long) attribute.getValue());
+							newDoubleWeights[variable] += (long) attribute.getValue();
+						} else if (attribute instanceof DoubleFeatureAttribute) {
+							newDoubleWeights[variable] += (double) attribute.getValue();
+							hasDoubleValues = true;
+						}
+					}
+				}
+			}
+		}
+		if (hasDoubleValues) {
+			doubleWeights = newDoubleWeights;
+		} else {
+			longWeights = newLongWeights;
+		}
+	}
+
+	private static LiteralSet getAssumptions(Variables variables, Configuration configuration) {
+		if (configuration == null) {
+			return null;
+		}
+		final List<Integer> literals = new ArrayList<>();
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			final int variable = variables.getVariable(feature.getName());
+			if (variable != 0) {
+				switch (feature.getSelection()) {
+				case SELECTED:
+					literals.add(variable);
+					break;
+				case UNSELECTED:
+					literals.add(-variable);
+					break;
+				case UNDEFINED:
+				default:
+					break;
+				}
+			}
+		}
+		final int[] assumptions = new int[literals.size()];
+		for (int i = 0; i < assumptions.length; i++) {
+			assumptions[i] = literals.get(i);
+		}
+		return new LiteralSet(assumptions);
+	}
+
+}
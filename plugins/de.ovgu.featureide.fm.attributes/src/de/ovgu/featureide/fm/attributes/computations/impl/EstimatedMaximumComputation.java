@@ -1,7 +1,9 @@
 package de.ovgu.featureide.fm.attributes.computations.impl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.graphics.Image;
 
@@ -25,8 +27,8 @@ public class EstimatedMaximumComputation implements IOutlineEntry {
 
 	Configuration config;
 	IFeatureAttribute attribute;
-	List<IFeature> selectedFeatures;
-	List<IFeature> unselectedFeatures;
+	Set<IFeature> selectedFeatures;
+	Set<IFeature> unselectedFeatures;
 
 	public EstimatedMaximumComputation(Configuration config, IFeatureAttribute attribute) {
 		this.config = config;
@@ -96,7 +98,7 @@ public class EstimatedMaximumComputation implements IOutlineEntry {
 						if (tempValue >= 0 || isSelected(struc.getFeature())) {
 							value += tempValue;
 						} else {
-							negativeValues.add(getSubtreeValue(struc.getFeature()));
+							negativeValues.add(tempValue);
 						}
 					}
 				}
@@ -135,8 +137,8 @@ public class EstimatedMaximumComputation implements IOutlineEntry {
 	}
 
 	public Object getSelectionSum() {
-		selectedFeatures = config.getSelectedFeatures();
-		unselectedFeatures = config.getUnSelectedFeatures();
+		selectedFeatures = new HashSet<>(config.getSelectedFeatures());
+		unselectedFeatures = new HashSet<>(config.getUnSelectedFeatures());
 		return getSubtreeValue(config.getFeatureModel().getStructure().getRoot().getFeature());
 	}
 
@@ -1,7 +1,9 @@
 package de.ovgu.featureide.fm.attributes.computations.impl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.graphics.Image;
 
@@ -24,8 +26,8 @@ public class EstimatedMinimumComputation implements IOutlineEntry {
 	private static final String LABEL = "Minimal sum of attribute value (est.): ";
 	Configuration config;
 	IFeatureAttribute attribute;
-	List<IFeature> selectedFeatures;
-	List<IFeature> unselectedFeatures;
+	Set<IFeature> selectedFeatures;
+	Set<IFeature> unselectedFeatures;
 
 	public EstimatedMinimumComputation(Configuration config, IFeatureAttribute attribute) {
 		this.config = config;
@@ -38,8 +40,8 @@ public class EstimatedMinimumComputation implements IOutlineEntry {
 	 * @return Minimum
 	 */
 	public Object getSelectionSum() {
-		selectedFeatures = config.getSelectedFeatures();
-		unselectedFeatures = config.getUnSelectedFeatures();
+		selectedFeatures = new HashSet<>(config.getSelectedFeatures());
+		unselectedFeatures = new HashSet<>(config.getUnSelectedFeatures());
 		return getSubtreeValue(config.getFeatureModel().getStructure().getRoot().getFeature());
 	}
 
@@ -100,7 +102,7 @@ public class EstimatedMinimumComputation implements IOutlineEntry {
 				for (IFeatureStructure struc : root.getStructure().getChildren()) {
 					double tempValue = getSubtreeValue(struc.getFeature());
 					if (struc.isMandatory() || isSelected(struc.getFeature()) || (tempValue < 0 && !isUnselected(struc.getFeature()))) {
-						value += getSubtreeValue(struc.getFeature());
+						value += tempValue;
 					}
 				}
 
@@ -363,6 +363,14 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 		return super.supportsContent(reader, CONTENT_REGEX);
 	}
 
+	/**
+	 * Extended feature models are read from the DOM, as the attributes are not supported by the streaming reader of {@link XmlFeatureModelFormat}.
+	 */
+	@Override
+	public boolean supportsStreamRead() {
+		return false;
+	}
+
 	@Override
 	public String getName() {
 		return "FeatureIDE (Extended Feature Model)";
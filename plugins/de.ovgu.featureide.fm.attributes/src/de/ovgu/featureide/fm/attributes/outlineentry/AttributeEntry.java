@@ -27,6 +27,9 @@ import org.eclipse.swt.graphics.Image;
 
 import de.ovgu.featureide.fm.attributes.FMAttributesPlugin;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
 
@@ -44,6 +47,11 @@ public class AttributeEntry implements IOutlineEntry {
 
 	private final static String imgAttribute = "attribute_obj.ico";
 
+	/**
+	 * Time in milliseconds for computing the exact minimum and maximum before falling back to an estimation.
+	 */
+	static final long OPTIMIZATION_TIMEOUT = 1000;
+
 	public AttributeEntry(Configuration config, IFeatureAttribute attribute) {
 		this.config = config;
 		this.attribute = attribute;
@@ -71,17 +79,25 @@ public class AttributeEntry implements IOutlineEntry {
 	public List<IOutlineEntry> getChildren() {
 		List<IOutlineEntry> children = new ArrayList<>();
 		children.add(new CountAttributeComputation(config, attribute));
-		AttributeMinimumEntry min = new AttributeMinimumEntry(config, attribute);
-		AttributeMaximumEntry max = new AttributeMaximumEntry(config, attribute);
-		if (min.supportsType(null)) {
-			children.add(min);
-		}
-		if (max.supportsType(null)) {
-			children.add(max);
+		if ((attribute instanceof LongFeatureAttribute) || (attribute instanceof DoubleFeatureAttribute)) {
+			// Both entries share the optimizer, such that the d-DNNF is compiled at most once
+			final AttributeOptimizer optimizer = createOptimizer(config, attribute);
+			children.add(new AttributeMinimumEntry(config, attribute, optimizer));
+			children.add(new AttributeMaximumEntry(config, attribute, optimizer));
 		}
 		return children;
 	}
 
+	/**
+	 * Creates an optimizer that computes the exact minimum and maximum sum of the given attribute. The compilation of the feature model is limited by
+	 * {@link #OPTIMIZATION_TIMEOUT}.
+	 */
+	static AttributeOptimizer createOptimizer(Configuration config, IFeatureAttribute attribute) {
+		final AttributeOptimizer optimizer = new AttributeOptimizer(config.getFeatureModelFormula(), attribute.getName());
+		optimizer.setTimeout(OPTIMIZATION_TIMEOUT);
+		return optimizer;
+	}
+
 	@Override
 	public boolean supportsType(Object element) {
 		return true;
@@ -27,7 +27,10 @@ import org.eclipse.swt.graphics.Image;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer.Optimum;
 import de.ovgu.featureide.fm.attributes.computations.impl.EstimatedMaximumComputation;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
 
@@ -35,26 +38,46 @@ public class AttributeMaximumEntry implements IOutlineEntry {
 
 	IFeatureAttribute attribute;
 	Configuration config;
-	Double result;
+	Number result;
 	EstimatedMaximumComputation estimatedMax;
 	private static final String LABEL = "Maximal sum of value: ";
 	private static final String EST = " (est)";
+	private static final String NO_VALID_CONFIGURATION = "no valid configuration";
 	private String labelSuffix;
 
 	public AttributeMaximumEntry(Configuration config, IFeatureAttribute attribute) {
+		this(config, attribute, AttributeEntry.createOptimizer(config, attribute));
+	}
+
+	/**
+	 * Computes the exact maximum with the given optimizer. If the optimizer exceeds its timeout, the maximum is estimated instead.
+	 */
+	public AttributeMaximumEntry(Configuration config, IFeatureAttribute attribute, AttributeOptimizer optimizer) {
 		this.config = config;
 		this.attribute = attribute;
-		estimatedMax = new EstimatedMaximumComputation(config, attribute);
-		result = (Double) estimatedMax.getSelectionSum();
-		labelSuffix = EST;
+		try {
+			final Optimum maximum = optimizer.getMaximum(config);
+			result = maximum == null ? null : maximum.getValue();
+			labelSuffix = "";
+		} catch (final RuntimeTimeoutException e) {
+			estimatedMax = new EstimatedMaximumComputation(config, attribute);
+			result = (Double) estimatedMax.getSelectionSum();
+			labelSuffix = EST;
+		}
 	}
 
-	public Double getResult() {
+	/**
+	 * @return the maximum or {@code null} if there is no valid configuration
+	 */
+	public Number getResult() {
 		return result;
 	}
 
 	@Override
 	public String getLabel() {
+		if (result == null) {
+			return LABEL + NO_VALID_CONFIGURATION;
+		}
 		if (attribute instanceof LongFeatureAttribute) {
 			return LABEL + String.valueOf((result).longValue()) + labelSuffix;
 		}
@@ -27,7 +27,10 @@ import org.eclipse.swt.graphics.Image;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.DoubleFeatureAttribute;
 import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer.Optimum;
 import de.ovgu.featureide.fm.attributes.computations.impl.EstimatedMinimumComputation;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.ui.views.outline.IOutlineEntry;
 
@@ -36,27 +39,46 @@ public class AttributeMinimumEntry implements IOutlineEntry {
 	IFeatureAttribute attribute;
 	Configuration config;
 	EstimatedMinimumComputation estimatedMinimum;
-	Double result;
+	Number result;
 	private String labelSuffix;
 
 	private static final String EST = " (est)";
 	private static final String LABEL = "Minimal sum of value: ";
+	private static final String NO_VALID_CONFIGURATION = "no valid configuration";
 
 	public AttributeMinimumEntry(Configuration config, IFeatureAttribute attribute) {
+		this(config, attribute, AttributeEntry.createOptimizer(config, attribute));
+	}
+
+	/**
+	 * Computes the exact minimum with the given optimizer. If the optimizer exceeds its timeout, the minimum is estimated instead.
+	 */
+	public AttributeMinimumEntry(Configuration config, IFeatureAttribute attribute, AttributeOptimizer optimizer) {
 		this.config = config;
 		this.attribute = attribute;
-		estimatedMinimum = new EstimatedMinimumComputation(config, attribute);
-		result = (Double) estimatedMinimum.getSelectionSum();
-		labelSuffix = EST;
-
+		try {
+			final Optimum minimum = optimizer.getMinimum(config);
+			result = minimum == null ? null : minimum.getValue();
+			labelSuffix = "";
+		} catch (final RuntimeTimeoutException e) {
+			estimatedMinimum = new EstimatedMinimumComputation(config, attribute);
+			result = (Double) estimatedMinimum.getSelectionSum();
+			labelSuffix = EST;
+		}
 	}
 
-	public Double getResult() {
+	/**
+	 * @return the minimum or {@code null} if there is no valid configuration
+	 */
+	public Number getResult() {
 		return result;
 	}
 
 	@Override
 	public String getLabel() {
+		if (result == null) {
+			return LABEL + NO_VALID_CONFIGURATION;
+		}
 		if (attribute instanceof LongFeatureAttribute) {
 			return LABEL + String.valueOf(result.longValue()) + labelSuffix;
 		}
@@ -163,6 +163,7 @@ public class AnalysesCollection {
 		private Object syncObject = new Object();
 		private IMonitor<R> monitor = new NullMonitor<>();
 		private boolean enabled = true;
+		private int numberOfThreads = 1;
 
 		private AnalysisResult<R> analysisResult;
 
@@ -237,10 +238,31 @@ public class AnalysesCollection {
 			return thread.getResults();
 		}
 
+		/**
+		 * @return the current result of this analysis, if it was already computed or set via {@link #setCachedResult(Object)}.
+		 */
+		Optional<R> getCachedResult() {
+			synchronized (this) {
+				return analysisResult == null ? Optional.empty() : Optional.ofNullable(analysisResult.getResult());
+			}
+		}
+
+		/**
+		 * Sets the result of this analysis, which is then returned by {@link #getResult()} until the next {@link #reset()}.
+		 *
+		 * @param result the result
+		 */
+		void setCachedResult(R result) {
+			synchronized (this) {
+				analysisResult = new AnalysisResult<>(analysis.getName(), new LiteralSet(), result);
+			}
+		}
+
 		private A createNewAnalysis() {
 			try {
 				final CNF cnf = getCNF();
 				final A newInstance = analysis.getConstructor(CNF.class).newInstance(cnf);
+				newInstance.setNumberOfThreads(numberOfThreads);
 				configureAnalysis(cnf, newInstance);
 				return newInstance;
 			} catch (
@@ -269,6 +291,14 @@ public class AnalysesCollection {
 			this.enabled = enabled;
 		}
 
+		public int getNumberOfThreads() {
+			return numberOfThreads;
+		}
+
+		public void setNumberOfThreads(int numberOfThreads) {
+			this.numberOfThreads = numberOfThreads;
+		}
+
 		public void reset() {
 			synchronized (this) {
 				analysisResult = null;
@@ -413,6 +443,10 @@ public class AnalysesCollection {
 			analysis.setClauseList(literalSetList);
 		}
 
+		List<IFeature> getOptionalFeatures() {
+			return optionalFeatures;
+		}
+
 		public void setOptionalFeatures(List<IFeature> optionalFeatures) {
 			if (!optionalFeatures.equals(this.optionalFeatures)) {
 				this.optionalFeatures = optionalFeatures;
@@ -490,7 +524,25 @@ public class AnalysesCollection {
 		final Iterator<AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>>> thisAnalysesIterator = list.iterator();
 		final Iterator<AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>>> otherAnalysesIterator = otherCollection.list.iterator();
 		while (thisAnalysesIterator.hasNext()) {
-			thisAnalysesIterator.next().setEnabled(otherAnalysesIterator.next().isEnabled());
+			final AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>> thisAnalysis = thisAnalysesIterator.next();
+			final AnalysisWrapper<?, ? extends AbstractAnalysis<? extends Object>> otherAnalysis = otherAnalysesIterator.next();
+			thisAnalysis.setEnabled(otherAnalysis.isEnabled());
+			thisAnalysis.setNumberOfThreads(otherAnalysis.getNumberOfThreads());
+		}
+	}
+
+	public int getNumberOfThreads() {
+		return coreDeadAnalysis.getNumberOfThreads();
+	}
+
+	/**
+	 * Defines the number of threads that are used by analyses that support a parallel execution (e.g., core, dead, and false-optional features and atomic
+	 * sets). Each thread uses its own solver, so a parallel execution only pays off for large feature models. The default is 1, i.e., a sequential
+	 * execution.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		for (final AnalysisWrapper<?, ?> analysisWrapper : list) {
+			analysisWrapper.setNumberOfThreads(numberOfThreads);
 		}
 	}
 
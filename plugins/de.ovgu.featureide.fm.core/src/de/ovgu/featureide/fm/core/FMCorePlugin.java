@@ -36,6 +36,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.QualifiedName;
 import org.osgi.framework.BundleContext;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FormulaCache;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.init.FMCoreEclipseLibrary;
@@ -68,6 +69,9 @@ public class FMCorePlugin extends AbstractCorePlugin {
 		super.start(context);
 		plugin = this;
 		LibraryManager.registerLibrary(FMCoreEclipseLibrary.getInstance());
+		if (!FormulaCache.isEnabled()) {
+			FormulaCache.setCacheDirectory(Paths.get(getStateLocation().append("formulas").toOSString()));
+		}
 	}
 
 	@Override
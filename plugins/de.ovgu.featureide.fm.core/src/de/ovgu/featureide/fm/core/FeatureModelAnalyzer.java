@@ -30,6 +30,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import de.ovgu.featureide.fm.core.AnalysesCollection.StringToFeature;
@@ -59,6 +64,7 @@ import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreatorFactory;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation;
@@ -577,6 +583,24 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection;
 	}
 
+	/**
+	 * Analyzes the feature model like {@link #analyzeFeatureModel(IMonitor)}, but reuses the results of the analysis of a previous version of the same feature
+	 * model. Only the status of features that can be affected by the changes between both versions is computed again (see {@link IncrementalAnalysis}).
+	 *
+	 * @param previousAnalyzer the analyzer of the previous version of the feature model (can be null)
+	 * @param monitor monitor
+	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute
+	 */
+	public AnalysesCollection analyzeFeatureModel(FeatureModelAnalyzer previousAnalyzer, IMonitor<Boolean> monitor) {
+		if (monitor == null) {
+			monitor = new NullMonitor<>();
+		}
+		if ((previousAnalyzer != null) && (previousAnalyzer != this) && analysesCollection.isCalculateFeatures()) {
+			new IncrementalAnalysis(formula, analysesCollection, previousAnalyzer.formula, previousAnalyzer.analysesCollection).inheritResults(monitor);
+		}
+		return analyzeFeatureModel(monitor);
+	}
+
 	public void updateConstraints() {
 		updateConstraints(null);
 	}
@@ -1093,6 +1117,147 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysesCollection.redundantConstraintExplanations.put(constraint, creator.getExplanation());
 	}
 
+	/**
+	 * <p> Computes the explanations for all given anomalies that have not been explained yet. The anomalies are independent of each other and are therefore
+	 * explained in parallel, if more than one thread is set for the analyses (see {@link AnalysesCollection#setNumberOfThreads(int)}). Each thread uses its
+	 * own explanation creators and thus its own solvers. </p>
+	 *
+	 * <p> The explanations are cached and returned by {@link #getDeadFeatureExplanation(IFeatureModel, IFeature)},
+	 * {@link #getFalseOptionalFeatureExplanation(IFeatureModel, IFeature)}, and {@link #getRedundantConstraintExplanation(IFeatureModel, IConstraint)} until
+	 * the feature model formula changes. </p>
+	 *
+	 * @param fm feature model containing the anomalies; not null
+	 * @param deadFeatures potentially dead features; not null
+	 * @param falseOptionalFeatures potentially false-optional features; not null
+	 * @param redundantConstraints potentially redundant constraints; not null
+	 */
+	public void calculateExplanations(IFeatureModel fm, Collection<IFeature> deadFeatures, Collection<IFeature> falseOptionalFeatures,
+			Collection<IConstraint> redundantConstraints) {
+		final int numberOfThreads = Math.max(1, analysesCollection.getNumberOfThreads());
+		final List<ExplanationBatch> batches = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			batches.add(new ExplanationBatch(analysesCollection.explanationCreatorFactory, fm));
+		}
+		int taskCount = 0;
+		for (final IFeature feature : deadFeatures) {
+			if (!analysesCollection.deadFeatureExplanations.containsKey(feature)) {
+				batches.get(taskCount++ % numberOfThreads).deadFeatures.add(feature);
+			}
+		}
+		for (final IFeature feature : falseOptionalFeatures) {
+			if (!analysesCollection.falseOptionalFeatureExplanations.containsKey(feature)) {
+				batches.get(taskCount++ % numberOfThreads).falseOptionalFeatures.add(feature);
+			}
+		}
+		for (final IConstraint constraint : redundantConstraints) {
+			if (!analysesCollection.redundantConstraintExplanations.containsKey(constraint)) {
+				batches.get(taskCount++ % numberOfThreads).redundantConstraints.add(constraint);
+			}
+		}
+
+		if (taskCount == 0) {
+			return;
+		} else if ((taskCount == 1) || (numberOfThreads == 1)) {
+			for (final IFeature feature : deadFeatures) {
+				getDeadFeatureExplanation(fm, feature);
+			}
+			for (final IFeature feature : falseOptionalFeatures) {
+				getFalseOptionalFeatureExplanation(fm, feature);
+			}
+			for (final IConstraint constraint : redundantConstraints) {
+				getRedundantConstraintExplanation(fm, constraint);
+			}
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(taskCount, numberOfThreads));
+		try {
+			final List<Future<ExplanationBatch>> futures = new ArrayList<>(batches.size());
+			for (final ExplanationBatch batch : batches) {
+				if (!batch.isEmpty()) {
+					futures.add(executor.submit(batch));
+				}
+			}
+			for (final Future<ExplanationBatch> future : futures) {
+				final ExplanationBatch batch = future.get();
+				analysesCollection.deadFeatureExplanations.putAll(batch.deadFeatureExplanations);
+				analysesCollection.falseOptionalFeatureExplanations.putAll(batch.falseOptionalFeatureExplanations);
+				analysesCollection.redundantConstraintExplanations.putAll(batch.redundantConstraintExplanations);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			Logger.logError(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A set of anomalies that is explained by a single thread using its own explanation creators. Anomalies without an explanation (e.g., due to a timeout)
+	 * are not stored, such that they can be explained again on request.
+	 */
+	private static class ExplanationBatch implements Callable<ExplanationBatch> {
+
+		private final FeatureModelExplanationCreatorFactory factory;
+		private final IFeatureModel fm;
+
+		private final List<IFeature> deadFeatures = new ArrayList<>();
+		private final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+		private final List<IConstraint> redundantConstraints = new ArrayList<>();
+
+		private final Map<IFeature, DeadFeatureExplanation> deadFeatureExplanations = new HashMap<>();
+		private final Map<IFeature, FalseOptionalFeatureExplanation> falseOptionalFeatureExplanations = new HashMap<>();
+		private final Map<IConstraint, RedundantConstraintExplanation> redundantConstraintExplanations = new HashMap<>();
+
+		private ExplanationBatch(FeatureModelExplanationCreatorFactory factory, IFeatureModel fm) {
+			this.factory = factory;
+			this.fm = fm;
+		}
+
+		private boolean isEmpty() {
+			return deadFeatures.isEmpty() && falseOptionalFeatures.isEmpty() && redundantConstraints.isEmpty();
+		}
+
+		@Override
+		public ExplanationBatch call() {
+			if (!deadFeatures.isEmpty()) {
+				final DeadFeatureExplanationCreator creator = factory.getDeadFeatureExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (final IFeature feature : deadFeatures) {
+					creator.setSubject(feature);
+					final DeadFeatureExplanation explanation = creator.getExplanation();
+					if (explanation != null) {
+						deadFeatureExplanations.put(feature, explanation);
+					}
+				}
+			}
+			if (!falseOptionalFeatures.isEmpty()) {
+				final FalseOptionalFeatureExplanationCreator creator = factory.getFalseOptionalFeatureExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (final IFeature feature : falseOptionalFeatures) {
+					creator.setSubject(feature);
+					final FalseOptionalFeatureExplanation explanation = creator.getExplanation();
+					if (explanation != null) {
+						falseOptionalFeatureExplanations.put(feature, explanation);
+					}
+				}
+			}
+			if (!redundantConstraints.isEmpty()) {
+				final RedundantConstraintExplanationCreator creator = factory.getRedundantConstraintExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (final IConstraint constraint : redundantConstraints) {
+					creator.setSubject(constraint);
+					final RedundantConstraintExplanation explanation = creator.getExplanation();
+					if (explanation != null) {
+						redundantConstraintExplanations.put(constraint, explanation);
+					}
+				}
+			}
+			return this;
+		}
+	}
+
 	public void setMultipleAnomalyExplanationTypes(FeatureStatus[] featureStatuses, ConstraintStatus[] constraintStatuses) {
 		analysesCollection.setMultipleAnomaliesExplanation(null);
 		analysesCollection.multipleAnomaliesExplanationCreator.setAnomalyTypes(featureStatuses, constraintStatuses);
@@ -0,0 +1,323 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IndependentRedundancyAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.filter.OptionalFeatureFilter;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Reuses the results of an analysis of a feature model for the analysis of an edited version of the same feature model.<br> The edit is classified by
+ * comparing the clauses of both {@link CNF CNFs}:
+ * <ul>
+ * <li>If the new CNF contains all clauses of the old CNF (e.g., a constraint was added, a feature became mandatory, or an or-group became an alternative),
+ * the edit is {@link EditType#RESTRICTING restricting}. All core, dead, and false-optional features remain and only the remaining features are checked.</li>
+ * <li>If the old CNF contains all clauses of the new CNF (e.g., a constraint was removed), the edit is {@link EditType#RELAXING relaxing}. Only the previous
+ * core, dead, and false-optional features are checked.</li>
+ * <li>For all other edits (e.g., adding, removing, or moving features), no results are reused.</li>
+ * </ul>
+ * The inherited results are stored in the {@link AnalysesCollection} of the new feature model, such that a subsequent call of
+ * {@link FeatureModelAnalyzer#analyzeFeatureModel(IMonitor)} does not compute them again.
+ *
+ * @author agent
+ */
+final class IncrementalAnalysis {
+
+	enum EditType {
+		/**
+		 * Both CNFs contain the same clauses.
+		 */
+		NONE,
+		/**
+		 * The new CNF contains all clauses of the old CNF.
+		 */
+		RESTRICTING,
+		/**
+		 * The old CNF contains all clauses of the new CNF.
+		 */
+		RELAXING,
+		/**
+		 * The CNFs are not comparable (e.g., different variables).
+		 */
+		OTHER
+	}
+
+	private final FeatureModelFormula formula;
+	private final AnalysesCollection analysesCollection;
+
+	private final FeatureModelFormula previousFormula;
+	private final AnalysesCollection previousAnalysesCollection;
+
+	IncrementalAnalysis(FeatureModelFormula formula, AnalysesCollection analysesCollection, FeatureModelFormula previousFormula,
+			AnalysesCollection previousAnalysesCollection) {
+		this.formula = formula;
+		this.analysesCollection = analysesCollection;
+		this.previousFormula = previousFormula;
+		this.previousAnalysesCollection = previousAnalysesCollection;
+	}
+
+	/**
+	 * Classifies the edit that transforms one CNF into another one.
+	 *
+	 * @param previousCNF the CNF before the edit
+	 * @param cnf the CNF after the edit
+	 * @return the {@link EditType type} of the edit
+	 */
+	static EditType getEditType(CNF previousCNF, CNF cnf) {
+		final int[] variableMapping = getVariableMapping(previousCNF.getVariables(), cnf.getVariables());
+		if (variableMapping == null) {
+			return EditType.OTHER;
+		}
+
+		final Set<LiteralSet> clauses = new HashSet<>();
+		for (final LiteralSet clause : cnf.getClauses()) {
+			clauses.add(new LiteralSet(Arrays.copyOf(clause.getLiterals(), clause.size())));
+		}
+		final Set<LiteralSet> previousClauses = new HashSet<>();
+		for (final LiteralSet clause : previousCNF.getClauses()) {
+			previousClauses.add(convert(clause, variableMapping));
+		}
+
+		final boolean restricting = clauses.containsAll(previousClauses);
+		final boolean relaxing = previousClauses.containsAll(clauses);
+		if (restricting) {
+			return relaxing ? EditType.NONE : EditType.RESTRICTING;
+		} else {
+			return relaxing ? EditType.RELAXING : EditType.OTHER;
+		}
+	}
+
+	/**
+	 * Computes the validity, core and dead features, and false-optional features of the new feature model by reusing the results from the previous
+	 * analysis. Results that cannot be derived are left untouched and computed as usual.
+	 *
+	 * @param monitor the monitor (is checked for cancellation)
+	 * @return the {@link EditType type} of the edit
+	 */
+	EditType inheritResults(IMonitor<?> monitor) {
+		final Optional<Boolean> previousValid = previousAnalysesCollection.validAnalysis.getCachedResult();
+		if (!previousValid.isPresent()) {
+			return EditType.OTHER;
+		}
+		final CNF cnf = formula.getCNF();
+		final CNF previousCNF = previousFormula.getCNF();
+		final EditType editType = getEditType(previousCNF, cnf);
+
+		final boolean valid;
+		switch (editType) {
+		case NONE:
+			valid = previousValid.get();
+			analysesCollection.validAnalysis.setCachedResult(valid);
+			break;
+		case RESTRICTING:
+			if (previousValid.get()) {
+				valid = analysesCollection.validAnalysis.getResult(monitor.subTask(0)).orElse(Boolean.FALSE);
+			} else {
+				valid = false;
+				analysesCollection.validAnalysis.setCachedResult(valid);
+			}
+			break;
+		case RELAXING:
+			if (previousValid.get()) {
+				valid = true;
+				analysesCollection.validAnalysis.setCachedResult(valid);
+				break;
+			}
+			return editType;
+		case OTHER:
+			return editType;
+		default:
+			throw new AssertionError(editType);
+		}
+
+		// Core, dead, and false-optional features are not computed for void feature models
+		if (valid) {
+			monitor.checkCancel();
+			final LiteralSet coreDead = inheritCoreDead(editType, cnf, previousCNF, monitor);
+			monitor.checkCancel();
+			inheritFalseOptional(editType, cnf, coreDead, monitor);
+		}
+		return editType;
+	}
+
+	private LiteralSet inheritCoreDead(EditType editType, CNF cnf, CNF previousCNF, IMonitor<?> monitor) {
+		final Optional<LiteralSet> previousCoreDead = previousAnalysesCollection.coreDeadAnalysis.getCachedResult();
+		if (!previousCoreDead.isPresent()) {
+			return null;
+		}
+		final LiteralSet previousFixedLiterals = convert(previousCoreDead.get(), getVariableMapping(previousCNF.getVariables(), cnf.getVariables()));
+
+		final LiteralSet coreDead;
+		switch (editType) {
+		case NONE:
+			coreDead = previousFixedLiterals;
+			break;
+		case RESTRICTING: {
+			// Previous core and dead features remain core and dead
+			final boolean[] fixed = new boolean[cnf.getVariables().size() + 1];
+			for (final int literal : previousFixedLiterals.getLiterals()) {
+				fixed[Math.abs(literal)] = true;
+			}
+			final int[] candidates = new int[fixed.length - 1 - previousFixedLiterals.size()];
+			int candidateCount = 0;
+			for (int variable = 1; variable < fixed.length; variable++) {
+				if (!fixed[variable]) {
+					candidates[candidateCount++] = variable;
+				}
+			}
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf, new LiteralSet(candidates));
+			analysis.setAssumptions(previousFixedLiterals);
+			analysis.setNumberOfThreads(analysesCollection.getNumberOfThreads());
+			final LiteralSet newFixedLiterals = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			if (newFixedLiterals == null) {
+				return null;
+			}
+			final int[] literals = Arrays.copyOf(previousFixedLiterals.getLiterals(), previousFixedLiterals.size() + newFixedLiterals.size());
+			System.arraycopy(newFixedLiterals.getLiterals(), 0, literals, previousFixedLiterals.size(), newFixedLiterals.size());
+			coreDead = new LiteralSet(literals);
+			break;
+		}
+		case RELAXING: {
+			// Only previous core and dead features can remain core and dead
+			final int[] candidates = new int[previousFixedLiterals.size()];
+			for (int i = 0; i < candidates.length; i++) {
+				candidates[i] = Math.abs(previousFixedLiterals.getLiterals()[i]);
+			}
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf, new LiteralSet(candidates));
+			analysis.setNumberOfThreads(analysesCollection.getNumberOfThreads());
+			coreDead = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			if (coreDead == null) {
+				return null;
+			}
+			break;
+		}
+		default:
+			throw new AssertionError(editType);
+		}
+
+		analysesCollection.coreDeadAnalysis.setCachedResult(coreDead);
+		return coreDead;
+	}
+
+	private void inheritFalseOptional(EditType editType, CNF cnf, LiteralSet coreDead, IMonitor<?> monitor) {
+		final Optional<List<LiteralSet>> previousResult = previousAnalysesCollection.foAnalysis.getCachedResult();
+		final List<IFeature> previousOptionalFeatures = previousAnalysesCollection.foAnalysis.getOptionalFeatures();
+		if (!previousResult.isPresent() || (previousOptionalFeatures == null)) {
+			return;
+		}
+
+		// Maps the name of each previous optional feature to its parent and whether it was false-optional
+		final Map<String, String> previousParents = new HashMap<>();
+		final Map<String, Boolean> previousFalseOptional = new HashMap<>();
+		for (int i = 0; i < previousOptionalFeatures.size(); i++) {
+			final IFeature feature = previousOptionalFeatures.get(i);
+			previousParents.put(feature.getName(), FeatureUtils.getParent(feature).getName());
+			previousFalseOptional.put(feature.getName(), previousResult.get().get(i) != null);
+		}
+
+		final Variables variables = cnf.getVariables();
+		final List<IFeature> optionalFeatures = Functional.filterToList(formula.getFeatureModel().getFeatures(), new OptionalFeatureFilter());
+		final List<LiteralSet> result = new ArrayList<>(optionalFeatures.size());
+		final List<LiteralSet> candidateClauses = new ArrayList<>();
+		final List<Integer> candidateIndices = new ArrayList<>();
+		for (final IFeature feature : optionalFeatures) {
+			final String parentName = FeatureUtils.getParent(feature).getName();
+			final LiteralSet clause = new LiteralSet(variables.getVariable(parentName, false), variables.getVariable(feature.getName(), true));
+			final Boolean falseOptional = parentName.equals(previousParents.get(feature.getName())) ? previousFalseOptional.get(feature.getName()) : null;
+			if ((falseOptional != null) //
+				&& ((editType == EditType.NONE) //
+					|| ((editType == EditType.RESTRICTING) && falseOptional) //
+					|| ((editType == EditType.RELAXING) && !falseOptional))) {
+				result.add(falseOptional ? clause : null);
+			} else {
+				candidateIndices.add(result.size());
+				candidateClauses.add(clause);
+				result.add(null);
+			}
+		}
+
+		if (!candidateClauses.isEmpty()) {
+			final IndependentRedundancyAnalysis analysis = new IndependentRedundancyAnalysis(cnf, candidateClauses);
+			if (coreDead != null) {
+				analysis.setAssumptions(coreDead);
+			}
+			analysis.setNumberOfThreads(analysesCollection.getNumberOfThreads());
+			final List<LiteralSet> candidateResult = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			if (candidateResult == null) {
+				return;
+			}
+			for (int i = 0; i < candidateIndices.size(); i++) {
+				result.set(candidateIndices.get(i), candidateResult.get(i));
+			}
+		}
+
+		analysesCollection.foAnalysis.setOptionalFeatures(optionalFeatures);
+		analysesCollection.foAnalysis.setCachedResult(result);
+	}
+
+	/**
+	 * @return an array that maps each variable of {@code previousVariables} to the variable with the same name in {@code variables} or {@code null} if the
+	 *         variables differ.
+	 */
+	private static int[] getVariableMapping(Variables previousVariables, Variables variables) {
+		if (previousVariables.size() != variables.size()) {
+			return null;
+		}
+		final int[] variableMapping = new int[previousVariables.size() + 1];
+		for (int i = 1; i < variableMapping.length; i++) {
+			final int variable = variables.getVariable(previousVariables.getName(i));
+			if (variable == 0) {
+				return null;
+			}
+			variableMapping[i] = variable;
+		}
+		return variableMapping;
+	}
+
+	private static LiteralSet convert(LiteralSet literalSet, int[] variableMapping) {
+		final int[] literals = literalSet.getLiterals();
+		final int[] convertedLiterals = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			final int literal = literals[i];
+			convertedLiterals[i] = literal > 0 ? variableMapping[literal] : -variableMapping[-literal];
+		}
+		return new LiteralSet(convertedLiterals);
+	}
+
+}
@@ -21,6 +21,8 @@
 package de.ovgu.featureide.fm.core.analysis.cnf;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
@@ -47,15 +49,39 @@ public class FeatureModelCNF extends CNF {
 	}
 
 	public static FeatureModelCNF empty(IFeatureModel featureModel, boolean useOldNames) {
-		return new FeatureModelCNF(featureModel, useOldNames);
+		return new FeatureModelCNF(featureModel, useOldNames, Collections.<String> emptyList());
 	}
 
-	private FeatureModelCNF(IFeatureModel featureModel, boolean useOldNames) {
-		super(new Variables(useOldNames ? FeatureUtils.getOldFeatureNamesList(featureModel) : FeatureUtils.getFeatureNamesList(featureModel)));
+	/**
+	 * Creates an empty CNF for the given feature model that additionally contains the given auxiliary variables (see {@link Variables#AUXILIARY_PREFIX}). The
+	 * auxiliary variables are appended after all feature variables.
+	 *
+	 * @param featureModel the feature model
+	 * @param useOldNames whether to use the old names of renamed features
+	 * @param auxiliaryVariables the names of the auxiliary variables
+	 * @return an empty CNF
+	 */
+	public static FeatureModelCNF empty(IFeatureModel featureModel, boolean useOldNames, Collection<String> auxiliaryVariables) {
+		return new FeatureModelCNF(featureModel, useOldNames, auxiliaryVariables);
+	}
+
+	private FeatureModelCNF(IFeatureModel featureModel, boolean useOldNames, Collection<String> auxiliaryVariables) {
+		super(new Variables(getVariableNames(featureModel, useOldNames, auxiliaryVariables)));
 		this.featureModel = featureModel;
 		this.useOldNames = useOldNames;
 	}
 
+	private static List<String> getVariableNames(IFeatureModel featureModel, boolean useOldNames, Collection<String> auxiliaryVariables) {
+		final List<String> names = useOldNames ? FeatureUtils.getOldFeatureNamesList(featureModel) : FeatureUtils.getFeatureNamesList(featureModel);
+		if (auxiliaryVariables.isEmpty()) {
+			return names;
+		}
+		final List<String> allNames = new ArrayList<>(names.size() + auxiliaryVariables.size());
+		allNames.addAll(names);
+		allNames.addAll(auxiliaryVariables);
+		return allNames;
+	}
+
 	public FeatureModelCNF(FeatureModelCNF oldSatInstance, boolean copyClauses) {
 		super(oldSatInstance, copyClauses);
 		featureModel = oldSatInstance.featureModel;
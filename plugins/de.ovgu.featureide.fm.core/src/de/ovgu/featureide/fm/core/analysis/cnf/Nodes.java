@@ -213,6 +213,22 @@ public final class Nodes {
 		return result;
 	}
 
+	/**
+	 * Returns the names of all {@link Variables#AUXILIARY_PREFIX auxiliary variables} contained in the given node in order of their first occurrence.
+	 *
+	 * @param node the node
+	 * @return the names of all auxiliary variables
+	 */
+	public static List<String> getAuxiliaryVariables(Node node) {
+		final List<String> result = new ArrayList<>();
+		for (final Object variable : getDistinctVariableObjects(node)) {
+			if ((variable instanceof String) && Variables.isAuxiliary((String) variable)) {
+				result.add((String) variable);
+			}
+		}
+		return result;
+	}
+
 	private static void getDistinctVariableObjects(Node node, Set<Object> result) {
 		if (node instanceof Literal) {
 			result.add(((Literal) node).var);
@@ -41,6 +41,16 @@ public class Variables implements Serializable, IInternalVariables {
 
 	private static final long serialVersionUID = -1767212780361483105L;
 
+	/**
+	 * Name prefix of auxiliary variables that are introduced by a CNF encoding and do not correspond to any feature. Auxiliary variables are always defined by
+	 * the feature variables and are omitted when converting literals back to names.
+	 */
+	public static final String AUXILIARY_PREFIX = "__aux_";
+
+	public static boolean isAuxiliary(String name) {
+		return name.startsWith(AUXILIARY_PREFIX);
+	}
+
 	protected final String[] intToVar;
 	protected final Map<String, Integer> varToInt;
 
@@ -92,6 +102,9 @@ public class Variables implements Serializable, IInternalVariables {
 	public List<String> convertToString(int[] literals, boolean includePositive, boolean includeNegative, boolean markNegative) {
 		final List<String> resultList = new ArrayList<>();
 		for (final int var : literals) {
+			if (isAuxiliary(var)) {
+				continue;
+			}
 			if (var > 0) {
 				if (includePositive) {
 					resultList.add(intToVar[Math.abs(var)]);
@@ -166,6 +179,11 @@ public class Variables implements Serializable, IInternalVariables {
 		return sign ? getVariable(varName) : -getVariable(varName);
 	}
 
+	public boolean isAuxiliary(final int x) {
+		final String name = intToVar[Math.abs(x)];
+		return (name != null) && isAuxiliary(name);
+	}
+
 	public String getName(final int x) {
 		return intToVar[Math.abs(x)];
 	}
@@ -250,6 +268,23 @@ public class Variables implements Serializable, IInternalVariables {
 		return new LiteralSet(literals, Order.NATURAL, false);
 	}
 
+	/**
+	 * Returns the literals of all variables like {@link #getLiterals()}, but omits {@link #isAuxiliary(int) auxiliary variables}.
+	 *
+	 * @return the literals of all variables that correspond to a feature
+	 */
+	public LiteralSet getNonAuxiliaryLiterals() {
+		final int[] literals = getLiterals().getLiterals();
+		final int[] nonAuxiliaryLiterals = new int[literals.length];
+		int size = 0;
+		for (final int literal : literals) {
+			if (!isAuxiliary(literal)) {
+				nonAuxiliaryLiterals[size++] = literal;
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(nonAuxiliaryLiterals, size), Order.NATURAL, false);
+	}
+
 	public void renameVariable(String oldName, String newName) {
 		final Integer index = varToInt.remove(oldName);
 		if (index != null) {
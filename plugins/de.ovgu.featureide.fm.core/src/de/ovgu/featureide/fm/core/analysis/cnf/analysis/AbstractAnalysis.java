@@ -20,7 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
@@ -39,15 +48,33 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 
+	/**
+	 * A task that is executed by {@link AbstractAnalysis#runParallel(int, IParallelTask, IMonitor)}. Each worker thread owns a separate solver and random
+	 * generator, which are passed to every invocation of {@link #run(ISatSolver, Random, int)} on that thread.
+	 */
+	protected interface IParallelTask {
+
+		/**
+		 * Called once for each worker solver before it processes its first task.
+		 *
+		 * @param workerSolver the solver of the worker thread
+		 */
+		default void init(ISatSolver workerSolver) {}
+
+		void run(ISatSolver workerSolver, Random workerRandom, int taskIndex) throws Exception;
+
+	}
+
 	protected ISatSolver solver;
 
 	protected LiteralSet assumptions = null;
 
 	private Random random = new Random(112358);
 
-	private boolean timeoutOccured = false;
+	private volatile boolean timeoutOccured = false;
 	private boolean throwTimeoutException = true;
 	private int timeout = 1000;
+	private int numberOfThreads = 1;
 
 	private T result = null;
 
@@ -92,6 +119,102 @@ public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 
 	protected abstract T analyze(IMonitor<T> monitor) throws Exception;
 
+	/**
+	 * @param numberOfTasks the number of independent tasks of an analysis
+	 * @return {@code true} if the tasks should be distributed among multiple solvers using {@link #runParallel(int, IParallelTask, IMonitor)}
+	 */
+	protected final boolean isParallel(int numberOfTasks) {
+		return (numberOfThreads > 1) && (numberOfTasks > 1);
+	}
+
+	/**
+	 * Executes the given task for every index from 0 to {@code numberOfTasks - 1}. The tasks are distributed dynamically among worker threads of a
+	 * {@link ForkJoinPool}, each using its own copy of the solver including the current assignment (see {@link #createWorkerSolver()}).<br> Tasks are
+	 * started in ascending order of their index, but may finish in any order. If a task throws an exception, all workers stop and the exception is
+	 * rethrown.
+	 *
+	 * @param numberOfTasks the number of tasks
+	 * @param task the task to execute
+	 * @param monitor the monitor of the analysis, which is checked for cancellation before each task (synchronized on the monitor, as monitors are not
+	 *        thread-safe)
+	 *
+	 * @throws Exception the first exception thrown by any task
+	 */
+	protected final void runParallel(int numberOfTasks, IParallelTask task, IMonitor<?> monitor) throws Exception {
+		final int numberOfWorkers = Math.min(numberOfThreads, numberOfTasks);
+		final AtomicInteger nextTask = new AtomicInteger();
+		final AtomicBoolean aborted = new AtomicBoolean();
+		final List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final Random workerRandom = new Random(random.nextLong());
+			workers.add(() -> {
+				try {
+					final ISatSolver workerSolver = createWorkerSolver();
+					task.init(workerSolver);
+					for (int taskIndex = nextTask.getAndIncrement(); !aborted.get() && (taskIndex < numberOfTasks); taskIndex =
+						nextTask.getAndIncrement()) {
+						synchronized (monitor) {
+							monitor.checkCancel();
+						}
+						task.run(workerSolver, workerRandom, taskIndex);
+					}
+					return null;
+				} catch (final Exception | Error e) {
+					aborted.set(true);
+					throw e;
+				}
+			});
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(numberOfWorkers);
+		try {
+			for (final Future<Void> future : pool.invokeAll(workers)) {
+				try {
+					future.get();
+				} catch (final ExecutionException e) {
+					final Throwable cause = e.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw e;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates a new solver for a worker thread of {@link #runParallel(int, IParallelTask, IMonitor)}. The new solver uses the same {@link CNF}, timeout,
+	 * and assignment as the solver of this analysis. Clauses that were added directly to the solver of this analysis are not considered.
+	 *
+	 * @return a new solver instance
+	 */
+	protected ISatSolver createWorkerSolver() {
+		final ISatSolver workerSolver = new AdvancedSatSolver(solver.getSatInstance());
+		workerSolver.setTimeout(timeout);
+		workerSolver.assignmentPushAll(solver.getAssignmentArray());
+		return workerSolver;
+	}
+
+	/**
+	 * Removes all candidates that have a different value in the given solution (analogous to {@link LiteralSet#resetConflicts(int[], int[])}). Can be
+	 * called by multiple workers of {@link #runParallel(int, IParallelTask, IMonitor)} at the same time, as candidates are only ever reset to 0.
+	 *
+	 * @param candidates the candidates shared by all workers, indexed by variable - 1
+	 * @param solution a solution found by one worker
+	 */
+	protected static void resetConflicts(AtomicIntegerArray candidates, int[] solution) {
+		for (int i = 0; i < solution.length; i++) {
+			final int candidate = candidates.get(i);
+			if ((candidate != 0) && (candidate != solution[i])) {
+				candidates.set(i, 0);
+			}
+		}
+	}
+
 	protected final void reportTimeout() throws RuntimeTimeoutException {
 		timeoutOccured = true;
 		if (throwTimeoutException) {
@@ -142,4 +265,18 @@ public abstract class AbstractAnalysis<T> implements IAnalysis<T> {
 		this.timeout = timeout;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used by analyses that support a parallel execution. Each thread uses its own solver. Unless stated otherwise
+	 * by an analysis, its result does not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (values less than 2 result in a sequential execution)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 }
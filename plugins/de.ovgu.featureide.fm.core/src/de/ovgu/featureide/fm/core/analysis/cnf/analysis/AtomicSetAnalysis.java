@@ -23,11 +23,14 @@ package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.base.util.ConcurrentRingList;
 import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -61,6 +64,10 @@ public class AtomicSetAnalysis extends AVariableAnalysis<List<LiteralSet>> {
 			final int[] model2 = solver.findSolution();
 			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 
+			if (isParallel(model1.length)) {
+				return analyzeParallel(model1, model2, monitor);
+			}
+
 			final byte[] done = new byte[model1.length];
 
 			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
@@ -191,6 +198,200 @@ public class AtomicSetAnalysis extends AVariableAnalysis<List<LiteralSet>> {
 		return result;
 	}
 
+	/**
+	 * Computes the atomic sets using multiple solvers.<br> First, all core and dead variables are determined (analogous to {@link CoreDeadAnalysis}).
+	 * Afterwards, each remaining variable is tested for equivalence with all variables of higher index that were not yet assigned to another atomic set.
+	 * Solutions found by any worker are shared with all other workers (via thread-safe data structures). The found equivalences are merged into atomic
+	 * sets, which are returned in the same order and with the same literals as in the sequential analysis.
+	 */
+	private List<LiteralSet> analyzeParallel(int[] model1, int[] model2, IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final AtomicIntegerArray candidates = new AtomicIntegerArray(model1);
+		resetConflicts(candidates, model2);
+
+		final int[] fixedLiterals = new int[model1.length];
+		runParallel(model1.length, new IParallelTask() {
+
+			@Override
+			public void init(ISatSolver workerSolver) {
+				workerSolver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+			}
+
+			@Override
+			public void run(ISatSolver workerSolver, Random workerRandom, int i) {
+				final int varX = candidates.get(i);
+				if (varX != 0) {
+					workerSolver.assignmentPush(-varX);
+					switch (workerSolver.hasSolution()) {
+					case FALSE:
+						fixedLiterals[i] = varX;
+						workerSolver.assignmentReplaceLast(varX);
+						break;
+					case TIMEOUT:
+						workerSolver.assignmentPop();
+						reportTimeout();
+						break;
+					case TRUE:
+						workerSolver.assignmentPop();
+						resetConflicts(candidates, workerSolver.getSolution());
+						workerSolver.shuffleOrder(workerRandom);
+						break;
+					}
+				}
+			}
+		}, monitor);
+
+		// variables that are core, dead, or part of an atomic set with a lower index
+		final AtomicIntegerArray done = new AtomicIntegerArray(model1.length);
+		for (int i = 0; i < fixedLiterals.length; i++) {
+			final int fixedLiteral = fixedLiterals[i];
+			if (fixedLiteral != 0) {
+				done.set(i, 1);
+				solver.assignmentPush(fixedLiteral);
+			}
+		}
+		final List<LiteralSet> result = new ArrayList<>();
+		result.add(new LiteralSet(solver.getAssignmentArray(0, solver.getAssignmentSize())));
+
+		final int[][] equivalentVariables = new int[model1.length][];
+		final ConcurrentRingList<int[]> solutionList = new ConcurrentRingList<>(ISatSolver.MAX_SOLUTION_BUFFER);
+		runParallel(model1.length, new IParallelTask() {
+
+			@Override
+			public void init(ISatSolver workerSolver) {
+				workerSolver.setSelectionStrategy(SelectionStrategy.RANDOM);
+			}
+
+			@Override
+			public void run(ISatSolver workerSolver, Random workerRandom, int i) {
+				if (done.get(i) != 0) {
+					return;
+				}
+				final int fixedSize = workerSolver.getAssignmentSize();
+				final int[] candidates = new int[model1.length - i];
+				int candidateCount = 0;
+
+				final int[] xModel0 = Arrays.copyOf(model1, model1.length);
+				final int mx0 = xModel0[i];
+				workerSolver.assignmentPush(mx0);
+
+				inner: for (int j = i + 1; j < xModel0.length; j++) {
+					final int my0 = xModel0[j];
+					if ((my0 != 0) && (done.get(j) == 0)) {
+						for (final int[] solution : solutionList) {
+							if ((mx0 == solution[i]) != (my0 == solution[j])) {
+								continue inner;
+							}
+						}
+
+						workerSolver.assignmentPush(-my0);
+						switch (workerSolver.hasSolution()) {
+						case FALSE:
+							candidates[candidateCount++] = j;
+							break;
+						case TIMEOUT:
+							reportTimeout();
+							break;
+						case TRUE:
+							final int[] solution = workerSolver.getSolution();
+							LiteralSet.resetConflicts(xModel0, solution);
+							solutionList.add(solution);
+							workerSolver.shuffleOrder(workerRandom);
+							break;
+						}
+						workerSolver.assignmentPop();
+					}
+				}
+
+				workerSolver.assignmentReplaceLast(-mx0);
+
+				int equivalentCount = 0;
+				switch (workerSolver.hasSolution()) {
+				case FALSE:
+					candidateCount = 0;
+					break;
+				case TIMEOUT:
+					candidateCount = 0;
+					reportTimeout();
+					break;
+				case TRUE:
+					final int[] xModel1 = workerSolver.getSolution();
+					solutionList.add(Arrays.copyOf(xModel1, xModel1.length));
+					for (int k = 0; k < candidateCount; k++) {
+						final int j = candidates[k];
+						final int my1 = xModel1[j];
+						if (my1 != 0) {
+							workerSolver.assignmentPush(-my1);
+							switch (workerSolver.hasSolution()) {
+							case FALSE:
+								candidates[equivalentCount++] = j;
+								done.set(j, 1);
+								workerSolver.assignmentReplaceLast(my1);
+								break;
+							case TIMEOUT:
+								workerSolver.assignmentPop();
+								reportTimeout();
+								break;
+							case TRUE:
+								final int[] solution = workerSolver.getSolution();
+								LiteralSet.resetConflicts(xModel1, solution);
+								solutionList.add(solution);
+								workerSolver.shuffleOrder(workerRandom);
+								workerSolver.assignmentPop();
+								break;
+							}
+						}
+					}
+					break;
+				}
+				equivalentVariables[i] = Arrays.copyOf(candidates, equivalentCount);
+				workerSolver.assignmentClear(fixedSize);
+			}
+		}, monitor);
+
+		// merge equivalences that were found by different workers
+		final int[] representatives = new int[model1.length];
+		for (int i = 0; i < representatives.length; i++) {
+			representatives[i] = i;
+		}
+		for (int i = 0; i < equivalentVariables.length; i++) {
+			if (equivalentVariables[i] != null) {
+				for (final int j : equivalentVariables[i]) {
+					representatives[findRepresentative(representatives, j)] = findRepresentative(representatives, i);
+				}
+			}
+		}
+
+		final int[][] atomicSets = new int[model1.length][];
+		final int[] atomicSetSizes = new int[model1.length];
+		for (int i = 0; i < model1.length; i++) {
+			if (fixedLiterals[i] == 0) {
+				final int representative = findRepresentative(representatives, i);
+				if (atomicSets[representative] == null) {
+					atomicSets[representative] = new int[model1.length - i];
+				}
+				atomicSets[representative][atomicSetSizes[representative]++] = -model1[i];
+			}
+		}
+		for (int i = 0; i < model1.length; i++) {
+			if (fixedLiterals[i] == 0) {
+				final int representative = findRepresentative(representatives, i);
+				if (atomicSets[representative] != null) {
+					result.add(new LiteralSet(Arrays.copyOf(atomicSets[representative], atomicSetSizes[representative])));
+					atomicSets[representative] = null;
+				}
+			}
+		}
+		return result;
+	}
+
+	private static int findRepresentative(int[] representatives, int index) {
+		while (representatives[index] != index) {
+			representatives[index] = representatives[representatives[index]];
+			index = representatives[index];
+		}
+		return index;
+	}
+
 	// private void updateSolver(int c) {
 	// if ((c % 2 == 0)) {
 	// solver.setSelectionStrategy(SelectionStrategy.RANDOM);
@@ -95,12 +95,17 @@ public class ConditionallyCoreDeadAnalysisMIG extends AConditionallyCoreDeadAnal
 
 		if (variableOrder != null) {
 			final VecInt sortedValuesToCalulate = new VecInt(valuesToCompute.size());
+			final byte[] containedValues = new byte[knownValues.length];
+			for (int i = 0; i < valuesToCompute.size(); i++) {
+				final int literal = valuesToCompute.get(i);
+				containedValues[Math.abs(literal) - 1] |= literal > 0 ? 1 : 2;
+			}
 			for (int i = variableOrder.length - 1; i >= 0; i--) {
 				final int var = variableOrder[i];
-				if (valuesToCompute.contains(var)) {
+				if ((containedValues[var - 1] & 1) != 0) {
 					sortedValuesToCalulate.push(var);
 				}
-				if (valuesToCompute.contains(-var)) {
+				if ((containedValues[var - 1] & 2) != 0) {
 					sortedValuesToCalulate.push(-var);
 				}
 			}
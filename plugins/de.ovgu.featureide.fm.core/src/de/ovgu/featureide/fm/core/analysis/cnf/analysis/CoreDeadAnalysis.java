@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
@@ -93,8 +97,14 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 			}
 
 			LiteralSet.resetConflicts(model1, model2);
-			solver.setSelectionStrategy(model1,
-					model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative()));
+			final boolean min =
+				model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative());
+
+			if (isParallel(model1.length)) {
+				return analyzeParallel(model1, min, monitor);
+			}
+
+			solver.setSelectionStrategy(model1, min);
 
 			for (int i = 0; i < model1.length; i++) {
 				monitor.checkCancel();
@@ -123,4 +133,55 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
 	}
 
+	/**
+	 * Tests all remaining candidates using multiple solvers. The candidates are shared by all workers, such that a solution found by one worker
+	 * removes candidates for all other workers. The selection strategy of each worker uses its own copy of the initial candidates, as it is read by
+	 * the solver during the search. The result contains the same literals in the same order as the sequential analysis.
+	 */
+	private LiteralSet analyzeParallel(int[] model1, boolean min, IMonitor<LiteralSet> monitor) throws Exception {
+		final AtomicIntegerArray candidates = new AtomicIntegerArray(model1);
+		final int[] fixedLiterals = new int[model1.length];
+		runParallel(model1.length, new IParallelTask() {
+
+			@Override
+			public void init(ISatSolver workerSolver) {
+				workerSolver.setSelectionStrategy(Arrays.copyOf(model1, model1.length), min);
+			}
+
+			@Override
+			public void run(ISatSolver workerSolver, Random workerRandom, int i) {
+				final int varX = candidates.get(i);
+				if (varX != 0) {
+					workerSolver.assignmentPush(-varX);
+					switch (workerSolver.hasSolution()) {
+					case FALSE:
+						workerSolver.assignmentReplaceLast(varX);
+						fixedLiterals[i] = varX;
+						synchronized (monitor) {
+							monitor.invoke(new LiteralSet(varX));
+						}
+						break;
+					case TIMEOUT:
+						workerSolver.assignmentPop();
+						reportTimeout();
+						break;
+					case TRUE:
+						workerSolver.assignmentPop();
+						resetConflicts(candidates, workerSolver.getSolution());
+						workerSolver.shuffleOrder(workerRandom);
+						break;
+					}
+				}
+			}
+		}, monitor);
+
+		int count = 0;
+		for (final int literal : fixedLiterals) {
+			if (literal != 0) {
+				fixedLiterals[count++] = literal;
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(fixedLiterals, count));
+	}
+
 }
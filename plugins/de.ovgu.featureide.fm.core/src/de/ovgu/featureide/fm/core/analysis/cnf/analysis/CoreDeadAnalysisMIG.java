@@ -0,0 +1,175 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGUtils;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Finds core and dead features under the current assumptions using a {@link ModalImplicationGraph modal implication graph}. Returns the same literals as
+ * {@link CoreDeadAnalysis}, but only uses the solver where the graph is not sufficient:
+ * <ol>
+ * <li>All literals that are reachable from the assumptions via strong edges are implied. A contradiction within these literals means that the
+ * assumptions are unsatisfiable.</li>
+ * <li>If the graph contains no complex clauses, the formula is equivalent to a 2-CNF. Then, the literals of the previous step are exactly the implied
+ * literals and no solver call is necessary.</li>
+ * <li>Otherwise, complex clauses that became unit are propagated. Only variables that are connected to a complex clause that was shortened by the
+ * assumptions are candidates for further implied literals, which are checked with the solver.</li>
+ * </ol>
+ * The graph must be built from the same {@link CNF} as the solver (e.g., using a cached graph of a
+ * {@link de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula FeatureModelFormula}).
+ *
+ * @author agent
+ */
+public class CoreDeadAnalysisMIG extends AbstractAnalysis<LiteralSet> {
+
+	private final ModalImplicationGraph mig;
+
+	private int numberOfSolverCalls;
+
+	public CoreDeadAnalysisMIG(ISatSolver solver, ModalImplicationGraph mig) {
+		super(solver);
+		this.mig = mig;
+	}
+
+	public CoreDeadAnalysisMIG(CNF satInstance, ModalImplicationGraph mig) {
+		super(satInstance);
+		this.mig = mig;
+	}
+
+	/**
+	 * @return the number of solver calls of the last execution of this analysis
+	 */
+	public int getNumberOfSolverCalls() {
+		return numberOfSolverCalls;
+	}
+
+	@Override
+	protected LiteralSet analyze(IMonitor<LiteralSet> monitor) throws Exception {
+		numberOfSolverCalls = 0;
+		final int initialAssignmentLength = solver.getAssignmentSize();
+		final int[] assumptions = solver.getAssignmentArray(0, initialAssignmentLength);
+		final int[] model = new int[solver.getSatInstance().getVariables().size()];
+
+		if (!MIGUtils.propagateCore(mig, model)) {
+			return new LiteralSet();
+		}
+		for (final int literal : assumptions) {
+			if (!MIGUtils.propagateStrong(mig, model, literal)) {
+				return new LiteralSet();
+			}
+		}
+		monitor.checkCancel();
+
+		if (!mig.getComplexClauses().isEmpty()) {
+			final int[] candidates = MIGUtils.propagateWeak(mig, model);
+			monitor.checkCancel();
+			if ((candidates == null) || !checkCandidates(model, candidates, initialAssignmentLength, monitor)) {
+				return new LiteralSet();
+			}
+		}
+
+		for (final int literal : assumptions) {
+			model[Math.abs(literal) - 1] = 0;
+		}
+		int count = 0;
+		final int[] impliedLiterals = new int[model.length];
+		for (final int literal : model) {
+			if (literal != 0) {
+				impliedLiterals[count++] = literal;
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(impliedLiterals, count));
+	}
+
+	/**
+	 * Checks which of the given candidate variables are implied by the model using the solver. Adds all implied candidates to the model.
+	 *
+	 * @return {@code false} if the model is unsatisfiable, {@code true} otherwise
+	 */
+	private boolean checkCandidates(int[] model, int[] candidates, int initialAssignmentLength, IMonitor<LiteralSet> monitor) {
+		for (final int literal : model) {
+			if (literal != 0) {
+				solver.assignmentPush(literal);
+			}
+		}
+		try {
+			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+			numberOfSolverCalls++;
+			final int[] solution1 = solver.findSolution();
+			if (solution1 == null) {
+				return false;
+			}
+			boolean empty = true;
+			for (int i = 0; i < candidates.length; i++) {
+				if (candidates[i] != 0) {
+					candidates[i] = solution1[i];
+					empty = false;
+				}
+			}
+			if (empty) {
+				return true;
+			}
+			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			numberOfSolverCalls++;
+			final int[] solution2 = solver.findSolution();
+			if (solution2 != null) {
+				LiteralSet.resetConflicts(candidates, solution2);
+			}
+			solver.setSelectionStrategy(candidates, false);
+
+			for (int i = 0; i < candidates.length; i++) {
+				final int literal = candidates[i];
+				if (literal != 0) {
+					monitor.checkCancel();
+					solver.assignmentPush(-literal);
+					numberOfSolverCalls++;
+					switch (solver.hasSolution()) {
+					case FALSE:
+						solver.assignmentReplaceLast(literal);
+						model[i] = literal;
+						break;
+					case TIMEOUT:
+						solver.assignmentPop();
+						reportTimeout();
+						break;
+					case TRUE:
+						solver.assignmentPop();
+						LiteralSet.resetConflicts(candidates, solver.getSolution());
+						solver.shuffleOrder(getRandom());
+						break;
+					}
+				}
+			}
+			return true;
+		} finally {
+			solver.assignmentClear(initialAssignmentLength);
+		}
+	}
+
+}
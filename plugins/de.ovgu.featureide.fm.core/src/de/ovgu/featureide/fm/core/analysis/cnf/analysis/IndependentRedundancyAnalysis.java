@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
@@ -31,6 +32,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.util.ConcurrentRingList;
 import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -82,6 +84,10 @@ public class IndependentRedundancyAnalysis extends AClauseAnalysis<List<LiteralS
 
 		final int[] firstSolution = solver.findSolution();
 		if (firstSolution != null) {
+			if (isParallel(clauseGroupSize.length)) {
+				analyzeParallel(firstSolution, resultList, monitor);
+				return resultList;
+			}
 
 			final RingList<LiteralSet> solutionList = new RingList<>(ISatSolver.MAX_SOLUTION_BUFFER);
 			solver.setSelectionStrategy(SelectionStrategy.RANDOM);
@@ -124,4 +130,61 @@ public class IndependentRedundancyAnalysis extends AClauseAnalysis<List<LiteralS
 		return resultList;
 	}
 
+	/**
+	 * Analyzes the clause groups using multiple solvers. Each clause group is processed by a single worker, which tests its clauses in the same order as
+	 * the sequential analysis. Solutions found by any worker are shared with all other workers.
+	 */
+	private void analyzeParallel(int[] firstSolution, List<LiteralSet> resultList, IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final int[] groupStartIndex = new int[clauseGroupSize.length + 1];
+		for (int i = 0; i < clauseGroupSize.length; i++) {
+			groupStartIndex[i + 1] = groupStartIndex[i] + clauseGroupSize[i];
+		}
+		final LiteralSet[] groupResults = new LiteralSet[clauseGroupSize.length];
+
+		final ConcurrentRingList<LiteralSet> solutionList = new ConcurrentRingList<>(ISatSolver.MAX_SOLUTION_BUFFER);
+		solutionList.add(new LiteralSet(firstSolution, Order.INDEX, false));
+
+		runParallel(clauseGroupSize.length, new IParallelTask() {
+
+			@Override
+			public void init(ISatSolver workerSolver) {
+				workerSolver.setSelectionStrategy(SelectionStrategy.RANDOM);
+			}
+
+			@Override
+			public void run(ISatSolver workerSolver, Random workerRandom, int i) {
+				clauseLoop: for (int j = groupStartIndex[i]; j < groupStartIndex[i + 1]; j++) {
+					final LiteralSet clause = clauseList.get(j);
+					final LiteralSet complement = clause.negate();
+
+					for (final LiteralSet solution : solutionList) {
+						if (solution.containsAll(complement)) {
+							continue clauseLoop;
+						}
+					}
+
+					final SatResult hasSolution = workerSolver.hasSolution(complement);
+					switch (hasSolution) {
+					case FALSE:
+						groupResults[i] = clause;
+						return;
+					case TIMEOUT:
+						reportTimeout();
+						break;
+					case TRUE:
+						solutionList.add(new LiteralSet(workerSolver.getSolution(), Order.INDEX, false));
+						workerSolver.shuffleOrder(workerRandom);
+						break;
+					default:
+						throw new AssertionError(hasSolution);
+					}
+				}
+			}
+		}, monitor);
+
+		for (int i = 0; i < groupResults.length; i++) {
+			resultList.set(i, groupResults[i]);
+		}
+	}
+
 }
@@ -0,0 +1,392 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.ddnnf;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Smooth decision-DNNF representation of a {@link CNF}, as compiled by {@link DDNNFCompiler}. Allows to count the solutions of the formula in linear time
+ * with respect to the number of nodes, also under a given set of assumptions.<br> <br> The graph is stored in flat arrays. Every node is either a
+ * {@link #NODE_FALSE false node}, a {@link #NODE_OR decision node} with two children that assign a different value to the same variable, or an
+ * {@link #NODE_AND and node} that consists of a set of literals, a set of unconstrained (free) variables, and a set of child nodes with pairwise disjoint
+ * variables. Children always have a smaller id than their parent, such that the nodes can be evaluated in a single bottom-up pass.
+ *
+ * @author agent
+ */
+public class DDNNF implements Serializable {
+
+	private static final long serialVersionUID = 2385472816193417021L;
+
+	public static final byte NODE_FALSE = 0;
+	public static final byte NODE_AND = 1;
+	public static final byte NODE_OR = 2;
+
+	protected final Variables variables;
+	protected final int numberOfVariables;
+
+	protected final byte[] nodeTypes;
+	protected final int[] nodeOffsets;
+	protected final int[] nodeData;
+	protected final int root;
+
+	private transient BigInteger[] solutionCounts;
+
+	DDNNF(Variables variables, byte[] nodeTypes, int[] nodeOffsets, int[] nodeData, int root) {
+		this.variables = variables;
+		numberOfVariables = variables.size();
+		this.nodeTypes = nodeTypes;
+		this.nodeOffsets = nodeOffsets;
+		this.nodeData = nodeData;
+		this.root = root;
+	}
+
+	public Variables getVariables() {
+		return variables;
+	}
+
+	public int getNumberOfNodes() {
+		return nodeTypes.length;
+	}
+
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return {@code true} if the compiled formula has at least one solution.
+	 */
+	public boolean isSatisfiable() {
+		return nodeTypes[root] != NODE_FALSE;
+	}
+
+	/**
+	 * Returns the exact number of solutions of the compiled formula. The result is cached.
+	 *
+	 * @return The number of solutions.
+	 */
+	public BigInteger countSolutions() {
+		return getSolutionCounts()[root];
+	}
+
+	/**
+	 * Returns the exact number of solutions of the compiled formula that contain all given literals.
+	 *
+	 * @param assumptions Literals that must be contained in every solution (using the original variable ids of the {@link CNF}).
+	 * @return The number of solutions.
+	 */
+	public BigInteger countSolutions(LiteralSet assumptions) {
+		if ((assumptions == null) || assumptions.isEmpty()) {
+			return countSolutions();
+		}
+		final byte[] assignment = createAssignment(assumptions);
+		if (assignment == null) {
+			return BigInteger.ZERO;
+		}
+		return computeSolutionCounts(assignment)[root];
+	}
+
+	/**
+	 * Returns a solution of the compiled formula that contains all given literals and maximizes the sum of the weights of its positive literals. Computes the
+	 * optimum in a single bottom-up pass, i.e., in linear time with respect to the number of nodes.<br> To minimize the sum, negate all weights.
+	 *
+	 * @param weights The weight of each variable (index is the variable id, index 0 is ignored). Negative literals have a weight of zero.
+	 * @param assumptions Literals that must be contained in the solution (using the original variable ids of the {@link CNF}). May be {@code null}.
+	 * @return A complete solution (using the original variable ids) or {@code null} if there is no solution that satisfies the assumptions.
+	 */
+	public LiteralSet getMaximumSolution(double[] weights, LiteralSet assumptions) {
+		final byte[] assignment = (assumptions == null) ? new byte[numberOfVariables + 1] : createAssignment(assumptions);
+		if (assignment == null) {
+			return null;
+		}
+		final double[] internalWeights = new double[numberOfVariables + 1];
+		final boolean[] selectFree = new boolean[numberOfVariables + 1];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final int originalVar = Math.abs(variables.convertToOriginal(var));
+			internalWeights[var] = originalVar < weights.length ? weights[originalVar] : 0;
+			selectFree[var] = (assignment[var] > 0) || ((assignment[var] == 0) && (internalWeights[var] > 0));
+		}
+
+		final double[] values = new double[nodeTypes.length];
+		final boolean[] selectLeft = new boolean[nodeTypes.length];
+		for (int id = 0; id < nodeTypes.length; id++) {
+			int index = nodeOffsets[id];
+			switch (nodeTypes[id]) {
+			case NODE_FALSE:
+				values[id] = Double.NEGATIVE_INFINITY;
+				break;
+			case NODE_OR: {
+				final double left = values[nodeData[index]];
+				final double right = values[nodeData[index + 1]];
+				selectLeft[id] = left >= right;
+				values[id] = Math.max(left, right);
+				break;
+			}
+			case NODE_AND: {
+				double value = 0;
+				final int literalEnd = index + 1 + nodeData[index];
+				for (index++; index < literalEnd; index++) {
+					final int literal = nodeData[index];
+					if (assignment[Math.abs(literal)] == (literal > 0 ? -1 : 1)) {
+						value = Double.NEGATIVE_INFINITY;
+					} else if (literal > 0) {
+						value += internalWeights[literal];
+					}
+				}
+				final int freeEnd = index + 1 + nodeData[index];
+				for (index++; index < freeEnd; index++) {
+					final int var = nodeData[index];
+					if (selectFree[var]) {
+						value += internalWeights[var];
+					}
+				}
+				final int childEnd = index + 1 + nodeData[index];
+				for (index++; index < childEnd; index++) {
+					value += values[nodeData[index]];
+				}
+				values[id] = value;
+				break;
+			}
+			default:
+				throw new AssertionError(nodeTypes[id]);
+			}
+		}
+		if (values[root] == Double.NEGATIVE_INFINITY) {
+			return null;
+		}
+		return getSelectedSolution(selectLeft, selectFree);
+	}
+
+	/**
+	 * Returns a solution of the compiled formula that contains all given literals and maximizes the sum of the weights of its positive literals. In contrast
+	 * to {@link #getMaximumSolution(double[], LiteralSet)}, all sums are computed exactly.
+	 *
+	 * @param weights The weight of each variable (index is the variable id, index 0 is ignored). Negative literals have a weight of zero.
+	 * @param assumptions Literals that must be contained in the solution (using the original variable ids of the {@link CNF}). May be {@code null}.
+	 * @return A complete solution (using the original variable ids) or {@code null} if there is no solution that satisfies the assumptions.
+	 *
+	 * @throws ArithmeticException if a partial sum exceeds the range of {@code long}
+	 */
+	public LiteralSet getMaximumSolution(long[] weights, LiteralSet assumptions) {
+		final byte[] assignment = (assumptions == null) ? new byte[numberOfVariables + 1] : createAssignment(assumptions);
+		if (assignment == null) {
+			return null;
+		}
+		final long[] internalWeights = new long[numberOfVariables + 1];
+		final boolean[] selectFree = new boolean[numberOfVariables + 1];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final int originalVar = Math.abs(variables.convertToOriginal(var));
+			internalWeights[var] = originalVar < weights.length ? weights[originalVar] : 0;
+			selectFree[var] = (assignment[var] > 0) || ((assignment[var] == 0) && (internalWeights[var] > 0));
+		}
+
+		// Long.MIN_VALUE marks nodes without a solution
+		final long[] values = new long[nodeTypes.length];
+		final boolean[] selectLeft = new boolean[nodeTypes.length];
+		for (int id = 0; id < nodeTypes.length; id++) {
+			int index = nodeOffsets[id];
+			switch (nodeTypes[id]) {
+			case NODE_FALSE:
+				values[id] = Long.MIN_VALUE;
+				break;
+			case NODE_OR: {
+				final long left = values[nodeData[index]];
+				final long right = values[nodeData[index + 1]];
+				selectLeft[id] = left >= right;
+				values[id] = Math.max(left, right);
+				break;
+			}
+			case NODE_AND: {
+				long value = 0;
+				final int literalEnd = index + 1 + nodeData[index];
+				for (index++; index < literalEnd; index++) {
+					final int literal = nodeData[index];
+					if (assignment[Math.abs(literal)] == (literal > 0 ? -1 : 1)) {
+						value = Long.MIN_VALUE;
+					} else if ((literal > 0) && (value != Long.MIN_VALUE)) {
+						value = Math.addExact(value, internalWeights[literal]);
+					}
+				}
+				final int freeEnd = index + 1 + nodeData[index];
+				for (index++; index < freeEnd; index++) {
+					final int var = nodeData[index];
+					if (selectFree[var] && (value != Long.MIN_VALUE)) {
+						value = Math.addExact(value, internalWeights[var]);
+					}
+				}
+				final int childEnd = index + 1 + nodeData[index];
+				for (index++; index < childEnd; index++) {
+					final long childValue = values[nodeData[index]];
+					if ((childValue == Long.MIN_VALUE) || (value == Long.MIN_VALUE)) {
+						value = Long.MIN_VALUE;
+					} else {
+						value = Math.addExact(value, childValue);
+					}
+				}
+				values[id] = value;
+				break;
+			}
+			default:
+				throw new AssertionError(nodeTypes[id]);
+			}
+		}
+		if (values[root] == Long.MIN_VALUE) {
+			return null;
+		}
+		return getSelectedSolution(selectLeft, selectFree);
+	}
+
+	/**
+	 * Extracts a solution top-down, following the selected child of each or-node.
+	 *
+	 * @param selectLeft whether the left child of an or-node is selected (index is the node id)
+	 * @param selectFree whether a free variable is selected (index is the internal variable id)
+	 */
+	private LiteralSet getSelectedSolution(boolean[] selectLeft, boolean[] selectFree) {
+		final int[] solution = new int[numberOfVariables];
+		final ArrayDeque<Integer> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			final int id = stack.pop();
+			int index = nodeOffsets[id];
+			switch (nodeTypes[id]) {
+			case NODE_OR:
+				stack.push(selectLeft[id] ? nodeData[index] : nodeData[index + 1]);
+				break;
+			case NODE_AND: {
+				final int literalEnd = index + 1 + nodeData[index];
+				for (index++; index < literalEnd; index++) {
+					final int literal = nodeData[index];
+					solution[Math.abs(literal) - 1] = literal;
+				}
+				final int freeEnd = index + 1 + nodeData[index];
+				for (index++; index < freeEnd; index++) {
+					final int var = nodeData[index];
+					solution[var - 1] = selectFree[var] ? var : -var;
+				}
+				final int childEnd = index + 1 + nodeData[index];
+				for (index++; index < childEnd; index++) {
+					stack.push(nodeData[index]);
+				}
+				break;
+			}
+			default:
+				throw new AssertionError(nodeTypes[id]);
+			}
+		}
+		return new LiteralSet(variables.convertToOriginal(solution), Order.INDEX, false);
+	}
+
+	/**
+	 * Converts the given assumptions into an array that maps each internal variable id to its assigned value (1, -1, or 0 if unassigned).
+	 *
+	 * @return The assignment or {@code null} if the assumptions are contradictory.
+	 */
+	byte[] createAssignment(LiteralSet assumptions) {
+		final byte[] assignment = new byte[numberOfVariables + 1];
+		for (final int literal : variables.convertToInternal(assumptions.getLiterals())) {
+			final int var = Math.abs(literal);
+			if (var == 0) {
+				continue;
+			}
+			final byte value = (byte) (literal > 0 ? 1 : -1);
+			if (assignment[var] == -value) {
+				return null;
+			}
+			assignment[var] = value;
+		}
+		return assignment;
+	}
+
+	/**
+	 * Returns the solution counts for every node in the graph. The returned array must not be modified.
+	 *
+	 * @return An array containing the solution count for each node.
+	 */
+	BigInteger[] getSolutionCounts() {
+		BigInteger[] counts = solutionCounts;
+		if (counts == null) {
+			counts = computeSolutionCounts(null);
+			solutionCounts = counts;
+		}
+		return counts;
+	}
+
+	BigInteger[] computeSolutionCounts(byte[] assignment) {
+		final BigInteger[] counts = new BigInteger[nodeTypes.length];
+		for (int id = 0; id < nodeTypes.length; id++) {
+			int index = nodeOffsets[id];
+			switch (nodeTypes[id]) {
+			case NODE_FALSE:
+				counts[id] = BigInteger.ZERO;
+				break;
+			case NODE_OR:
+				counts[id] = counts[nodeData[index]].add(counts[nodeData[index + 1]]);
+				break;
+			case NODE_AND: {
+				boolean conflict = false;
+				final int literalEnd = index + 1 + nodeData[index];
+				for (index++; index < literalEnd; index++) {
+					if (assignment != null) {
+						final int literal = nodeData[index];
+						if (assignment[Math.abs(literal)] == (literal > 0 ? -1 : 1)) {
+							conflict = true;
+						}
+					}
+				}
+				final int freeEnd = index + 1 + nodeData[index];
+				int freeCount = 0;
+				for (index++; index < freeEnd; index++) {
+					if ((assignment == null) || (assignment[nodeData[index]] == 0)) {
+						freeCount++;
+					}
+				}
+				if (conflict) {
+					counts[id] = BigInteger.ZERO;
+					break;
+				}
+				BigInteger count = BigInteger.ONE.shiftLeft(freeCount);
+				final int childEnd = index + 1 + nodeData[index];
+				for (index++; index < childEnd; index++) {
+					count = count.multiply(counts[nodeData[index]]);
+				}
+				counts[id] = count;
+				break;
+			}
+			default:
+				throw new AssertionError(nodeTypes[id]);
+			}
+		}
+		return counts;
+	}
+
+	@Override
+	public String toString() {
+		return "DDNNF [variables=" + numberOfVariables + ", nodes=" + nodeTypes.length + "]";
+	}
+
+}
@@ -0,0 +1,476 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.ddnnf;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles a {@link CNF} into a {@link DDNNF} using an exhaustive DPLL search with unit propagation, component decomposition, and component caching.<br>
+ * <br> After each decision, the remaining clauses are split into independent components that are compiled separately and combined by an and node. Every
+ * component is identified by its variables and its remaining clauses, such that equal sub-formulas are only compiled once.<br> <br> The compilation can be
+ * bounded by a {@link #setTimeout(long) timeout}, in which case a {@link RuntimeTimeoutException} is thrown when the time is exceeded.
+ *
+ * @author agent
+ */
+public class DDNNFCompiler implements LongRunningMethod<DDNNF> {
+
+	/**
+	 * Identifies a component by its (sorted) variables and (sorted) clause indices.
+	 */
+	private static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		public ComponentKey(int[] variables, int[] clauseIndices) {
+			key = new int[variables.length + clauseIndices.length + 1];
+			key[0] = variables.length;
+			System.arraycopy(variables, 0, key, 1, variables.length);
+			System.arraycopy(clauseIndices, 0, key, variables.length + 1, clauseIndices.length);
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			return Arrays.equals(key, ((ComponentKey) obj).key);
+		}
+	}
+
+	private static final int FALSE_NODE = 0;
+
+	private final CNF cnf;
+	private final int numberOfVariables;
+
+	private final HashMap<ComponentKey, Integer> cache = new HashMap<>();
+
+	private int[][] clauses;
+	private int[][] positiveOccurrences;
+	private int[][] negativeOccurrences;
+
+	private byte[] values;
+	private int[] trail;
+	private int trailSize;
+
+	private int[] variableMarks;
+	private int[] clauseMarks;
+	private int markEpoch;
+	private int[] scores;
+	private int[] variableBuffer;
+	private int[] clauseBuffer;
+
+	private byte[] nodeTypes = new byte[1024];
+	private int[] nodeOffsets = new int[1024];
+	private int[] nodeData = new int[4096];
+	private int nodeCount;
+	private int dataSize;
+
+	private IMonitor<DDNNF> monitor;
+
+	private long timeout = 0;
+	private long deadline;
+
+	public DDNNFCompiler(CNF cnf) {
+		this.cnf = cnf;
+		numberOfVariables = cnf.getVariables().size();
+	}
+
+	/**
+	 * Sets the maximum time for the compilation.
+	 *
+	 * @param timeout The timeout in milliseconds. A value less than or equal to 0 means no timeout (default).
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	@Override
+	public DDNNF execute(IMonitor<DDNNF> monitor) throws Exception {
+		this.monitor = monitor;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		addNode(DDNNF.NODE_FALSE);
+
+		final int root;
+		if (init() && initialPropagation()) {
+			final int[] allVariables = new int[numberOfVariables];
+			for (int i = 0; i < allVariables.length; i++) {
+				allVariables[i] = i + 1;
+			}
+			root = compileResidual(allVariables, 0);
+		} else {
+			root = FALSE_NODE;
+		}
+
+		return new DDNNF(cnf.getVariables(), Arrays.copyOf(nodeTypes, nodeCount), Arrays.copyOf(nodeOffsets, nodeCount), Arrays.copyOf(nodeData, dataSize),
+				root);
+	}
+
+	/**
+	 * Converts the clauses to internal variable ids and removes duplicate literals as well as tautologies.
+	 *
+	 * @return {@code false} if the CNF contains an empty clause, {@code true} otherwise.
+	 */
+	private boolean init() {
+		final IInternalVariables internalVariables = cnf.getInternalVariables();
+		final List<LiteralSet> clauseList = cnf.getClauses();
+
+		values = new byte[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		variableMarks = new int[numberOfVariables + 1];
+		scores = new int[numberOfVariables + 1];
+		variableBuffer = new int[numberOfVariables];
+
+		final int[] positiveCount = new int[numberOfVariables + 1];
+		final int[] negativeCount = new int[numberOfVariables + 1];
+		final int[][] tempClauses = new int[clauseList.size()][];
+		int clauseCount = 0;
+		clauseLoop: for (final LiteralSet clause : clauseList) {
+			final int[] literals = internalVariables.convertToInternal(clause.getLiterals());
+			final int[] cleanLiterals = new int[literals.length];
+			int literalCount = 0;
+			markEpoch++;
+			for (final int literal : literals) {
+				final int var = Math.abs(literal);
+				if (variableMarks[var] == markEpoch) {
+					if (values[var] != (literal > 0 ? 1 : -1)) {
+						resetValues(cleanLiterals, literalCount);
+						continue clauseLoop;
+					}
+				} else {
+					variableMarks[var] = markEpoch;
+					values[var] = (byte) (literal > 0 ? 1 : -1);
+					cleanLiterals[literalCount++] = literal;
+				}
+			}
+			resetValues(cleanLiterals, literalCount);
+			if (literalCount == 0) {
+				return false;
+			}
+			final int[] newClause = Arrays.copyOf(cleanLiterals, literalCount);
+			for (final int literal : newClause) {
+				if (literal > 0) {
+					positiveCount[literal]++;
+				} else {
+					negativeCount[-literal]++;
+				}
+			}
+			tempClauses[clauseCount++] = newClause;
+		}
+		clauses = Arrays.copyOf(tempClauses, clauseCount);
+		clauseMarks = new int[clauseCount];
+		clauseBuffer = new int[clauseCount];
+
+		positiveOccurrences = new int[numberOfVariables + 1][];
+		negativeOccurrences = new int[numberOfVariables + 1][];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			positiveOccurrences[var] = new int[positiveCount[var]];
+			negativeOccurrences[var] = new int[negativeCount[var]];
+		}
+		for (int clauseIndex = 0; clauseIndex < clauses.length; clauseIndex++) {
+			for (final int literal : clauses[clauseIndex]) {
+				if (literal > 0) {
+					positiveOccurrences[literal][--positiveCount[literal]] = clauseIndex;
+				} else {
+					negativeOccurrences[-literal][--negativeCount[-literal]] = clauseIndex;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void resetValues(int[] literals, int length) {
+		for (int i = 0; i < length; i++) {
+			values[Math.abs(literals[i])] = 0;
+		}
+	}
+
+	private boolean initialPropagation() {
+		for (final int[] clause : clauses) {
+			if (clause.length == 1) {
+				final int literal = clause[0];
+				final byte value = values[Math.abs(literal)];
+				if (value == 0) {
+					assign(literal);
+				} else if (value != (literal > 0 ? 1 : -1)) {
+					return false;
+				}
+			}
+		}
+		return propagate(0);
+	}
+
+	/**
+	 * Compiles a connected component of the residual formula under the current assignment.
+	 *
+	 * @param variables The (sorted) unassigned variables of the component.
+	 * @param clauseIndices The (sorted) indices of the unsatisfied clauses of the component.
+	 * @return The id of the root node for this component.
+	 */
+	private int compileComponent(int[] variables, int[] clauseIndices) {
+		monitor.checkCancel();
+		if (System.currentTimeMillis() > deadline) {
+			throw new RuntimeTimeoutException();
+		}
+		final ComponentKey key = new ComponentKey(variables, clauseIndices);
+		final Integer cachedNode = cache.get(key);
+		if (cachedNode != null) {
+			return cachedNode;
+		}
+
+		final int decisionVariable = selectVariable(variables, clauseIndices);
+		final int mark = trailSize;
+
+		assign(decisionVariable);
+		final int positiveNode = propagate(mark) ? compileResidual(variables, mark) : FALSE_NODE;
+		undo(mark);
+
+		assign(-decisionVariable);
+		final int negativeNode = propagate(mark) ? compileResidual(variables, mark) : FALSE_NODE;
+		undo(mark);
+
+		final int node;
+		if (positiveNode == FALSE_NODE) {
+			node = negativeNode;
+		} else if (negativeNode == FALSE_NODE) {
+			node = positiveNode;
+		} else {
+			node = addNode(DDNNF.NODE_OR, positiveNode, negativeNode);
+		}
+		cache.put(key, node);
+		return node;
+	}
+
+	/**
+	 * Creates an and node for the given variables, consisting of all literals that were assigned since the given mark, all variables that are not contained
+	 * in any unsatisfied clause, and a child node for each remaining connected component.
+	 *
+	 * @param variables The variables of the current component.
+	 * @param mark The position in the trail at which the assignment of the current branch starts.
+	 * @return The id of the created node.
+	 */
+	private int compileResidual(int[] variables, int mark) {
+		final int[] literals = Arrays.copyOfRange(trail, mark, trailSize);
+		int[] freeVariables = new int[variables.length];
+		int freeCount = 0;
+		int[][] componentVariables = new int[4][];
+		int[][] componentClauses = new int[4][];
+		int componentCount = 0;
+
+		final int epoch = ++markEpoch;
+		for (final int startVariable : variables) {
+			if ((values[startVariable] != 0) || (variableMarks[startVariable] == epoch)) {
+				continue;
+			}
+			int variableCount = 0;
+			int clauseCount = 0;
+			int stackSize = 0;
+			variableMarks[startVariable] = epoch;
+			variableBuffer[stackSize++] = startVariable;
+			while (stackSize > variableCount) {
+				final int var = variableBuffer[variableCount++];
+				final int oldClauseCount = clauseCount;
+				clauseCount = collectClauses(positiveOccurrences[var], epoch, clauseCount);
+				clauseCount = collectClauses(negativeOccurrences[var], epoch, clauseCount);
+				for (int i = oldClauseCount; i < clauseCount; i++) {
+					for (final int literal : clauses[clauseBuffer[i]]) {
+						final int otherVar = Math.abs(literal);
+						if ((values[otherVar] == 0) && (variableMarks[otherVar] != epoch)) {
+							variableMarks[otherVar] = epoch;
+							variableBuffer[stackSize++] = otherVar;
+						}
+					}
+				}
+			}
+			if (clauseCount == 0) {
+				freeVariables[freeCount++] = startVariable;
+			} else {
+				if (componentCount == componentVariables.length) {
+					componentVariables = Arrays.copyOf(componentVariables, componentCount << 1);
+					componentClauses = Arrays.copyOf(componentClauses, componentCount << 1);
+				}
+				final int[] newComponentVariables = Arrays.copyOf(variableBuffer, variableCount);
+				final int[] newComponentClauses = Arrays.copyOf(clauseBuffer, clauseCount);
+				Arrays.sort(newComponentVariables);
+				Arrays.sort(newComponentClauses);
+				componentVariables[componentCount] = newComponentVariables;
+				componentClauses[componentCount] = newComponentClauses;
+				componentCount++;
+			}
+		}
+		freeVariables = Arrays.copyOf(freeVariables, freeCount);
+
+		final int[] children = new int[componentCount];
+		for (int i = 0; i < componentCount; i++) {
+			final int child = compileComponent(componentVariables[i], componentClauses[i]);
+			if (child == FALSE_NODE) {
+				return FALSE_NODE;
+			}
+			children[i] = child;
+		}
+		if ((literals.length == 0) && (freeVariables.length == 0) && (children.length == 1)) {
+			return children[0];
+		}
+		return addAndNode(literals, freeVariables, children);
+	}
+
+	private int collectClauses(int[] occurrences, int epoch, int clauseCount) {
+		for (final int clauseIndex : occurrences) {
+			if (clauseMarks[clauseIndex] != epoch) {
+				clauseMarks[clauseIndex] = epoch;
+				if (!isSatisfied(clauses[clauseIndex])) {
+					clauseBuffer[clauseCount++] = clauseIndex;
+				}
+			}
+		}
+		return clauseCount;
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			final byte value = values[Math.abs(literal)];
+			if ((value != 0) && ((value > 0) == (literal > 0))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Selects the variable that occurs most often in the unsatisfied clauses of the component.
+	 */
+	private int selectVariable(int[] variables, int[] clauseIndices) {
+		for (final int clauseIndex : clauseIndices) {
+			for (final int literal : clauses[clauseIndex]) {
+				final int var = Math.abs(literal);
+				if (values[var] == 0) {
+					scores[var]++;
+				}
+			}
+		}
+		int bestVariable = variables[0];
+		int bestScore = -1;
+		for (final int var : variables) {
+			final int score = scores[var];
+			if (score > bestScore) {
+				bestScore = score;
+				bestVariable = var;
+			}
+			scores[var] = 0;
+		}
+		return bestVariable;
+	}
+
+	private void assign(int literal) {
+		values[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+		trail[trailSize++] = literal;
+	}
+
+	private void undo(int mark) {
+		for (int i = trailSize - 1; i >= mark; i--) {
+			values[Math.abs(trail[i])] = 0;
+		}
+		trailSize = mark;
+	}
+
+	/**
+	 * Performs unit propagation for all literals in the trail, starting at the given position.
+	 *
+	 * @return {@code false} if a conflict occurred, {@code true} otherwise.
+	 */
+	private boolean propagate(int start) {
+		for (int i = start; i < trailSize; i++) {
+			final int literal = trail[i];
+			final int[] occurrences = literal > 0 ? negativeOccurrences[literal] : positiveOccurrences[-literal];
+			clauseLoop: for (final int clauseIndex : occurrences) {
+				int unassignedCount = 0;
+				int unitLiteral = 0;
+				for (final int clauseLiteral : clauses[clauseIndex]) {
+					final byte value = values[Math.abs(clauseLiteral)];
+					if (value == 0) {
+						unassignedCount++;
+						unitLiteral = clauseLiteral;
+					} else if ((value > 0) == (clauseLiteral > 0)) {
+						continue clauseLoop;
+					}
+				}
+				if (unassignedCount == 0) {
+					return false;
+				} else if (unassignedCount == 1) {
+					assign(unitLiteral);
+				}
+			}
+		}
+		return true;
+	}
+
+	private int addAndNode(int[] literals, int[] freeVariables, int[] children) {
+		final int[] data = new int[literals.length + freeVariables.length + children.length + 3];
+		int index = 0;
+		data[index++] = literals.length;
+		System.arraycopy(literals, 0, data, index, literals.length);
+		index += literals.length;
+		data[index++] = freeVariables.length;
+		System.arraycopy(freeVariables, 0, data, index, freeVariables.length);
+		index += freeVariables.length;
+		data[index++] = children.length;
+		System.arraycopy(children, 0, data, index, children.length);
+		return addNode(DDNNF.NODE_AND, data);
+	}
+
+	private int addNode(byte type, int... data) {
+		if (nodeCount == nodeTypes.length) {
+			nodeTypes = Arrays.copyOf(nodeTypes, nodeCount << 1);
+			nodeOffsets = Arrays.copyOf(nodeOffsets, nodeCount << 1);
+		}
+		if ((dataSize + data.length) > nodeData.length) {
+			nodeData = Arrays.copyOf(nodeData, Math.max(nodeData.length << 1, dataSize + data.length));
+		}
+		nodeTypes[nodeCount] = type;
+		nodeOffsets[nodeCount] = dataSize;
+		System.arraycopy(data, 0, nodeData, dataSize, data.length);
+		dataSize += data.length;
+		return nodeCount++;
+	}
+
+}
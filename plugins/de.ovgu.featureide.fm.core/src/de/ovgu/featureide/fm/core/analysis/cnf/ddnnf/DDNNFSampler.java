@@ -0,0 +1,230 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.ddnnf;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Draws uniformly distributed solutions from a {@link DDNNF}. The solution counts of all nodes are computed once. Then, each solution is drawn in a single
+ * top-down pass: at every decision node, a child is chosen with a probability proportional to its number of solutions, all children of an and node are
+ * visited, and each free variable is chosen at random. Thus, every solution is drawn with the same probability.<br> <br> For each decision node, the
+ * probability of its first child is precomputed as a 62-bit fixed-point threshold, such that a choice only requires a single random {@code long}. Only if
+ * the random value equals the threshold, the remaining fraction is resolved exactly using {@link BigInteger} arithmetic. Hence, the distribution is exact
+ * and a draw does not allocate any objects in all but a negligible number of cases.<br> <br> An instance is not thread-safe, but multiple instances may share
+ * the same {@link DDNNF}.
+ *
+ * @author agent
+ */
+public class DDNNFSampler {
+
+	private final DDNNF ddnnf;
+	private final byte[] assignment;
+
+	private static final int PRECISION = 62;
+	private static final long ALWAYS_LEFT = Long.MAX_VALUE;
+	private static final long ALWAYS_RIGHT = -1;
+
+	private final BigInteger[] counts;
+	private final long[] thresholds;
+	private final int[] originalVariables;
+
+	private int[] stack;
+
+	private long randomBits;
+	private int remainingRandomBits;
+
+	/**
+	 * @param ddnnf the d-DNNF to sample from
+	 */
+	public DDNNFSampler(DDNNF ddnnf) {
+		this(ddnnf, null);
+	}
+
+	/**
+	 * @param ddnnf the d-DNNF to sample from
+	 * @param assumptions literals that must be contained in every drawn solution (using the original variable ids of the CNF). May be {@code null}.
+	 */
+	public DDNNFSampler(DDNNF ddnnf, LiteralSet assumptions) {
+		this.ddnnf = ddnnf;
+		final int numberOfNodes = ddnnf.nodeTypes.length;
+		if ((assumptions == null) || assumptions.isEmpty()) {
+			assignment = new byte[ddnnf.numberOfVariables + 1];
+			counts = ddnnf.getSolutionCounts();
+		} else {
+			final byte[] assumptionAssignment = ddnnf.createAssignment(assumptions);
+			if (assumptionAssignment == null) {
+				assignment = new byte[ddnnf.numberOfVariables + 1];
+				counts = new BigInteger[numberOfNodes];
+				Arrays.fill(counts, BigInteger.ZERO);
+			} else {
+				assignment = assumptionAssignment;
+				counts = ddnnf.computeSolutionCounts(assignment);
+			}
+		}
+
+		thresholds = new long[numberOfNodes];
+		for (int id = 0; id < numberOfNodes; id++) {
+			if ((ddnnf.nodeTypes[id] == DDNNF.NODE_OR) && (counts[id].signum() > 0)) {
+				final BigInteger leftCount = counts[ddnnf.nodeData[ddnnf.nodeOffsets[id]]];
+				if (leftCount.signum() == 0) {
+					thresholds[id] = ALWAYS_RIGHT;
+				} else if (leftCount.equals(counts[id])) {
+					thresholds[id] = ALWAYS_LEFT;
+				} else {
+					thresholds[id] = leftCount.shiftLeft(PRECISION).divide(counts[id]).longValue();
+				}
+			}
+		}
+		originalVariables = new int[ddnnf.numberOfVariables + 1];
+		for (int var = 1; var <= ddnnf.numberOfVariables; var++) {
+			originalVariables[var] = Math.abs(ddnnf.variables.convertToOriginal(var));
+		}
+		stack = new int[Math.max(16, numberOfNodes)];
+	}
+
+	/**
+	 * @return the number of solutions that can be drawn (i.e., the number of solutions of the formula that satisfy the assumptions)
+	 */
+	public BigInteger countSolutions() {
+		return counts[ddnnf.root];
+	}
+
+	public boolean isSatisfiable() {
+		return counts[ddnnf.root].signum() > 0;
+	}
+
+	/**
+	 * Draws a uniformly distributed solution.
+	 *
+	 * @param random the random generator
+	 * @return a complete solution (using the original variable ids) or {@code null} if there is no solution
+	 */
+	public LiteralSet sample(Random random) {
+		final int[] solution = new int[ddnnf.numberOfVariables];
+		return sample(random, solution) ? new LiteralSet(solution, Order.INDEX, false) : null;
+	}
+
+	/**
+	 * Draws a uniformly distributed solution and writes it into the given array. Does not allocate memory, unless the number of solutions of a visited
+	 * decision node exceeds the range of {@code long}.
+	 *
+	 * @param random the random generator
+	 * @param solution an array with a length of at least the number of variables. The literal of each variable is stored at the index {@code variable - 1}
+	 *        (using the original variable ids).
+	 * @return {@code true} if a solution was drawn, {@code false} if there is no solution
+	 */
+	public boolean sample(Random random, int[] solution) {
+		if (!isSatisfiable()) {
+			return false;
+		}
+		remainingRandomBits = 0;
+		final byte[] nodeTypes = ddnnf.nodeTypes;
+		final int[] nodeOffsets = ddnnf.nodeOffsets;
+		final int[] nodeData = ddnnf.nodeData;
+
+		int stackSize = 0;
+		stack[stackSize++] = ddnnf.root;
+		while (stackSize > 0) {
+			final int id = stack[--stackSize];
+			int index = nodeOffsets[id];
+			switch (nodeTypes[id]) {
+			case DDNNF.NODE_OR: {
+				final int left = nodeData[index];
+				stack[stackSize++] = chooseLeft(random, id, left) ? left : nodeData[index + 1];
+				break;
+			}
+			case DDNNF.NODE_AND: {
+				final int literalEnd = index + 1 + nodeData[index];
+				for (index++; index < literalEnd; index++) {
+					final int literal = nodeData[index];
+					final int var = Math.abs(literal);
+					solution[originalVariables[var] - 1] = literal > 0 ? originalVariables[var] : -originalVariables[var];
+				}
+				final int freeEnd = index + 1 + nodeData[index];
+				for (index++; index < freeEnd; index++) {
+					final int var = nodeData[index];
+					final boolean selected = assignment[var] == 0 ? nextBoolean(random) : assignment[var] > 0;
+					solution[originalVariables[var] - 1] = selected ? originalVariables[var] : -originalVariables[var];
+				}
+				final int childEnd = index + 1 + nodeData[index];
+				final int childCount = nodeData[index];
+				if ((stackSize + childCount) > stack.length) {
+					stack = Arrays.copyOf(stack, Math.max(stack.length << 1, stackSize + childCount));
+				}
+				for (index++; index < childEnd; index++) {
+					stack[stackSize++] = nodeData[index];
+				}
+				break;
+			}
+			default:
+				throw new AssertionError(nodeTypes[id]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Chooses the first child of a decision node with a probability of {@code p = count(left) / count(node)}. A random value {@code r} with
+	 * {@value #PRECISION} bits represents the first bits of a uniformly distributed real number {@code u} in [0, 1). The threshold {@code t} is the floor of
+	 * {@code p * 2^PRECISION}. If {@code r != t}, comparing {@code r} and {@code t} is equivalent to comparing {@code u} and {@code p}. Otherwise, the
+	 * remaining bits of {@code u} are compared to the remaining fraction of {@code p}.
+	 */
+	private boolean chooseLeft(Random random, int id, int left) {
+		final long threshold = thresholds[id];
+		if (threshold == ALWAYS_LEFT) {
+			return true;
+		} else if (threshold == ALWAYS_RIGHT) {
+			return false;
+		}
+		final long value = random.nextLong() >>> (Long.SIZE - PRECISION);
+		if (value != threshold) {
+			return value < threshold;
+		}
+		final BigInteger count = counts[id];
+		final BigInteger remainder = counts[left].shiftLeft(PRECISION).subtract(BigInteger.valueOf(threshold).multiply(count));
+		final int bitLength = count.bitLength();
+		BigInteger fraction;
+		do {
+			fraction = new BigInteger(bitLength, random);
+		} while (fraction.compareTo(count) >= 0);
+		return fraction.compareTo(remainder) < 0;
+	}
+
+	/**
+	 * Returns a random bit. Uses all bits of a random {@code long} before drawing the next one.
+	 */
+	private boolean nextBoolean(Random random) {
+		if (remainingRandomBits == 0) {
+			randomBits = random.nextLong();
+			remainingRandomBits = Long.SIZE;
+		}
+		remainingRandomBits--;
+		final boolean bit = (randomBits & 1) != 0;
+		randomBits >>>= 1;
+		return bit;
+	}
+
+}
@@ -34,7 +34,7 @@ public abstract class ACreator<T> {
 	protected FeatureModelFormula formula;
 
 	private ReentrantLock lock;
-	private T formulaElement;
+	private volatile T formulaElement;
 
 	T get() {
 		lock.lock();
@@ -48,6 +48,10 @@ public abstract class ACreator<T> {
 		}
 	}
 
+	T getIfPresent() {
+		return formulaElement;
+	}
+
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
 		lock = new ReentrantLock();
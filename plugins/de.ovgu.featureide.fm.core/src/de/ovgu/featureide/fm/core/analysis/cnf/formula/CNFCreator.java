@@ -20,21 +20,58 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.prop4j.Node;
+
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.binary.BinaryCNFFormat;
 
 /**
- * Creates a {@link CNF}.
+ * Creates a {@link CNF}. Uses the {@link HybridCNFCreator}, if the formula has a {@link FeatureModelFormula#getDistributionThreshold() distribution
+ * threshold}, and the {@link FormulaCache}, if enabled.
  *
  * @author Sebastian Krieter
  */
 public class CNFCreator extends ACreator<CNF> {
 
+	private static final String CACHE_KEY = "cnf";
+
 	@Override
 	protected CNF create() {
-		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false);
-		cnf.addClauses(Nodes.convert(cnf.getVariables(), formula.getElement(new CNFNodeCreator())));
+		final BinaryCNFFormat format = new BinaryCNFFormat();
+		final byte[] key = FormulaCache.computeKey(formula, CACHE_KEY);
+		final CNF cachedCNF = FormulaCache.read(key, format);
+		if (cachedCNF != null) {
+			final List<String> auxiliaryVariables = new ArrayList<>();
+			for (final String name : cachedCNF.getVariables().getNames()) {
+				if ((name != null) && Variables.isAuxiliary(name)) {
+					auxiliaryVariables.add(name);
+				}
+			}
+			final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false, auxiliaryVariables);
+			if (cnf.getVariables().equals(cachedCNF.getVariables())) {
+				cnf.addClauses(cachedCNF.getClauses());
+				return cnf;
+			}
+		}
+
+		final CNF cnf = createCNF();
+		FormulaCache.write(key, format, cnf);
+		return cnf;
+	}
+
+	private CNF createCNF() {
+		if (formula.getDistributionThreshold() > 0) {
+			return formula.getElement(new HybridCNFCreator(formula.getDistributionThreshold()));
+		}
+		final Node cnfNode = formula.getElement(new CNFNodeCreator());
+		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false, Nodes.getAuxiliaryVariables(cnfNode));
+		cnf.addClauses(Nodes.convert(cnf.getVariables(), cnfNode));
 		return cnf;
 	}
 
@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 
 /**
  * Creates a {@link Node} in CNF.
@@ -33,7 +34,11 @@ public class CNFNodeCreator extends ACreator<Node> {
 
 	@Override
 	protected Node create() {
-		return AdvancedNodeCreator.createRegularCNF(formula.getFeatureModel());
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(formula.getFeatureModel());
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setCardinalityEncoding(formula.getCardinalityEncoding());
+		return nodeCreator.createNodes();
 	}
 
 }
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Creates a {@link DDNNF} from the {@link CNF} of a given {@link ACreator CNF creator} (default is {@link CNFCreator}).<br> Optionally, the compilation is
+ * bounded by a timeout. If the timeout is exceeded, no {@link DDNNF} is created (and cached), such that the compilation is tried again with the next request.
+ * Creators with different timeouts are cached separately.
+ *
+ * @author agent
+ */
+public class DDNNFCreator extends ACreator<DDNNF> {
+
+	private final ACreator<CNF> cnfCreator;
+	private final long timeout;
+
+	public DDNNFCreator() {
+		this(new CNFCreator());
+	}
+
+	public DDNNFCreator(ACreator<CNF> cnfCreator) {
+		this(cnfCreator, 0);
+	}
+
+	/**
+	 * @param cnfCreator the creator of the CNF to compile
+	 * @param timeout the timeout for the compilation in milliseconds (a value less than or equal to 0 means no timeout)
+	 */
+	public DDNNFCreator(ACreator<CNF> cnfCreator, long timeout) {
+		this.cnfCreator = cnfCreator;
+		this.timeout = timeout > 0 ? timeout : 0;
+	}
+
+	@Override
+	protected DDNNF create() {
+		final DDNNFCompiler compiler = new DDNNFCompiler(formula.getElement(cnfCreator));
+		compiler.setTimeout(timeout);
+		try {
+			return compiler.execute(new NullMonitor<DDNNF>());
+		} catch (final RuntimeTimeoutException e) {
+			return null;
+		} catch (final Exception e) {
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * ((31 * super.hashCode()) + cnfCreator.hashCode())) + Long.hashCode(timeout);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && cnfCreator.equals(((DDNNFCreator) obj).cnfCreator) && (timeout == ((DDNNFCreator) obj).timeout);
+	}
+
+}
@@ -27,7 +27,9 @@ import org.prop4j.Node;
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CardinalityEncoding;
 
 /**
  * Holds certain {@link ACreator elements} that can be derived from a feature model.
@@ -61,16 +63,67 @@ public class FeatureModelFormula {
 		return (T) mappedFormulaElement.get();
 	}
 
+	/**
+	 * Get an element that can be derived from the associated feature model only if there is already a cached instance. In contrast to
+	 * {@link #getElement(ACreator)}, this method never computes the requested object and never waits for a running computation.
+	 *
+	 * @return the cached instance or {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCachedElement(ACreator<T> formulaElement) {
+		final ACreator<?> mappedFormulaElement;
+		synchronized (map) {
+			mappedFormulaElement = map.get(formulaElement);
+		}
+		return mappedFormulaElement == null ? null : (T) mappedFormulaElement.getIfPresent();
+	}
+
 	private final IFeatureModel featureModel;
 
+	private final CardinalityEncoding cardinalityEncoding;
+
+	private final int distributionThreshold;
+
 	public FeatureModelFormula(IFeatureModel featureModel) {
+		this(featureModel, CardinalityEncoding.Pairwise);
+	}
+
+	public FeatureModelFormula(IFeatureModel featureModel, CardinalityEncoding cardinalityEncoding) {
+		this(featureModel, cardinalityEncoding, 0);
+	}
+
+	/**
+	 * Creates a new formula for the given feature model.
+	 *
+	 * @param featureModel the feature model
+	 * @param cardinalityEncoding the encoding for alternative groups and cardinality operators that is used when creating the {@link #getCNF() CNF}. Auxiliary
+	 *        variables introduced by the encoding are only contained in the CNF and not in {@link #getVariables()}.
+	 * @param distributionThreshold if greater than 0, the {@link #getCNF() CNF} is created by the {@link HybridCNFCreator} with this threshold, i.e., the
+	 *        distributive law is only applied to cross-tree constraints as long as the number of resulting clauses stays below the threshold. Otherwise, the
+	 *        distributive law is always applied.
+	 */
+	public FeatureModelFormula(IFeatureModel featureModel, CardinalityEncoding cardinalityEncoding, int distributionThreshold) {
 		this.featureModel = featureModel;
+		this.cardinalityEncoding = cardinalityEncoding;
+		this.distributionThreshold = Math.max(0, distributionThreshold);
 	}
 
 	public IFeatureModel getFeatureModel() {
 		return featureModel;
 	}
 
+	public CardinalityEncoding getCardinalityEncoding() {
+		return cardinalityEncoding;
+	}
+
+	/**
+	 * @return the threshold that is used by the {@link HybridCNFCreator} to create the {@link #getCNF() CNF} or 0, if the CNF is created using only the
+	 *         distributive law
+	 */
+	public int getDistributionThreshold() {
+		return distributionThreshold;
+	}
+
 	public Variables getVariables() {
 		return getElement(new EmptyCNFCreator()).getVariables();
 	}
@@ -84,6 +137,16 @@ public class FeatureModelFormula {
 		return getElement(new CNFCreator());
 	}
 
+	/**
+	 * Get the modal implication graph for the associated feature model.<br> Convenience method, fully equivalent to
+	 * {@code getElement(new ModalImplicationGraphCreator())}.
+	 *
+	 * @return the modal implication graph or {@code null} if it could not be created
+	 */
+	public ModalImplicationGraph getModalImplicationGraph() {
+		return getElement(new ModalImplicationGraphCreator());
+	}
+
 	public Node getPropositionalNode() {
 		return getElement(new NodeCreator());
 	}
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import org.prop4j.Node;
+
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
@@ -40,8 +42,10 @@ public class FeatureTreeCNFCreator extends ACreator<CNF> {
 		nodeCreator.setModelType(ModelType.OnlyStructure);
 		nodeCreator.setCnfType(CNFType.Regular);
 		nodeCreator.setIncludeBooleanValues(false);
-		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false);
-		cnf.addClauses(Nodes.convert(cnf.getVariables(), nodeCreator.createNodes()));
+		nodeCreator.setCardinalityEncoding(formula.getCardinalityEncoding());
+		final Node cnfNode = nodeCreator.createNodes();
+		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false, Nodes.getAuxiliaryVariables(cnfNode));
+		cnf.addClauses(Nodes.convert(cnf.getVariables(), cnfNode));
 		return cnf;
 	}
 
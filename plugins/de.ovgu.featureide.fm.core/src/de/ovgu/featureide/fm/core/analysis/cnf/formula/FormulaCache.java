@@ -0,0 +1,239 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.io.binary.ABinaryFormat;
+
+/**
+ * Persistent cache for elements derived from a {@link FeatureModelFormula}, such as the {@link CNFCreator CNF} and the {@link ModalImplicationGraphCreator
+ * modal implication graph}. Elements are stored in a {@link ABinaryFormat binary format} and are keyed by a content hash of the feature model, such that an
+ * element can be loaded instead of recomputed as long as the feature model does not change. The key of an element is computed once by
+ * {@link #computeKey(FeatureModelFormula, String)} and then passed to {@link #read(byte[], ABinaryFormat)} and {@link #write(byte[], ABinaryFormat, Object)}.<br>
+ * <br> The cache is disabled by default. It can be enabled by
+ * {@link #setCacheDirectory(Path) setting a cache directory} or by using the system property {@value #CACHE_DIRECTORY_PROPERTY}. The directory holds at most
+ * {@value #MAX_FILES} files, the least recently used files are removed first.
+ *
+ * @author agent
+ */
+public final class FormulaCache {
+
+	public static final String CACHE_DIRECTORY_PROPERTY = "featureide.formula.cache";
+
+	public static final int MAX_FILES = 64;
+
+	private static Path cacheDirectory;
+
+	static {
+		final String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+		if ((directory != null) && !directory.isEmpty()) {
+			cacheDirectory = Paths.get(directory);
+		}
+	}
+
+	public static Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * @param cacheDirectory the directory to store cached elements in; {@code null} disables the cache.
+	 */
+	public static void setCacheDirectory(Path cacheDirectory) {
+		FormulaCache.cacheDirectory = cacheDirectory;
+	}
+
+	public static boolean isEnabled() {
+		return cacheDirectory != null;
+	}
+
+	/**
+	 * Loads a cached element.
+	 *
+	 * @param key the key of the element as computed by {@link #computeKey(FeatureModelFormula, String)}
+	 * @param format the format of the element
+	 * @return the cached element or {@code null} if the cache is disabled or does not contain the element for the given key.
+	 */
+	public static <T> T read(byte[] key, ABinaryFormat<T> format) {
+		final Path directory = cacheDirectory;
+		if ((directory == null) || (key == null)) {
+			return null;
+		}
+		try {
+			final Path path = getPath(directory, key, format);
+			final T element = format.read(path, key);
+			if (element != null) {
+				Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+			}
+			return element;
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores an element in the cache. Does nothing if the cache is disabled.
+	 *
+	 * @param key the key of the element as computed by {@link #computeKey(FeatureModelFormula, String)}
+	 * @param format the format of the element
+	 * @param element the element
+	 */
+	public static <T> void write(byte[] key, ABinaryFormat<T> format, T element) {
+		final Path directory = cacheDirectory;
+		if ((directory == null) || (key == null)) {
+			return;
+		}
+		try {
+			format.write(getPath(directory, key, format), element, key);
+			prune(directory);
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+	}
+
+	private static void prune(Path directory) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.bin")) {
+			for (final Path file : stream) {
+				files.add(file);
+			}
+		}
+		if (files.size() > MAX_FILES) {
+			files.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+			for (final Path file : files.subList(0, files.size() - MAX_FILES)) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	private static Path getPath(Path directory, byte[] key, ABinaryFormat<?> format) {
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : key) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+		sb.append('.');
+		sb.append(format.getSuffix());
+		return directory.resolve(sb.toString());
+	}
+
+	/**
+	 * Computes the key of an element, i.e., a hash of all information that determine the element: the element key, the cardinality encoding, the
+	 * distribution threshold, the order of the features, the feature tree, and the constraints. The hash is computed directly from the structure of the
+	 * feature model, such that the propositional formula does not need to be created.
+	 *
+	 * @param formula the formula the element is derived from
+	 * @param elementKey identifies the element and all parameters that were used to create it
+	 * @return the key or {@code null} if the cache is disabled.
+	 */
+	public static byte[] computeKey(FeatureModelFormula formula, String elementKey) {
+		if (cacheDirectory == null) {
+			return null;
+		}
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		update(digest, elementKey);
+		update(digest, formula.getCardinalityEncoding().name());
+		update(digest, formula.getDistributionThreshold());
+
+		final IFeatureModel featureModel = formula.getFeatureModel();
+		final List<String> names = FeatureUtils.getFeatureNamesList(featureModel);
+		update(digest, names.size());
+		for (final String name : names) {
+			update(digest, name);
+		}
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		if (root != null) {
+			update(digest, root);
+		}
+		final List<IConstraint> constraints = featureModel.getConstraints();
+		update(digest, constraints.size());
+		for (final IConstraint constraint : constraints) {
+			update(digest, constraint.getNode());
+		}
+		return digest.digest();
+	}
+
+	private static void update(MessageDigest digest, IFeatureStructure structure) {
+		update(digest, structure.getFeature().getName());
+		update(digest, (structure.isMandatory() ? 1 : 0) | (structure.isAnd() ? 2 : 0) | (structure.isOr() ? 4 : 0) | (structure.isAlternative() ? 8 : 0));
+		final List<IFeatureStructure> children = structure.getChildren();
+		update(digest, children.size());
+		for (final IFeatureStructure child : children) {
+			update(digest, child);
+		}
+	}
+
+	private static void update(MessageDigest digest, Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			update(digest, literal.positive ? 1 : 0);
+			update(digest, String.valueOf(literal.var));
+		} else {
+			update(digest, node.getClass().getName());
+			final Node[] children = node.getChildren();
+			update(digest, children.length);
+			for (final Node child : children) {
+				update(digest, child);
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		update(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void update(MessageDigest digest, int value) {
+		digest.update((byte) (value >>> 24));
+		digest.update((byte) (value >>> 16));
+		digest.update((byte) (value >>> 8));
+		digest.update((byte) value);
+	}
+
+	private FormulaCache() {}
+
+}
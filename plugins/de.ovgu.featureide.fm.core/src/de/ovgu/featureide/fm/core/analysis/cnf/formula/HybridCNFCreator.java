@@ -0,0 +1,77 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import org.prop4j.HybridCNFTransformer;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+
+/**
+ * Creates a {@link CNF} that uses the distributive law for cross-tree constraints only as long as the number of resulting clauses stays below a given
+ * threshold (see {@link HybridCNFTransformer}). Introduced auxiliary variables are appended to the feature variables (see {@link Variables#isAuxiliary(int)}).
+ * They are removed from the results of all configuration generators and are not considered as interactions by the t-wise generator.
+ *
+ * @author agent
+ */
+public class HybridCNFCreator extends ACreator<CNF> {
+
+	public static final int DEFAULT_DISTRIBUTION_THRESHOLD = 64;
+
+	private final int distributionThreshold;
+
+	public HybridCNFCreator() {
+		this(DEFAULT_DISTRIBUTION_THRESHOLD);
+	}
+
+	public HybridCNFCreator(int distributionThreshold) {
+		this.distributionThreshold = distributionThreshold;
+	}
+
+	@Override
+	protected CNF create() {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(formula.getFeatureModel());
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setCardinalityEncoding(formula.getCardinalityEncoding());
+		nodeCreator.setDistributionThreshold(distributionThreshold);
+		final Node cnfNode = nodeCreator.createNodes();
+		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false, Nodes.getAuxiliaryVariables(cnfNode));
+		cnf.addClauses(Nodes.convert(cnf.getVariables(), cnfNode));
+		return cnf;
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + distributionThreshold;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && (distributionThreshold == ((HybridCNFCreator) obj).distributionThreshold);
+	}
+
+}
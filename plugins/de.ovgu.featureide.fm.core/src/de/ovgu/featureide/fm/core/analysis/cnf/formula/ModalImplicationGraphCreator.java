@@ -22,10 +22,11 @@ package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
 import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
 import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.io.binary.BinaryMIGFormat;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
 /**
- * Creates a {@link ModalImplicationGraph}.
+ * Creates a {@link ModalImplicationGraph}. Uses the {@link FormulaCache}, if enabled.
  *
  * @author Sebastian Krieter
  */
@@ -35,7 +36,16 @@ public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph
 
 	@Override
 	protected ModalImplicationGraph create() {
-		return LongRunningWrapper.runMethod(new MIGBuilder(formula.getElement(new CNFCreator()), complete));
+		final byte[] key = FormulaCache.computeKey(formula, "mig" + (complete ? ":complete" : ""));
+		final BinaryMIGFormat format = new BinaryMIGFormat();
+		ModalImplicationGraph mig = FormulaCache.read(key, format);
+		if (mig == null) {
+			mig = LongRunningWrapper.runMethod(new MIGBuilder(formula.getElement(new CNFCreator()), complete));
+			if (mig != null) {
+				FormulaCache.write(key, format, mig);
+			}
+		}
+		return mig;
 	}
 
 	public boolean isComplete() {
@@ -21,12 +21,16 @@
 package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AbstractAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -42,6 +46,8 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 
 	private final List<LiteralSet> resultList = new ArrayList<>();
 	private final LinkedBlockingQueue<LiteralSet> resultQueue;
+	private Consumer<LiteralSet> resultConsumer = null;
+	private boolean[] auxiliaryVariables = null;
 
 	public AConfigurationGenerator(CNF cnf) {
 		this(cnf, Integer.MAX_VALUE);
@@ -67,6 +73,7 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 	public List<LiteralSet> analyze(IMonitor<List<LiteralSet>> monitor) throws Exception {
 		resultList.clear();
 		resultQueue.clear();
+		auxiliaryVariables = getAuxiliaryVariables(solver.getSatInstance().getVariables());
 
 		generate(monitor);
 
@@ -75,7 +82,18 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 
 	protected abstract void generate(IMonitor<List<LiteralSet>> monitor) throws Exception;
 
+	/**
+	 * Adds a configuration to the result. {@link Variables#isAuxiliary(int) Auxiliary variables}, which are introduced by some CNF encodings and do not
+	 * correspond to any feature, are removed from the configuration (see {@link #removeAuxiliaryVariables(LiteralSet)}).
+	 *
+	 * @param result the configuration
+	 */
 	protected void addResult(LiteralSet result) {
+		result = removeAuxiliaryVariables(result);
+		if (resultConsumer != null) {
+			resultConsumer.accept(result);
+			return;
+		}
 		resultList.add(result);
 		try {
 			resultQueue.put(result);
@@ -84,9 +102,58 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 		}
 	}
 
+	/**
+	 * Removes all {@link Variables#isAuxiliary(int) auxiliary variables} from the given configuration. For a configuration in {@link Order#INDEX index
+	 * order}, the auxiliary variables must be the last variables (as for every {@link de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF
+	 * FeatureModelCNF}), such that the result is still in index order.
+	 *
+	 * @param configuration the configuration
+	 * @return the configuration without auxiliary variables
+	 */
+	protected LiteralSet removeAuxiliaryVariables(LiteralSet configuration) {
+		if (auxiliaryVariables == null) {
+			return configuration;
+		}
+		final int[] literals = configuration.getLiterals();
+		final int[] projectedLiterals = new int[literals.length];
+		int size = 0;
+		if (configuration.getOrder() == Order.INDEX) {
+			for (int i = 0; i < literals.length; i++) {
+				if (((i + 1) >= auxiliaryVariables.length) || !auxiliaryVariables[i + 1]) {
+					projectedLiterals[size++] = literals[i];
+				}
+			}
+		} else {
+			for (final int literal : literals) {
+				if ((Math.abs(literal) >= auxiliaryVariables.length) || !auxiliaryVariables[Math.abs(literal)]) {
+					projectedLiterals[size++] = literal;
+				}
+			}
+		}
+		return size == literals.length ? configuration : new LiteralSet(Arrays.copyOf(projectedLiterals, size), configuration.getOrder(), false);
+	}
+
+	private static boolean[] getAuxiliaryVariables(Variables variables) {
+		boolean[] auxiliaryVariables = null;
+		for (int var = 1; var <= variables.size(); var++) {
+			if (variables.isAuxiliary(var)) {
+				if (auxiliaryVariables == null) {
+					auxiliaryVariables = new boolean[variables.size() + 1];
+				}
+				auxiliaryVariables[var] = true;
+			}
+		}
+		return auxiliaryVariables;
+	}
+
 	@Override
 	public LinkedBlockingQueue<LiteralSet> getResultQueue() {
 		return resultQueue;
 	}
 
+	@Override
+	public void setResultConsumer(Consumer<LiteralSet> resultConsumer) {
+		this.resultConsumer = resultConsumer;
+	}
+
 }
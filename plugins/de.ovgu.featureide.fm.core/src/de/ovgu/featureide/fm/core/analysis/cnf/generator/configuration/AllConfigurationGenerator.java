@@ -20,23 +20,124 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Generates all configurations for a given propositional formula.
+ * Generates all configurations for a given propositional formula.<br> <br> After each solution, a blocking clause is added to the solver. Instead of
+ * negating the complete solution, the blocking clause only contains the negation of the <i>decision literals</i> of the solution, i.e., a subset of
+ * literals that implies all other literals via the binary clauses of the formula. Thus, the clause excludes exactly the same solution, but is usually much
+ * shorter.<br> <br> If more than one thread is used (see {@link #setNumberOfThreads(int)}) or {@link #setNumberOfCubeVariables(int) cube variables} are
+ * set, the search space is split into disjoint cubes over the variables that occur in the most clauses (cube-and-conquer). Only variables that are not
+ * implied by a cube are used to split it further. Each worker thread enumerates its cubes with its own solver, which assumes the literals of the current
+ * cube. The blocking clauses of a cube are removed afterwards, such that they do not accumulate. By default, the configurations are returned in the order of
+ * their cubes, such that the result does not depend on the number of threads. The configurations of the first unfinished cube are passed on directly, while
+ * the configurations of later cubes are buffered. To bound the memory, a cube is only started if it is less than twice the number of threads cubes ahead
+ * of the first unfinished cube. If the order is not needed (see {@link #setOrdered(boolean)}), all configurations are passed on directly.
  *
  * @author Sebastian Krieter
  */
 public class AllConfigurationGenerator extends AConfigurationGenerator {
 
+	/**
+	 * Computes the blocking clause for a solution based on the implications of the binary clauses of a formula. The implication lists are shared between
+	 * instances, the remaining state is not thread-safe.
+	 */
+	private static final class BlockingClauseBuilder {
+
+		private final int[][] implications;
+		private final int[] fixedLiterals;
+
+		private final int[] marks;
+		private final int[] queue;
+		private int stamp = 0;
+
+		BlockingClauseBuilder(int[][] implications, int[] fixedLiterals) {
+			this.implications = implications;
+			this.fixedLiterals = fixedLiterals;
+			marks = new int[(implications.length >> 1) + 1];
+			queue = new int[marks.length];
+		}
+
+		/**
+		 * @param solution a complete solution (internal variable ids)
+		 * @param assumptions literals of the solution that are assumed by the solver and thus must be added to the blocking clause (may be empty)
+		 * @param units literals of the solution that are unit clauses in the solver and thus can be omitted from the blocking clause (may be empty)
+		 * @return the literals of the blocking clause
+		 */
+		int[] build(int[] solution, int[] assumptions, int[] units) {
+			if (++stamp == 0) {
+				Arrays.fill(marks, 0);
+				stamp = 1;
+			}
+			for (final int literal : fixedLiterals) {
+				propagate(literal);
+			}
+			for (final int literal : assumptions) {
+				propagate(literal);
+			}
+			for (final int literal : units) {
+				propagate(literal);
+			}
+			final int[] clause = new int[solution.length + assumptions.length];
+			int size = 0;
+			for (final int literal : solution) {
+				if ((literal != 0) && (marks[Math.abs(literal)] != stamp)) {
+					clause[size++] = -literal;
+					propagate(literal);
+				}
+			}
+			for (final int literal : assumptions) {
+				clause[size++] = -literal;
+			}
+			return Arrays.copyOf(clause, size);
+		}
+
+		private void propagate(int literal) {
+			final int var = Math.abs(literal);
+			if (marks[var] == stamp) {
+				return;
+			}
+			marks[var] = stamp;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = literal;
+			while (head < tail) {
+				final int next = queue[head++];
+				for (final int implied : implications[getIndex(next)]) {
+					final int impliedVar = Math.abs(implied);
+					if (marks[impliedVar] != stamp) {
+						marks[impliedVar] = stamp;
+						queue[tail++] = implied;
+					}
+				}
+			}
+		}
+
+	}
+
+	private int numberOfCubeVariables = -1;
+	private boolean ordered = true;
+
+	private List<List<LiteralSet>> cubeBuffers;
+	private boolean[] completedCubes;
+	private int nextCube;
+	private int numberOfResults;
+	private volatile boolean limitReached;
+
 	public AllConfigurationGenerator(CNF cnf) {
 		super(cnf);
 	}
@@ -53,21 +154,321 @@ public class AllConfigurationGenerator extends AConfigurationGenerator {
 		super(solver, maxNumber);
 	}
 
+	public int getNumberOfCubeVariables() {
+		return numberOfCubeVariables;
+	}
+
+	/**
+	 * Sets the number of variables that are used to split the search space into cubes. Thus, there are at most 2<sup>numberOfCubeVariables</sup> cubes.
+	 * As each cube is enumerated by a new solver, cubes are also beneficial for a sequential enumeration of many configurations. However, the new solvers
+	 * do not consider clauses that were added directly to the solver of this generator.
+	 *
+	 * @param numberOfCubeVariables the number of variables (a negative value results in a number that depends on the number of threads, which is zero
+	 *        for a sequential enumeration)
+	 */
+	public void setNumberOfCubeVariables(int numberOfCubeVariables) {
+		this.numberOfCubeVariables = numberOfCubeVariables;
+	}
+
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/**
+	 * Sets whether the configurations of different cubes are returned in the order of the cubes. Otherwise, they are returned as soon as they are found,
+	 * which avoids buffering, but the order of the configurations depends on the number of threads.
+	 *
+	 * @param ordered whether the configurations are returned in the order of the cubes (default is {@code true})
+	 */
+	public void setOrdered(boolean ordered) {
+		this.ordered = ordered;
+	}
+
 	@Override
 	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
-		for (int i = 0; i < maxSampleSize; i++) {
-			final int[] solution = solver.findSolution();
+		limitReached = false;
+		if (maxSampleSize <= 0) {
+			return;
+		}
+		final int[] firstSolution = solver.findSolution();
+		if (firstSolution == null) {
+			return;
+		}
+		final int numberOfVariables = firstSolution.length;
+		final IInternalVariables internalMapping = solver.getInternalMapping();
+		final int[] assumedLiterals = internalMapping.convertToInternal(solver.getAssignmentArray());
+
+		final int[][] implications = new int[numberOfVariables << 1][];
+		final int[] fixedLiterals = collectImplications(internalMapping, implications);
+
+		int cubeDepth = numberOfCubeVariables;
+		if (cubeDepth < 0) {
+			cubeDepth = isParallel(2) ? 32 - Integer.numberOfLeadingZeros((getNumberOfThreads() << 3) - 1) : 0;
+		}
+		if (cubeDepth == 0) {
+			enumerate(solver, null, new BlockingClauseBuilder(implications, fixedLiterals), assumedLiterals, new int[0], maxSampleSize, this::addResult,
+					monitor);
+		} else {
+			final int[] candidates = rankCubeVariables(numberOfVariables, internalMapping, assumedLiterals, fixedLiterals);
+			final List<int[]> cubes = new ArrayList<>();
+			createCubes(internalMapping, candidates, 0, new int[0], cubeDepth, cubes);
+			monitor.checkCancel();
+			enumerateCubes(internalMapping, cubes, implications, fixedLiterals, assumedLiterals, monitor);
+		}
+	}
+
+	private void enumerateCubes(IInternalVariables internalMapping, List<int[]> cubes, int[][] implications, int[] fixedLiterals, int[] assumedLiterals,
+			IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final int maxBufferedCubes = getNumberOfThreads() << 1;
+		cubeBuffers = new ArrayList<>(Collections.nCopies(cubes.size(), null));
+		completedCubes = new boolean[cubes.size()];
+		nextCube = 0;
+		numberOfResults = 0;
+		limitReached = false;
+		try {
+			runParallel(cubes.size(), (workerSolver, workerRandom, cubeIndex) -> {
+				try {
+					if (ordered) {
+						awaitCube(cubeIndex, maxBufferedCubes, monitor);
+					}
+					if (limitReached) {
+						return;
+					}
+					final int[] cube = cubes.get(cubeIndex);
+					final int[] cubeLiterals = Arrays.copyOf(assumedLiterals, assumedLiterals.length + cube.length);
+					System.arraycopy(cube, 0, cubeLiterals, assumedLiterals.length, cube.length);
+					final int assignmentSize = workerSolver.getAssignmentSize();
+					for (final int literal : cube) {
+						workerSolver.assignmentPush(internalMapping.convertToOriginal(literal));
+					}
+					// As the blocking clauses are removed after the cube, the literals of the cube can be omitted from them
+					final int numberOfBlockingClauses = enumerate(workerSolver, internalMapping, new BlockingClauseBuilder(implications, fixedLiterals),
+							new int[0], cubeLiterals, maxSampleSize, result -> addCubeResult(cubeIndex, result), monitor);
+					workerSolver.removeLastClauses(numberOfBlockingClauses);
+					workerSolver.assignmentClear(assignmentSize);
+				} finally {
+					completeCube(cubeIndex);
+				}
+			}, monitor);
+		} finally {
+			cubeBuffers = null;
+			completedCubes = null;
+		}
+	}
+
+	/**
+	 * Waits until the given cube is less than the given number of cubes ahead of the first unfinished cube. As cubes are started in ascending order, the
+	 * first unfinished cube is always processed by another worker.
+	 */
+	private synchronized void awaitCube(int cubeIndex, int maxBufferedCubes, IMonitor<List<LiteralSet>> monitor) throws InterruptedException {
+		while (!limitReached && (cubeIndex >= (nextCube + maxBufferedCubes))) {
+			synchronized (monitor) {
+				monitor.checkCancel();
+			}
+			wait(100);
+		}
+	}
+
+	/**
+	 * Passes a configuration of a cube to {@link #addResult(LiteralSet)} or buffers it, if the configurations of a previous cube are still incomplete.
+	 */
+	private synchronized void addCubeResult(int cubeIndex, LiteralSet result) {
+		if (!ordered || (cubeIndex == nextCube)) {
+			emitResult(result);
+		} else {
+			List<LiteralSet> buffer = cubeBuffers.get(cubeIndex);
+			if (buffer == null) {
+				buffer = new ArrayList<>();
+				cubeBuffers.set(cubeIndex, buffer);
+			}
+			buffer.add(result);
+		}
+	}
+
+	/**
+	 * Marks a cube as complete and passes the buffered configurations of all following cubes to {@link #addResult(LiteralSet)} until the next unfinished
+	 * cube.
+	 */
+	private synchronized void completeCube(int cubeIndex) {
+		completedCubes[cubeIndex] = true;
+		if (ordered) {
+			while ((nextCube < completedCubes.length) && completedCubes[nextCube]) {
+				nextCube++;
+				if (nextCube < completedCubes.length) {
+					final List<LiteralSet> buffer = cubeBuffers.set(nextCube, null);
+					if (buffer != null) {
+						for (final LiteralSet result : buffer) {
+							emitResult(result);
+						}
+					}
+				}
+			}
+		}
+		notifyAll();
+	}
+
+	private void emitResult(LiteralSet result) {
+		if (numberOfResults < maxSampleSize) {
+			addResult(result);
+			if (++numberOfResults >= maxSampleSize) {
+				limitReached = true;
+			}
+		}
+	}
+
+	/**
+	 * Enumerates the solutions of the given solver by adding a blocking clause for each solution.
+	 *
+	 * @param internalMapping if not {@code null}, blocking clauses that consist of a single literal are assumed instead of added, such that all added clauses
+	 *        can be removed again (unit clauses cannot be removed from the solver)
+	 * @return the number of blocking clauses that were added to the solver
+	 */
+	private int enumerate(ISatSolver cubeSolver, IInternalVariables internalMapping, BlockingClauseBuilder builder, int[] assumedLiterals,
+			int[] unitLiterals, int limit, Consumer<LiteralSet> results, IMonitor<List<LiteralSet>> monitor) {
+		int numberOfBlockingClauses = 0;
+		for (int i = 0; (i < limit) && !limitReached; i++) {
+			synchronized (monitor) {
+				monitor.checkCancel();
+			}
+			final int[] solution = cubeSolver.findSolution();
 			if (solution == null) {
 				break;
 			}
-			final LiteralSet result = new LiteralSet(Arrays.copyOf(solution, solution.length), Order.INDEX, false);
-			addResult(result);
+			results.accept(new LiteralSet(Arrays.copyOf(solution, solution.length), Order.INDEX, false));
+			final int[] blockingClause = builder.build(solution, assumedLiterals, unitLiterals);
+			if (blockingClause.length == 0) {
+				break;
+			}
+			if ((internalMapping != null) && (blockingClause.length == 1)) {
+				cubeSolver.assignmentPush(internalMapping.convertToOriginal(blockingClause[0]));
+				continue;
+			}
 			try {
-				solver.addInternalClause(result.negate());
+				cubeSolver.addInternalClause(new LiteralSet(blockingClause));
 			} catch (final RuntimeContradictionException e) {
 				break;
 			}
+			numberOfBlockingClauses++;
+		}
+		return numberOfBlockingClauses;
+	}
+
+	/**
+	 * Stores the implications of all binary clauses in the given array (index by {@link #getIndex(int)}).
+	 *
+	 * @return the literals of all unit clauses
+	 */
+	private int[] collectImplications(IInternalVariables internalMapping, int[][] implications) {
+		final int[] implicationCounts = new int[implications.length];
+		final List<int[]> binaryClauses = new ArrayList<>();
+		final List<Integer> unitLiterals = new ArrayList<>();
+		for (final LiteralSet clause : solver.getSatInstance().getClauses()) {
+			final int[] literals = internalMapping.convertToInternal(clause.getLiterals());
+			if (literals.length == 1) {
+				unitLiterals.add(literals[0]);
+			} else if (literals.length == 2) {
+				binaryClauses.add(literals);
+				implicationCounts[getIndex(-literals[0])]++;
+				implicationCounts[getIndex(-literals[1])]++;
+			}
+		}
+		for (int i = 0; i < implications.length; i++) {
+			implications[i] = new int[implicationCounts[i]];
+			implicationCounts[i] = 0;
+		}
+		for (final int[] literals : binaryClauses) {
+			final int index0 = getIndex(-literals[0]);
+			final int index1 = getIndex(-literals[1]);
+			implications[index0][implicationCounts[index0]++] = literals[1];
+			implications[index1][implicationCounts[index1]++] = literals[0];
 		}
+		final int[] fixedLiterals = new int[unitLiterals.size()];
+		for (int i = 0; i < fixedLiterals.length; i++) {
+			fixedLiterals[i] = unitLiterals.get(i);
+		}
+		return fixedLiterals;
+	}
+
+	/**
+	 * Sorts all variables that are not fixed by the number of clauses they occur in.
+	 *
+	 * @return the sorted variables (internal variable ids)
+	 */
+	private int[] rankCubeVariables(int numberOfVariables, IInternalVariables internalMapping, int[] assumedLiterals, int[] fixedLiterals) {
+		final int[] occurrences = new int[numberOfVariables + 1];
+		for (final LiteralSet clause : solver.getSatInstance().getClauses()) {
+			for (final int literal : internalMapping.convertToInternal(clause.getLiterals())) {
+				occurrences[Math.abs(literal)]++;
+			}
+		}
+		for (final int literal : assumedLiterals) {
+			occurrences[Math.abs(literal)] = -1;
+		}
+		for (final int literal : fixedLiterals) {
+			occurrences[Math.abs(literal)] = -1;
+		}
+		final List<Integer> candidates = new ArrayList<>();
+		for (int var = 1; var <= numberOfVariables; var++) {
+			if (occurrences[var] >= 0) {
+				candidates.add(var);
+			}
+		}
+		candidates.sort((v1, v2) -> occurrences[v2] != occurrences[v1] ? occurrences[v2] - occurrences[v1] : v1 - v2);
+		final int[] cubeVariables = new int[candidates.size()];
+		for (int i = 0; i < cubeVariables.length; i++) {
+			cubeVariables[i] = candidates.get(i);
+		}
+		return cubeVariables;
+	}
+
+	/**
+	 * Creates all cubes of the given depth by extending the given prefix. In each step, the prefix is split by the next candidate variable that is not
+	 * implied by the prefix, such that both resulting cubes are satisfiable.
+	 */
+	private void createCubes(IInternalVariables internalMapping, int[] candidates, int candidateIndex, int[] prefix, int depth, List<int[]> cubes) {
+		if (depth > 0) {
+			for (int i = candidateIndex; i < candidates.length; i++) {
+				final int var = candidates[i];
+				if (isSatisfiable(internalMapping, -var) && isSatisfiable(internalMapping, var)) {
+					final int[] cube = Arrays.copyOf(prefix, prefix.length + 1);
+					for (final int literal : new int[] { -var, var }) {
+						cube[prefix.length] = literal;
+						solver.assignmentPush(internalMapping.convertToOriginal(literal));
+						try {
+							createCubes(internalMapping, candidates, i + 1, cube.clone(), depth - 1, cubes);
+						} finally {
+							solver.assignmentPop();
+						}
+					}
+					return;
+				}
+			}
+		}
+		cubes.add(prefix);
+	}
+
+	private boolean isSatisfiable(IInternalVariables internalMapping, int literal) {
+		solver.assignmentPush(internalMapping.convertToOriginal(literal));
+		try {
+			return solver.hasSolution() != SatResult.FALSE;
+		} finally {
+			solver.assignmentPop();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br> The solver supports the removal of clauses, as it is reused for all cubes of a worker.
+	 */
+	@Override
+	protected ISatSolver createWorkerSolver() {
+		final ISatSolver workerSolver = new ModifiableSatSolver(solver.getSatInstance());
+		workerSolver.setTimeout(getTimeout());
+		workerSolver.assignmentPushAll(solver.getAssignmentArray());
+		return workerSolver;
+	}
+
+	private static int getIndex(int literal) {
+		return ((Math.abs(literal) - 1) << 1) | (literal < 0 ? 1 : 0);
 	}
 
 }
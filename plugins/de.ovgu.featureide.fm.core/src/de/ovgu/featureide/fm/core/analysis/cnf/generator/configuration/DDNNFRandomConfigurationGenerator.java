@@ -0,0 +1,102 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFSampler;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Generates uniformly distributed random configurations. In contrast to {@link UniformRandomConfigurationGenerator}, the distribution is exactly uniform,
+ * as the formula is compiled into a {@link DDNNF} once and every configuration is drawn by a {@link DDNNFSampler}. Does not require any solver calls after
+ * the compilation.<br> <br> If duplicates are not allowed, duplicates are drawn again, which results in a uniform sample without replacement. The sample
+ * size is limited by the number of solutions of the formula.
+ *
+ * @author agent
+ */
+public class DDNNFRandomConfigurationGenerator extends ARandomConfigurationGenerator {
+
+	private DDNNF ddnnf;
+
+	public DDNNFRandomConfigurationGenerator(CNF cnf, int maxNumber) {
+		this(cnf, null, maxNumber);
+	}
+
+	/**
+	 * @param cnf the formula
+	 * @param ddnnf the compiled formula or {@code null} to compile it on demand
+	 * @param maxNumber the number of configurations to generate
+	 */
+	public DDNNFRandomConfigurationGenerator(CNF cnf, DDNNF ddnnf, int maxNumber) {
+		super(cnf, maxNumber);
+		this.ddnnf = ddnnf;
+	}
+
+	@Override
+	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		if (ddnnf == null) {
+			ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(solver.getSatInstance()), monitor.subTask(0));
+			if (ddnnf == null) {
+				return;
+			}
+		}
+		final DDNNFSampler sampler = new DDNNFSampler(ddnnf, assumptions);
+		if (!sampler.isSatisfiable()) {
+			return;
+		}
+
+		final BigInteger numberOfSolutions = sampler.countSolutions();
+		final int sampleSize = (allowDuplicates || (numberOfSolutions.compareTo(BigInteger.valueOf(maxSampleSize)) > 0)) ? maxSampleSize
+			: numberOfSolutions.intValue();
+		monitor.setRemainingWork(sampleSize);
+
+		final HashSet<LiteralSet> sampleSet = allowDuplicates ? null : new HashSet<>();
+		final int[] solution = new int[ddnnf.getVariables().size()];
+		for (int i = 0; i < sampleSize;) {
+			sampler.sample(getRandom(), solution);
+			final LiteralSet result = new LiteralSet(solution.clone(), Order.INDEX, false);
+			if ((sampleSet == null) || sampleSet.add(result)) {
+				addResult(result);
+				monitor.step();
+				i++;
+			} else {
+				monitor.checkCancel();
+			}
+		}
+	}
+
+	/**
+	 * @return the compiled formula or {@code null}, if it was not compiled yet
+	 */
+	public DDNNF getDDNNF() {
+		return ddnnf;
+	}
+
+}
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
 
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.IAnalysis;
@@ -35,4 +36,13 @@ public interface IConfigurationGenerator extends IAnalysis<List<LiteralSet>> {
 
 	LinkedBlockingQueue<LiteralSet> getResultQueue();
 
+	/**
+	 * Enables the streaming mode. Each generated configuration is passed to the given consumer as soon as it is found and is neither stored in the result
+	 * list nor in the {@link #getResultQueue() result queue}. Thus, the result of the analysis is an empty list.<br> The consumer is called by the thread that
+	 * runs the generator. If the consumer blocks (e.g., because it writes to a slow output), the generator waits.
+	 *
+	 * @param resultConsumer the consumer or {@code null} to disable the streaming mode
+	 */
+	void setResultConsumer(Consumer<LiteralSet> resultConsumer);
+
 }
@@ -30,7 +30,8 @@ import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds certain solutions of propositional formulas.
+ * Generates random configurations whose distribution approximates a uniform distribution. The phase selection of the solver is biased by an initial random
+ * sample. For an exactly uniform distribution, use the {@link DDNNFRandomConfigurationGenerator}.
  *
  * @author Sebastian Krieter
  */
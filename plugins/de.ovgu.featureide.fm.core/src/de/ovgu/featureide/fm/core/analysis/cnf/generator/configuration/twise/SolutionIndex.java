@@ -0,0 +1,265 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Stores a bounded history of solver solutions and indexes them by literal. For each literal, a bitmap holds the positions of all stored solutions that
+ * contain this literal. Thus, the solutions that are compatible with a set of literals can be computed by combining one bitmap per literal instead of
+ * comparing each solution.<br> <br> Sets of solutions (e.g., the solutions that are compatible with a partial configuration) are represented as bitmaps as
+ * well. Their bit at position {@code i} corresponds to the solution at position {@code i}. Bitmaps may be shorter than the index, missing words are
+ * considered to be empty.<br> <br> When the history is full, the oldest solution is replaced.
+ *
+ * @author agent
+ */
+public class SolutionIndex {
+
+	private static final int INITIAL_WORDS = 16;
+
+	private final int capacity;
+	private final int maxWords;
+
+	private final LiteralSet[] solutions;
+	private final HashSet<LiteralSet> solutionSet;
+	private int endIndex = -1;
+
+	private int words;
+	private long[] occupied;
+	private final long[][] literalBits;
+
+	/**
+	 * @param numberOfVariables the number of variables of the solutions
+	 * @param capacity the maximum number of stored solutions
+	 */
+	public SolutionIndex(int numberOfVariables, int capacity) {
+		this.capacity = capacity;
+		maxWords = (capacity + 63) >>> 6;
+		solutions = new LiteralSet[capacity];
+		solutionSet = new HashSet<>();
+		words = Math.min(INITIAL_WORDS, maxWords);
+		occupied = new long[words];
+		literalBits = new long[(numberOfVariables + 1) << 1][words];
+	}
+
+	public SolutionIndex(SolutionIndex other) {
+		capacity = other.capacity;
+		maxWords = other.maxWords;
+		solutions = Arrays.copyOf(other.solutions, capacity);
+		solutionSet = new HashSet<>(other.solutionSet);
+		endIndex = other.endIndex;
+		words = other.words;
+		occupied = Arrays.copyOf(other.occupied, words);
+		literalBits = new long[other.literalBits.length][];
+		for (int i = 0; i < literalBits.length; i++) {
+			literalBits[i] = Arrays.copyOf(other.literalBits[i], words);
+		}
+	}
+
+	/**
+	 * Adds a solution to the index, if it is not already contained. If the index is full, the oldest solution is replaced.
+	 *
+	 * @param solution the solution to add
+	 * @return the position of the added solution or {@code -1} if the solution was already contained
+	 */
+	public int add(LiteralSet solution) {
+		if (!solutionSet.add(solution)) {
+			return -1;
+		}
+		endIndex = (endIndex + 1) % capacity;
+		final LiteralSet oldSolution = solutions[endIndex];
+		if (oldSolution != null) {
+			solutionSet.remove(oldSolution);
+			setBits(oldSolution, endIndex, false);
+		}
+		solutions[endIndex] = solution;
+		setBits(solution, endIndex, true);
+		return endIndex;
+	}
+
+	private void setBits(LiteralSet solution, int index, boolean value) {
+		final int word = index >>> 6;
+		if (word >= words) {
+			grow(word + 1);
+		}
+		final long mask = 1L << index;
+		if (value) {
+			occupied[word] |= mask;
+			for (final int literal : solution.getLiterals()) {
+				literalBits[getLiteralIndex(literal)][word] |= mask;
+			}
+		} else {
+			occupied[word] &= ~mask;
+			for (final int literal : solution.getLiterals()) {
+				literalBits[getLiteralIndex(literal)][word] &= ~mask;
+			}
+		}
+	}
+
+	private void grow(int minWords) {
+		words = Math.min(maxWords, Math.max(minWords, words << 1));
+		occupied = Arrays.copyOf(occupied, words);
+		for (int i = 0; i < literalBits.length; i++) {
+			literalBits[i] = Arrays.copyOf(literalBits[i], words);
+		}
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? (literal << 1) : ((-literal << 1) | 1);
+	}
+
+	public LiteralSet get(int index) {
+		return solutions[index];
+	}
+
+	/**
+	 * @return the array of stored solutions. Positions that do not hold a solution yet contain {@code null}. Must not be modified.
+	 */
+	public LiteralSet[] getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Returns all stored solutions that do not contain the complement of any of the given literals.
+	 *
+	 * @param literals the literals
+	 * @return a new bitmap of the compatible solutions
+	 */
+	public long[] getCompatibleSolutions(int[] literals) {
+		final long[] candidates = Arrays.copyOf(occupied, words);
+		for (final int literal : literals) {
+			retainCompatibleSolutions(candidates, literal);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Removes all solutions that contain the complement of the given literal from the given bitmap.
+	 *
+	 * @param candidates the bitmap to modify
+	 * @param literal the literal
+	 */
+	public void retainCompatibleSolutions(long[] candidates, int literal) {
+		final long[] conflicts = literalBits[getLiteralIndex(-literal)];
+		for (int i = Math.min(candidates.length, words) - 1; i >= 0; i--) {
+			candidates[i] &= ~conflicts[i];
+		}
+	}
+
+	/**
+	 * Checks whether there is a stored solution that does not contain the complement of any of the given literals.
+	 *
+	 * @param candidates a bitmap to restrict the considered solutions or {@code null} to consider all stored solutions
+	 * @param literals the literals
+	 * @return {@code true} if there is a compatible solution
+	 */
+	public boolean hasCompatibleSolution(long[] candidates, int[] literals) {
+		final long[] bits = (candidates == null) ? occupied : candidates;
+		final int length = Math.min(bits.length, words);
+		final long[][] conflicts = new long[literals.length][];
+		for (int j = 0; j < literals.length; j++) {
+			conflicts[j] = literalBits[getLiteralIndex(-literals[j])];
+		}
+		for (int i = 0; i < length; i++) {
+			long word = bits[i];
+			for (int j = 0; (word != 0) && (j < conflicts.length); j++) {
+				word &= ~conflicts[j][i];
+			}
+			if (word != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the most recently added solution within the given bitmap.
+	 *
+	 * @param candidates the bitmap
+	 * @return the position of the solution or {@code -1} if the bitmap is empty
+	 */
+	public int getLastSolution(long[] candidates) {
+		if (endIndex < 0) {
+			return -1;
+		}
+		final int index = previousSetBit(candidates, endIndex, 0);
+		return index >= 0 ? index : previousSetBit(candidates, capacity - 1, endIndex + 1);
+	}
+
+	private static int previousSetBit(long[] bits, int from, int to) {
+		int word = from >>> 6;
+		if (word >= bits.length) {
+			word = bits.length - 1;
+			from = (word << 6) | 63;
+		}
+		if ((word < 0) || (from < to)) {
+			return -1;
+		}
+		long value = bits[word] & (-1L >>> (63 - (from & 63)));
+		while (true) {
+			if (value != 0) {
+				final int index = ((word << 6) + 63) - Long.numberOfLeadingZeros(value);
+				return index >= to ? index : -1;
+			}
+			if ((--word < 0) || (((word << 6) + 63) < to)) {
+				return -1;
+			}
+			value = bits[word];
+		}
+	}
+
+	/**
+	 * Sets or clears a bit in the given bitmap. The bitmap is enlarged if necessary.
+	 *
+	 * @param bits the bitmap
+	 * @param index the position of the bit
+	 * @param value the new value of the bit
+	 * @return the given bitmap or an enlarged copy
+	 */
+	public static long[] setBit(long[] bits, int index, boolean value) {
+		final int word = index >>> 6;
+		if (word >= bits.length) {
+			if (!value) {
+				return bits;
+			}
+			bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length << 1));
+		}
+		if (value) {
+			bits[word] |= 1L << index;
+		} else {
+			bits[word] &= ~(1L << index);
+		}
+		return bits;
+	}
+
+	public static boolean isEmpty(long[] bits) {
+		for (final long word : bits) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -58,7 +58,7 @@ public class TWiseConfiguration extends LiteralSet {
 	private Traverser traverser;
 	private Visitor<?> visitor;
 
-	protected VecInt solverSolutionIndex = new VecInt();
+	protected long[] solverSolutionCandidates = new long[0];
 
 	private class DPVisitor extends DefaultVisitor {
 
@@ -167,7 +167,7 @@ public class TWiseConfiguration extends LiteralSet {
 		initialIndex = other.initialIndex;
 
 		modifiable = other.modifiable;
-		solverSolutionIndex = other.solverSolutionIndex;
+		solverSolutionCandidates = (other.solverSolutionCandidates == null) ? null : other.solverSolutionCandidates.clone();
 		countLiterals = other.countLiterals;
 		rank = other.rank;
 
@@ -195,13 +195,7 @@ public class TWiseConfiguration extends LiteralSet {
 	private void addLiteral(int curLiteral) {
 		countLiterals++;
 		solutionLiterals.push(curLiteral);
-		final int k = Math.abs(curLiteral) - 1;
-
-		for (int i = 0; i < solverSolutionIndex.size(); i++) {
-			if (util.getSolverSolution(solverSolutionIndex.get(i)).getLiterals()[k] == -curLiteral) {
-				solverSolutionIndex.delete(i--);
-			}
-		}
+		util.getSolutionIndex().retainCompatibleSolutions(solverSolutionCandidates, curLiteral);
 	}
 
 	public void selectLiterals(Deduce deduce, int... literals) {
@@ -271,7 +265,7 @@ public class TWiseConfiguration extends LiteralSet {
 		traverser = null;
 		visitor = null;
 		solutionLiterals = null;
-		solverSolutionIndex = null;
+		solverSolutionCandidates = null;
 	}
 
 	public boolean isComplete() {
@@ -293,7 +287,8 @@ public class TWiseConfiguration extends LiteralSet {
 						}
 					}
 				} else {
-					if (solverSolutionIndex.isEmpty()) {
+					final int solutionIndex = util.getSolutionIndex().getLastSolution(solverSolutionCandidates);
+					if (solutionIndex < 0) {
 						final ISatSolver solver = util.getSolver();
 						final int orgAssignmentSize = setUpSolver(solver);
 						try {
@@ -305,8 +300,8 @@ public class TWiseConfiguration extends LiteralSet {
 							solver.assignmentClear(orgAssignmentSize);
 						}
 					} else {
-						System.arraycopy(util.getSolverSolution(solverSolutionIndex.last()).getLiterals(), 0, literals, 0, literals.length);
-						solverSolutionIndex.clear();
+						System.arraycopy(util.getSolverSolution(solutionIndex).getLiterals(), 0, literals, 0, literals.length);
+						Arrays.fill(solverSolutionCandidates, 0);
 					}
 					countLiterals = util.getCnf().getVariables().size();
 				}
@@ -315,7 +310,7 @@ public class TWiseConfiguration extends LiteralSet {
 	}
 
 	public LiteralSet getCompleteSolution() {
-		if (isComplete() || (solverSolutionIndex == null)) {
+		if (isComplete() || (solverSolutionCandidates == null)) {
 			return new LiteralSet(this);
 		} else {
 			final int[] s;
@@ -327,7 +322,8 @@ public class TWiseConfiguration extends LiteralSet {
 					}
 				}
 			} else {
-				if (solverSolutionIndex.isEmpty()) {
+				final int solutionIndex = util.getSolutionIndex().getLastSolution(solverSolutionCandidates);
+				if (solutionIndex < 0) {
 					final ISatSolver solver = util.getSolver();
 					final int orgAssignmentSize = setUpSolver(solver);
 					try {
@@ -336,7 +332,7 @@ public class TWiseConfiguration extends LiteralSet {
 						solver.assignmentClear(orgAssignmentSize);
 					}
 				} else {
-					s = util.getSolverSolution(solverSolutionIndex.last()).getLiterals();
+					s = util.getSolverSolution(solutionIndex).getLiterals();
 				}
 			}
 			return (s == null) ? null : new LiteralSet(Arrays.copyOf(s, s.length), Order.INDEX, false);
@@ -358,45 +354,32 @@ public class TWiseConfiguration extends LiteralSet {
 
 	public void updateSolverSolutions() {
 		if (!util.hasNoConstraints()) {
-			solverSolutionIndex.clear();
 			final int[] array = solutionLiterals.toArray();
-			final LiteralSet[] solverSolutions = util.getSolverSolutions();
-			solutionLoop: for (int i = 0; i < solverSolutions.length; i++) {
-				final LiteralSet solverSolution = solverSolutions[i];
-				if (solverSolution == null) {
-					break;
-				}
-				final int[] solverSolutionLiterals = solverSolution.getLiterals();
-				for (int j = 0, length = solutionLiterals.size(); j < length; j++) {
-					final int k = Math.abs(array[j]) - 1;
-					if (solverSolutionLiterals[k] == -literals[k]) {
-						continue solutionLoop;
-					}
-				}
-				solverSolutionIndex.push(i);
+			final int[] selectedLiterals = new int[solutionLiterals.size()];
+			for (int i = 0; i < selectedLiterals.length; i++) {
+				selectedLiterals[i] = literals[Math.abs(array[i]) - 1];
 			}
+			solverSolutionCandidates = util.getSolutionIndex().getCompatibleSolutions(selectedLiterals);
 		}
 	}
 
 	public void updateSolverSolutions(int[] solverSolution, int index) {
-		for (int i = 0; i < solverSolutionIndex.size(); i++) {
-			if (solverSolutionIndex.get(i) == index) {
-				solverSolutionIndex.delete(i);
-				break;
-			}
-		}
 		final int[] array = solutionLiterals.toArray();
 		for (int i = 0, length = solutionLiterals.size(); i < length; i++) {
 			final int k = Math.abs(array[i]) - 1;
 			if (solverSolution[k] == -literals[k]) {
+				solverSolutionCandidates = SolutionIndex.setBit(solverSolutionCandidates, index, false);
 				return;
 			}
 		}
-		solverSolutionIndex.push(index);
+		solverSolutionCandidates = SolutionIndex.setBit(solverSolutionCandidates, index, true);
 	}
 
-	public VecInt getSolverSolutionIndex() {
-		return solverSolutionIndex;
+	/**
+	 * @return a bitmap of all solutions in the {@link TWiseConfigurationUtil#getSolutionIndex() solution index} that are compatible with this configuration
+	 */
+	public long[] getSolverSolutionCandidates() {
+		return solverSolutionCandidates;
 	}
 
 	@Override
@@ -28,7 +28,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
@@ -40,7 +42,9 @@ import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.ite
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.MergeIterator3;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.SingleIterator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.util.Pair;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.job.monitor.AMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.MonitorThread;
 
@@ -98,6 +102,61 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	/**
+	 * Monitor for an iteration that is computed by another thread (see {@link TWiseConfigurationGenerator#setIndependentIterations(boolean)}). Only forwards
+	 * cancel requests to the monitor of the parent generator, synchronized on that monitor, as monitors are not thread-safe.
+	 */
+	private static final class IterationMonitor<T> extends AMonitor<T> {
+
+		private final IMonitor<?> parentMonitor;
+
+		private IterationMonitor(IMonitor<?> parentMonitor) {
+			this.parentMonitor = parentMonitor;
+		}
+
+		@Override
+		public void cancel() {
+			synchronized (parentMonitor) {
+				parentMonitor.cancel();
+			}
+		}
+
+		@Override
+		public void done() {}
+
+		@Override
+		public void checkCancel() throws MethodCancelException {
+			synchronized (parentMonitor) {
+				parentMonitor.checkCancel();
+			}
+		}
+
+		@Override
+		public <R> IMonitor<R> subTask(int size) {
+			return new IterationMonitor<>(parentMonitor);
+		}
+
+		@Override
+		public void worked(int work) {}
+
+		@Override
+		public void setRemainingWork(int work) {}
+
+		@Override
+		public void setTaskName(String name) {}
+
+		@Override
+		public String getTaskName() {
+			return "";
+		}
+
+		@Override
+		public int getRemainingWork() {
+			return 0;
+		}
+
+	}
+
 	/**
 	 * Converts a set of single literals into a grouped expression list.
 	 *
@@ -128,8 +187,14 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		return TWiseCombiner.convertExpressions(expressions);
 	}
 
+	/**
+	 * The number of solvers that check the satisfiability of combinations and selections within an iteration.
+	 */
+	public static final int SOLVER_POOL_SIZE = 8;
+
 	// TODO Variation Point: Iterations of removing low-contributing Configurations
 	private int iterations = 5;
+	private boolean independentIterations = false;
 
 	protected TWiseConfigurationUtil util;
 	protected TWiseCombiner combiner;
@@ -157,11 +222,11 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	private final List<TWiseConfiguration> completeSolutionList = new ArrayList<>();
 
 	public TWiseConfigurationGenerator(CNF cnf, int t) {
-		this(cnf, convertLiterals(cnf.getVariables().getLiterals()), t, Integer.MAX_VALUE);
+		this(cnf, convertLiterals(cnf.getVariables().getNonAuxiliaryLiterals()), t, Integer.MAX_VALUE);
 	}
 
 	public TWiseConfigurationGenerator(CNF cnf, int t, int maxSampleSize) {
-		this(cnf, convertLiterals(cnf.getVariables().getLiterals()), t, maxSampleSize);
+		this(cnf, convertLiterals(cnf.getVariables().getNonAuxiliaryLiterals()), t, maxSampleSize);
 	}
 
 	public TWiseConfigurationGenerator(CNF cnf, List<List<ClauseList>> nodes, int t) {
@@ -174,6 +239,27 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		this.nodes = nodes;
 	}
 
+	/**
+	 * Creates a generator that computes a single independent iteration for the given parent generator.
+	 */
+	private TWiseConfigurationGenerator(TWiseConfigurationGenerator parent, ISatSolver solver, long seed) {
+		super(solver, parent.maxSampleSize);
+		t = parent.t;
+		nodes = parent.nodes;
+		iterations = 1;
+		initialSample = parent.initialSample;
+		allowInitialSolutionModify = parent.allowInitialSolutionModify;
+		allowInitialSolutionRemove = parent.allowInitialSolutionRemove;
+		countInitialSolutionForLimit = parent.countInitialSolutionForLimit;
+		setRandom(new Random(seed));
+		setTimeout(parent.getTimeout());
+
+		util = new TWiseConfigurationUtil(parent.util, solver);
+		util.setSolutionList(incompleteSolutionList);
+		util.setRandom(getRandom());
+		combiner = new TWiseCombiner(util.getCnf().getVariables().size());
+	}
+
 	public List<LiteralSet> getInitialSample() {
 		return Collections.unmodifiableList(initialSample);
 	}
@@ -201,6 +287,11 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 			presenceConditionManager = new PresenceConditionManager(util, nodes);
 		}
 
+		if (independentIterations && (iterations > 1)) {
+			generateIndependently(monitor);
+			return;
+		}
+
 		solver.useSolutionList(0);
 		solver.setSelectionStrategy(SelectionStrategy.ORG);
 
@@ -210,13 +301,32 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		incompleteSolutionList.clear();
 		completeSolutionList.clear();
 
-		initialSample.forEach(c1 -> newInitialConfiguration(c1));
+		ForkJoinPool executor = null;
+		if (!util.hasNoConstraints()) {
+			// The size of the pool is independent of the number of threads, such that the sample is the same for any number of threads
+			final ISatSolver[] solverPool = new ISatSolver[SOLVER_POOL_SIZE];
+			for (int i = 0; i < SOLVER_POOL_SIZE; i++) {
+				solverPool[i] = createWorkerSolver();
+			}
+			if (getNumberOfThreads() > 1) {
+				executor = new ForkJoinPool(Math.min(getNumberOfThreads(), SOLVER_POOL_SIZE));
+			}
+			util.setSolverPool(solverPool, executor);
+		}
+		try {
+			initialSample.forEach(c1 -> newInitialConfiguration(c1));
 
-		phaseCount = 0;
+			phaseCount = 0;
 
-		for (int i = 0; i < iterations; i++) {
-			trimConfigurations();
-			buildCombinations(monitor);
+			for (int i = 0; i < iterations; i++) {
+				trimConfigurations();
+				buildCombinations(monitor);
+			}
+		} finally {
+			util.setSolverPool(null, null);
+			if (executor != null) {
+				executor.shutdownNow();
+			}
 		}
 
 		if (allowInitialSolutionModify) {
@@ -235,6 +345,39 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 				.forEach(c -> addResult(c.getCompleteSolution()));
 	}
 
+	/**
+	 * Computes each iteration independently (i.e., without trimming the result of the previous iteration) with its own solver and random seed and keeps the
+	 * smallest sample. Iterations are executed in parallel, if multiple threads are available. The result only depends on the random seed of this generator
+	 * and not on the number of threads.
+	 */
+	private void generateIndependently(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final long[] seeds = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			seeds[i] = getRandom().nextLong();
+		}
+		final List<List<LiteralSet>> samples = Collections.synchronizedList(new ArrayList<>(Collections.nCopies(iterations, null)));
+		final IParallelTask task = (workerSolver, workerRandom, iteration) -> {
+			final TWiseConfigurationGenerator iterationGenerator = new TWiseConfigurationGenerator(this, createWorkerSolver(), seeds[iteration]);
+			samples.set(iteration, iterationGenerator.analyze(new IterationMonitor<>(monitor)));
+		};
+		if (isParallel(iterations)) {
+			runParallel(iterations, task, monitor);
+		} else {
+			for (int i = 0; i < iterations; i++) {
+				monitor.checkCancel();
+				task.run(solver, getRandom(), i);
+			}
+		}
+
+		List<LiteralSet> bestSample = null;
+		for (final List<LiteralSet> sample : samples) {
+			if ((bestSample == null) || (bestSample.size() > sample.size())) {
+				bestSample = sample;
+			}
+		}
+		bestSample.forEach(this::addResult);
+	}
+
 	private void trimConfigurations() {
 		if (curResult != null) {
 			final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
@@ -368,6 +511,18 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	/**
+	 * Sets the number of threads. With multiple threads, either the {@link #setIndependentIterations(boolean) independent iterations} are computed in
+	 * parallel or the satisfiability checks of each iteration are distributed among a pool of {@value #SOLVER_POOL_SIZE} solvers (i.e., at most
+	 * {@value #SOLVER_POOL_SIZE} threads are used for one iteration). The sample does not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (values less than 2 result in a sequential execution)
+	 */
+	@Override
+	public void setNumberOfThreads(int numberOfThreads) {
+		super.setNumberOfThreads(numberOfThreads);
+	}
+
 	public int getIterations() {
 		return iterations;
 	}
@@ -376,6 +531,20 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		this.iterations = iterations;
 	}
 
+	public boolean isIndependentIterations() {
+		return independentIterations;
+	}
+
+	/**
+	 * If set to {@code true}, each iteration computes a new sample from scratch instead of improving the sample of the previous iteration. The smallest sample
+	 * is returned. In contrast to dependent iterations, independent iterations can be executed in parallel (see {@link #setNumberOfThreads(int)}).
+	 *
+	 * @param independentIterations whether iterations should be computed independently
+	 */
+	public void setIndependentIterations(boolean independentIterations) {
+		this.independentIterations = independentIterations;
+	}
+
 	public boolean isAllowInitialSolutionModify() {
 		return allowInitialSolutionModify;
 	}
@@ -414,19 +583,38 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	}
 
 	public boolean removeInvalidClauses(ClauseList nextCondition, List<Pair<LiteralSet, TWiseConfiguration>> candidatesList) {
-		int validCount = nextCondition.size();
-		for (final LiteralSet literals : nextCondition) {
-			if (!util.isCombinationValid(literals)) {
-				validCount--;
-				for (final Iterator<Pair<LiteralSet, TWiseConfiguration>> iterator = candidatesList.iterator(); iterator.hasNext();) {
-					final Pair<LiteralSet, TWiseConfiguration> pair = iterator.next();
-					if (pair.getKey().equals(literals)) {
-						iterator.remove();
-					}
+		final List<LiteralSet> invalidLiterals = new ArrayList<>();
+		if (util.hasSolverPool()) {
+			final List<LiteralSet> uncheckedLiterals = new ArrayList<>();
+			for (final LiteralSet literals : nextCondition) {
+				if (util.isCombinationInvalidMIG(literals)) {
+					invalidLiterals.add(literals);
+				} else if (!util.isCombinationValidHistory(literals)) {
+					uncheckedLiterals.add(literals);
+				}
+			}
+			final boolean[] valid = util.isCombinationValidSAT(uncheckedLiterals);
+			for (int i = 0; i < valid.length; i++) {
+				if (!valid[i]) {
+					invalidLiterals.add(uncheckedLiterals.get(i));
+				}
+			}
+		} else {
+			for (final LiteralSet literals : nextCondition) {
+				if (!util.isCombinationValid(literals)) {
+					invalidLiterals.add(literals);
+				}
+			}
+		}
+		for (final LiteralSet literals : invalidLiterals) {
+			for (final Iterator<Pair<LiteralSet, TWiseConfiguration>> iterator = candidatesList.iterator(); iterator.hasNext();) {
+				final Pair<LiteralSet, TWiseConfiguration> pair = iterator.next();
+				if (pair.getKey().equals(literals)) {
+					iterator.remove();
 				}
 			}
 		}
-		return validCount == 0;
+		return invalidLiterals.size() == nextCondition.size();
 	}
 
 	public static boolean isCovered(ClauseList condition, Iterable<? extends LiteralSet> solutionList) {
@@ -483,13 +671,15 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 	}
 
 	protected boolean cover(boolean useSolver, List<Pair<LiteralSet, TWiseConfiguration>> candidatesList) {
-		for (final Pair<LiteralSet, TWiseConfiguration> pair : candidatesList) {
-			if (useSolver) {
-				if (util.isSelectionPossibleSAT(pair.getKey(), pair.getValue())) {
-					select(pair.getValue(), Deduce.TraverseStrong, pair.getKey());
-					return true;
-				}
-			} else {
+		if (useSolver) {
+			final int index = util.getFirstPossibleSelectionSAT(candidatesList);
+			if (index >= 0) {
+				final Pair<LiteralSet, TWiseConfiguration> pair = candidatesList.get(index);
+				select(pair.getValue(), Deduce.TraverseStrong, pair.getKey());
+				return true;
+			}
+		} else {
+			for (final Pair<LiteralSet, TWiseConfiguration> pair : candidatesList) {
 				if (util.isSelectionPossibleHistory(pair.getKey(), pair.getValue())) {
 					select(pair.getValue(), Deduce.TraverseStrong, pair.getKey());
 					return true;
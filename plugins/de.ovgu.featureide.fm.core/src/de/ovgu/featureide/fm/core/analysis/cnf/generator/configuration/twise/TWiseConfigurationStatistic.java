@@ -422,6 +422,19 @@ public class TWiseConfigurationStatistic {
 		}
 	}
 
+	/**
+	 * Sets the values of a statistic that was calculated elsewhere (see {@link TWiseCoverageCalculator}).
+	 */
+	void setValues(long numberOfValidConditions, long numberOfInvalidConditions, long numberOfCoveredConditions, long numberOfUncoveredConditions,
+			double[] configValues, double[] configValues2) {
+		this.numberOfValidConditions = numberOfValidConditions;
+		this.numberOfInvalidConditions = numberOfInvalidConditions;
+		this.numberOfCoveredConditions = numberOfCoveredConditions;
+		this.numberOfUncoveredConditions = numberOfUncoveredConditions;
+		this.configValues = configValues;
+		this.configValues2 = configValues2;
+	}
+
 	public long getNumberOfValidConditions() {
 		return numberOfValidConditions;
 	}
@@ -20,11 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sat4j.core.VecInt;
 
@@ -34,6 +39,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.ITWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.UniformRandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.util.Pair;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
@@ -52,6 +58,20 @@ import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
  */
 public class TWiseConfigurationUtil {
 
+	/**
+	 * A task that is executed by {@link TWiseConfigurationUtil#runParallel(int, ParallelTask)}.
+	 */
+	@FunctionalInterface
+	private interface ParallelTask {
+
+		/**
+		 * @param worker the index of the worker that executes the task (each worker may use the solver of the pool with this index)
+		 * @param taskIndex the index of the task
+		 */
+		void run(int worker, int taskIndex);
+
+	}
+
 	public static final int GLOBAL_SOLUTION_LIMIT = 100_000;
 
 	private final CNF cnf;
@@ -63,43 +83,58 @@ public class TWiseConfigurationUtil {
 
 	private Random random = new Random(42);
 
-	private final LiteralSet[] solverSolutions = new LiteralSet[GLOBAL_SOLUTION_LIMIT];
-	private final HashSet<LiteralSet> solutionSet = new HashSet<>();
-
-	private int solverSolutionEndIndex = -1;
+	private final SolutionIndex solutionIndex;
 
 	private List<TWiseConfiguration> solutionList = Collections.emptyList();
 
+	private ISatSolver[] solverPool = null;
+	private ForkJoinPool executor = null;
+
 	public TWiseConfigurationUtil(ISatSolver solver) {
 		this.solver = solver;
 		cnf = solver.getSatInstance();
+		solutionIndex = new SolutionIndex(cnf.getVariables().size(), GLOBAL_SOLUTION_LIMIT);
 		if (!cnf.getClauses().isEmpty()) {
 			computeMIG();
 		}
 	}
 
-	public void addSolverSolution(int[] literals) {
-		final LiteralSet solution = new LiteralSet(literals, Order.INDEX, false);
-		if (solutionSet.add(solution)) {
-			solverSolutionEndIndex = (solverSolutionEndIndex + 1) % GLOBAL_SOLUTION_LIMIT;
-			final LiteralSet oldSolution = solverSolutions[solverSolutionEndIndex];
-			if (oldSolution != null) {
-				solutionSet.remove(oldSolution);
-			}
-			solverSolutions[solverSolutionEndIndex] = solution;
+	/**
+	 * Creates a copy of the given util that uses another solver. The modal implication graph is shared with the other util, the solution history is copied.
+	 *
+	 * @param other the util to copy
+	 * @param solver a solver for the same CNF, which already contains the {@link #getDeadCoreFeatures() core and dead features} in its assignment
+	 */
+	public TWiseConfigurationUtil(TWiseConfigurationUtil other, ISatSolver solver) {
+		this.solver = solver;
+		cnf = other.cnf;
+		mig = other.mig;
+		core = other.core;
+		strongHull = other.strongHull;
+		unsatisfiable = other.unsatisfiable;
+		random = other.random;
+		solutionIndex = new SolutionIndex(other.solutionIndex);
+	}
 
+	public void addSolverSolution(int[] literals) {
+		final int index = solutionIndex.add(new LiteralSet(literals, Order.INDEX, false));
+		if (index >= 0) {
 			for (final TWiseConfiguration configuration : solutionList) {
-				configuration.updateSolverSolutions(literals, solverSolutionEndIndex);
+				configuration.updateSolverSolutions(literals, index);
 			}
 		}
 	}
 
 	public LiteralSet getSolverSolution(int index) {
-		return solverSolutions[index];
+		return solutionIndex.get(index);
 	}
 
 	public LiteralSet[] getSolverSolutions() {
-		return solverSolutions;
+		return solutionIndex.getSolutions();
+	}
+
+	public SolutionIndex getSolutionIndex() {
+		return solutionIndex;
 	}
 
 	public void computeRandomSample() {
@@ -123,10 +158,12 @@ public class TWiseConfigurationUtil {
 		solver.assignmentPushAll(core);
 
 		strongHull = new LiteralSet[mig.getAdjList().size()];
+		final Traverser traverser = new Traverser(mig);
+		final int[] model = new int[mig.getAdjList().size()];
+		traverser.setModel(model);
 		for (final Vertex vertex : mig.getAdjList()) {
 			final int literalSet = vertex.getVar();
-			final Traverser traverser = new Traverser(mig);
-			traverser.setModel(new int[mig.getAdjList().size()]);
+			Arrays.fill(model, 0);
 			final Visitor<VecInt[]> visitor = new CollectingStrongVisitor();
 			traverser.setVisitor(visitor);
 			traverser.traverse(literalSet);
@@ -227,33 +264,68 @@ public class TWiseConfigurationUtil {
 	}
 
 	public boolean isCombinationValidHistory(LiteralSet literals) {
-		for (final LiteralSet s : solverSolutions) {
-			if (s == null) {
-				break;
-			}
-			if (!s.hasConflicts(literals)) {
-				return true;
-			}
-		}
-		return false;
+		return solutionIndex.hasCompatibleSolution(null, literals.getLiterals());
 	}
 
 	public boolean isCombinationValidSAT(LiteralSet literals) {
 		if (hasNoConstraints()) {
 			return true;
 		}
+		final int[] solution = findSolution(solver, literals);
+		if (solution != null) {
+			addSolverSolution(solution);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks the validity of multiple combinations. If a {@link #setSolverPool(ISatSolver[], ForkJoinPool) solver pool} is set, the combinations are
+	 * assigned to the solvers of the pool by their index (i.e., the combination with index {@code i} is checked by the solver with index
+	 * {@code i % poolSize}) and each solver checks its combinations in ascending order. The solutions of all valid combinations are then added to the
+	 * solution history in the order of the given combinations. Thus, the result does not depend on the number of threads that work on the pool.
+	 *
+	 * @param combinations the combinations to check
+	 * @return for each combination, whether it is valid
+	 */
+	public boolean[] isCombinationValidSAT(List<LiteralSet> combinations) {
+		final boolean[] valid = new boolean[combinations.size()];
+		if (hasNoConstraints()) {
+			Arrays.fill(valid, true);
+		} else if (solverPool == null) {
+			for (int i = 0; i < valid.length; i++) {
+				valid[i] = isCombinationValidSAT(combinations.get(i));
+			}
+		} else {
+			final int[][] solutions = new int[valid.length][];
+			runParallel(Math.min(solverPool.length, valid.length), (worker, poolIndex) -> {
+				final ISatSolver poolSolver = solverPool[poolIndex];
+				for (int i = poolIndex; i < solutions.length; i += solverPool.length) {
+					solutions[i] = findSolution(poolSolver, combinations.get(i));
+				}
+			});
+			for (int i = 0; i < valid.length; i++) {
+				if (solutions[i] != null) {
+					addSolverSolution(solutions[i]);
+					valid[i] = true;
+				}
+			}
+		}
+		return valid;
+	}
+
+	private static int[] findSolution(ISatSolver solver, LiteralSet literals) {
 		final int orgAssingmentLength = solver.getAssignmentSize();
 		solver.assignmentPushAll(literals.getLiterals());
 		try {
 			final SatResult hasSolution = solver.hasSolution();
 			switch (hasSolution) {
 			case TRUE:
-				addSolverSolution(solver.getSolution());
-				return true;
+				return solver.getSolution();
 			case FALSE:
 			case TIMEOUT:
 			default:
-				return false;
+				return null;
 			}
 		} finally {
 			solver.assignmentClear(orgAssingmentLength);
@@ -264,19 +336,51 @@ public class TWiseConfigurationUtil {
 		if (hasNoConstraints()) {
 			return true;
 		}
-		final VecInt solverSolutionIndex = configuration.getSolverSolutionIndex();
-		for (int i = 0; i < solverSolutionIndex.size(); i++) {
-			if (!getSolverSolution(solverSolutionIndex.get(i)).hasConflicts(literals)) {
-				return true;
-			}
-		}
-		return false;
+		return solutionIndex.hasCompatibleSolution(configuration.getSolverSolutionCandidates(), literals.getLiterals());
 	}
 
 	public boolean isSelectionPossibleSAT(final LiteralSet literals, final TWiseConfiguration configuration) {
 		if (hasNoConstraints()) {
 			return true;
 		}
+		return isSelectionPossibleSAT(solver, literals, configuration);
+	}
+
+	/**
+	 * Returns the first candidate whose literals can be selected within its configuration. If a {@link #setSolverPool(ISatSolver[], ForkJoinPool) solver
+	 * pool} is set, the candidates are distributed dynamically among the solvers of the pool in ascending order. The result is the same as checking the
+	 * candidates one after another.
+	 *
+	 * @param candidates the candidates to check
+	 * @return the index of the first possible candidate or {@code -1} if there is none
+	 */
+	public int getFirstPossibleSelectionSAT(List<Pair<LiteralSet, TWiseConfiguration>> candidates) {
+		if (hasNoConstraints()) {
+			return candidates.isEmpty() ? -1 : 0;
+		}
+		if (solverPool == null) {
+			for (int i = 0; i < candidates.size(); i++) {
+				final Pair<LiteralSet, TWiseConfiguration> pair = candidates.get(i);
+				if (isSelectionPossibleSAT(solver, pair.getKey(), pair.getValue())) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		final AtomicInteger firstPossible = new AtomicInteger(Integer.MAX_VALUE);
+		runParallel(candidates.size(), (worker, index) -> {
+			// Candidates after an already possible candidate do not need to be checked
+			if (index < firstPossible.get()) {
+				final Pair<LiteralSet, TWiseConfiguration> pair = candidates.get(index);
+				if (isSelectionPossibleSAT(solverPool[worker], pair.getKey(), pair.getValue())) {
+					firstPossible.accumulateAndGet(index, Math::min);
+				}
+			}
+		});
+		return firstPossible.get() == Integer.MAX_VALUE ? -1 : firstPossible.get();
+	}
+
+	private static boolean isSelectionPossibleSAT(ISatSolver solver, final LiteralSet literals, final TWiseConfiguration configuration) {
 		final int orgAssignmentSize = configuration.setUpSolver(solver);
 		try {
 			final int[] configurationLiterals = configuration.getLiterals();
@@ -296,6 +400,66 @@ public class TWiseConfigurationUtil {
 		return true;
 	}
 
+	/**
+	 * Executes the given task for every index from 0 to {@code numberOfTasks - 1}. Tasks are started in ascending order of their index and are distributed
+	 * dynamically among the workers. The number of workers is limited by the size of the solver pool and the parallelism of the executor. Without an
+	 * executor, all tasks are executed by a single worker in the calling thread.
+	 */
+	private void runParallel(int numberOfTasks, ParallelTask task) {
+		final int numberOfWorkers = (executor == null) ? 1 : Math.min(Math.min(solverPool.length, executor.getParallelism()), numberOfTasks);
+		if (numberOfWorkers <= 1) {
+			for (int i = 0; i < numberOfTasks; i++) {
+				task.run(0, i);
+			}
+			return;
+		}
+		final AtomicInteger nextTask = new AtomicInteger();
+		final List<Callable<Void>> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final int worker = i;
+			workers.add(() -> {
+				for (int taskIndex = nextTask.getAndIncrement(); taskIndex < numberOfTasks; taskIndex = nextTask.getAndIncrement()) {
+					task.run(worker, taskIndex);
+				}
+				return null;
+			});
+		}
+		try {
+			for (final Future<Void> future : executor.invokeAll(workers)) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Sets a pool of solvers that is used to check the validity of combinations and selections (see {@link #isCombinationValidSAT(List)} and
+	 * {@link #getFirstPossibleSelectionSAT(List)}). As the solutions of a solver depend on its previous checks, the size of the pool affects the solution
+	 * history, but the number of threads of the executor does not.
+	 *
+	 * @param solverPool solvers for the same CNF, which already contain the {@link #getDeadCoreFeatures() core and dead features} in their assignment;
+	 *        {@code null} to check all combinations with the {@link #getSolver() main solver}.
+	 * @param executor the executor that runs the checks in parallel; {@code null} to run all checks in the calling thread.
+	 */
+	public void setSolverPool(ISatSolver[] solverPool, ForkJoinPool executor) {
+		this.solverPool = solverPool;
+		this.executor = executor;
+	}
+
+	public boolean hasSolverPool() {
+		return solverPool != null;
+	}
+
 	public List<TWiseConfiguration> getSolutionList() {
 		return solutionList;
 	}
@@ -0,0 +1,604 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.iterator.BinomialCalculator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+
+/**
+ * Calculates the t-wise coverage of a sample that can be modified incrementally. Computes the same values as
+ * {@link TWiseConfigurationStatistic#calculate(TWiseConfigurationUtil, List, List) TWiseConfigurationStatistic} (with {@code onlyCoverage}), but is designed
+ * for large samples.<br> <br> Every configuration occupies a slot. For each literal and each presence condition, a bitmap holds the slots of all
+ * configurations that contain the literal or satisfy the presence condition, respectively. Adding or removing a configuration only updates these bitmaps.
+ * The configurations that cover a combination of presence conditions are computed by AND-ing the bitmaps of its presence conditions.<br> <br> The
+ * combinations of each group are numbered by the combinatorial number system (see {@link BinomialCalculator}) and split into ranges of ranks, which can be
+ * processed in parallel. Each thread uses its own copy of the {@link TWiseConfigurationUtil} to check the validity of uncovered combinations. Combinations
+ * whose validity had to be decided by a sat solver are cached across calculations.<br> <br> In addition to the coverage, the calculator reports the marginal
+ * coverage of each configuration, i.e., the number of combinations that are covered only by this configuration (see
+ * {@link TWiseConfigurationStatistic#getConfigValues2()}). Optionally, it also computes the shared coverage of each configuration (see
+ * {@link TWiseConfigurationStatistic#getConfigValues()}).
+ *
+ * @author agent
+ */
+public class TWiseCoverageCalculator {
+
+	private static final int INITIAL_WORDS = 4;
+	private static final int CHUNKS_PER_THREAD = 8;
+
+	/**
+	 * The partial result of a range of combinations.
+	 */
+	private static class ChunkResult {
+
+		private long numberOfValidConditions;
+		private long numberOfInvalidConditions;
+		private long numberOfCoveredConditions;
+		private long numberOfUncoveredConditions;
+
+		private final int numberOfSlots;
+		private double[] configValues;
+		private double[] configValues2;
+
+		private ChunkResult(int numberOfSlots) {
+			this.numberOfSlots = numberOfSlots;
+		}
+
+		private void addConfigValue(int slot, double value) {
+			if (configValues == null) {
+				configValues = new double[numberOfSlots];
+			}
+			configValues[slot] += value;
+		}
+
+		private void addConfigValue2(int slot) {
+			if (configValues2 == null) {
+				configValues2 = new double[numberOfSlots];
+			}
+			configValues2[slot]++;
+		}
+
+	}
+
+	private final TWiseConfigurationUtil util;
+	private final int t;
+
+	private final List<List<PresenceCondition>> groupedPresenceConditions;
+	private final int[][] groupedConditionIndices;
+	private final long[] groupOffsets;
+
+	private final List<PresenceCondition> presenceConditions = new ArrayList<>();
+	private final List<LiteralSet> configurations = new ArrayList<>();
+	private final TreeSet<Integer> freeSlots = new TreeSet<>();
+
+	private int words = INITIAL_WORDS;
+	private long[] occupied = new long[words];
+	private long[] dirtyWords = new long[1];
+	private final long[][] literalBits;
+	private final long[][] conditionBits;
+	private final int[] conditionFirstWord;
+	private final int[] conditionLastWord;
+
+	private final ConcurrentHashMap<Long, Boolean> satValidityCache = new ConcurrentHashMap<>();
+	private final List<TWiseConfigurationUtil> workerUtils = new ArrayList<>();
+
+	private int numberOfThreads = 1;
+	private boolean countValid = true;
+	private boolean sharedValues = false;
+
+	/**
+	 * @param util the util containing the modal implication graph and solver for the validity check
+	 * @param groupedPresenceConditions the presence conditions, which are combined within each group
+	 * @param t the size of the combinations
+	 */
+	public TWiseCoverageCalculator(TWiseConfigurationUtil util, List<List<PresenceCondition>> groupedPresenceConditions, int t) {
+		this.util = util;
+		this.t = t;
+		this.groupedPresenceConditions = groupedPresenceConditions;
+
+		final IdentityHashMap<PresenceCondition, Integer> conditionIndices = new IdentityHashMap<>();
+		groupedConditionIndices = new int[groupedPresenceConditions.size()][];
+		groupOffsets = new long[groupedPresenceConditions.size() + 1];
+		for (int g = 0; g < groupedConditionIndices.length; g++) {
+			final List<PresenceCondition> group = groupedPresenceConditions.get(g);
+			final int[] indices = new int[group.size()];
+			for (int i = 0; i < indices.length; i++) {
+				final PresenceCondition presenceCondition = group.get(i);
+				Integer index = conditionIndices.get(presenceCondition);
+				if (index == null) {
+					index = presenceConditions.size();
+					conditionIndices.put(presenceCondition, index);
+					presenceConditions.add(presenceCondition);
+				}
+				indices[i] = index;
+			}
+			groupedConditionIndices[g] = indices;
+			final int n = indices.length;
+			final int t2 = Math.min(n, t);
+			groupOffsets[g + 1] = groupOffsets[g] + (n == 0 ? 0 : new BinomialCalculator(t2, n).binomial(n, t2));
+		}
+
+		literalBits = new long[(util.getCnf().getVariables().size() + 1) << 1][words];
+		conditionBits = new long[presenceConditions.size()][words];
+		conditionFirstWord = new int[presenceConditions.size()];
+		conditionLastWord = new int[presenceConditions.size()];
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @param numberOfThreads the number of threads used by {@link #calculate()}
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public boolean isCountValid() {
+		return countValid;
+	}
+
+	/**
+	 * @param countValid whether the validity of uncovered combinations is checked. If {@code false}, all uncovered combinations are counted as uncovered.
+	 */
+	public void setCountValid(boolean countValid) {
+		this.countValid = countValid;
+	}
+
+	public boolean isSharedValues() {
+		return sharedValues;
+	}
+
+	/**
+	 * @param sharedValues whether the shared coverage of each configuration is computed (see {@link TWiseConfigurationStatistic#getConfigValues()}). This
+	 *        requires to visit every configuration that covers a combination and is thus considerably slower.
+	 */
+	public void setSharedValues(boolean sharedValues) {
+		this.sharedValues = sharedValues;
+	}
+
+	/**
+	 * Adds a configuration to the sample. The configuration is placed in the first free slot.
+	 *
+	 * @param configuration the configuration
+	 * @return the slot of the configuration
+	 */
+	public int addConfiguration(LiteralSet configuration) {
+		final int slot;
+		if (freeSlots.isEmpty()) {
+			slot = configurations.size();
+			configurations.add(configuration);
+		} else {
+			slot = freeSlots.pollFirst();
+			configurations.set(slot, configuration);
+		}
+		setBits(configuration, slot, true);
+		return slot;
+	}
+
+	public void addConfigurations(List<? extends LiteralSet> configurations) {
+		for (final LiteralSet configuration : configurations) {
+			addConfiguration(configuration);
+		}
+	}
+
+	/**
+	 * Removes the configuration in the given slot from the sample. The slots of all other configurations stay the same.
+	 *
+	 * @param slot the slot of the configuration
+	 * @return the removed configuration
+	 */
+	public LiteralSet removeConfiguration(int slot) {
+		final LiteralSet configuration = configurations.get(slot);
+		if (configuration != null) {
+			setBits(configuration, slot, false);
+			configurations.set(slot, null);
+			freeSlots.add(slot);
+		}
+		return configuration;
+	}
+
+	/**
+	 * @param slot the slot of the configuration
+	 * @return the configuration in the given slot or {@code null} if the slot is free
+	 */
+	public LiteralSet getConfiguration(int slot) {
+		return configurations.get(slot);
+	}
+
+	/**
+	 * @return the number of slots, i.e., the length of the arrays of per-configuration values
+	 */
+	public int getNumberOfSlots() {
+		return configurations.size();
+	}
+
+	public int getNumberOfConfigurations() {
+		return configurations.size() - freeSlots.size();
+	}
+
+	private void setBits(LiteralSet configuration, int slot, boolean value) {
+		final int word = slot >>> 6;
+		if (word >= words) {
+			grow(word + 1);
+		}
+		final long mask = 1L << slot;
+		if (value) {
+			occupied[word] |= mask;
+			for (final int literal : configuration.getLiterals()) {
+				if (literal != 0) {
+					literalBits[getLiteralIndex(literal)][word] |= mask;
+				}
+			}
+		} else {
+			occupied[word] &= ~mask;
+			for (final int literal : configuration.getLiterals()) {
+				if (literal != 0) {
+					literalBits[getLiteralIndex(literal)][word] &= ~mask;
+				}
+			}
+		}
+		if ((word >>> 6) >= dirtyWords.length) {
+			dirtyWords = Arrays.copyOf(dirtyWords, Math.max((word >>> 6) + 1, dirtyWords.length << 1));
+		}
+		dirtyWords[word >>> 6] |= 1L << word;
+	}
+
+	private void grow(int minWords) {
+		words = Math.max(minWords, words << 1);
+		occupied = Arrays.copyOf(occupied, words);
+		for (int i = 0; i < literalBits.length; i++) {
+			literalBits[i] = Arrays.copyOf(literalBits[i], words);
+		}
+		for (int i = 0; i < conditionBits.length; i++) {
+			conditionBits[i] = Arrays.copyOf(conditionBits[i], words);
+		}
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? (literal << 1) : ((-literal << 1) | 1);
+	}
+
+	/**
+	 * Recomputes the bitmaps of all presence conditions for every word that was changed since the last update.
+	 */
+	private void updateConditionBits() {
+		for (int d = 0; d < dirtyWords.length; d++) {
+			for (long dirty = dirtyWords[d]; dirty != 0; dirty &= dirty - 1) {
+				final int word = (d << 6) + Long.numberOfTrailingZeros(dirty);
+				for (int p = 0; p < conditionBits.length; p++) {
+					long conditionWord = 0;
+					for (final LiteralSet clause : presenceConditions.get(p)) {
+						long clauseWord = occupied[word];
+						for (final int literal : clause.getLiterals()) {
+							clauseWord &= literalBits[getLiteralIndex(literal)][word];
+						}
+						conditionWord |= clauseWord;
+					}
+					conditionBits[p][word] = conditionWord;
+				}
+			}
+		}
+		Arrays.fill(dirtyWords, 0);
+
+		for (int p = 0; p < conditionBits.length; p++) {
+			final long[] bits = conditionBits[p];
+			int first = 0;
+			while ((first < words) && (bits[first] == 0)) {
+				first++;
+			}
+			int last = words - 1;
+			while ((last >= first) && (bits[last] == 0)) {
+				last--;
+			}
+			conditionFirstWord[p] = first;
+			conditionLastWord[p] = last;
+		}
+	}
+
+	/**
+	 * Calculates the coverage of the current sample.
+	 *
+	 * @return the statistic. The arrays of per-configuration values are indexed by slot, free slots have a value of zero.
+	 */
+	public TWiseConfigurationStatistic calculate() {
+		updateConditionBits();
+
+		final List<long[]> chunks = new ArrayList<>();
+		final long totalCombinations = groupOffsets[groupOffsets.length - 1];
+		final long chunkSize = Math.max(1, totalCombinations / ((long) numberOfThreads * CHUNKS_PER_THREAD));
+		for (int g = 0; g < groupedConditionIndices.length; g++) {
+			final long numberOfCombinations = groupOffsets[g + 1] - groupOffsets[g];
+			for (long from = 0; from < numberOfCombinations; from += chunkSize) {
+				chunks.add(new long[] { g, from, Math.min(numberOfCombinations, from + chunkSize) });
+			}
+		}
+
+		final List<ChunkResult> results;
+		if ((numberOfThreads == 1) || (chunks.size() < 2)) {
+			results = new ArrayList<>(chunks.size());
+			for (final long[] chunk : chunks) {
+				results.add(calculateChunk(util, (int) chunk[0], chunk[1], chunk[2]));
+			}
+		} else {
+			results = calculateParallel(chunks);
+		}
+
+		long numberOfValidConditions = 0;
+		long numberOfInvalidConditions = 0;
+		long numberOfCoveredConditions = 0;
+		long numberOfUncoveredConditions = 0;
+		final double[] configValues = new double[configurations.size()];
+		final double[] configValues2 = new double[configurations.size()];
+		for (final ChunkResult result : results) {
+			numberOfValidConditions += result.numberOfValidConditions;
+			numberOfInvalidConditions += result.numberOfInvalidConditions;
+			numberOfCoveredConditions += result.numberOfCoveredConditions;
+			numberOfUncoveredConditions += result.numberOfUncoveredConditions;
+			if (result.configValues != null) {
+				for (int i = 0; i < configValues.length; i++) {
+					configValues[i] += result.configValues[i];
+				}
+			}
+			if (result.configValues2 != null) {
+				for (int i = 0; i < configValues2.length; i++) {
+					configValues2[i] += result.configValues2[i];
+				}
+			}
+		}
+
+		final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
+		statistic.setT(t);
+		statistic.setCountValid(countValid);
+		statistic.setOnlyCoverage(!sharedValues);
+		statistic.setValues(numberOfValidConditions, numberOfInvalidConditions, numberOfCoveredConditions, numberOfUncoveredConditions, configValues,
+				configValues2);
+		return statistic;
+	}
+
+	private List<ChunkResult> calculateParallel(List<long[]> chunks) {
+		while (workerUtils.size() < numberOfThreads) {
+			final ISatSolver workerSolver = new AdvancedSatSolver(util.getCnf());
+			workerSolver.assignmentPushAll(util.getSolver().getAssignmentArray());
+			workerUtils.add(new TWiseConfigurationUtil(util, workerSolver));
+		}
+		final BlockingQueue<TWiseConfigurationUtil> utilPool = new ArrayBlockingQueue<>(numberOfThreads, false, workerUtils.subList(0, numberOfThreads));
+
+		final List<Callable<ChunkResult>> tasks = new ArrayList<>(chunks.size());
+		for (final long[] chunk : chunks) {
+			tasks.add(() -> {
+				final TWiseConfigurationUtil workerUtil = utilPool.take();
+				try {
+					return calculateChunk(workerUtil, (int) chunk[0], chunk[1], chunk[2]);
+				} finally {
+					utilPool.put(workerUtil);
+				}
+			});
+		}
+
+		final ExecutorService executor = new ForkJoinPool(numberOfThreads);
+		try {
+			final List<ChunkResult> results = new ArrayList<>(tasks.size());
+			for (final Future<ChunkResult> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Processes all combinations of a group with a rank between {@code from} (inclusive) and {@code to} (exclusive). Combinations are enumerated in colex
+	 * order, such that the AND of the bitmaps of all but the first presence condition (the prefix) only changes if one of these presence conditions changes.
+	 */
+	private ChunkResult calculateChunk(TWiseConfigurationUtil chunkUtil, int group, long from, long to) {
+		final ChunkResult result = new ChunkResult(configurations.size());
+		final int[] indices = groupedConditionIndices[group];
+		final int n = indices.length;
+		final int t2 = Math.min(n, t);
+
+		final int[] c = new int[t2];
+		final BinomialCalculator binomialCalculator = new BinomialCalculator(t2, n);
+		long rank = from;
+		for (int i = t2 - 1; i >= 0; i--) {
+			int low = i;
+			int high = n - 1;
+			while (low < high) {
+				final int middle = (low + high + 1) >>> 1;
+				if (binomialCalculator.binomial(middle, i + 1) <= rank) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+			c[i] = low;
+			rank -= binomialCalculator.binomial(low, i + 1);
+		}
+
+		final long[][] prefix = new long[t2][words];
+		final int[] prefixFirstWord = new int[t2];
+		final int[] prefixLastWord = new int[t2];
+		int changed = t2 - 1;
+
+		final TWiseCombiner combiner = new TWiseCombiner(chunkUtil.getCnf().getVariables().size());
+		final ClauseList combinedCondition = new ClauseList();
+		final PresenceCondition[] clauseListArray = new PresenceCondition[t2];
+
+		for (long combination = from; combination < to; combination++) {
+			for (int i = Math.min(changed, t2 - 1); i >= 1; i--) {
+				final int p = indices[c[i]];
+				final long[] bits = conditionBits[p];
+				final long[] prefixBits = prefix[i];
+				int first = conditionFirstWord[p];
+				int last = conditionLastWord[p];
+				if (i < (t2 - 1)) {
+					first = Math.max(first, prefixFirstWord[i + 1]);
+					last = Math.min(last, prefixLastWord[i + 1]);
+					final long[] nextPrefixBits = prefix[i + 1];
+					for (int w = first; w <= last; w++) {
+						prefixBits[w] = bits[w] & nextPrefixBits[w];
+					}
+				} else {
+					System.arraycopy(bits, first, prefixBits, first, Math.max(0, (last - first) + 1));
+				}
+				while ((first <= last) && (prefixBits[first] == 0)) {
+					first++;
+				}
+				while ((last >= first) && (prefixBits[last] == 0)) {
+					last--;
+				}
+				prefixFirstWord[i] = first;
+				prefixLastWord[i] = last;
+			}
+
+			final int p = indices[c[0]];
+			final long[] bits = conditionBits[p];
+			int first = conditionFirstWord[p];
+			int last = conditionLastWord[p];
+			final long[] prefixBits;
+			if (t2 > 1) {
+				prefixBits = prefix[1];
+				first = Math.max(first, prefixFirstWord[1]);
+				last = Math.min(last, prefixLastWord[1]);
+			} else {
+				prefixBits = null;
+			}
+
+			int count = 0;
+			int firstSlot = -1;
+			for (int w = first; w <= last; w++) {
+				final long word = prefixBits == null ? bits[w] : bits[w] & prefixBits[w];
+				if (word != 0) {
+					if (firstSlot < 0) {
+						firstSlot = (w << 6) + Long.numberOfTrailingZeros(word);
+					}
+					count += Long.bitCount(word);
+					if ((count > 1) && !sharedValues) {
+						break;
+					}
+				}
+			}
+
+			if (count > 0) {
+				result.numberOfCoveredConditions++;
+				if (countValid) {
+					result.numberOfValidConditions++;
+				}
+				if (count == 1) {
+					result.addConfigValue2(firstSlot);
+				}
+				if (sharedValues) {
+					final double value = 1.0 / count;
+					for (int w = first; w <= last; w++) {
+						for (long word = prefixBits == null ? bits[w] : bits[w] & prefixBits[w]; word != 0; word &= word - 1) {
+							result.addConfigValue((w << 6) + Long.numberOfTrailingZeros(word), value);
+						}
+					}
+				}
+			} else if (countValid) {
+				for (int j = 0; j < t2; j++) {
+					clauseListArray[j] = groupedPresenceConditions.get(group).get(c[j]);
+				}
+				combinedCondition.clear();
+				combiner.combineConditions(clauseListArray, combinedCondition);
+				if (isCombinationValid(chunkUtil, combinedCondition, groupOffsets[group] + combination)) {
+					result.numberOfValidConditions++;
+					result.numberOfUncoveredConditions++;
+				} else {
+					result.numberOfInvalidConditions++;
+				}
+			} else {
+				result.numberOfUncoveredConditions++;
+			}
+
+			// next combination in colex order
+			changed = 0;
+			while ((changed < (t2 - 1)) && ((c[changed] + 1) == c[changed + 1])) {
+				changed++;
+			}
+			c[changed]++;
+			for (int j = 0; j < changed; j++) {
+				c[j] = j;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Equivalent to {@link TWiseConfigurationUtil#isCombinationValid(ClauseList)}, but caches the result if it had to be computed by the sat solver.
+	 */
+	private boolean isCombinationValid(TWiseConfigurationUtil chunkUtil, ClauseList combinedCondition, long key) {
+		if (chunkUtil.hasNoConstraints()) {
+			return !combinedCondition.isEmpty();
+		}
+		for (final LiteralSet literalSet : combinedCondition) {
+			if (chunkUtil.isCombinationInvalidMIG(literalSet)) {
+				return false;
+			}
+		}
+		for (final LiteralSet literalSet : combinedCondition) {
+			if (chunkUtil.isCombinationValidHistory(literalSet)) {
+				return true;
+			}
+		}
+		final Boolean cachedResult = satValidityCache.get(key);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+		boolean valid = false;
+		for (final LiteralSet literalSet : combinedCondition) {
+			if (chunkUtil.isCombinationValidSAT(literalSet)) {
+				valid = true;
+				break;
+			}
+		}
+		satValidityCache.put(key, valid);
+		return valid;
+	}
+
+}
@@ -41,6 +41,7 @@ public class TWiseCoverageCriterion implements CoverageCriterion {
 	private final TWiseConfigurationUtil util;
 	private PresenceConditionManager presenceConditionManager;
 	private int t;
+	private int numberOfThreads = 1;
 
 	public TWiseCoverageCriterion(CNF cnf, int t) {
 		util = new TWiseConfigurationUtil(new AdvancedSatSolver(cnf));
@@ -49,7 +50,7 @@ public class TWiseCoverageCriterion implements CoverageCriterion {
 		}
 		util.computeRandomSample();
 
-		presenceConditionManager = new PresenceConditionManager(util, TWiseConfigurationGenerator.convertLiterals(cnf.getVariables().getLiterals()));
+		presenceConditionManager = new PresenceConditionManager(util, TWiseConfigurationGenerator.convertLiterals(cnf.getVariables().getNonAuxiliaryLiterals()));
 		this.t = t;
 	}
 
@@ -61,6 +62,13 @@ public class TWiseCoverageCriterion implements CoverageCriterion {
 		this.t = t;
 	}
 
+	/**
+	 * @param numberOfThreads the number of threads used to compute the {@link #getStatistics(List) statistics} (see {@link TWiseCoverageCalculator})
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	@Override
 	public double getCoverage(List<LiteralSet> sample) {
 		final TWiseConfigurationStatistic statistic = getStatistics(sample);
@@ -84,11 +92,10 @@ public class TWiseCoverageCriterion implements CoverageCriterion {
 	 *         combinations <li>number of uncovered combinations <li>value of each configuration </ul>
 	 */
 	public TWiseConfigurationStatistic getStatistics(List<LiteralSet> sample) {
-		final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
-		statistic.setT(t);
-		statistic.setOnlyCoverage(true);
-		statistic.calculate(util, sample, presenceConditionManager.getGroupedPresenceConditions());
-		return statistic;
+		final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, presenceConditionManager.getGroupedPresenceConditions(), t);
+		calculator.setNumberOfThreads(numberOfThreads);
+		calculator.addConfigurations(sample);
+		return calculator.calculate();
 	}
 
 	public boolean hasUncoveredConditions(List<LiteralSet> sample) {
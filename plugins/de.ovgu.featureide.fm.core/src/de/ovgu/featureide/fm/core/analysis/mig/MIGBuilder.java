@@ -50,13 +50,6 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEdgeTypes {
 
-	private static class TempVertex {
-
-		private final ArrayList<Integer> posStrongEdges = new ArrayList<>();
-		private final ArrayList<Integer> negStrongEdges = new ArrayList<>();
-		private final ArrayList<Integer> relevantClausesIndex = new ArrayList<>();
-	}
-
 	/**
 	 * For sorting clauses by length. Starting with the longest.
 	 */
@@ -72,7 +65,7 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 	private final List<LiteralSet> newClauseList = new ArrayList<>();
 	private final ArrayDeque<Integer> dfsStack = new ArrayDeque<>();
 	private final byte[] dfsMark;
-	private final AdjMatrix adjMatrix;
+	private final SparseAdjMatrix adjMatrix;
 	private final CNF satInstance;
 	private final boolean detectStrong;
 	private final ModalImplicationGraph mig;
@@ -87,7 +80,7 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		this.detectStrong = detectStrong;
 		numberOfVariables = satInstance.getVariables().size();
 		dfsMark = new byte[numberOfVariables];
-		adjMatrix = new AdjMatrix(numberOfVariables);
+		adjMatrix = new SparseAdjMatrix(numberOfVariables);
 		mig = new ModalImplicationGraph(2 * numberOfVariables);
 	}
 
@@ -128,55 +121,91 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		if (!clauseList.isEmpty()) {
 			assert clauseList.get(0).getLiterals().length > 0;
 
-			final ArrayList<TempVertex> tempAdjList = createTempVertices(clauseList);
-
-			for (int var = 1; var <= tempAdjList.size(); var++) {
-				final TempVertex tempVertex = tempAdjList.get(var - 1);
-
-				// Calculate array size for vertex
-				int negComplexCount = 0;
-				int posComplexCount = 0;
-				for (final Integer clauseIndex : tempVertex.relevantClausesIndex) {
-					if (posEdge(var, mig.complexClauses.get(clauseIndex).getLiterals())) {
-						posComplexCount += 1;
+			// Add clauses with 3 or more literals
+			final ListIterator<LiteralSet> listIterator = clauseList.listIterator();
+			while (listIterator.hasNext()) {
+				if (listIterator.next().getLiterals().length > 2) {
+					listIterator.previous();
+					break;
+				}
+			}
+			mig.complexClauses.addAll(clauseList.subList(listIterator.nextIndex(), clauseList.size()));
+
+			// Calculate array sizes for each vertex
+			final int[] negComplexCounts = new int[numberOfVariables];
+			final int[] posComplexCounts = new int[numberOfVariables];
+			for (final LiteralSet clause : mig.complexClauses) {
+				for (final int literal : clause.getLiterals()) {
+					if (literal < 0) {
+						posComplexCounts[-literal - 1]++;
 					} else {
-						negComplexCount += 1;
+						negComplexCounts[literal - 1]++;
 					}
 				}
-
-				// Initialize arrays
-				final int[] negStrongEdges = new int[tempVertex.negStrongEdges.size()];
-				final int[] posStrongEdges = new int[tempVertex.posStrongEdges.size()];
-				final int[] negComplexClauses = new int[negComplexCount];
-				final int[] posComplexClauses = new int[posComplexCount];
-
-				for (int i = 0; i < negStrongEdges.length; i++) {
-					negStrongEdges[i] = tempVertex.negStrongEdges.get(i);
-				}
-				for (int i = 0; i < posStrongEdges.length; i++) {
-					posStrongEdges[i] = tempVertex.posStrongEdges.get(i);
+			}
+			final int[][] negComplexClauses = new int[numberOfVariables][];
+			final int[][] posComplexClauses = new int[numberOfVariables][];
+			for (int i = 0; i < numberOfVariables; i++) {
+				negComplexClauses[i] = new int[negComplexCounts[i]];
+				posComplexClauses[i] = new int[posComplexCounts[i]];
+			}
+			for (int clauseIndex = 0; clauseIndex < mig.complexClauses.size(); clauseIndex++) {
+				for (final int literal : mig.complexClauses.get(clauseIndex).getLiterals()) {
+					if (literal < 0) {
+						final int index = -literal - 1;
+						posComplexClauses[index][--posComplexCounts[index]] = clauseIndex;
+					} else {
+						final int index = literal - 1;
+						negComplexClauses[index][--negComplexCounts[index]] = clauseIndex;
+					}
 				}
+			}
 
-				for (final Integer clauseIndex : tempVertex.relevantClausesIndex) {
-					if (posEdge(var, mig.complexClauses.get(clauseIndex).getLiterals())) {
-						posComplexClauses[--posComplexCount] = clauseIndex;
-					} else {
-						negComplexClauses[--negComplexCount] = clauseIndex;
+			for (int var = 1; var <= numberOfVariables; var++) {
+				final int index = var - 1;
+				final int[] columns = adjMatrix.getColumns(index);
+				int negStrongCount = 0;
+				int posStrongCount = 0;
+				for (final int column : columns) {
+					final byte relation = adjMatrix.getEdge(index, column);
+					if ((relation & (EDGE_00 | EDGE_01)) != 0) {
+						negStrongCount++;
+					}
+					if ((relation & (EDGE_10 | EDGE_11)) != 0) {
+						posStrongCount++;
+					}
+				}
+				final int[] negStrongEdges = new int[negStrongCount];
+				final int[] posStrongEdges = new int[posStrongCount];
+				negStrongCount = 0;
+				posStrongCount = 0;
+				for (final int column : columns) {
+					final byte relation = adjMatrix.getEdge(index, column);
+					if ((relation & EDGE_00) != 0) {
+						negStrongEdges[negStrongCount++] = -(column + 1);
+					} else if ((relation & EDGE_01) != 0) {
+						negStrongEdges[negStrongCount++] = (column + 1);
+					}
+					if ((relation & EDGE_10) != 0) {
+						posStrongEdges[posStrongCount++] = -(column + 1);
+					} else if ((relation & EDGE_11) != 0) {
+						posStrongEdges[posStrongCount++] = (column + 1);
 					}
 				}
+
 				final Vertex negVertex = new Vertex(-var);
 				final Vertex posVertex = new Vertex(var);
 
-				negVertex.setCore(adjMatrix.getCore(var - 1) < 0);
-				negVertex.setDead(adjMatrix.getCore(var - 1) > 0);
-				posVertex.setCore(adjMatrix.getCore(var - 1) > 0);
-				posVertex.setDead(adjMatrix.getCore(var - 1) < 0);
+				negVertex.setCore(adjMatrix.getCore(index) < 0);
+				negVertex.setDead(adjMatrix.getCore(index) > 0);
+				posVertex.setCore(adjMatrix.getCore(index) > 0);
+				posVertex.setDead(adjMatrix.getCore(index) < 0);
 
 				negVertex.setStrongEdges(negStrongEdges);
 				posVertex.setStrongEdges(posStrongEdges);
 
-				negVertex.setComplexClauses(negComplexClauses);
-				posVertex.setComplexClauses(posComplexClauses);
+				negVertex.setComplexClauses(negComplexClauses[index]);
+				posVertex.setComplexClauses(posComplexClauses[index]);
 
 				negVertex.setId(mig.adjList.size());
 				mig.adjList.add(negVertex);
@@ -319,9 +348,7 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 	}
 
 	public void readdEdges() {
-		for (int i = 0; i < adjMatrix.edges.length; i++) {
-			adjMatrix.edges[i] = 0;
-		}
+		adjMatrix.clearEdges();
 		for (final LiteralSet clause : adjMatrix.clauseList) {
 			addRelation(clause.getLiterals());
 		}
@@ -333,31 +360,32 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		if (indexX == indexY) {
 			return false;
 		}
-		final int combinationIndexXY = adjMatrix.getIndex(indexX, indexY);
-		final int combinationIndexYX = adjMatrix.getIndex(indexY, indexX);
-
-		final byte oldXY = adjMatrix.edges[combinationIndexXY];
-		final byte oldYX = adjMatrix.edges[combinationIndexYX];
+		final byte oldXY = adjMatrix.getEdge(indexX, indexY);
+		final byte oldYX = adjMatrix.getEdge(indexY, indexX);
+		final byte newXY;
+		final byte newYX;
 
 		if (signedVarX > 0) {
 			if (signedVarY > 0) {
-				adjMatrix.edges[combinationIndexXY] = (byte) ((oldXY & (~EDGE_NEGATIVE)) | EDGE_01);
-				adjMatrix.edges[combinationIndexYX] = (byte) ((oldYX & (~EDGE_NEGATIVE)) | EDGE_01);
+				newXY = (byte) ((oldXY & (~EDGE_NEGATIVE)) | EDGE_01);
+				newYX = (byte) ((oldYX & (~EDGE_NEGATIVE)) | EDGE_01);
 			} else {
-				adjMatrix.edges[combinationIndexXY] = (byte) ((oldXY & (~EDGE_NEGATIVE)) | EDGE_00);
-				adjMatrix.edges[combinationIndexYX] = (byte) ((oldYX & (~EDGE_POSITIVE)) | EDGE_11);
+				newXY = (byte) ((oldXY & (~EDGE_NEGATIVE)) | EDGE_00);
+				newYX = (byte) ((oldYX & (~EDGE_POSITIVE)) | EDGE_11);
 			}
 		} else {
 			if (signedVarY > 0) {
-				adjMatrix.edges[combinationIndexXY] = (byte) ((oldXY & (~EDGE_POSITIVE)) | EDGE_11);
-				adjMatrix.edges[combinationIndexYX] = (byte) ((oldYX & (~EDGE_NEGATIVE)) | EDGE_00);
+				newXY = (byte) ((oldXY & (~EDGE_POSITIVE)) | EDGE_11);
+				newYX = (byte) ((oldYX & (~EDGE_NEGATIVE)) | EDGE_00);
 			} else {
-				adjMatrix.edges[combinationIndexXY] = (byte) ((oldXY & (~EDGE_POSITIVE)) | EDGE_10);
-				adjMatrix.edges[combinationIndexYX] = (byte) ((oldYX & (~EDGE_POSITIVE)) | EDGE_10);
+				newXY = (byte) ((oldXY & (~EDGE_POSITIVE)) | EDGE_10);
+				newYX = (byte) ((oldYX & (~EDGE_POSITIVE)) | EDGE_10);
 			}
 		}
+		adjMatrix.setEdge(indexX, indexY, newXY);
+		adjMatrix.setEdge(indexY, indexX, newYX);
 
-		return (oldXY != adjMatrix.edges[combinationIndexXY]) || (oldYX != adjMatrix.edges[combinationIndexYX]);
+		return (oldXY != newXY) || (oldYX != newYX);
 	}
 
 	private void addWeakRelation(final int signedVarX, final int signedVarY) {
@@ -366,45 +394,50 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		if (indexX == indexY) {
 			return;
 		}
-		final int combinationIndexXY = adjMatrix.getIndex(indexX, indexY);
-		final int combinationIndexYX = adjMatrix.getIndex(indexY, indexX);
-
-		final byte oldXY = adjMatrix.edges[combinationIndexXY];
-		final byte oldYX = adjMatrix.edges[combinationIndexYX];
+		final byte oldXY = adjMatrix.getEdge(indexX, indexY);
+		final byte oldYX = adjMatrix.getEdge(indexY, indexX);
+		byte newXY = oldXY;
+		byte newYX = oldYX;
 
 		if (signedVarX > 0) {
 			if (signedVarY > 0) {
 				if ((oldXY & EDGE_STRONG_NEGATIVE) == 0) {
-					adjMatrix.edges[combinationIndexXY] |= EDGE_01Q;
+					newXY |= EDGE_01Q;
 				}
 				if ((oldYX & EDGE_STRONG_NEGATIVE) == 0) {
-					adjMatrix.edges[combinationIndexYX] |= EDGE_01Q;
+					newYX |= EDGE_01Q;
 				}
 			} else {
 				if ((oldXY & EDGE_STRONG_NEGATIVE) == 0) {
-					adjMatrix.edges[combinationIndexXY] |= EDGE_00Q;
+					newXY |= EDGE_00Q;
 				}
 				if ((oldYX & EDGE_STRONG_POSITIVE) == 0) {
-					adjMatrix.edges[combinationIndexYX] |= EDGE_11Q;
+					newYX |= EDGE_11Q;
 				}
 			}
 		} else {
 			if (signedVarY > 0) {
 				if ((oldXY & EDGE_STRONG_POSITIVE) == 0) {
-					adjMatrix.edges[combinationIndexXY] |= EDGE_11Q;
+					newXY |= EDGE_11Q;
 				}
 				if ((oldYX & EDGE_STRONG_NEGATIVE) == 0) {
-					adjMatrix.edges[combinationIndexYX] |= EDGE_00Q;
+					newYX |= EDGE_00Q;
 				}
 			} else {
 				if ((oldXY & EDGE_STRONG_POSITIVE) == 0) {
-					adjMatrix.edges[combinationIndexXY] |= EDGE_10Q;
+					newXY |= EDGE_10Q;
 				}
 				if ((oldYX & EDGE_STRONG_POSITIVE) == 0) {
-					adjMatrix.edges[combinationIndexYX] |= EDGE_10Q;
+					newYX |= EDGE_10Q;
 				}
 			}
 		}
+		if (newXY != oldXY) {
+			adjMatrix.setEdge(indexX, indexY, newXY);
+		}
+		if (newYX != oldYX) {
+			adjMatrix.setEdge(indexY, indexX, newYX);
+		}
 	}
 
 	// Transitive closure for strong edges
@@ -428,7 +461,11 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		}
 		dfsStack.addLast(curVar);
 
-		for (int nextIndex = 0; nextIndex < adjMatrix.getNumVariables(); nextIndex++) {
+		for (final int slot : adjMatrix.getColumnSlots(curIndex)) {
+			if (slot == 0) {
+				continue;
+			}
+			final int nextIndex = slot - 1;
 			final byte relation = adjMatrix.getEdge(curIndex, nextIndex);
 			final byte bitMask = (byte) (curSelected ? relation >>> 4 : relation);
 			if ((bitMask & EDGE_00) != 0) {
@@ -461,7 +498,11 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		}
 		dfsStack.addLast(curVar);
 
-		for (int nextIndex = 0; nextIndex < adjMatrix.getNumVariables(); nextIndex++) {
+		for (final int slot : adjMatrix.getColumnSlots(curIndex)) {
+			if (slot == 0) {
+				continue;
+			}
+			final int nextIndex = slot - 1;
 			final byte relation = adjMatrix.getEdge(curIndex, nextIndex);
 			final byte bitMask = (byte) (curSelected ? relation >>> 4 : relation);
 			if ((bitMask & EDGE_00) != 0) {
@@ -544,10 +585,12 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 
 			int c = 0;
 
-			final int rowIndex = i * adjMatrix.getNumVariables();
-
-			inner1: for (int j = i + 1; j < xModel1.length; j++) {
-				final byte b = adjMatrix.edges[rowIndex + j];
+			inner1: for (final int slot : adjMatrix.getColumnSlots(i)) {
+				final int j = slot - 1;
+				if (j <= i) {
+					continue;
+				}
+				final byte b = adjMatrix.getEdge(i, j);
 				if ((adjMatrix.core[j] == 0) && ((positive && ((b & EDGE_WEAK_POSITIVE) != 0)) || (!positive && ((b & EDGE_WEAK_NEGATIVE) != 0)))) {
 
 					final int my1 = xModel1[j];
@@ -590,59 +633,4 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		dfsStack.pop();
 	}
 
-	private ArrayList<TempVertex> createTempVertices(final List<LiteralSet> clauseList) {
-		final ArrayList<TempVertex> tempAdjList = new ArrayList<>(numberOfVariables);
-		for (int i = 0; i < numberOfVariables; i++) {
-			tempAdjList.add(new TempVertex());
-		}
-
-		for (int i = 0; i < numberOfVariables; i++) {
-			final TempVertex vertex = tempAdjList.get(i);
-			for (int j = 0; j < numberOfVariables; j++) {
-				final byte relation = adjMatrix.getEdge(i, j);
-				if ((relation & EDGE_00) != 0) {
-					vertex.negStrongEdges.add(-(j + 1));
-				} else if ((relation & EDGE_01) != 0) {
-					vertex.negStrongEdges.add((j + 1));
-				}
-				if ((relation & EDGE_10) != 0) {
-					vertex.posStrongEdges.add(-(j + 1));
-				} else if ((relation & EDGE_11) != 0) {
-					vertex.posStrongEdges.add((j + 1));
-				}
-			}
-		}
-
-		// Add clauses with 3 or more literals
-		final ListIterator<LiteralSet> listIterator = clauseList.listIterator();
-		while (listIterator.hasNext()) {
-			if (listIterator.next().getLiterals().length > 2) {
-				listIterator.previous();
-				break;
-			}
-		}
-		mig.complexClauses.addAll(clauseList.subList(listIterator.nextIndex(), clauseList.size()));
-		int complexClauseCount = 0;
-		while (listIterator.hasNext()) {
-			final int[] literals = listIterator.next().getLiterals();
-			for (int j = 0; j < literals.length; j++) {
-				final int literal = literals[j];
-				final TempVertex vertex = tempAdjList.get(Math.abs(literal) - 1);
-				vertex.relevantClausesIndex.add(complexClauseCount);
-			}
-			complexClauseCount++;
-		}
-
-		return tempAdjList;
-	}
-
-	private boolean posEdge(int j, final int[] literals) {
-		for (final int literal : literals) {
-			if (Math.abs(literal) == j) {
-				return (literal < 0);
-			}
-		}
-		throw new RuntimeException();
-	}
-
 }
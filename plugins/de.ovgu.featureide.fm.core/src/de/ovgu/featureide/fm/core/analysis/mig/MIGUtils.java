@@ -20,6 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.analysis.mig;
 
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
 /**
  * Convenience methods for handling a {@link ModalImplicationGraph}.
  *
@@ -42,4 +48,154 @@ public class MIGUtils {
 	public static int[] getStronglyConnected(ModalImplicationGraph modalImplicationGraph, int startVariable) {
 		return modalImplicationGraph.getVertex(startVariable).getStrongEdges();
 	}
+
+	/**
+	 * Adds all core and dead literals of the given graph to the given model.
+	 *
+	 * @param modalImplicationGraph the graph
+	 * @param model the model, indexed by variable - 1
+	 * @return {@code false} if the model contains a contradiction, {@code true} otherwise
+	 */
+	public static boolean propagateCore(ModalImplicationGraph modalImplicationGraph, int[] model) {
+		for (final Vertex vertex : modalImplicationGraph.getAdjList()) {
+			if (vertex.isCore() && !propagateStrong(modalImplicationGraph, model, vertex.getVar())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the given literal and all literals that are reachable from it via strong edges to the given model. The literal may already be contained in
+	 * the model.
+	 *
+	 * @param modalImplicationGraph the graph
+	 * @param model the model, indexed by variable - 1
+	 * @param literal the literal
+	 * @return {@code false} if the model contains a contradiction, {@code true} otherwise
+	 */
+	public static boolean propagateStrong(ModalImplicationGraph modalImplicationGraph, int[] model, int literal) {
+		final int index = Math.abs(literal) - 1;
+		if (model[index] == -literal) {
+			return false;
+		}
+		model[index] = literal;
+		final VecInt stack = new VecInt();
+		stack.push(literal);
+		while (!stack.isEmpty()) {
+			final int nextLiteral = stack.last();
+			stack.pop();
+			for (final int strongLiteral : modalImplicationGraph.getVertex(nextLiteral).getStrongEdges()) {
+				final int strongIndex = Math.abs(strongLiteral) - 1;
+				if (model[strongIndex] == 0) {
+					model[strongIndex] = strongLiteral;
+					stack.push(strongLiteral);
+				} else if (model[strongIndex] != strongLiteral) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Propagates all complex clauses of the given graph that became unit under the given model and adds the resulting literals (and their strong
+	 * closure) to the model. Afterwards, computes all variables that may be implied by the model in addition to the literals in the model. These are
+	 * the unassigned variables that are connected (via strong edges or common complex clauses) to a complex clause that was shortened by a
+	 * non-core literal of the model. All other unassigned variables are part of a subformula that is not affected by the model and, thus, cannot
+	 * become implied as long as the model is satisfiable.
+	 *
+	 * @param modalImplicationGraph the graph
+	 * @param model the model, indexed by variable - 1, which must contain the core and dead literals and be closed under strong edges
+	 * @return the candidate variables, indexed by variable - 1 (non-zero for each candidate), or {@code null} if the model contains a contradiction
+	 */
+	public static int[] propagateWeak(ModalImplicationGraph modalImplicationGraph, int[] model) {
+		final List<LiteralSet> complexClauses = modalImplicationGraph.getComplexClauses();
+		boolean changed;
+		do {
+			changed = false;
+			clauseLoop: for (final LiteralSet clause : complexClauses) {
+				int unitLiteral = 0;
+				for (final int literal : clause.getLiterals()) {
+					final int value = model[Math.abs(literal) - 1];
+					if (value == literal) {
+						continue clauseLoop;
+					} else if (value == 0) {
+						if (unitLiteral != 0) {
+							continue clauseLoop;
+						}
+						unitLiteral = literal;
+					}
+				}
+				if ((unitLiteral == 0) || !propagateStrong(modalImplicationGraph, model, unitLiteral)) {
+					return null;
+				}
+				changed = true;
+			}
+		} while (changed);
+
+		final int[] components = new int[model.length];
+		for (int i = 0; i < components.length; i++) {
+			components[i] = i;
+		}
+		for (int i = 0; i < model.length; i++) {
+			if (model[i] == 0) {
+				union(components, model, i, modalImplicationGraph.getVertex(i + 1).getStrongEdges());
+				union(components, model, i, modalImplicationGraph.getVertex(-(i + 1)).getStrongEdges());
+			}
+		}
+		final boolean[] affected = new boolean[model.length];
+		final VecInt affectedVariables = new VecInt();
+		clauseLoop: for (final LiteralSet clause : complexClauses) {
+			int firstIndex = -1;
+			boolean shortened = false;
+			for (final int literal : clause.getLiterals()) {
+				final int index = Math.abs(literal) - 1;
+				final int value = model[index];
+				if (value == literal) {
+					continue clauseLoop;
+				} else if (value == 0) {
+					if (firstIndex < 0) {
+						firstIndex = index;
+					} else {
+						components[find(components, index)] = find(components, firstIndex);
+					}
+				} else {
+					shortened |= !modalImplicationGraph.getVertex(value).isCore();
+				}
+			}
+			if (shortened) {
+				affectedVariables.push(firstIndex);
+			}
+		}
+		for (int i = 0; i < affectedVariables.size(); i++) {
+			affected[find(components, affectedVariables.get(i))] = true;
+		}
+
+		final int[] candidates = new int[model.length];
+		for (int i = 0; i < model.length; i++) {
+			if ((model[i] == 0) && affected[find(components, i)]) {
+				candidates[i] = i + 1;
+			}
+		}
+		return candidates;
+	}
+
+	private static void union(int[] components, int[] model, int index, int[] literals) {
+		for (final int literal : literals) {
+			final int otherIndex = Math.abs(literal) - 1;
+			if (model[otherIndex] == 0) {
+				components[find(components, otherIndex)] = find(components, index);
+			}
+		}
+	}
+
+	private static int find(int[] components, int index) {
+		while (components[index] != index) {
+			components[index] = components[components[index]];
+			index = components[index];
+		}
+		return index;
+	}
+
 }
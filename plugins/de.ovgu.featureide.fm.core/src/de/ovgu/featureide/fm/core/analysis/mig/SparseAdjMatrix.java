@@ -0,0 +1,197 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Sparse adjacency matrix for building a modal implication graph.<br> Only stores relations between variables that actually exist. Each row is an open
+ * addressing hash table that maps a variable index to its relation, such that the required memory grows with the number of edges instead of the
+ * square of the number of variables.
+ *
+ * @author agent
+ */
+class SparseAdjMatrix implements IEdgeTypes {
+
+	private static final int INITIAL_ROW_CAPACITY = 4;
+	private static final int[] EMPTY_ROW = new int[0];
+
+	final List<LiteralSet> clauseList = new ArrayList<>();
+
+	final byte[] core;
+	private final int numVariables;
+
+	/**
+	 * Contains for each row the indices of the columns + 1 (0 marks an empty slot).
+	 */
+	private final int[][] columns;
+	private final byte[][] edges;
+	private final int[] rowSizes;
+
+	public SparseAdjMatrix(int numVariables) {
+		this.numVariables = numVariables;
+		core = new byte[numVariables];
+		columns = new int[numVariables][];
+		edges = new byte[numVariables][];
+		rowSizes = new int[numVariables];
+	}
+
+	public List<LiteralSet> getClauseList() {
+		return clauseList;
+	}
+
+	public byte getCore(int i) {
+		return core[i];
+	}
+
+	public int getNumVariables() {
+		return numVariables;
+	}
+
+	public byte getEdge(int fromIndex, int toIndex) {
+		final int[] rowColumns = columns[fromIndex];
+		if (rowColumns != null) {
+			final int key = toIndex + 1;
+			final int mask = rowColumns.length - 1;
+			for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+				final int column = rowColumns[slot];
+				if (column == key) {
+					return edges[fromIndex][slot];
+				} else if (column == 0) {
+					break;
+				}
+			}
+		}
+		return EDGE_NONE;
+	}
+
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) (fromSelected ? edge >>> 4 : edge);
+	}
+
+	public void setEdge(int fromIndex, int toIndex, byte edge) {
+		int[] rowColumns = columns[fromIndex];
+		if (rowColumns == null) {
+			if (edge == EDGE_NONE) {
+				return;
+			}
+			rowColumns = new int[INITIAL_ROW_CAPACITY];
+			columns[fromIndex] = rowColumns;
+			edges[fromIndex] = new byte[INITIAL_ROW_CAPACITY];
+		}
+		final int key = toIndex + 1;
+		final int mask = rowColumns.length - 1;
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+			final int column = rowColumns[slot];
+			if (column == key) {
+				// Removed edges keep their slot, such that no rehashing is necessary
+				edges[fromIndex][slot] = edge;
+				return;
+			} else if (column == 0) {
+				if (edge != EDGE_NONE) {
+					rowColumns[slot] = key;
+					edges[fromIndex][slot] = edge;
+					if ((++rowSizes[fromIndex] << 1) > rowColumns.length) {
+						grow(fromIndex);
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the slots of the given row, such that the row can be iterated without copying. Each slot contains the index of a column + 1 or 0 for an empty
+	 * slot. The edge of a column may be {@link IEdgeTypes#EDGE_NONE}, if it was removed. The array must not be modified.<br> If a new column is added to the
+	 * row during an iteration, the row may be rehashed into a new array. In this case, the iteration continues on the old array and does not visit the new
+	 * column. Edge values should thus always be read with {@link #getEdge(int, int)}.
+	 *
+	 * @param fromIndex the index of the variable
+	 * @return the slots of the row (not a copy)
+	 */
+	public int[] getColumnSlots(int fromIndex) {
+		final int[] rowColumns = columns[fromIndex];
+		return rowColumns == null ? EMPTY_ROW : rowColumns;
+	}
+
+	/**
+	 * Returns the indices of all variables that have a relation to the given variable in ascending order. Allocates and sorts a new array on each call, use
+	 * {@link #getColumnSlots(int)} for iterating over a row repeatedly.
+	 *
+	 * @param fromIndex the index of the variable
+	 * @return a new array containing the variable indices
+	 */
+	public int[] getColumns(int fromIndex) {
+		final int[] rowColumns = columns[fromIndex];
+		if (rowColumns == null) {
+			return new int[0];
+		}
+		final byte[] rowEdges = edges[fromIndex];
+		final int[] result = new int[rowSizes[fromIndex]];
+		int i = 0;
+		for (int slot = 0; slot < rowColumns.length; slot++) {
+			if ((rowColumns[slot] != 0) && (rowEdges[slot] != EDGE_NONE)) {
+				result[i++] = rowColumns[slot] - 1;
+			}
+		}
+		final int[] sortedResult = i == result.length ? result : Arrays.copyOf(result, i);
+		Arrays.sort(sortedResult);
+		return sortedResult;
+	}
+
+	public void clearEdges() {
+		Arrays.fill(columns, null);
+		Arrays.fill(edges, null);
+		Arrays.fill(rowSizes, 0);
+	}
+
+	private void grow(int rowIndex) {
+		final int[] oldColumns = columns[rowIndex];
+		final byte[] oldEdges = edges[rowIndex];
+		final int[] newColumns = new int[oldColumns.length << 1];
+		final byte[] newEdges = new byte[oldColumns.length << 1];
+		final int mask = newColumns.length - 1;
+		for (int i = 0; i < oldColumns.length; i++) {
+			final int key = oldColumns[i];
+			if (key != 0) {
+				int slot = hash(key) & mask;
+				while (newColumns[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				newColumns[slot] = key;
+				newEdges[slot] = oldEdges[i];
+			}
+		}
+		columns[rowIndex] = newColumns;
+		edges[rowIndex] = newEdges;
+	}
+
+	private static int hash(int key) {
+		final int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -21,11 +21,8 @@
 package de.ovgu.featureide.fm.core.analysis.mig;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.IteratorInt;
@@ -40,8 +37,19 @@ public class Traverser extends ATraverser {
 		private static final long serialVersionUID = 4872529212110156314L;
 	}
 
+	/**
+	 * The remaining literals of all complex clauses that were reached during the current traversal, indexed by clause. Is {@code null} for clauses that
+	 * were not reached or are already satisfied.
+	 */
+	private VecInt[] openClauses;
+	private boolean[] reachedClauses;
+	private final VecInt reachedClauseIndices = new VecInt();
+
 	public Traverser(ModalImplicationGraph mig) {
 		super(mig);
+		final int numberOfClauses = mig.getComplexClauses().size();
+		openClauses = new VecInt[numberOfClauses];
+		reachedClauses = new boolean[numberOfClauses];
 	}
 
 	@Override
@@ -52,13 +60,13 @@ public class Traverser extends ATraverser {
 	}
 
 	private void traverseAll(int... curLiterals) throws CancelException {
-		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
+		resetClauses();
 		Arrays.fill(dfsMark, false);
 
-		traverseStrong(openClauseMap, curLiterals);
+		traverseStrongLiterals(curLiterals);
 		mainLoop: while (true) {
-			for (final Iterator<Entry<Integer, VecInt>> openClauseIterator = openClauseMap.entrySet().iterator(); openClauseIterator.hasNext();) {
-				final VecInt openClause = openClauseIterator.next().getValue();
+			for (int i = 0; i < reachedClauseIndices.size(); i++) {
+				final VecInt openClause = openClauses[reachedClauseIndices.get(i)];
 				if (openClause != null) {
 					for (final IteratorInt literalIterator = openClause.iterator(); literalIterator.hasNext();) {
 						final int literal = literalIterator.next();
@@ -72,17 +80,17 @@ public class Traverser extends ATraverser {
 								case Cancel:
 									return;
 								case Continue:
-									changed |= addComplexClauses(openClauseMap, vertex) > 0;
+									changed |= addComplexClauses(vertex) > 0;
 									break;
 								case Select:
-									changed |= attemptStrongSelect(literal, openClauseMap);
+									changed |= attemptStrongSelect(literal);
 									break;
 								case Skip:
 									break;
 								default:
 									throw new AssertionError(visitWeakResult);
 								}
-								changed |= processComplexClauses(openClauseMap);
+								changed |= processComplexClauses();
 								if (changed) {
 									continue mainLoop;
 								}
@@ -98,34 +106,36 @@ public class Traverser extends ATraverser {
 	@Override
 	public void traverseStrong(int... curLiterals) {
 		try {
-			traverseStrong(new HashMap<Integer, VecInt>(), curLiterals);
+			resetClauses();
+			traverseStrongLiterals(curLiterals);
 		} catch (final CancelException e) {}
 	}
 
-	private void traverseStrong(final HashMap<Integer, VecInt> complexClauseMap, int... curLiterals) throws CancelException {
+	private void traverseStrongLiterals(int... curLiterals) throws CancelException {
 		boolean changed = false;
 		for (final int curLiteral : curLiterals) {
-			changed |= attemptStrongSelect(curLiteral, complexClauseMap);
+			changed |= attemptStrongSelect(curLiteral);
 		}
 		if (changed) {
-			processComplexClauses(complexClauseMap);
+			processComplexClauses();
 		}
 	}
 
-	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
+	private boolean processComplexClauses() throws CancelException {
 		boolean changedInLoop, changed = false;
 		do {
 			changedInLoop = false;
 			final List<VecInt> unitClauses = new LinkedList<>();
-			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-				final VecInt v = entry.getValue();
+			for (int i = 0; i < reachedClauseIndices.size(); i++) {
+				final int clauseIndex = reachedClauseIndices.get(i);
+				final VecInt v = openClauses[clauseIndex];
 				if (v != null) {
 					for (int j = v.size() - 1; j >= 0; j--) {
 						final int literal = v.get(j);
 						final int value = currentConfiguration[getIndex(literal)];
 						if (value != 0) {
 							if (value == literal) {
-								entry.setValue(null);
+								openClauses[clauseIndex] = null;
 							} else {
 								v.delete(j);
 							}
@@ -134,21 +144,21 @@ public class Traverser extends ATraverser {
 					}
 
 					if (v.size() == 1) {
-						entry.setValue(null);
+						openClauses[clauseIndex] = null;
 						unitClauses.add(v);
 					}
 				}
 			}
 
 			for (final VecInt v : unitClauses) {
-				changedInLoop |= attemptStrongSelect(v.get(0), complexClauseMap);
+				changedInLoop |= attemptStrongSelect(v.get(0));
 			}
 			changed |= changedInLoop;
 		} while (changedInLoop);
 		return changed;
 	}
 
-	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
+	private boolean attemptStrongSelect(final int curLiteral) throws CancelException {
 		final int modelIndex = getIndex(curLiteral);
 		final int currentVariableSelection = currentConfiguration[modelIndex];
 		if (currentVariableSelection == 0) {
@@ -167,7 +177,7 @@ public class Traverser extends ATraverser {
 			}
 
 			final Vertex curVertex = mig.getVertex(curLiteral);
-			addComplexClauses(complexClauseMap, curVertex);
+			addComplexClauses(curVertex);
 
 			for (final int strongVertex : curVertex.getStrongEdges()) {
 				final int strongVertexIndex = getIndex(strongVertex);
@@ -181,7 +191,7 @@ public class Traverser extends ATraverser {
 						break;
 					case Select:
 					case Continue:
-						addComplexClauses(complexClauseMap, mig.getVertex(strongVertex));
+						addComplexClauses(mig.getVertex(strongVertex));
 						break;
 					default:
 						throw new AssertionError(visitStrongResult);
@@ -200,20 +210,36 @@ public class Traverser extends ATraverser {
 		return Math.abs(literal) - 1;
 	}
 
-	private int addComplexClauses(final HashMap<Integer, VecInt> complexClauseMap, final Vertex vertex) {
+	private int addComplexClauses(final Vertex vertex) {
 		int added = 0;
 		final int[] complexClauses = vertex.getComplexClauses();
 		for (int i = 0; i < complexClauses.length; i++) {
-			final Integer index = complexClauses[i];
-			if (!complexClauseMap.containsKey(index)) {
+			final int index = complexClauses[i];
+			if (index >= reachedClauses.length) {
+				final int numberOfClauses = mig.getComplexClauses().size();
+				openClauses = Arrays.copyOf(openClauses, numberOfClauses);
+				reachedClauses = Arrays.copyOf(reachedClauses, numberOfClauses);
+			}
+			if (!reachedClauses[index]) {
+				reachedClauses[index] = true;
+				reachedClauseIndices.push(index);
 				final LiteralSet clause = mig.getComplexClauses().get(index);
-				complexClauseMap.put(index, new VecInt(Arrays.copyOf(clause.getLiterals(), clause.size())));
+				openClauses[index] = new VecInt(Arrays.copyOf(clause.getLiterals(), clause.size()));
 				added++;
 			}
 		}
 		return added;
 	}
 
+	private void resetClauses() {
+		for (int i = 0; i < reachedClauseIndices.size(); i++) {
+			final int clauseIndex = reachedClauseIndices.get(i);
+			reachedClauses[clauseIndex] = false;
+			openClauses[clauseIndex] = null;
+		}
+		reachedClauseIndices.clear();
+	}
+
 //	@Override
 //	public void traverseAll(int... curLiterals) {
 //		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
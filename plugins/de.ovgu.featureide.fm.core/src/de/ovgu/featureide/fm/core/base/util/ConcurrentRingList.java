@@ -0,0 +1,95 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe version of {@link RingList}. Multiple threads may add and iterate elements concurrently without locking.<br> An iterator traverses the elements
+ * that were present when it was created, from oldest to newest. Elements that are overwritten during the iteration may be skipped or replaced by newer
+ * ones.
+ *
+ * @author agent
+ */
+public class ConcurrentRingList<T> implements Iterable<T> {
+
+	private final AtomicReferenceArray<T> ring;
+	private final AtomicLong addCount = new AtomicLong();
+	private final int size;
+
+	public ConcurrentRingList(int size) {
+		this.size = size > 0 ? size : 1;
+		ring = new AtomicReferenceArray<>(this.size);
+	}
+
+	public void add(T element) {
+		ring.set((int) (addCount.getAndIncrement() % size), element);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		final long end = addCount.get();
+		final long start = Math.max(0, end - size);
+		return new Iterator<T>() {
+
+			long index = start;
+			T next = findNext();
+
+			private T findNext() {
+				while (index < end) {
+					final T element = ring.get((int) (index++ % size));
+					if (element != null) {
+						return element;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public T next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				final T t = next;
+				next = findNext();
+				return t;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	public int size() {
+		return (int) Math.min(addCount.get(), size);
+	}
+
+}
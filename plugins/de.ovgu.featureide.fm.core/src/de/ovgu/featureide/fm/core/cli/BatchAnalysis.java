@@ -0,0 +1,586 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.cli;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Command line interface for analyzing many feature models within one JVM.<br> Models are given as a directory (searched recursively), a single file,
+ * or a manifest file that lists one model path per line. All models are analyzed on a work-stealing pool, such that JIT compilation and class loading
+ * are only paid once. The results are written as soon as a model is finished, either as JSON lines or as CSV.
+ *
+ * @author agent
+ */
+public class BatchAnalysis extends ACLIFunction {
+
+	private static final String STATUS_OK = "ok";
+	private static final String STATUS_TIMEOUT = "timeout";
+	private static final String STATUS_ERROR = "error";
+
+	private static final String CSV_SEPARATOR = ";";
+
+	/**
+	 * The supported analyses.
+	 */
+	public enum Analysis {
+		VALID, COREDEAD, FALSEOPTIONAL, REDUNDANT, COUNT, SAMPLE
+	}
+
+	/**
+	 * The supported output formats.
+	 */
+	public enum OutputFormat {
+		JSONL, CSV
+	}
+
+	private static class Result {
+
+		private final Path model;
+		private final long deadline;
+		private String status = STATUS_OK;
+		private String error;
+		private long time;
+		private int numberOfFeatures = -1;
+		private int numberOfConstraints = -1;
+		private Boolean valid;
+		private List<String> coreFeatures;
+		private List<String> deadFeatures;
+		private List<String> falseOptionalFeatures;
+		private List<String> redundantConstraints;
+		private BigInteger count;
+		private Integer sampleSize;
+
+		public Result(Path model, long deadline) {
+			this.model = model;
+			this.deadline = deadline;
+		}
+
+	}
+
+	/**
+	 * Flushes instead of closing the underlying writer, such that {@link System#out} stays open.
+	 */
+	private static class NonClosingWriter extends FilterWriter {
+
+		public NonClosingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+	private Path fmPath;
+	private Path manifestFile;
+	private Path outputFile;
+	private Set<Analysis> analyses;
+	private OutputFormat format;
+	private int threads;
+	private int timeout;
+	private int t;
+
+	@Override
+	public String getId() {
+		return "batchanalysis";
+	}
+
+	@Override
+	public void run(List<String> args) {
+		parseArguments(args);
+
+		if ((fmPath == null) && (manifestFile == null)) {
+			throw new IllegalArgumentException("No feature models specified!");
+		}
+
+		final List<Path> models = new ArrayList<>();
+		try {
+			if (fmPath != null) {
+				models.addAll(findModels(fmPath));
+			}
+			if (manifestFile != null) {
+				models.addAll(readManifest(manifestFile));
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		try (Writer writer = (outputFile != null) //
+			? Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8) //
+			: new NonClosingWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))) {
+			analyze(models, writer);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void analyze(List<Path> models, Writer writer) throws IOException {
+		final List<Path> sortedModels = new ArrayList<>(models);
+		// Start with the largest models to reduce the time at the end in which only few workers are busy.
+		sortedModels.sort(Comparator.comparingLong(BatchAnalysis::getSize).reversed());
+
+		if (format == OutputFormat.CSV) {
+			writer.write(getCSVHeader());
+			writer.flush();
+		}
+
+		final ExecutorService executor = Executors.newWorkStealingPool(Math.max(1, threads));
+		try {
+			for (final Path model : sortedModels) {
+				executor.execute(() -> {
+					final Result result = analyze(model);
+					synchronized (writer) {
+						try {
+							writer.write(format == OutputFormat.CSV ? toCSV(result) : toJSON(result));
+							writer.flush();
+						} catch (final IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+			try {
+				while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private Result analyze(Path model) {
+		final long startTime = System.nanoTime();
+		final long deadline = timeout > 0 ? (System.currentTimeMillis() + timeout) : Long.MAX_VALUE;
+		final Result result = new Result(model, deadline);
+		try {
+			final FileHandler<IFeatureModel> fileHandler = FeatureModelManager.getFileHandler(model);
+			if (fileHandler.getLastProblems().containsError()) {
+				result.status = STATUS_ERROR;
+				result.error = fileHandler.getLastProblems().getErrors().get(0).getMessage();
+				return result;
+			}
+			final IFeatureModel featureModel = fileHandler.getObject();
+			result.numberOfFeatures = featureModel.getNumberOfFeatures();
+			result.numberOfConstraints = featureModel.getConstraintCount();
+
+			final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+			final FeatureModelAnalyzer analyzer = formula.getAnalyzer();
+			// The models are already analyzed in parallel.
+			analyzer.getAnalysesCollection().setNumberOfThreads(1);
+
+			if (analyses.contains(Analysis.VALID) && isInTime(result)) {
+				result.valid = getResult(result, analyzer.isValid(null, getRemainingTime(deadline)));
+			}
+			if (analyses.contains(Analysis.COREDEAD) && isInTime(result)) {
+				result.coreFeatures = getNames(result, analyzer.getCoreFeatures(null, getRemainingTime(deadline)));
+				result.deadFeatures = getNames(result, analyzer.getDeadFeatures(null, getRemainingTime(deadline)));
+			}
+			if (analyses.contains(Analysis.FALSEOPTIONAL) && isInTime(result)) {
+				result.falseOptionalFeatures = getNames(result, analyzer.getFalseOptionalFeatures(null, getRemainingTime(deadline)));
+			}
+			if (analyses.contains(Analysis.REDUNDANT) && isInTime(result)) {
+				result.redundantConstraints = getResult(result, analyzer.getRedundantConstraints(null, getRemainingTime(deadline)).map(
+						constraints -> constraints.stream().map(IConstraint::getDisplayName).collect(Collectors.toList())));
+			}
+			if (analyses.contains(Analysis.COUNT) || analyses.contains(Analysis.SAMPLE)) {
+				final CNF cnf = formula.getCNF();
+				if (analyses.contains(Analysis.COUNT) && isInTime(result)) {
+					final DDNNFCompiler compiler = new DDNNFCompiler(cnf);
+					// The compiler does not react to cancel requests, but stops by itself after its timeout.
+					compiler.setTimeout(getRemainingTime(deadline));
+					final DDNNF ddnnf = getResult(result, run(compiler, deadline));
+					result.count = ddnnf != null ? ddnnf.countSolutions() : null;
+				}
+				if (analyses.contains(Analysis.SAMPLE) && isInTime(result)) {
+					final List<LiteralSet> sample = getResult(result, run(new TWiseConfigurationGenerator(cnf, t), deadline));
+					result.sampleSize = sample != null ? sample.size() : null;
+				}
+			}
+		} catch (final Throwable e) {
+			// Also catch errors (e.g., OutOfMemoryError), such that every model gets a result row.
+			result.status = STATUS_ERROR;
+			result.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+		} finally {
+			result.time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether the time for analyzing a model is left. Otherwise, the remaining analyses are skipped.
+	 *
+	 * @param result the result of the model
+	 * @return {@code true} if the deadline of the model was not reached yet
+	 */
+	private static boolean isInTime(Result result) {
+		if (System.currentTimeMillis() >= result.deadline) {
+			if (result.status == STATUS_OK) {
+				result.status = STATUS_TIMEOUT;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private static int getRemainingTime(long deadline) {
+		if (deadline == Long.MAX_VALUE) {
+			return -1;
+		}
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline - System.currentTimeMillis()));
+	}
+
+	private static <T> Optional<T> run(LongRunningMethod<T> method, long deadline) throws InterruptedException {
+		if (deadline == Long.MAX_VALUE) {
+			return Optional.ofNullable(LongRunningWrapper.runMethod(method, new NullMonitor<>()));
+		}
+		final IRunner<T> thread = LongRunningWrapper.getThread(method, new NullMonitor<>());
+		thread.setStoppable(true);
+		thread.setTimeout(getRemainingTime(deadline));
+		thread.schedule();
+		thread.join();
+		return Optional.ofNullable(thread.getResults());
+	}
+
+	private static <T> T getResult(Result result, Optional<T> value) {
+		if (!value.isPresent() && (result.status == STATUS_OK)) {
+			if (System.currentTimeMillis() >= result.deadline) {
+				result.status = STATUS_TIMEOUT;
+			} else {
+				result.status = STATUS_ERROR;
+				result.error = "Analysis failed";
+			}
+		}
+		return value.orElse(null);
+	}
+
+	private static List<String> getNames(Result result, Optional<List<IFeature>> features) {
+		return getResult(result, features.map(list -> list.stream().map(IFeature::getName).collect(Collectors.toList())));
+	}
+
+	private static long getSize(Path path) {
+		try {
+			return Files.size(path);
+		} catch (final IOException e) {
+			return 0;
+		}
+	}
+
+	private static List<Path> findModels(Path path) throws IOException {
+		if (Files.isDirectory(path)) {
+			try (Stream<Path> files = Files.walk(path)) {
+				return files.filter(Files::isRegularFile).filter(FeatureModelManager::isFileSupported).sorted().collect(Collectors.toList());
+			}
+		} else {
+			return Arrays.asList(path);
+		}
+	}
+
+	private static List<Path> readManifest(Path manifest) throws IOException {
+		final Path parent = manifest.toAbsolutePath().getParent();
+		final List<Path> models = new ArrayList<>();
+		for (final String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+			final String trimmedLine = line.trim();
+			if (!trimmedLine.isEmpty() && !trimmedLine.startsWith("#")) {
+				models.addAll(findModels(parent.resolve(trimmedLine)));
+			}
+		}
+		return models;
+	}
+
+	private String getCSVHeader() {
+		final List<String> columns = new ArrayList<>(Arrays.asList("model", "status", "time", "features", "constraints"));
+		if (analyses.contains(Analysis.VALID)) {
+			columns.add("valid");
+		}
+		if (analyses.contains(Analysis.COREDEAD)) {
+			columns.add("core");
+			columns.add("dead");
+		}
+		if (analyses.contains(Analysis.FALSEOPTIONAL)) {
+			columns.add("falseoptional");
+		}
+		if (analyses.contains(Analysis.REDUNDANT)) {
+			columns.add("redundant");
+		}
+		if (analyses.contains(Analysis.COUNT)) {
+			columns.add("count");
+		}
+		if (analyses.contains(Analysis.SAMPLE)) {
+			columns.add("sample");
+		}
+		return String.join(CSV_SEPARATOR, columns) + "\n";
+	}
+
+	private String toCSV(Result result) {
+		final List<String> columns = new ArrayList<>();
+		columns.add(result.model.toString());
+		columns.add(result.status);
+		columns.add(Long.toString(result.time));
+		columns.add(result.numberOfFeatures >= 0 ? Integer.toString(result.numberOfFeatures) : "");
+		columns.add(result.numberOfConstraints >= 0 ? Integer.toString(result.numberOfConstraints) : "");
+		if (analyses.contains(Analysis.VALID)) {
+			columns.add(result.valid != null ? result.valid.toString() : "");
+		}
+		if (analyses.contains(Analysis.COREDEAD)) {
+			columns.add(toCSV(result.coreFeatures));
+			columns.add(toCSV(result.deadFeatures));
+		}
+		if (analyses.contains(Analysis.FALSEOPTIONAL)) {
+			columns.add(toCSV(result.falseOptionalFeatures));
+		}
+		if (analyses.contains(Analysis.REDUNDANT)) {
+			columns.add(toCSV(result.redundantConstraints));
+		}
+		if (analyses.contains(Analysis.COUNT)) {
+			columns.add(result.count != null ? result.count.toString() : "");
+		}
+		if (analyses.contains(Analysis.SAMPLE)) {
+			columns.add(result.sampleSize != null ? result.sampleSize.toString() : "");
+		}
+		final StringBuilder sb = new StringBuilder();
+		for (final String column : columns) {
+			appendCSVField(sb, column);
+			sb.append(CSV_SEPARATOR);
+		}
+		sb.setCharAt(sb.length() - 1, '\n');
+		return sb.toString();
+	}
+
+	/**
+	 * Quotes a field if it contains the separator, a quotation mark, or a line break (e.g., in the path of a model). Quotation marks are doubled.
+	 */
+	private static void appendCSVField(StringBuilder sb, String value) {
+		if ((value.indexOf(CSV_SEPARATOR) < 0) && (value.indexOf('"') < 0) && (value.indexOf('\n') < 0) && (value.indexOf('\r') < 0)) {
+			sb.append(value);
+		} else {
+			sb.append('"');
+			sb.append(value.replace("\"", "\"\""));
+			sb.append('"');
+		}
+	}
+
+	private static String toCSV(Collection<String> list) {
+		return list != null ? Integer.toString(list.size()) : "";
+	}
+
+	private String toJSON(Result result) {
+		final StringBuilder sb = new StringBuilder("{");
+		appendJSON(sb, "model", result.model.toString());
+		appendJSON(sb, "status", result.status);
+		appendJSON(sb, "error", result.error);
+		appendJSON(sb, "time", result.time);
+		if (result.numberOfFeatures >= 0) {
+			appendJSON(sb, "features", result.numberOfFeatures);
+			appendJSON(sb, "constraints", result.numberOfConstraints);
+		}
+		appendJSON(sb, "valid", result.valid);
+		appendJSON(sb, "core", result.coreFeatures);
+		appendJSON(sb, "dead", result.deadFeatures);
+		appendJSON(sb, "falseOptional", result.falseOptionalFeatures);
+		appendJSON(sb, "redundant", result.redundantConstraints);
+		appendJSON(sb, "count", result.count);
+		appendJSON(sb, "sample", result.sampleSize);
+		sb.setCharAt(sb.length() - 1, '}');
+		return sb.append('\n').toString();
+	}
+
+	private static void appendJSON(StringBuilder sb, String key, Object value) {
+		if (value == null) {
+			return;
+		}
+		appendJSONString(sb, key);
+		sb.append(':');
+		if (value instanceof Collection) {
+			sb.append('[');
+			for (final Object element : (Collection<?>) value) {
+				appendJSONString(sb, element.toString());
+				sb.append(',');
+			}
+			if (sb.charAt(sb.length() - 1) == ',') {
+				sb.setLength(sb.length() - 1);
+			}
+			sb.append(']');
+		} else if ((value instanceof Number) || (value instanceof Boolean)) {
+			sb.append(value);
+		} else {
+			appendJSONString(sb, value.toString());
+		}
+		sb.append(',');
+	}
+
+	private static void appendJSONString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+				break;
+			}
+		}
+		sb.append('"');
+	}
+
+	private void resetArguments() {
+		fmPath = null;
+		manifestFile = null;
+		outputFile = null;
+		analyses = new LinkedHashSet<>(Arrays.asList(Analysis.VALID, Analysis.COREDEAD, Analysis.FALSEOPTIONAL, Analysis.REDUNDANT));
+		format = OutputFormat.JSONL;
+		threads = Runtime.getRuntime().availableProcessors();
+		timeout = 0;
+		t = 2;
+	}
+
+	private void parseArguments(List<String> args) {
+		resetArguments();
+		for (final Iterator<String> iterator = args.iterator(); iterator.hasNext();) {
+			final String arg = iterator.next();
+			if (arg.startsWith("-")) {
+				switch (arg.substring(1)) {
+				case "a": {
+					analyses = new LinkedHashSet<>();
+					for (final String analysis : getArgValue(iterator, arg).split(",")) {
+						try {
+							analyses.add(Analysis.valueOf(analysis.trim().toUpperCase(Locale.ENGLISH)));
+						} catch (final IllegalArgumentException e) {
+							throw new IllegalArgumentException("Unknown analysis " + analysis + ". Available analyses: "
+								+ Arrays.toString(Analysis.values()).toLowerCase(Locale.ENGLISH));
+						}
+					}
+					break;
+				}
+				case "fm": {
+					fmPath = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "format": {
+					final String value = getArgValue(iterator, arg);
+					try {
+						format = OutputFormat.valueOf(value.toUpperCase(Locale.ENGLISH));
+					} catch (final IllegalArgumentException e) {
+						throw new IllegalArgumentException("Unknown output format " + value);
+					}
+					break;
+				}
+				case "list": {
+					manifestFile = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "o": {
+					outputFile = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "t": {
+					t = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "threads": {
+					threads = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "timeout": {
+					timeout = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				default: {
+					throw new IllegalArgumentException(arg);
+				}
+				}
+			} else {
+				throw new IllegalArgumentException(arg);
+			}
+		}
+	}
+
+	private String getArgValue(final Iterator<String> iterator, final String arg) {
+		if (iterator.hasNext()) {
+			return iterator.next();
+		} else {
+			throw new IllegalArgumentException("No value specified for " + arg);
+		}
+	}
+
+}
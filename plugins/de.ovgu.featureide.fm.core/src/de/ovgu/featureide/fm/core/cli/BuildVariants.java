@@ -0,0 +1,282 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationGenerator;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.Pipeline;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Stage;
+
+/**
+ * Command line interface that builds a sample of variants in a {@link Pipeline}. The configurations are sampled, written as configuration files, and
+ * optionally passed to an external command (e.g., a script that composes, compiles, and tests the variant). All stages run concurrently, the parallelism
+ * of each stage can be set with <code>-p &lt;stage&gt;=&lt;threads&gt;</code>. The statistics of all stages are printed at the end.
+ *
+ * @author agent
+ */
+public class BuildVariants extends ACLIFunction {
+
+	public static final String STAGE_SAMPLING = "sampling";
+	public static final String STAGE_WRITING = "writing";
+	public static final String STAGE_COMMAND = "command";
+
+	/** placeholder for the path of the configuration file in the command */
+	public static final String CONFIGURATION_PLACEHOLDER = "{config}";
+	/** placeholder for the name of the variant in the command */
+	public static final String NAME_PLACEHOLDER = "{name}";
+
+	private static class Variant {
+
+		private final String name;
+		private final LiteralSet solution;
+		private Path configurationFile;
+
+		public Variant(int number, LiteralSet solution) {
+			name = String.format("%05d", number);
+			this.solution = solution;
+		}
+
+	}
+
+	private String algorithm;
+	private Path outputDirectory;
+	private Path fmFile;
+	private int t;
+	private int limit;
+	private int queueCapacity;
+	private List<String> command;
+	private final Map<String, Integer> parallelism = new HashMap<>();
+
+	private List<Stage> lastStatistics;
+
+	@Override
+	public String getId() {
+		return "buildvariants";
+	}
+
+	@Override
+	public void run(List<String> args) {
+		parseArguments(args);
+
+		if (fmFile == null) {
+			throw new IllegalArgumentException("No feature model specified!");
+		}
+		if (outputDirectory == null) {
+			throw new IllegalArgumentException("No output directory specified!");
+		}
+		if (algorithm == null) {
+			throw new IllegalArgumentException("No algorithm specified!");
+		}
+
+		final FileHandler<IFeatureModel> fileHandler = FeatureModelManager.getFileHandler(fmFile);
+		if (fileHandler.getLastProblems().containsError()) {
+			throw new IllegalArgumentException(fileHandler.getLastProblems().getErrors().get(0).error);
+		}
+		final FeatureModelFormula formula = new FeatureModelFormula(fileHandler.getObject());
+		final CNF cnf = formula.getCNF();
+		final IConfigurationGenerator generator = ConfigurationGenerator.createGenerator(algorithm, cnf, t, limit);
+
+		try {
+			Files.createDirectories(outputDirectory);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+
+		final Pipeline<Variant> pipeline = new Pipeline<>(STAGE_SAMPLING, output -> {
+			final int[] count = { 0 };
+			generator.setResultConsumer(solution -> {
+				try {
+					output.put(new Variant(++count[0], solution));
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MethodCancelException();
+				}
+			});
+			generator.execute(new NullMonitor<>());
+		}, queueCapacity);
+		pipeline.addStage(STAGE_WRITING, getParallelism(STAGE_WRITING), variant -> writeConfiguration(variant, formula));
+		if (command != null) {
+			pipeline.addStage(STAGE_COMMAND, getParallelism(STAGE_COMMAND), this::runCommand);
+		}
+		pipeline.setErrorHandler((stage, variant, exception) -> {
+			System.err.println(stage.getName() + (variant != null ? " " + variant.name : "") + ": " + exception.getMessage());
+		});
+
+		try {
+			pipeline.execute(new NullMonitor<>());
+		} catch (final Exception e) {
+			System.err.println(e.getMessage());
+		}
+		lastStatistics = pipeline.getStages();
+		for (final Stage stage : lastStatistics) {
+			System.out.println(stage);
+		}
+	}
+
+	/**
+	 * @return the statistics of each stage of the last run
+	 */
+	public List<Stage> getLastStatistics() {
+		return lastStatistics;
+	}
+
+	private int getParallelism(String stage) {
+		final Integer threads = parallelism.get(stage);
+		return threads != null ? threads : 1;
+	}
+
+	private void writeConfiguration(Variant variant, FeatureModelFormula formula) throws IOException {
+		final Configuration configuration = new Configuration(formula);
+		final Variables variables = formula.getCNF().getVariables();
+		for (final int literal : variant.solution.getLiterals()) {
+			final String name = variables.getName(literal);
+			if (configuration.getSelectableFeature(name) != null) {
+				configuration.setManual(name, literal > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			}
+		}
+		final XMLConfFormat format = new XMLConfFormat();
+		final Path configurationFile = outputDirectory.resolve(variant.name + "." + format.getSuffix());
+		final ProblemList problems = SimpleFileHandler.save(configurationFile, configuration, format);
+		if (problems.containsError()) {
+			throw new IOException(problems.getErrors().get(0).error);
+		}
+		variant.configurationFile = configurationFile;
+	}
+
+	private void runCommand(Variant variant) throws IOException, InterruptedException {
+		final List<String> processCommand = new ArrayList<>(command.size());
+		for (final String part : command) {
+			processCommand.add(part.replace(CONFIGURATION_PLACEHOLDER, variant.configurationFile.toString()).replace(NAME_PLACEHOLDER, variant.name));
+		}
+		final Process process = new ProcessBuilder(processCommand) //
+				.directory(outputDirectory.toFile()) //
+				.redirectErrorStream(true) //
+				.redirectOutput(outputDirectory.resolve(variant.name + ".log").toFile()) //
+				.start();
+		try {
+			final int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				throw new IOException("Command failed with exit code " + exitCode);
+			}
+		} finally {
+			process.destroy();
+		}
+	}
+
+	private void resetArguments() {
+		algorithm = null;
+		outputDirectory = null;
+		fmFile = null;
+		t = 1;
+		limit = Integer.MAX_VALUE;
+		queueCapacity = 16;
+		command = null;
+		parallelism.clear();
+	}
+
+	private void parseArguments(List<String> args) {
+		resetArguments();
+		for (final Iterator<String> iterator = args.iterator(); iterator.hasNext();) {
+			final String arg = iterator.next();
+			if (arg.startsWith("-")) {
+				switch (arg.substring(1)) {
+				case "a": {
+					algorithm = getArgValue(iterator, arg);
+					break;
+				}
+				case "command": {
+					command = new ArrayList<>();
+					for (final String part : getArgValue(iterator, arg).trim().split("\\s+")) {
+						command.add(part);
+					}
+					break;
+				}
+				case "fm": {
+					fmFile = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "l": {
+					limit = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "o": {
+					outputDirectory = Paths.get(getArgValue(iterator, arg));
+					break;
+				}
+				case "p": {
+					final String value = getArgValue(iterator, arg);
+					final int index = value.indexOf('=');
+					if (index < 0) {
+						throw new IllegalArgumentException("Expected <stage>=<threads> for " + arg);
+					}
+					parallelism.put(value.substring(0, index), Integer.parseInt(value.substring(index + 1)));
+					break;
+				}
+				case "q": {
+					queueCapacity = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				case "t": {
+					t = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
+				default: {
+					throw new IllegalArgumentException(arg);
+				}
+				}
+			} else {
+				throw new IllegalArgumentException(arg);
+			}
+		}
+	}
+
+	private String getArgValue(final Iterator<String> iterator, final String arg) {
+		if (iterator.hasNext()) {
+			return iterator.next();
+		} else {
+			throw new IllegalArgumentException("No value specified for " + arg);
+		}
+	}
+
+}
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.cli;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -28,10 +30,10 @@ import java.util.List;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.DDNNFRandomConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.PairWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
@@ -40,6 +42,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWi
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
+import de.ovgu.featureide.fm.core.io.csv.ConfigurationListWriter;
 import de.ovgu.featureide.fm.core.io.expression.ExpressionGroupFormat;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
@@ -64,6 +67,8 @@ public class ConfigurationGenerator extends ACLIFunction {
 	private boolean countInitialSolutionForLimit = false;
 	private int t;
 	private int m;
+	private boolean independentIterations = false;
+	private int threads;
 	private int limit;
 
 	@Override
@@ -113,51 +118,63 @@ public class ConfigurationGenerator extends ACLIFunction {
 			initialSample = null;
 		}
 
-		IConfigurationGenerator generator = null;
-		switch (algorithm.toLowerCase()) {
-		case "icpl": {
-			generator = new SPLCAToolConfigurationGenerator(cnf, "ICPL", t, limit);
-			break;
-		}
-		case "chvatal": {
-			generator = new SPLCAToolConfigurationGenerator(cnf, "Chvatal", t, limit);
-			break;
-		}
-		case "incling": {
-			generator = new PairWiseConfigurationGenerator(cnf, limit);
-			break;
+		final IConfigurationGenerator generator;
+		if ("yasa".equalsIgnoreCase(algorithm) && (expressionGroups != null)) {
+			generator = new TWiseConfigurationGenerator(cnf, expressionGroups, t, limit);
+		} else {
+			generator = createGenerator(algorithm, cnf, t, limit);
 		}
-		case "yasa": {
-			if (expressionGroups == null) {
-				generator = new TWiseConfigurationGenerator(cnf, t, limit);
-			} else {
-				generator = new TWiseConfigurationGenerator(cnf, expressionGroups, t, limit);
-			}
+		if (generator instanceof TWiseConfigurationGenerator) {
 			final TWiseConfigurationGenerator yasa = (TWiseConfigurationGenerator) generator;
 			yasa.setIterations(m);
+			yasa.setIndependentIterations(independentIterations);
+			yasa.setNumberOfThreads(threads);
 			if (initialSampleFile != null) {
 				yasa.setInitialSample(initialSample.getSolutions());
 				yasa.setAllowInitialSolutionModify(allowInitialSolutionModify);
 				yasa.setAllowInitialSolutionRemove(allowInitialSolutionRemove);
 				yasa.setCountInitialSolutionForLimit(countInitialSolutionForLimit);
 			}
-			break;
+		} else if (generator instanceof AllConfigurationGenerator) {
+			((AllConfigurationGenerator) generator).setNumberOfThreads(threads);
 		}
-		case "random": {
-			generator = new RandomConfigurationGenerator(cnf, limit);
-			break;
-		}
-		case "all": {
-			generator = new AllConfigurationGenerator(cnf, limit);
-			break;
+		try (ConfigurationListWriter writer = new ConfigurationListWriter(outputFile, cnf.getVariables())) {
+			generator.setResultConsumer(writer);
+			LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
 		}
+	}
+
+	/**
+	 * Creates a sampling algorithm with its default settings.
+	 *
+	 * @param algorithm the name of the algorithm (icpl, chvatal, incling, yasa, random, uniform, or all)
+	 * @param cnf the formula
+	 * @param t the t-wise coverage (if supported by the algorithm)
+	 * @param limit the maximum number of configurations
+	 * @return the algorithm
+	 * @throws IllegalArgumentException if there is no algorithm with the given name
+	 */
+	static IConfigurationGenerator createGenerator(String algorithm, CNF cnf, int t, int limit) {
+		switch (algorithm.toLowerCase()) {
+		case "icpl":
+			return new SPLCAToolConfigurationGenerator(cnf, "ICPL", t, limit);
+		case "chvatal":
+			return new SPLCAToolConfigurationGenerator(cnf, "Chvatal", t, limit);
+		case "incling":
+			return new PairWiseConfigurationGenerator(cnf, limit);
+		case "yasa":
+			return new TWiseConfigurationGenerator(cnf, t, limit);
+		case "random":
+			return new RandomConfigurationGenerator(cnf, limit);
+		case "uniform":
+			return new DDNNFRandomConfigurationGenerator(cnf, limit);
+		case "all":
+			return new AllConfigurationGenerator(cnf, limit);
 		default:
 			throw new IllegalArgumentException("No algorithm specified!");
 		}
-		final List<LiteralSet> result = LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
-		if (result != null) {
-			SimpleFileHandler.save(outputFile, new SolutionList(cnf.getVariables(), result), new ConfigurationListFormat());
-		}
 	}
 
 	private void resetArguments() {
@@ -171,6 +188,8 @@ public class ConfigurationGenerator extends ACLIFunction {
 		countInitialSolutionForLimit = false;
 		t = 1;
 		m = 1;
+		independentIterations = false;
+		threads = 1;
 		limit = Integer.MAX_VALUE;
 	}
 
@@ -216,6 +235,14 @@ public class ConfigurationGenerator extends ACLIFunction {
 					m = Integer.parseInt(getArgValue(iterator, arg));
 					break;
 				}
+				case "mi": {
+					independentIterations = true;
+					break;
+				}
+				case "threads": {
+					threads = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
 				case "o": {
 					outputFile = Paths.get(getArgValue(iterator, arg));
 					break;
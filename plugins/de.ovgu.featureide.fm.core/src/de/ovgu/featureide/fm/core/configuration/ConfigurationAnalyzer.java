@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -118,6 +119,25 @@ public class ConfigurationAnalyzer {
 		return (result != null) ? result : 0;
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @return The number of solutions or {@code null}, if the solutions could not be counted.
+	 */
+	public BigInteger countSolutions() {
+		return LongRunningWrapper.runMethod(propagator.countSolutions());
+	}
+
+	/**
+	 * Counts the exact number of possible solutions, if this is possible within the given timeout.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return The number of solutions or {@code null}, if the solutions could not be counted in time.
+	 */
+	public BigInteger countSolutions(int timeout) {
+		return LongRunningWrapper.runMethod(propagator.countSolutions(timeout));
+	}
+
 	public Collection<SelectableFeature> update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		final Collection<SelectableFeature> result = LongRunningWrapper.runMethod(propagator.update(redundantManual, featureOrder));
 		return (result != null) ? result : Collections.emptyList();
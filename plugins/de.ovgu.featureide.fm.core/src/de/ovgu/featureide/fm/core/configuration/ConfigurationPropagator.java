@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,8 +33,15 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AbstractAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysisMIG;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenCNFCreator;
@@ -45,6 +53,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -110,8 +119,11 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			case FALSE:
 			case TIMEOUT:
 				final int[] contradictoryAssignment = solver.getContradictoryAssignment();
+				final Variables variables = solver.getSatInstance().getVariables();
 				for (final int i : contradictoryAssignment) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+					if (!variables.isAuxiliary(i)) {
+						configuration.setManual(variables.getName(i), Selection.UNDEFINED);
+					}
 				}
 			case TRUE:
 				return null;
@@ -146,8 +158,11 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			solver.setSelectionStrategy(selectionStrategy);
 			final int[] solution = solver.findSolution();
 			if (solution != null) {
+				final Variables variables = solver.getSatInstance().getVariables();
 				for (final int i : solution) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					if (!variables.isAuxiliary(i)) {
+						configuration.setManual(variables.getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					}
 				}
 				return true;
 			} else {
@@ -169,16 +184,84 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (formula == null) {
 				return 0L;
 			}
+			// The compilation and the fallback share one deadline
+			final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+			final BigInteger count = new CountExactSolutionsMethod(timeout).execute(monitor.subTask(1));
+			if (count != null) {
+				return count.bitLength() < Long.SIZE ? count.longValue() : -Long.MAX_VALUE;
+			}
+			final long remainingTime = deadline - System.currentTimeMillis();
+			if (remainingTime <= 0) {
+				return -1L;
+			}
 			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
 			if (solver == null) {
 				return 0L;
 			}
-			solver.setTimeout(timeout);
+			solver.setTimeout((int) Math.min(remainingTime, timeout));
 			return new CountSolutionsAnalysis(solver).analyze(monitor);
 		}
 
 	}
 
+	/**
+	 * Counts the exact number of solutions using the {@link DDNNF} of the feature model. The d-DNNF is compiled once per {@link FeatureModelFormula} and
+	 * conditioned on the current selection.<br> If a timeout is given and the d-DNNF is not cached yet, the compilation is aborted after the timeout and the
+	 * method returns {@code null}.
+	 */
+	public class CountExactSolutionsMethod implements LongRunningMethod<BigInteger> {
+
+		private final int timeout;
+
+		public CountExactSolutionsMethod() {
+			this(0);
+		}
+
+		public CountExactSolutionsMethod(int timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public BigInteger execute(IMonitor<BigInteger> monitor) throws Exception {
+			if (formula == null) {
+				return BigInteger.ZERO;
+			}
+			final DDNNF ddnnf = getDDNNF();
+			if (ddnnf == null) {
+				return null;
+			}
+			final Variables variables = ddnnf.getVariables();
+			final ArrayList<Integer> assumptions = new ArrayList<>();
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				if ((feature.getSelection() != Selection.UNDEFINED) && (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())
+					&& !feature.getFeature().getStructure().hasHiddenParent()) {
+					final int literal = variables.getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED);
+					if (literal != 0) {
+						assumptions.add(literal);
+					}
+				}
+			}
+			final int[] literals = new int[assumptions.size()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = assumptions.get(i);
+			}
+			return ddnnf.countSolutions(new LiteralSet(literals));
+		}
+
+		private DDNNF getDDNNF() {
+			final ACreator<CNF> cnfCreator = getCNFCreator(false);
+			if (timeout > 0) {
+				// Prefer a d-DNNF that was already compiled without a timeout
+				final DDNNF cachedDDNNF = formula.getCachedElement(new DDNNFCreator(cnfCreator));
+				if (cachedDDNNF != null) {
+					return cachedDDNNF;
+				}
+			}
+			return formula.getElement(new DDNNFCreator(cnfCreator, timeout));
+		}
+
+	}
+
 	public class FindOpenClauses implements LongRunningMethod<Collection<SelectableFeature>> {
 
 		@Override
@@ -388,12 +471,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
+			final AbstractAnalysis<LiteralSet> analysis = createCoreDeadAnalysis(rootNode);
 			final int[] intLiterals = new int[manualLiterals.size()];
 			for (int i = 0; i < intLiterals.length; i++) {
 				intLiterals[i] = manualLiterals.get(i);
 			}
-			analysis.setAssumptions(new LiteralSet(intLiterals));
+			// LiteralSet sorts its array, but the order of intLiterals is needed to find redundant manual selections.
+			analysis.setAssumptions(new LiteralSet(intLiterals.clone()));
 			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
 
 			// if there is a contradiction within the configuration
@@ -466,6 +550,28 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	}
 
+	public class IncrementalUpdateMethod implements LongRunningMethod<Collection<SelectableFeature>> {
+
+		protected final PropagationSession session;
+		protected final boolean redundantManual;
+		protected final List<SelectableFeature> featureOrder;
+
+		public IncrementalUpdateMethod(PropagationSession session, boolean redundantManual, List<SelectableFeature> featureOrder) {
+			this.session = session;
+			this.redundantManual = redundantManual;
+			this.featureOrder = featureOrder;
+		}
+
+		@Override
+		public Collection<SelectableFeature> execute(IMonitor<Collection<SelectableFeature>> workMonitor) {
+			if (formula == null) {
+				return Collections.emptyList();
+			}
+			return session.update(configuration, includeAbstractFeatures, redundantManual, featureOrder, workMonitor);
+		}
+
+	}
+
 	public class ResetAutomaticMethod implements LongRunningMethod<Collection<SelectableFeature>> {
 
 		@Override
@@ -481,7 +587,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final CNF rootNode = formula.getCNF();
 
 			workMonitor.checkCancel();
-			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(new CoreDeadAnalysis(rootNode), workMonitor.subTask(1));
+			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(createCoreDeadAnalysis(rootNode), workMonitor.subTask(1));
 			if (impliedFeatures == null) {
 				return Collections.emptyList();
 			}
@@ -508,6 +614,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	protected boolean includeAbstractFeatures = true;
 
+	protected boolean useModalImplicationGraph = false;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -517,6 +625,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		formula = oldPropagator.formula;
 		this.configuration = configuration;
 		includeAbstractFeatures = oldPropagator.includeAbstractFeatures;
+		useModalImplicationGraph = oldPropagator.useModalImplicationGraph;
 	}
 
 	public ConfigurationPropagator(FeatureModelFormula formula, Configuration configuration) {
@@ -524,6 +633,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		this.configuration = configuration;
 	}
 
+	public FeatureModelFormula getFormula() {
+		return formula;
+	}
+
 	@Override
 	public boolean isIncludeAbstractFeatures() {
 		return includeAbstractFeatures;
@@ -534,6 +647,29 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		this.includeAbstractFeatures = includeAbstractFeatures;
 	}
 
+	public boolean isUseModalImplicationGraph() {
+		return useModalImplicationGraph;
+	}
+
+	/**
+	 * If enabled, the propagation uses the (cached) {@link ModalImplicationGraph} of the formula to derive implied features and uses the solver only
+	 * for features that are reachable via weak edges.
+	 *
+	 * @param useModalImplicationGraph whether to use the modal implication graph
+	 */
+	public void setUseModalImplicationGraph(boolean useModalImplicationGraph) {
+		this.useModalImplicationGraph = useModalImplicationGraph;
+	}
+
+	private ModalImplicationGraph getModalImplicationGraph() {
+		return useModalImplicationGraph ? formula.getModalImplicationGraph() : null;
+	}
+
+	private AbstractAnalysis<LiteralSet> createCoreDeadAnalysis(CNF rootNode) {
+		final ModalImplicationGraph mig = getModalImplicationGraph();
+		return mig != null ? new CoreDeadAnalysisMIG(rootNode, mig) : new CoreDeadAnalysis(rootNode);
+	}
+
 	protected AdvancedSatSolver getSolverForCurrentConfiguration(boolean deselectUndefinedFeatures, boolean includeHiddenFeatures) {
 		final AdvancedSatSolver solver = getSolver(includeHiddenFeatures);
 		if (solver == null) {
@@ -551,28 +687,31 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 	}
 
 	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
-		final CNF satInstance;
+		final CNF satInstance = formula.getElement(getCNFCreator(includeHiddenFeatures));
+		try {
+			if (satInstance != null) {
+				return new AdvancedSatSolver(satInstance);
+			}
+		} catch (final RuntimeContradictionException e) {
+			Logger.logError(e);
+		}
+		return null;
+	}
+
+	protected ACreator<CNF> getCNFCreator(boolean includeHiddenFeatures) {
 		if (includeAbstractFeatures) {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getCNF();
+				return new CNFCreator();
 			} else {
-				satInstance = formula.getElement(new NoHiddenCNFCreator());
+				return new NoHiddenCNFCreator();
 			}
 		} else {
 			if (includeHiddenFeatures) {
-				satInstance = formula.getElement(new NoAbstractCNFCreator());
+				return new NoAbstractCNFCreator();
 			} else {
-				satInstance = formula.getElement(new NoAbstractNoHiddenCNFCreator());
+				return new NoAbstractNoHiddenCNFCreator();
 			}
 		}
-		try {
-			if (satInstance != null) {
-				return new AdvancedSatSolver(satInstance);
-			}
-		} catch (final RuntimeContradictionException e) {
-			Logger.logError(e);
-		}
-		return null;
 	}
 
 	@Override
@@ -620,9 +759,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 	}
 
 	/**
-	 * Counts the number of possible solutions.
+	 * Counts the number of possible solutions. Uses the {@link DDNNF} of the feature model if possible and falls back to enumerating all solutions
+	 * otherwise (i.e., if the d-DNNF cannot be compiled within the timeout).
 	 *
-	 * @param timeout The timeout in milliseconds.
+	 * @param timeout The timeout in milliseconds (used for compiling the d-DNNF and again for enumerating solutions).
 	 * @return A positive value equal to the number of solutions (if the method terminated in time)<br> or a negative value (if a timeout occurred) that
 	 *         indicates that there are more solutions than the absolute value
 	 */
@@ -631,6 +771,16 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new CountSolutionsMethod(timeout);
 	}
 
+	@Override
+	public CountExactSolutionsMethod countSolutions() {
+		return new CountExactSolutionsMethod();
+	}
+
+	@Override
+	public CountExactSolutionsMethod countSolutions(int timeout) {
+		return new CountExactSolutionsMethod(timeout);
+	}
+
 	@Override
 	public UpdateMethod update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		return new UpdateMethod(redundantManual, featureOrder);
@@ -646,6 +796,23 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return update(false, null);
 	}
 
+	@Override
+	public IncrementalUpdateMethod update(PropagationSession session, boolean redundantManual, List<SelectableFeature> featureOrder) {
+		if ((formula != null) && (session.getFormula() != formula)) {
+			throw new IllegalArgumentException("Session belongs to a different formula");
+		}
+		return new IncrementalUpdateMethod(session, redundantManual, featureOrder);
+	}
+
+	/**
+	 * Creates a new {@link PropagationSession} for the formula of this propagator.
+	 *
+	 * @return the new session
+	 */
+	public PropagationSession createPropagationSession() {
+		return new PropagationSession(formula, getModalImplicationGraph());
+	}
+
 	@Override
 	public ResetAutomaticMethod resetAutomatic() {
 		return new ResetAutomaticMethod();
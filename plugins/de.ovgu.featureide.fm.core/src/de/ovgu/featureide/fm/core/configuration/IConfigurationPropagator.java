@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.List;
 
@@ -59,12 +60,37 @@ public interface IConfigurationPropagator {
 	 */
 	LongRunningMethod<Long> number(int timeout);
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @return the number of solutions or {@code null}, if the solutions could not be counted
+	 */
+	LongRunningMethod<BigInteger> countSolutions();
+
+	/**
+	 * Counts the exact number of possible solutions, but gives up if the necessary compilation of the feature model does not finish within the timeout.
+	 *
+	 * @param timeout The timeout in milliseconds.
+	 * @return the number of solutions or {@code null}, if the solutions could not be counted in time
+	 */
+	LongRunningMethod<BigInteger> countSolutions(int timeout);
+
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual, List<SelectableFeature> featureOrder);
 
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual);
 
 	LongRunningMethod<Collection<SelectableFeature>> update();
 
+	/**
+	 * Updates the automatic selection incrementally, reusing the solver and the results of previous updates that were done with the same session.
+	 *
+	 * @param session the propagation session of the configuration
+	 * @param redundantManual whether redundant manual selections should be marked as automatic too
+	 * @param featureOrder features whose manual selection should be considered as last when searching redundant selections
+	 * @return all features whose manual or automatic selection changed since the last update of the session
+	 */
+	LongRunningMethod<Collection<SelectableFeature>> update(PropagationSession session, boolean redundantManual, List<SelectableFeature> featureOrder);
+
 	LongRunningMethod<Collection<SelectableFeature>> resetAutomatic();
 
 	LongRunningMethod<Boolean> completeRandomly();
@@ -0,0 +1,419 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGUtils;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Propagates the manual selection of a configuration incrementally.<br> A session keeps one solver for a {@link FeatureModelFormula} alive, such that
+ * learned clauses, found solutions, and the implied literals of the previous update can be reused. After a change of the manual selection only those
+ * variables are checked again whose value can actually change:
+ * <ul>
+ * <li>If selections were removed, only previously implied variables can become free.</li>
+ * <li>If selections were added, all previously implied variables stay implied.</li>
+ * </ul>
+ * If a {@link ModalImplicationGraph} is given, all literals that are reachable via strong edges are propagated without the solver and only the
+ * variables that are affected by the assumptions via complex clauses are checked with the solver (see {@link MIGUtils#propagateWeak}). If the graph
+ * contains no complex clauses, the solver is not used at all.<br>
+ * Use one session per edited configuration (see {@link ConfigurationPropagator#update(PropagationSession, boolean, List)}).
+ *
+ * @author agent
+ */
+public class PropagationSession {
+
+	private static final int SOLUTION_POOL_SIZE = 256;
+
+	private final FeatureModelFormula formula;
+	private final CNF cnf;
+	private final AdvancedSatSolver solver;
+	private final ModalImplicationGraph mig;
+
+	private final RingList<int[]> solutionPool = new RingList<>(SOLUTION_POOL_SIZE);
+
+	/**
+	 * The assumptions of the last update, indexed by variable - 1.
+	 */
+	private int[] lastAssumptions = null;
+	/**
+	 * All literals implied by the assumptions of the last update (including the assumptions), indexed by variable - 1. Is {@code null} if the last
+	 * update has to be repeated completely.
+	 */
+	private int[] lastFixedLiterals = null;
+	/**
+	 * The manual selection of each variable in the last update, used to compute the changed features.
+	 */
+	private Selection[] lastManual = null;
+
+	private boolean complete;
+
+	public PropagationSession(FeatureModelFormula formula) {
+		this(formula, null);
+	}
+
+	/**
+	 * @param formula the formula
+	 * @param mig the modal implication graph of the CNF of the formula (may be {@code null})
+	 */
+	public PropagationSession(FeatureModelFormula formula, ModalImplicationGraph mig) {
+		this.formula = formula;
+		this.mig = mig;
+		cnf = formula.getCNF();
+		solver = new AdvancedSatSolver(cnf);
+	}
+
+	public FeatureModelFormula getFormula() {
+		return formula;
+	}
+
+	public ModalImplicationGraph getModalImplicationGraph() {
+		return mig;
+	}
+
+	/**
+	 * Discards all information of previous updates (except for the learned clauses of the solver).
+	 */
+	public synchronized void reset() {
+		lastAssumptions = null;
+		lastFixedLiterals = null;
+		lastManual = null;
+	}
+
+	/**
+	 * Sets the automatic selection of all features in the given configuration according to its manual selection.
+	 *
+	 * @param configuration the configuration
+	 * @param includeAbstractFeatures whether the manual selection of abstract features is considered
+	 * @param redundantManual whether manually selected features that are implied by the other manual selections should be marked as automatic too
+	 * @param featureOrder features whose manual selection should be considered as last when searching redundant selections
+	 * @param monitor the monitor
+	 * @return all features whose manual or automatic selection changed since the last update
+	 */
+	public synchronized Collection<SelectableFeature> update(Configuration configuration, boolean includeAbstractFeatures, boolean redundantManual,
+			List<SelectableFeature> featureOrder, IMonitor<Collection<SelectableFeature>> monitor) {
+		final Variables variables = cnf.getVariables();
+		final int numberOfVariables = variables.size();
+
+		final int[] oldAssumptions = lastAssumptions;
+		final int[] oldFixedLiterals = lastFixedLiterals;
+		final Selection[] oldManual = lastManual;
+		reset();
+
+		final int[] assumptions = getAssumptions(configuration, includeAbstractFeatures, featureOrder);
+		final int[] newAssumptions = new int[numberOfVariables];
+		for (final int literal : assumptions) {
+			newAssumptions[Math.abs(literal) - 1] = literal;
+		}
+
+		complete = true;
+		final int[] fixedLiterals = computeFixedLiterals(assumptions, newAssumptions, oldAssumptions, oldFixedLiterals, monitor);
+		final boolean[] redundant =
+			(redundantManual && (fixedLiterals != null)) ? computeRedundantAssumptions(assumptions, monitor) : new boolean[numberOfVariables];
+
+		final Collection<SelectableFeature> changedFeatures = new ArrayList<>();
+		final Selection[] newManual = new Selection[numberOfVariables];
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			final int variable = variables.getVariable(feature.getName());
+			final Selection oldAutomatic = feature.getAutomatic();
+			final Selection manual = feature.getManual();
+
+			Selection automatic = Selection.UNDEFINED;
+			if ((variable > 0) && (fixedLiterals != null)) {
+				final int index = variable - 1;
+				newManual[index] = manual;
+				final int literal = fixedLiterals[index];
+				if ((literal != 0) && ((newAssumptions[index] == 0) || redundant[index])) {
+					automatic = literal > 0 ? Selection.SELECTED : Selection.UNSELECTED;
+				}
+			}
+			if ((manual != Selection.UNDEFINED) && (manual != automatic)) {
+				automatic = Selection.UNDEFINED;
+			}
+			configuration.setAutomatic(feature, automatic);
+
+			if ((oldAutomatic != automatic) || (oldManual == null) || (variable == 0) || (oldManual[variable - 1] != manual)) {
+				changedFeatures.add(feature);
+			}
+		}
+
+		if (fixedLiterals != null) {
+			lastAssumptions = newAssumptions;
+			lastFixedLiterals = complete ? fixedLiterals : null;
+			lastManual = newManual;
+		}
+		monitor.invoke(changedFeatures);
+		return changedFeatures;
+	}
+
+	private int[] getAssumptions(Configuration configuration, boolean includeAbstractFeatures, List<SelectableFeature> featureOrder) {
+		final Variables variables = cnf.getVariables();
+		final ArrayList<Integer> manualLiterals = new ArrayList<>();
+		final HashSet<Integer> manualLiteralSet = new HashSet<>();
+		for (final SelectableFeature feature : featureOrder != null ? featureOrder : Collections.<SelectableFeature> emptyList()) {
+			addAssumption(variables, feature, includeAbstractFeatures, manualLiterals, manualLiteralSet);
+		}
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			addAssumption(variables, feature, includeAbstractFeatures, manualLiterals, manualLiteralSet);
+		}
+		Collections.reverse(manualLiterals);
+
+		final int[] assumptions = new int[manualLiterals.size()];
+		for (int i = 0; i < assumptions.length; i++) {
+			assumptions[i] = manualLiterals.get(i);
+		}
+		return assumptions;
+	}
+
+	private void addAssumption(Variables variables, SelectableFeature feature, boolean includeAbstractFeatures, List<Integer> manualLiterals,
+			HashSet<Integer> manualLiteralSet) {
+		if ((feature.getManual() != Selection.UNDEFINED) && (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())) {
+			final int literal = variables.getVariable(feature.getName(), feature.getManual() == Selection.SELECTED);
+			if ((literal != 0) && manualLiteralSet.add(literal)) {
+				manualLiterals.add(literal);
+			}
+		}
+	}
+
+	private int[] computeFixedLiterals(int[] assumptions, int[] newAssumptions, int[] oldAssumptions, int[] oldFixedLiterals,
+			IMonitor<Collection<SelectableFeature>> monitor) {
+		if ((oldAssumptions == null) || (oldFixedLiterals == null)) {
+			return propagate(assumptions, newAssumptions.clone(), null, monitor);
+		}
+
+		boolean removed = false;
+		boolean added = false;
+		final int[] keptAssumptions = new int[newAssumptions.length];
+		int keptCount = 0;
+		for (int i = 0; i < newAssumptions.length; i++) {
+			final int oldLiteral = oldAssumptions[i];
+			final int newLiteral = newAssumptions[i];
+			if (oldLiteral != newLiteral) {
+				removed |= oldLiteral != 0;
+				added |= newLiteral != 0;
+			} else if (newLiteral != 0) {
+				keptAssumptions[keptCount++] = newLiteral;
+			}
+		}
+
+		int[] fixedLiterals = oldFixedLiterals;
+		if (removed) {
+			// The set of solutions can only grow, thus, only previously implied literals can become free.
+			final int[] known = new int[newAssumptions.length];
+			final int[] candidates = new int[newAssumptions.length];
+			for (int i = 0; i < newAssumptions.length; i++) {
+				final int oldLiteral = oldAssumptions[i];
+				if ((oldLiteral != 0) && (oldLiteral == newAssumptions[i])) {
+					known[i] = oldLiteral;
+				} else {
+					candidates[i] = fixedLiterals[i];
+				}
+			}
+			fixedLiterals = propagate(Arrays.copyOf(keptAssumptions, keptCount), known, candidates, monitor);
+		}
+		if (added && (fixedLiterals != null)) {
+			// The set of solutions can only shrink, thus, all previously implied literals remain implied.
+			final int[] known = fixedLiterals.clone();
+			for (int i = 0; i < newAssumptions.length; i++) {
+				if (newAssumptions[i] != 0) {
+					known[i] = newAssumptions[i];
+				}
+			}
+			fixedLiterals = propagate(assumptions, known, null, monitor);
+		}
+		return fixedLiterals;
+	}
+
+	/**
+	 * Computes all implied literals for the given assumptions.
+	 *
+	 * @param assumptions the assumptions
+	 * @param known literals that are known to be implied, indexed by variable - 1 (must include the assumptions)
+	 * @param candidates literals that may be implied, indexed by variable - 1. If {@code null}, all variables that are not known are candidates.
+	 * @param monitor the monitor
+	 * @return all implied literals, indexed by variable - 1, or {@code null} if the assumptions are contradicting
+	 */
+	private int[] propagate(int[] assumptions, int[] known, int[] candidates, IMonitor<Collection<SelectableFeature>> monitor) {
+		monitor.checkCancel();
+		int[] weakCandidates = null;
+		if (mig != null) {
+			if (!MIGUtils.propagateCore(mig, known)) {
+				return null;
+			}
+			for (final int literal : assumptions) {
+				if (!MIGUtils.propagateStrong(mig, known, literal)) {
+					return null;
+				}
+			}
+			if (mig.getComplexClauses().isEmpty()) {
+				// Without complex clauses, the strong closure contains all implied literals.
+				return known;
+			}
+			weakCandidates = MIGUtils.propagateWeak(mig, known);
+			if (weakCandidates == null) {
+				return null;
+			}
+		}
+
+		solver.assignmentClear(0);
+		if (candidates == null) {
+			solver.assignmentPushAll(assumptions);
+			switch (solver.hasSolution()) {
+			case FALSE:
+				return null;
+			case TIMEOUT:
+				complete = false;
+				return known;
+			case TRUE:
+				final int[] solution = solver.getSolution();
+				solutionPool.add(solution);
+				candidates = solution.clone();
+				for (int i = 0; i < candidates.length; i++) {
+					if (known[i] != 0) {
+						candidates[i] = 0;
+					}
+				}
+				break;
+			}
+			solver.assignmentClear(0);
+		}
+		if (weakCandidates != null) {
+			for (int i = 0; i < candidates.length; i++) {
+				if ((known[i] != 0) || (weakCandidates[i] == 0)) {
+					candidates[i] = 0;
+				}
+			}
+		}
+
+		for (final int[] solution : solutionPool) {
+			if (isConsistent(solution, assumptions, assumptions.length, -1)) {
+				LiteralSet.resetConflicts(candidates, solution);
+			}
+		}
+
+		for (final int literal : known) {
+			if (literal != 0) {
+				solver.assignmentPush(literal);
+			}
+		}
+		solver.setSelectionStrategy(candidates, false);
+
+		final int[] fixedLiterals = known;
+		for (int i = 0; i < candidates.length; i++) {
+			final int literal = candidates[i];
+			if (literal != 0) {
+				monitor.checkCancel();
+				solver.assignmentPush(-literal);
+				switch (solver.hasSolution()) {
+				case FALSE:
+					solver.assignmentReplaceLast(literal);
+					fixedLiterals[i] = literal;
+					break;
+				case TIMEOUT:
+					solver.assignmentPop();
+					complete = false;
+					break;
+				case TRUE:
+					solver.assignmentPop();
+					final int[] solution = solver.getSolution();
+					solutionPool.add(solution);
+					LiteralSet.resetConflicts(candidates, solution);
+					break;
+				}
+			}
+		}
+		return fixedLiterals;
+	}
+
+	/**
+	 * Finds assumptions that are implied by the remaining assumptions. Checks the assumptions in the given order and replaces each redundant
+	 * assumption by the last remaining one, which is checked next. This is the same order as in {@link ConfigurationPropagator.UpdateMethod}, such
+	 * that both mark the same manual selections as redundant.
+	 *
+	 * @param assumptions the (satisfiable) assumptions
+	 * @param monitor the monitor
+	 * @return whether the assumption for a variable is redundant, indexed by variable - 1
+	 */
+	private boolean[] computeRedundantAssumptions(int[] assumptions, IMonitor<Collection<SelectableFeature>> monitor) {
+		final boolean[] redundant = new boolean[cnf.getVariables().size()];
+		final int[] remaining = assumptions.clone();
+		int remainingCount = remaining.length;
+
+		loop: for (int i = 0; i < remainingCount;) {
+			monitor.checkCancel();
+			final int literal = remaining[i];
+			for (final int[] solution : solutionPool) {
+				if ((solution[Math.abs(literal) - 1] == -literal) && isConsistent(solution, remaining, remainingCount, i)) {
+					i++;
+					continue loop;
+				}
+			}
+
+			solver.assignmentClear(0);
+			for (int j = 0; j < remainingCount; j++) {
+				if (j != i) {
+					solver.assignmentPush(remaining[j]);
+				}
+			}
+			solver.assignmentPush(-literal);
+			switch (solver.hasSolution()) {
+			case FALSE:
+				redundant[Math.abs(literal) - 1] = true;
+				remaining[i] = remaining[--remainingCount];
+				break;
+			case TIMEOUT:
+				i++;
+				break;
+			case TRUE:
+				solutionPool.add(solver.getSolution());
+				i++;
+				break;
+			}
+		}
+		return redundant;
+	}
+
+	private static boolean isConsistent(int[] solution, int[] literals, int length, int skip) {
+		for (int i = 0; i < length; i++) {
+			if (i != skip) {
+				final int literal = literals[i];
+				if (solution[Math.abs(literal) - 1] != literal) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+}
@@ -28,11 +28,16 @@ import java.util.List;
 import java.util.ListIterator;
 
 import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.HybridCNFTransformer;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -57,6 +62,17 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		All, OnlyConstraints, OnlyStructure
 	}
 
+	/**
+	 * Determines how cardinality restrictions (i.e., alternative groups and the operators {@link AtMost}, {@link AtLeast}, and {@link Choose}) are encoded.
+	 * <ul> <li>{@link #Pairwise}: Uses only feature variables (e.g., one binary clause for each pair of alternative features). The size of the encoding grows
+	 * quadratically (or even exponentially) with the number of literals.</li> <li>{@link #SequentialCounter}: Uses a sequential counter with
+	 * {@link Variables#AUXILIARY_PREFIX auxiliary variables}, if this results in fewer clauses. The size of the encoding grows linearly with the number of
+	 * literals. Each auxiliary variable is fully defined by the feature variables, thus, the number of solutions does not change.</li> </ul>
+	 */
+	public static enum CardinalityEncoding {
+		Pairwise, SequentialCounter
+	}
+
 	private boolean omitRoot = false;
 
 	public static Node createCNF(IFeatureModel featureModel) {
@@ -90,6 +106,17 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private boolean optionalRoot = false;
 
+	private CardinalityEncoding cardinalityEncoding = CardinalityEncoding.Pairwise;
+
+	/**
+	 * The maximum number of clauses that may result from applying the distributive law to a disjunction within a constraint. If a disjunction would result in
+	 * more clauses, some of its sub formulas are replaced by auxiliary variables (see {@link HybridCNFTransformer}). Default value is {@code -1} (always use the
+	 * distributive law).
+	 */
+	private int distributionThreshold = -1;
+
+	private int auxiliaryVariableCount = 0;
+
 	private IFeatureModel featureModel = null;
 
 	/** The trace model. */
@@ -176,6 +203,25 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		default:
 			if (!positive) {
 				clause = new Not(clause);
+			} else if (isUsingSequentialCounter()) {
+				final List<Node> cardinalityClauses = new ArrayList<>();
+				clause = encodeCardinalityNodes(clause, cardinalityClauses);
+				for (final Node cardinalityClause : cardinalityClauses) {
+					clauses.add(cardinalityClause);
+				}
+				if (clause == null) {
+					break;
+				}
+			}
+			if (distributionThreshold > 0) {
+				final HybridCNFTransformer transformer = new HybridCNFTransformer(distributionThreshold, this::createAuxiliaryVariable);
+				for (final Node cnfClause : transformer.transform(clause)) {
+					clauses.add(compact && (cnfClause.getChildren().length == 1) ? cnfClause.getChildren()[0] : cnfClause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceConstraint(constraint);
+					}
+				}
+				break;
 			}
 			final Node cnfNode = clause.toCNF();
 			if (cnfNode instanceof And) {
@@ -216,6 +262,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		}
 
 		monitor.setRemainingWork(10);
+		auxiliaryVariableCount = 0;
 		return new And(createFormula(monitor.subTask(1)));
 	}
 
@@ -352,18 +399,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 								traceModel.addTraceChildDown(feature, children);
 							}
 
-							for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
-								final IFeatureStructure fs = it1.next();
-								final IFeature sibling1 = fs.getFeature();
-								for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
-									final IFeature sibling2 = it2.next().getFeature();
-									clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
-									}
-								}
-							}
+							createAlternativeNodes(structure, alternativeLiterals, clauses);
 						}
 					} else {
 						if (structure.isAnd()) {
@@ -406,18 +442,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 								traceModel.addTraceChildDown(feature, children);
 							}
 
-							for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
-								final IFeatureStructure fs = it1.next();
-								final IFeature sibling1 = fs.getFeature();
-								for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
-									final IFeature sibling2 = it2.next().getFeature();
-									clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
-									}
-								}
-							}
+							createAlternativeNodes(structure, alternativeLiterals, clauses);
 						}
 					}
 				}
@@ -428,6 +453,178 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return new And(new Node[0]);
 	}
 
+	/**
+	 * Creates the clauses that ensure that at most one feature of an alternative group is selected.
+	 *
+	 * @param structure the parent of the alternative group
+	 * @param alternativeLiterals the positive literals of all child features (there may be additional elements at the end)
+	 * @param clauses clauses to add to; out variable
+	 */
+	private void createAlternativeNodes(IFeatureStructure structure, Literal[] alternativeLiterals, List<Node> clauses) {
+		final int childrenCount = structure.getChildrenCount();
+		if (isUsingSequentialCounter() && (getPairwiseClauseCount(childrenCount, 2) > getSequentialCounterClauseCount(childrenCount, 1))) {
+			createSequentialCounter(Arrays.copyOf(alternativeLiterals, childrenCount), 0, 1, clauses);
+		} else {
+			for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
+				final IFeatureStructure fs = it1.next();
+				final IFeature sibling1 = fs.getFeature();
+				for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
+					final IFeature sibling2 = it2.next().getFeature();
+					clauses.add(new Or(getLiteral(sibling1, false), getLiteral(sibling2, false)));
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces all cardinality operators in the given node that are either the node itself or direct children of a top-level conjunction by a sequential
+	 * counter, if this results in fewer clauses than the regular CNF transformation.
+	 *
+	 * @param node the node of a constraint
+	 * @param clauses clauses to add the encoded cardinality operators to; out variable
+	 * @return the remaining node that still has to be transformed into CNF or {@code null} if the whole node was encoded
+	 */
+	private Node encodeCardinalityNodes(Node node, List<Node> clauses) {
+		if (node instanceof And) {
+			final List<Node> remainingChildren = new ArrayList<>();
+			for (final Node child : node.getChildren()) {
+				if (!encodeCardinalityNode(child, clauses)) {
+					remainingChildren.add(child);
+				}
+			}
+			if (remainingChildren.isEmpty()) {
+				return null;
+			} else if (remainingChildren.size() == node.getChildren().length) {
+				return node;
+			} else {
+				return new And(remainingChildren.toArray(new Node[0]));
+			}
+		} else {
+			return encodeCardinalityNode(node, clauses) ? null : node;
+		}
+	}
+
+	private boolean encodeCardinalityNode(Node node, List<Node> clauses) {
+		final int min, max;
+		if (node instanceof AtMost) {
+			min = 0;
+			max = ((AtMost) node).max;
+		} else if (node instanceof AtLeast) {
+			min = ((AtLeast) node).min;
+			max = -1;
+		} else if (node instanceof Choose) {
+			min = ((Choose) node).n;
+			max = min;
+		} else {
+			return false;
+		}
+		final Node[] children = node.getChildren();
+		final int n = children.length;
+		if ((min > n) || (max == 0) || (max >= n) || ((max < 0) && (min <= 0))) {
+			return false;
+		}
+		for (final Node child : children) {
+			if (!(child instanceof Literal)) {
+				return false;
+			}
+		}
+
+		long pairwiseClauseCount = 0;
+		if (max >= 0) {
+			pairwiseClauseCount += getPairwiseClauseCount(n, max + 1);
+		}
+		if (min > 0) {
+			pairwiseClauseCount += getPairwiseClauseCount(n, (n - min) + 1);
+		}
+		if (pairwiseClauseCount <= getSequentialCounterClauseCount(n, Math.max(min, max))) {
+			return false;
+		}
+		createSequentialCounter(Arrays.copyOf(children, n, Literal[].class), min, max, clauses);
+		return true;
+	}
+
+	/**
+	 * Creates clauses that ensure that at least {@code min} and at most {@code max} of the given literals are true. Uses a sequential counter with auxiliary
+	 * variables. The auxiliary variable for the counter <i>(i, j)</i> is true, iff at least <i>j</i> of the first <i>i</i> literals are true.
+	 *
+	 * @param literals the literals to count
+	 * @param min the minimal number of true literals (0 for no lower bound)
+	 * @param max the maximal number of true literals (-1 for no upper bound)
+	 * @param clauses clauses to add to; out variable
+	 */
+	private void createSequentialCounter(Literal[] literals, int min, int max, List<Node> clauses) {
+		final int bound = (max >= 0) ? max : min;
+		Literal[] counters = new Literal[bound];
+		counters[0] = literals[0];
+		for (int i = 1; i < literals.length; i++) {
+			final Literal literal = literals[i];
+			if ((max >= 0) && (i >= max)) {
+				clauses.add(new Or(negate(counters[max - 1]), negate(literal)));
+			}
+
+			final boolean last = i == (literals.length - 1);
+			if (last && (min <= 0)) {
+				break;
+			}
+			final Literal[] nextCounters = new Literal[bound];
+			final int maxIndex = Math.min(i, bound - 1);
+			for (int j = last ? min - 1 : 0; j <= maxIndex; j++) {
+				final Literal previous = counters[j];
+				final Literal previousLower = (j > 0) ? counters[j - 1] : null;
+				final Literal counter = new Literal(createAuxiliaryVariable());
+				if (previous != null) {
+					clauses.add(new Or(negate(previous), counter.clone()));
+					if (previousLower != null) {
+						clauses.add(new Or(negate(previousLower), negate(literal), counter.clone()));
+						clauses.add(new Or(negate(counter), previous.clone(), previousLower.clone()));
+					} else {
+						clauses.add(new Or(negate(literal), counter.clone()));
+					}
+					clauses.add(new Or(negate(counter), previous.clone(), literal.clone()));
+				} else {
+					clauses.add(new Or(negate(previousLower), negate(literal), counter.clone()));
+					clauses.add(new Or(negate(counter), previousLower.clone()));
+					clauses.add(new Or(negate(counter), literal.clone()));
+				}
+				nextCounters[j] = counter;
+			}
+			counters = nextCounters;
+		}
+		if (min > 0) {
+			clauses.add(new Or(counters[min - 1].clone()));
+		}
+	}
+
+	private String createAuxiliaryVariable() {
+		return Variables.AUXILIARY_PREFIX + (++auxiliaryVariableCount);
+	}
+
+	private static Literal negate(Literal literal) {
+		return new Literal(literal.var, !literal.positive);
+	}
+
+	private static long getPairwiseClauseCount(int n, int k) {
+		long count = 1;
+		for (int i = 1; i <= k; i++) {
+			count = (count * ((n - k) + i)) / i;
+			if (count > Integer.MAX_VALUE) {
+				return Integer.MAX_VALUE;
+			}
+		}
+		return count;
+	}
+
+	private static long getSequentialCounterClauseCount(int n, int k) {
+		return 4L * n * k;
+	}
+
+	private boolean isUsingSequentialCounter() {
+		return (cardinalityEncoding == CardinalityEncoding.SequentialCounter) && !isRecordingTraceModel();
+	}
+
 	private boolean rootInConstraints(final IFeature root) {
 		return featureModel.getConstraints().stream().anyMatch(c -> c.getContainedFeatures().contains(root));
 	}
@@ -496,6 +693,22 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		this.optionalRoot = optionalRoot;
 	}
 
+	public CardinalityEncoding getCardinalityEncoding() {
+		return cardinalityEncoding;
+	}
+
+	public void setCardinalityEncoding(CardinalityEncoding cardinalityEncoding) {
+		this.cardinalityEncoding = cardinalityEncoding;
+	}
+
+	public int getDistributionThreshold() {
+		return distributionThreshold;
+	}
+
+	public void setDistributionThreshold(int distributionThreshold) {
+		this.distributionThreshold = distributionThreshold;
+	}
+
 	public boolean isOmitRoot() {
 		return omitRoot;
 	}
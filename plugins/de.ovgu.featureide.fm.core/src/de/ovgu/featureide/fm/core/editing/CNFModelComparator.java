@@ -0,0 +1,395 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Compares two feature models based on their {@link CNF clausal representations}. In contrast to {@link ModelComparator}, no propositional formulas are
+ * created. Instead, abstract features and auxiliary variables are sliced from both CNFs and the remaining clauses are mapped to a common set of (concrete)
+ * variables. Clauses that are contained in both CNFs are identified via hashing and only the clauses that are unique to one side are checked, each by a single
+ * call to an incremental solver of the other side.<br> <br> Optionally, the number of added and removed products is computed by compiling the CNFs into a
+ * {@link DDNNF}.
+ *
+ * @author agent
+ */
+public class CNFModelComparator {
+
+	private final long timeout;
+
+	private final boolean countProducts;
+
+	private Set<String> addedFeatures;
+
+	private Set<String> deletedFeatures;
+
+	private Variables variables;
+
+	private Set<LiteralSet> oldClauses;
+
+	private Set<LiteralSet> newClauses;
+
+	private List<LiteralSet> addedClauses;
+
+	private List<LiteralSet> removedClauses;
+
+	private boolean implies;
+
+	private boolean isImplied;
+
+	private LiteralSet addedProductExample;
+
+	private LiteralSet removedProductExample;
+
+	private BigInteger addedProducts;
+
+	private BigInteger removedProducts;
+
+	private Comparison result;
+
+	public CNFModelComparator(long timeout) {
+		this(timeout, false);
+	}
+
+	/**
+	 * @param timeout the timeout for each solver call and each compilation for counting products in milliseconds
+	 * @param countProducts whether the number of added and removed products should be computed
+	 */
+	public CNFModelComparator(long timeout, boolean countProducts) {
+		this.timeout = timeout;
+		this.countProducts = countProducts;
+	}
+
+	public Comparison compare(IFeatureModel oldModel, IFeatureModel newModel) {
+		return compare(new FeatureModelFormula(oldModel), new FeatureModelFormula(newModel));
+	}
+
+	public Comparison compare(FeatureModelFormula oldFormula, FeatureModelFormula newFormula) {
+		addedFeatures = null;
+		deletedFeatures = null;
+		addedClauses = null;
+		removedClauses = null;
+		implies = false;
+		isImplied = false;
+		addedProductExample = null;
+		removedProductExample = null;
+		addedProducts = null;
+		removedProducts = null;
+		try {
+			final IFeatureModel oldModel = oldFormula.getFeatureModel();
+			final IFeatureModel newModel = newFormula.getFeatureModel();
+			final Map<String, String> oldNames = getConcreteFeatureNames(oldModel);
+			final Map<String, String> newNames = getConcreteFeatureNames(newModel);
+
+			addedFeatures = new LinkedHashSet<>(newNames.values());
+			addedFeatures.removeAll(oldNames.values());
+			deletedFeatures = new LinkedHashSet<>(oldNames.values());
+			deletedFeatures.removeAll(newNames.values());
+
+			final LinkedHashSet<String> variableNames = new LinkedHashSet<>(oldNames.values());
+			variableNames.addAll(newNames.values());
+			variables = new Variables(variableNames);
+
+			oldClauses = createClauses(oldFormula.getCNF(), oldNames, addedFeatures);
+			newClauses = createClauses(newFormula.getCNF(), newNames, deletedFeatures);
+
+			removedClauses = getUniqueClauses(oldClauses, newClauses);
+			addedClauses = getUniqueClauses(newClauses, oldClauses);
+
+			final SimpleSatSolver oldSolver = createSolver(oldClauses);
+			removedProductExample = findCounterExample(oldSolver, addedClauses);
+			implies = removedProductExample == null;
+
+			final SimpleSatSolver newSolver = createSolver(newClauses);
+			addedProductExample = findCounterExample(newSolver, removedClauses);
+			isImplied = addedProductExample == null;
+
+			if (implies) {
+				if (isImplied) {
+					result = Comparison.REFACTORING;
+				} else {
+					result = Comparison.GENERALIZATION;
+				}
+			} else if (isImplied) {
+				result = Comparison.SPECIALIZATION;
+			} else {
+				result = Comparison.ARBITRARY;
+			}
+		} catch (final OutOfMemoryError e) {
+			result = Comparison.OUTOFMEMORY;
+			return result;
+		} catch (final TimeoutException e) {
+			result = Comparison.TIMEOUT;
+			return result;
+		} catch (final Exception e) {
+			Logger.logError(e);
+			result = Comparison.ERROR;
+			return result;
+		}
+
+		if (countProducts) {
+			// The classification is already known, a failed counting only leaves the numbers of products unknown
+			try {
+				countProducts();
+			} catch (final OutOfMemoryError e) {
+				addedProducts = null;
+				removedProducts = null;
+			} catch (final Exception e) {
+				Logger.logError(e);
+				addedProducts = null;
+				removedProducts = null;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Maps the current name of each concrete feature to its name before any renaming.
+	 */
+	private Map<String, String> getConcreteFeatureNames(IFeatureModel featureModel) {
+		final Map<String, String> names = new HashMap<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (feature.getStructure().isConcrete()) {
+				names.put(feature.getName(), featureModel.getRenamingsManager().getOldName(feature.getName()));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Slices all variables that do not represent concrete features from the given CNF and converts the remaining clauses to the common variables. Each of the
+	 * given features, which is not contained in the model, is added as negative unit clause.
+	 */
+	private Set<LiteralSet> createClauses(CNF cnf, Map<String, String> names, Set<String> falseFeatures) throws Exception {
+		final List<String> dirtyVariables = new ArrayList<>();
+		for (final String name : cnf.getVariables().getNames()) {
+			if ((name != null) && !names.containsKey(name)) {
+				dirtyVariables.add(name);
+			}
+		}
+		if (!dirtyVariables.isEmpty()) {
+			cnf = new CNFSlicer(cnf, dirtyVariables).execute(new NullMonitor<CNF>());
+		}
+
+		final Variables cnfVariables = cnf.getVariables();
+		final Set<LiteralSet> clauses = new LinkedHashSet<>(cnf.getClauses().size() + falseFeatures.size());
+		for (final LiteralSet clause : cnf.getClauses()) {
+			final int[] literals = clause.getLiterals();
+			final int[] newLiterals = new int[literals.length];
+			for (int i = 0; i < literals.length; i++) {
+				final int literal = literals[i];
+				newLiterals[i] = variables.getVariable(names.get(cnfVariables.getName(Math.abs(literal))), literal > 0);
+			}
+			clauses.add(new LiteralSet(newLiterals, Order.NATURAL));
+		}
+		for (final String name : falseFeatures) {
+			clauses.add(new LiteralSet(variables.getVariable(name, false)));
+		}
+		return clauses;
+	}
+
+	private static List<LiteralSet> getUniqueClauses(Set<LiteralSet> clauses, Set<LiteralSet> referenceClauses) {
+		final List<LiteralSet> uniqueClauses = new ArrayList<>();
+		for (final LiteralSet clause : clauses) {
+			if (!referenceClauses.contains(clause)) {
+				uniqueClauses.add(clause);
+			}
+		}
+		return uniqueClauses;
+	}
+
+	private SimpleSatSolver createSolver(Set<LiteralSet> clauses) {
+		final SimpleSatSolver solver = new SimpleSatSolver(new CNF(variables, new ArrayList<>(clauses)));
+		solver.setTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+		return solver;
+	}
+
+	/**
+	 * Checks whether the formula of the given solver implies each of the given clauses.
+	 *
+	 * @return a solution of the solver that violates one of the clauses or {@code null}, if all clauses are implied.
+	 */
+	private static LiteralSet findCounterExample(SimpleSatSolver solver, List<LiteralSet> clauses) throws TimeoutException {
+		for (final LiteralSet clause : clauses) {
+			switch (solver.hasSolution(clause.negate())) {
+			case FALSE:
+				break;
+			case TIMEOUT:
+				throw new TimeoutException();
+			case TRUE:
+				return new LiteralSet(solver.getSolution(), Order.INDEX, false);
+			default:
+				throw new AssertionError();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the number of added and removed products via the number of products of both models and the number of products in their intersection. If any
+	 * of the required counts exceeds the timeout, both numbers remain unknown ({@code null}).
+	 */
+	private void countProducts() throws Exception {
+		if (implies && isImplied) {
+			addedProducts = BigInteger.ZERO;
+			removedProducts = BigInteger.ZERO;
+			return;
+		}
+		final BigInteger oldCount = countSolutions(oldClauses, Collections.<LiteralSet> emptySet());
+		if (oldCount == null) {
+			return;
+		}
+		final BigInteger newCount = countSolutions(newClauses, Collections.<LiteralSet> emptySet());
+		if (newCount == null) {
+			return;
+		}
+		final BigInteger commonCount;
+		if (implies) {
+			commonCount = oldCount;
+		} else if (isImplied) {
+			commonCount = newCount;
+		} else {
+			commonCount = countSolutions(oldClauses, addedClauses);
+			if (commonCount == null) {
+				return;
+			}
+		}
+		addedProducts = newCount.subtract(commonCount);
+		removedProducts = oldCount.subtract(commonCount);
+	}
+
+	/**
+	 * @return the number of solutions or {@code null}, if the compilation exceeds the timeout
+	 */
+	private BigInteger countSolutions(Set<LiteralSet> clauses, Collection<LiteralSet> additionalClauses) throws Exception {
+		final List<LiteralSet> clauseList = new ArrayList<>(clauses.size() + additionalClauses.size());
+		clauseList.addAll(clauses);
+		clauseList.addAll(additionalClauses);
+		final DDNNFCompiler compiler = new DDNNFCompiler(new CNF(variables, clauseList));
+		compiler.setTimeout(timeout);
+		try {
+			return compiler.execute(new NullMonitor<DDNNF>()).countSolutions();
+		} catch (final RuntimeTimeoutException e) {
+			return null;
+		}
+	}
+
+	public Set<String> getAddedFeatures() {
+		return addedFeatures;
+	}
+
+	public Set<String> getDeletedFeatures() {
+		return deletedFeatures;
+	}
+
+	/**
+	 * @return the common variables of both models, which consist of the names of all concrete features (before any renaming).
+	 */
+	public Variables getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @return the clauses of the new model that are not contained in the old model.
+	 */
+	public List<LiteralSet> getAddedClauses() {
+		return addedClauses;
+	}
+
+	/**
+	 * @return the clauses of the old model that are not contained in the new model.
+	 */
+	public List<LiteralSet> getRemovedClauses() {
+		return removedClauses;
+	}
+
+	/**
+	 * @return whether the old model implies the new model, i.e., no products were removed ({@code false}, if the comparison did not finish).
+	 */
+	public boolean isImplies() {
+		return implies;
+	}
+
+	/**
+	 * @return whether the new model implies the old model, i.e., no products were added ({@code false}, if the comparison did not finish).
+	 */
+	public boolean isImplied() {
+		return isImplied;
+	}
+
+	/**
+	 * @return a product of the new model that is not a product of the old model or {@code null}, if there is no such product.
+	 */
+	public LiteralSet getAddedProductExample() {
+		return addedProductExample;
+	}
+
+	/**
+	 * @return a product of the old model that is not a product of the new model or {@code null}, if there is no such product.
+	 */
+	public LiteralSet getRemovedProductExample() {
+		return removedProductExample;
+	}
+
+	/**
+	 * @return the number of added products or {@code null}, if products were not counted or the counting exceeded the timeout.
+	 */
+	public BigInteger getAddedProducts() {
+		return addedProducts;
+	}
+
+	/**
+	 * @return the number of removed products or {@code null}, if products were not counted or the counting exceeded the timeout.
+	 */
+	public BigInteger getRemovedProducts() {
+		return removedProducts;
+	}
+
+	public Comparison getResult() {
+		return result;
+	}
+
+}
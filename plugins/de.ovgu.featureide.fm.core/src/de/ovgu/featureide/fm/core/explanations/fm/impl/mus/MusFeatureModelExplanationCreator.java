@@ -37,8 +37,17 @@ import de.ovgu.featureide.fm.core.explanations.fm.impl.AbstractFeatureModelExpla
 public abstract class MusFeatureModelExplanationCreator<S, E extends FeatureModelExplanation<S>>
 		extends AbstractFeatureModelExplanationCreator<S, E, MusExtractor> {
 
+	/** The default timeout for each explanation in milliseconds. */
+	public static final long DEFAULT_TIMEOUT = 1000;
+	/** The default maximum number of MUSes computed for each explanation. */
+	public static final int DEFAULT_MAXIMUM_MUS_COUNT = 3;
+
 	/** The solver factory used to create the oracle. */
 	private final SatSolverFactory solverFactory;
+	/** The timeout for each explanation in milliseconds. */
+	private long timeout = DEFAULT_TIMEOUT;
+	/** The maximum number of MUSes computed for each explanation. */
+	private int maximumMusCount = DEFAULT_MAXIMUM_MUS_COUNT;
 
 	/**
 	 * Constructs a new instance of this class.
@@ -61,9 +70,48 @@ public abstract class MusFeatureModelExplanationCreator<S, E extends FeatureMode
 		return solverFactory;
 	}
 
+	/**
+	 * Returns the timeout for each explanation.
+	 *
+	 * @return the timeout in milliseconds; zero or less means no timeout
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the timeout for each explanation. If the timeout is exceeded, the explanation is based on the MUSes found so far. If no MUS was found, there is
+	 * no explanation.
+	 *
+	 * @param timeout the timeout in milliseconds; zero or less means no timeout
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+		setOracle(null);
+	}
+
+	/**
+	 * Returns the maximum number of MUSes computed for each explanation.
+	 *
+	 * @return the maximum number of MUSes; zero or less means no limit
+	 */
+	public int getMaximumMusCount() {
+		return maximumMusCount;
+	}
+
+	/**
+	 * Sets the maximum number of MUSes computed for each explanation. The shortest one is used as explanation, the others as alternatives.
+	 *
+	 * @param maximumMusCount the maximum number of MUSes; zero or less means no limit
+	 */
+	public void setMaximumMusCount(int maximumMusCount) {
+		this.maximumMusCount = maximumMusCount;
+		setOracle(null);
+	}
+
 	@Override
 	protected MusExtractor createOracle() {
-		final MusExtractor oracle = getSatSolverFactory().getMusExtractor();
+		final MusExtractor oracle = getSatSolverFactory().getMusExtractor(timeout, maximumMusCount);
 		oracle.addFormula(getCnf());
 		return oracle;
 	}
@@ -96,27 +96,41 @@ public class MusMultipleAnomaliesExplanationCreator extends MusFeatureModelExpla
 		final boolean lookForFalseOptionalFeatures = featureStatuses.contains(FeatureStatus.FALSE_OPTIONAL);
 		final boolean lookForRedundantConstraints = constraintStatuses.contains(ConstraintStatus.REDUNDANT);
 
-		// Find explanations for dead and/or false-optional features, if desired by the user.
+		// Find dead and/or false-optional features and redundant constraints, if desired by the user.
+		final List<IFeature> deadFeatures = new ArrayList<>();
+		final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+		final List<IConstraint> redundantConstraints = new ArrayList<>();
 		if (lookForDeadFeatures || lookForFalseOptionalFeatures) {
 			for (final IFeature feature : features) {
 				final FeatureProperties properties = analyzer.getFeatureProperties(feature);
 				if (lookForDeadFeatures && properties.hasStatus(FeatureStatus.DEAD)) {
-					exps.add(analyzer.getDeadFeatureExplanation(featureModel, feature));
+					deadFeatures.add(feature);
 				}
 				if (lookForFalseOptionalFeatures && properties.hasStatus(FeatureStatus.FALSE_OPTIONAL)) {
-					exps.add(analyzer.getFalseOptionalFeatureExplanation(featureModel, feature));
+					falseOptionalFeatures.add(feature);
 				}
 			}
 		}
-		// Find explanations for redundant constraints, if desired by the user.
 		if (lookForRedundantConstraints) {
 			for (final IConstraint constraint : featureModel.getConstraints()) {
 				if (analyzer.getConstraintProperties(constraint).hasStatus(ConstraintStatus.REDUNDANT)) {
-					exps.add(analyzer.getRedundantConstraintExplanation(featureModel, constraint));
+					redundantConstraints.add(constraint);
 				}
 			}
 		}
 
+		// Explain all anomalies in parallel. The explanations are cached by the analyzer and only looked up afterwards.
+		analyzer.calculateExplanations(featureModel, deadFeatures, falseOptionalFeatures, redundantConstraints);
+		for (final IFeature feature : deadFeatures) {
+			exps.add(analyzer.getDeadFeatureExplanation(featureModel, feature));
+		}
+		for (final IFeature feature : falseOptionalFeatures) {
+			exps.add(analyzer.getFalseOptionalFeatureExplanation(featureModel, feature));
+		}
+		for (final IConstraint constraint : redundantConstraints) {
+			exps.add(analyzer.getRedundantConstraintExplanation(featureModel, constraint));
+		}
+
 		// Only return an explanation if there actually exist anomalies.
 		if (exps.isEmpty()) {
 			return null;
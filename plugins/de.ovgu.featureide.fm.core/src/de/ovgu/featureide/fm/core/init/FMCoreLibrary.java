@@ -30,6 +30,8 @@ import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.base.impl.MultiFeatureModelFactory;
+import de.ovgu.featureide.fm.core.cli.BatchAnalysis;
+import de.ovgu.featureide.fm.core.cli.BuildVariants;
 import de.ovgu.featureide.fm.core.cli.CLIFunctionManager;
 import de.ovgu.featureide.fm.core.cli.ConfigurationGenerator;
 import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
@@ -103,6 +105,8 @@ public final class FMCoreLibrary implements ILibrary {
 		ConfigFormatManager.getInstance().addExtension(new ExpressionFormat());
 
 		CLIFunctionManager.getInstance().addExtension(new ConfigurationGenerator());
+		CLIFunctionManager.getInstance().addExtension(new BatchAnalysis());
+		CLIFunctionManager.getInstance().addExtension(new BuildVariants());
 	}
 
 	@Override
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.InputStream;
 import java.nio.file.Path;
 
 import de.ovgu.featureide.fm.core.IExtension;
@@ -60,6 +61,21 @@ public interface IPersistentFormat<T> extends IExtension {
 		return read(object, source);
 	}
 
+	/**
+	 * Parses the contents of the given stream and transfers all information onto the given object, without reading the whole content into memory first.
+	 * Behaves like {@link #read(Object, CharSequence, Path)} otherwise. The stream is not closed by this method.
+	 *
+	 * @param object the object to write the information into.
+	 * @param source the source stream.
+	 * @param path the path of the source file.
+	 * @return A list of {@link Problem problems} that occurred during the parsing process.
+	 *
+	 * @see #supportsStreamRead()
+	 */
+	default ProblemList read(T object, InputStream source, Path path) {
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * Writes the information of an object to a string. (Which information are considered is specified by the implementing class).
 	 *
@@ -101,6 +117,15 @@ public interface IPersistentFormat<T> extends IExtension {
 	 */
 	boolean supportsRead();
 
+	/**
+	 * Returns whether this format supports the {@link #read(Object, InputStream, Path)} operation.
+	 *
+	 * @return {@code true} if this format can be read from a stream, {@code false} otherwise.
+	 */
+	default boolean supportsStreamRead() {
+		return false;
+	}
+
 	/**
 	 * Returns whether this format supports the {@link #write(Object)} operation.
 	 *
@@ -25,7 +25,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
@@ -43,7 +43,7 @@ public class MIGAdjListFormat extends APersistentFormat<ModalImplicationGraph> i
 	@Override
 	public ProblemList read(ModalImplicationGraph object, CharSequence source) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(StandardCharsets.ISO_8859_1)))) {
 			object.copyValues((ModalImplicationGraph) in.readObject());
 		} catch (IOException | ClassNotFoundException e) {
 			problems.add(new Problem(e));
@@ -57,7 +57,7 @@ public class MIGAdjListFormat extends APersistentFormat<ModalImplicationGraph> i
 		String ret = null;
 		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
 			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
+			ret = new String(byteArrayOutputStream.toByteArray(), StandardCharsets.ISO_8859_1);
 		} catch (final IOException e) {
 			Logger.logError(e);
 		}
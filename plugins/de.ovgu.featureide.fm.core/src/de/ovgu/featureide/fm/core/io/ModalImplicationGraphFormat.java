@@ -25,7 +25,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
@@ -43,7 +43,7 @@ public class ModalImplicationGraphFormat extends APersistentFormat<ModalImplicat
 	@Override
 	public ProblemList read(ModalImplicationGraph object, CharSequence source) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(StandardCharsets.ISO_8859_1)))) {
 			final ModalImplicationGraph adjList = (ModalImplicationGraph) in.readObject();
 			object.copyValues(adjList);
 		} catch (IOException | ClassNotFoundException e) {
@@ -58,7 +58,7 @@ public class ModalImplicationGraphFormat extends APersistentFormat<ModalImplicat
 		String ret = null;
 		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
 			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
+			ret = new String(byteArrayOutputStream.toByteArray(), StandardCharsets.ISO_8859_1);
 		} catch (final IOException e) {
 			Logger.logError(e);
 		}
@@ -0,0 +1,232 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Reads / Writes objects in a compact, versioned binary format. All data is stored as big-endian ints in flat arrays, such that a file can be read into a heap
+ * buffer at once and then be parsed with a few bulk operations. Files are not memory-mapped, as a mapped file cannot be replaced or deleted on some
+ * platforms (e.g., Windows) until the mapping is garbage collected.<br> <br> Every file starts with a header consisting of a magic number, the format version, the
+ * type of the stored object, and a key (e.g., a content hash of the source the object was derived from). Reading a file with a different version, type, or
+ * key yields {@code null}.
+ *
+ * @param <T> Type of the stored object.
+ *
+ * @author agent
+ */
+public abstract class ABinaryFormat<T> {
+
+	private static final Order[] ORDERS = Order.values();
+
+	private static final int MAGIC = 0x46494445; // "FIDE"
+
+	/**
+	 * Version of the binary layout. Must be increased on any incompatible change to the layout of a subclass.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Reads an object from the given file.
+	 *
+	 * @param path the path of the file
+	 * @param key the expected key
+	 * @return the stored object or {@code null} if the file does not exist or was written with a different version, type, or key.
+	 * @throws IOException if the file cannot be read or is corrupted
+	 */
+	public T read(Path path, byte[] key) throws IOException {
+		if (!Files.isReadable(path)) {
+			return null;
+		}
+		final IntBuffer ints = ByteBuffer.wrap(Files.readAllBytes(path)).asIntBuffer();
+		try {
+			if ((ints.remaining() < 4) || (ints.get() != MAGIC) || (ints.get() != VERSION) || (ints.get() != getType())) {
+				return null;
+			}
+			final int[] storedKey = readArray(ints);
+			if (!Arrays.equals(storedKey, toInts(key))) {
+				return null;
+			}
+			return readBody(ints);
+		} catch (final RuntimeException e) {
+			throw new IOException("Corrupted file " + path, e);
+		}
+	}
+
+	/**
+	 * Writes an object to the given file. The file is first written to a temporary file and then moved to the target location, such that concurrent readers
+	 * never see a partially written file.
+	 *
+	 * @param path the path of the file
+	 * @param object the object to write
+	 * @param key the key that is stored in the header
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path, T object, byte[] key) throws IOException {
+		final Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		final Path tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(getType());
+				writeArray(out, toInts(key));
+				writeBody(out, object);
+			}
+			try {
+				Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * @return an id that identifies the type of the stored object.
+	 */
+	protected abstract int getType();
+
+	/**
+	 * @return the file extension for this format (without a leading ".").
+	 */
+	public abstract String getSuffix();
+
+	protected abstract T readBody(IntBuffer in);
+
+	protected abstract void writeBody(DataOutputStream out, T object) throws IOException;
+
+	protected static int[] readArray(IntBuffer in) {
+		final int[] array = new int[in.get()];
+		in.get(array);
+		return array;
+	}
+
+	protected static void writeArray(DataOutputStream out, int[] array) throws IOException {
+		writeArray(out, array, array.length);
+	}
+
+	protected static void writeArray(DataOutputStream out, int[] array, int length) throws IOException {
+		out.writeInt(length);
+		for (int i = 0; i < length; i++) {
+			out.writeInt(array[i]);
+		}
+	}
+
+	/**
+	 * Reads variable names. Names are stored as one array of UTF-8 bytes (padded to a multiple of four) and one array of offsets.
+	 */
+	protected static Variables readVariables(IntBuffer in) {
+		final int[] offsets = readArray(in);
+		final byte[] bytes = fromInts(readArray(in));
+		final String[] names = new String[offsets.length - 1];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+		}
+		return new Variables(Arrays.asList(names));
+	}
+
+	protected static void writeVariables(DataOutputStream out, Variables variables) throws IOException {
+		final String[] names = variables.getNames();
+		final int[] offsets = new int[Math.max(1, names.length)];
+		final byte[][] encodedNames = new byte[offsets.length - 1][];
+		int length = 0;
+		for (int i = 1; i < names.length; i++) {
+			final byte[] encodedName = names[i].getBytes(StandardCharsets.UTF_8);
+			encodedNames[i - 1] = encodedName;
+			length += encodedName.length;
+			offsets[i] = length;
+		}
+		final byte[] bytes = new byte[length];
+		for (int i = 0; i < encodedNames.length; i++) {
+			System.arraycopy(encodedNames[i], 0, bytes, offsets[i], encodedNames[i].length);
+		}
+		writeArray(out, offsets);
+		writeArray(out, toInts(bytes));
+	}
+
+	/**
+	 * Reads clauses. Clauses are stored as one array of offsets, one array of literal orders, and one flat array of literals.
+	 */
+	protected static List<LiteralSet> readClauses(IntBuffer in) {
+		final int[] offsets = readArray(in);
+		final int[] orders = readArray(in);
+		final int[] literals = readArray(in);
+		final List<LiteralSet> clauses = new ArrayList<>(orders.length);
+		for (int i = 0; i < orders.length; i++) {
+			final int order = orders[i];
+			clauses.add(new LiteralSet(Arrays.copyOfRange(literals, offsets[i], offsets[i + 1]), order < 0 ? null : ORDERS[order], false));
+		}
+		return clauses;
+	}
+
+	protected static void writeClauses(DataOutputStream out, List<LiteralSet> clauses) throws IOException {
+		final int[] offsets = new int[clauses.size() + 1];
+		final int[] orders = new int[clauses.size()];
+		int index = 0;
+		for (final LiteralSet clause : clauses) {
+			final Order order = clause.getOrder();
+			orders[index] = order == null ? -1 : order.ordinal();
+			offsets[index + 1] = offsets[index] + clause.size();
+			index++;
+		}
+		writeArray(out, offsets);
+		writeArray(out, orders);
+		out.writeInt(offsets[index]);
+		for (final LiteralSet clause : clauses) {
+			for (final int literal : clause.getLiterals()) {
+				out.writeInt(literal);
+			}
+		}
+	}
+
+	private static int[] toInts(byte[] bytes) {
+		final int[] ints = new int[((bytes.length + 3) >> 2) + 1];
+		ints[0] = bytes.length;
+		ByteBuffer.wrap(Arrays.copyOf(bytes, (ints.length - 1) << 2)).asIntBuffer().get(ints, 1, ints.length - 1);
+		return ints;
+	}
+
+	private static byte[] fromInts(int[] ints) {
+		final ByteBuffer buffer = ByteBuffer.allocate((ints.length - 1) << 2);
+		buffer.asIntBuffer().put(ints, 1, ints.length - 1);
+		return Arrays.copyOf(buffer.array(), ints[0]);
+	}
+
+}
@@ -0,0 +1,125 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.binary;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+
+/**
+ * Reads / Writes a {@link ModalImplicationGraph} in a binary format. The edges of all vertices are stored as flat arrays with offsets.
+ *
+ * @author agent
+ */
+public class BinaryMIGFormat extends ABinaryFormat<ModalImplicationGraph> {
+
+	private static final int TYPE = 2;
+
+	private static final int FLAG_CORE = 1;
+	private static final int FLAG_DEAD = 2;
+
+	@Override
+	protected int getType() {
+		return TYPE;
+	}
+
+	@Override
+	public String getSuffix() {
+		return "mig.bin";
+	}
+
+	@Override
+	protected ModalImplicationGraph readBody(IntBuffer in) {
+		final int[] vars = readArray(in);
+		final int[] ids = readArray(in);
+		final int[] flags = readArray(in);
+		final int[] strongOffsets = readArray(in);
+		final int[] strongEdges = readArray(in);
+		final int[] complexOffsets = readArray(in);
+		final int[] complexEdges = readArray(in);
+
+		final List<Vertex> adjList = new ArrayList<>(vars.length);
+		for (int i = 0; i < vars.length; i++) {
+			final Vertex vertex = new Vertex(vars[i]);
+			vertex.setId(ids[i]);
+			vertex.setCore((flags[i] & FLAG_CORE) != 0);
+			vertex.setDead((flags[i] & FLAG_DEAD) != 0);
+			vertex.setStrongEdges(Arrays.copyOfRange(strongEdges, strongOffsets[i], strongOffsets[i + 1]));
+			vertex.setComplexClauses(Arrays.copyOfRange(complexEdges, complexOffsets[i], complexOffsets[i + 1]));
+			adjList.add(vertex);
+		}
+
+		return new ModalImplicationGraph(adjList, readClauses(in));
+	}
+
+	@Override
+	protected void writeBody(DataOutputStream out, ModalImplicationGraph mig) throws IOException {
+		final List<Vertex> adjList = mig.getAdjList();
+		final int size = adjList.size();
+		final int[] vars = new int[size];
+		final int[] ids = new int[size];
+		final int[] flags = new int[size];
+		final int[] strongOffsets = new int[size + 1];
+		final int[] complexOffsets = new int[size + 1];
+		for (int i = 0; i < size; i++) {
+			final Vertex vertex = adjList.get(i);
+			vars[i] = vertex.getVar();
+			ids[i] = vertex.getId();
+			flags[i] = (vertex.isCore() ? FLAG_CORE : 0) | (vertex.isDead() ? FLAG_DEAD : 0);
+			strongOffsets[i + 1] = strongOffsets[i] + length(vertex.getStrongEdges());
+			complexOffsets[i + 1] = complexOffsets[i] + length(vertex.getComplexClauses());
+		}
+		writeArray(out, vars);
+		writeArray(out, ids);
+		writeArray(out, flags);
+		writeArray(out, strongOffsets);
+		out.writeInt(strongOffsets[size]);
+		for (final Vertex vertex : adjList) {
+			writeElements(out, vertex.getStrongEdges());
+		}
+		writeArray(out, complexOffsets);
+		out.writeInt(complexOffsets[size]);
+		for (final Vertex vertex : adjList) {
+			writeElements(out, vertex.getComplexClauses());
+		}
+
+		writeClauses(out, mig.getComplexClauses());
+	}
+
+	private static int length(int[] array) {
+		return array == null ? 0 : array.length;
+	}
+
+	private static void writeElements(DataOutputStream out, int[] array) throws IOException {
+		if (array != null) {
+			for (final int element : array) {
+				out.writeInt(element);
+			}
+		}
+	}
+
+}
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.io.csv;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -46,27 +48,60 @@ public class ConfigurationListFormat extends APersistentFormat<SolutionList> {
 	@Override
 	public String write(SolutionList configurationList) {
 		final StringBuilder csv = new StringBuilder();
-		csv.append("Configuration");
-		final String[] names = configurationList.getVariables().getNames();
-		for (int i = 1; i < names.length; i++) {
-			csv.append(';');
-			csv.append(names[i]);
-		}
-		csv.append('\n');
-		int configurationIndex = 0;
-		for (final LiteralSet configuration : configurationList.getSolutions()) {
-			csv.append(configurationIndex++);
-			final int[] literals = configuration.getLiterals();
-			for (int i = 1; i < names.length; i++) {
-				csv.append(';');
-				final int indexOfVariable = configuration.indexOfVariable(i);
-				csv.append(indexOfVariable < 0 ? '0' : literals[indexOfVariable] > 0 ? '+' : '-');
+		try {
+			writeHeader(configurationList.getVariables(), csv);
+			int configurationIndex = 0;
+			for (final LiteralSet configuration : configurationList.getSolutions()) {
+				writeConfiguration(configurationIndex++, configuration, configurationList.getVariables(), csv);
 			}
-			csv.append('\n');
+		} catch (final IOException e) {
+			// StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
 		}
 		return csv.toString();
 	}
 
+	/**
+	 * Writes the first line of the list, which contains the variable names.
+	 *
+	 * @param variables the variables of the configurations
+	 * @param out the output
+	 * @throws IOException if the output cannot be written
+	 *
+	 * @see ConfigurationListWriter
+	 */
+	public void writeHeader(Variables variables, Appendable out) throws IOException {
+		out.append("Configuration");
+		final String[] names = variables.getNames();
+		for (int i = 1; i < names.length; i++) {
+			out.append(';');
+			out.append(names[i]);
+		}
+		out.append('\n');
+	}
+
+	/**
+	 * Writes a single line of the list, which contains the selection of each variable within the given configuration.
+	 *
+	 * @param configurationIndex the index of the configuration within the list
+	 * @param configuration the configuration
+	 * @param variables the variables of the configurations
+	 * @param out the output
+	 * @throws IOException if the output cannot be written
+	 *
+	 * @see ConfigurationListWriter
+	 */
+	public void writeConfiguration(int configurationIndex, LiteralSet configuration, Variables variables, Appendable out) throws IOException {
+		out.append(Integer.toString(configurationIndex));
+		final int[] literals = configuration.getLiterals();
+		for (int i = 1, size = variables.size(); i <= size; i++) {
+			out.append(';');
+			final int indexOfVariable = configuration.indexOfVariable(i);
+			out.append(indexOfVariable < 0 ? '0' : literals[indexOfVariable] > 0 ? '+' : '-');
+		}
+		out.append('\n');
+	}
+
 	@Override
 	public ProblemList read(SolutionList configurationList, CharSequence source) {
 		final ProblemList problems = new ProblemList();
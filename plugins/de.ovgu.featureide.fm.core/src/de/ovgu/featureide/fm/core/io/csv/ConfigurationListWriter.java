@@ -0,0 +1,93 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Writes a list of configurations incrementally in the format of the {@link ConfigurationListFormat}. Each accepted configuration is written immediately
+ * (using a buffer) and is not retained. Can be used as a {@link Consumer} for the streaming mode of configuration generators.
+ *
+ * @author agent
+ */
+public class ConfigurationListWriter implements Consumer<LiteralSet>, Closeable {
+
+	private final ConfigurationListFormat format = new ConfigurationListFormat();
+	private final Variables variables;
+	private final BufferedWriter writer;
+
+	private int configurationCount = 0;
+
+	/**
+	 * Creates (or overwrites) the given file and writes the header.
+	 *
+	 * @param path the output file
+	 * @param variables the variables of the configurations
+	 * @throws IOException if the file cannot be written
+	 */
+	public ConfigurationListWriter(Path path, Variables variables) throws IOException {
+		this.variables = variables;
+		writer = Files.newBufferedWriter(path, SimpleFileHandler.DEFAULT_CHARSET);
+		try {
+			format.writeHeader(variables, writer);
+		} catch (final IOException e) {
+			writer.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the given configuration.
+	 *
+	 * @throws UncheckedIOException if the file cannot be written
+	 */
+	@Override
+	public void accept(LiteralSet configuration) {
+		try {
+			format.writeConfiguration(configurationCount++, configuration, variables, writer);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the number of written configurations
+	 */
+	public int getConfigurationCount() {
+		return configurationCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
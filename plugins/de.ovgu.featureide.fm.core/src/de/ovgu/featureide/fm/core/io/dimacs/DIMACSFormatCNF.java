@@ -20,16 +20,15 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.text.ParseException;
 
-import org.prop4j.Node;
-
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
-import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
@@ -53,23 +52,32 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 
 	@Override
 	public ProblemList read(CNF cnf, CharSequence source) {
+		return read(cnf, new ByteArrayInputStream(source.toString().getBytes(StandardCharsets.UTF_8)), null);
+	}
+
+	@Override
+	public ProblemList read(CNF cnf, InputStream source, Path path) {
 		final ProblemList problemList = new ProblemList();
 		final DimacsReader r = new DimacsReader();
 		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(false);
 		try {
-			final Node node = r.read(source.toString());
-			final Variables variables = new Variables(r.getVariables());
-			final ClauseList clauseList = Nodes.convertNF(variables, node, true, true);
-			cnf.setVariables(variables);
+			final CNF readCNF = r.readCNF(source);
+			cnf.setVariables(readCNF.getVariables());
 			cnf.getClauses().clear();
-			cnf.getClauses().addAll(clauseList);
-		} catch (ParseException | IOException e) {
+			cnf.getClauses().addAll(readCNF.getClauses());
+		} catch (final ParseException e) {
+			problemList.add(new Problem(e, e.getErrorOffset()));
+		} catch (final IOException e) {
 			problemList.add(new Problem(e));
 		}
 		return problemList;
 	}
 
+	@Override
+	public boolean supportsStreamRead() {
+		return true;
+	}
+
 	@Override
 	public String getSuffix() {
 		return "dimacs";
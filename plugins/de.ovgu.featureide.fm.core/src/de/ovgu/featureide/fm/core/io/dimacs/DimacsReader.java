@@ -22,8 +22,16 @@ package de.ovgu.featureide.fm.core.io.dimacs;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,8 +45,14 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
 /**
- * Transforms DIMACS CNF files into instances of {@link Node}.
+ * Transforms DIMACS CNF files into instances of {@link Node} or directly into a {@link CNF}.
  *
  * @author Timo Günther
  * @author Sebastian Krieter
@@ -62,6 +76,18 @@ public class DimacsReader {
 	/** True when currently reading the comment section at the beginning of the file and parsing variable names. */
 	private boolean readingVariables;
 
+	/** The current buffer of the byte-based parser (see {@link #readCNF(InputStream)}). */
+	private ByteBuffer buffer;
+	/** The stream that is used to refill {@link #buffer} or {@code null} if the buffer contains the complete source. */
+	private InputStream source;
+	private byte[] readBuffer;
+	/** Bytes that are read before the next byte of {@link #buffer}. */
+	private byte[] pending;
+	private int pendingIndex;
+	private byte[] lineBuffer;
+	/** The number of the line that is currently read by the byte-based parser. */
+	private int lineNumber;
+
 	/**
 	 * <p> Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments. This contains names for the
 	 * variables which would otherwise just be numbers. </p>
@@ -135,6 +161,275 @@ public class DimacsReader {
 		}
 	}
 
+	/**
+	 * Reads the input directly into a {@link CNF}, without creating any {@link Node} or a string of the whole input. The input is parsed byte by byte and each
+	 * clause is stored as an int array.<br> Accepts the same inputs as {@link #read(Reader)}. The flatten CNF flag is ignored. The given stream is not closed.
+	 *
+	 * @param in The source to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the reader encounters a problem.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF readCNF(InputStream in) throws ParseException, IOException {
+		readBuffer = new byte[1 << 16];
+		return readCNF(ByteBuffer.wrap(readBuffer, 0, 0), in);
+	}
+
+	/**
+	 * Reads the given file directly into a {@link CNF}. The file is mapped into memory, if possible.
+	 *
+	 * @param path The file to read from.
+	 * @return a CNF; not null
+	 * @throws IOException if the reader encounters a problem.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 *
+	 * @see #readCNF(InputStream)
+	 */
+	public CNF readCNF(Path path) throws ParseException, IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size <= Integer.MAX_VALUE) {
+				return readCNF(channel.map(MapMode.READ_ONLY, 0, size), null);
+			}
+		}
+		try (InputStream in = Files.newInputStream(path)) {
+			return readCNF(in);
+		}
+	}
+
+	private CNF readCNF(ByteBuffer buffer, InputStream source) throws ParseException, IOException {
+		indexVariables.clear();
+		indexVariables.add(null);
+		variableCount = -1;
+		clauseCount = -1;
+		readingVariables = readVariableDirectory;
+		this.buffer = buffer;
+		this.source = source;
+		pending = null;
+		lineBuffer = new byte[256];
+		lineNumber = 1;
+		try {
+			readHeader();
+			readingVariables = false;
+
+			for (int i = 1; i < indexVariables.size(); i++) {
+				if (indexVariables.get(i) == null) {
+					indexVariables.set(i, Integer.toString(i));
+				}
+			}
+			while (indexVariables.size() <= variableCount) {
+				indexVariables.add(Integer.toString(indexVariables.size()));
+			}
+
+			final ClauseList clauses = readClauseLiterals();
+			final int actualVariableCount = indexVariables.size() - 1;
+			if (variableCount != actualVariableCount) {
+				throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
+			}
+			final int actualClausesCount = clauses.size();
+			if (clauseCount != actualClausesCount) {
+				throw new ParseException(String.format("Found %d instead of %d clauses", actualClausesCount, clauseCount), 1);
+			}
+			return new CNF(new Variables(getVariables()), clauses);
+		} finally {
+			this.buffer = null;
+			this.source = null;
+			readBuffer = null;
+			lineBuffer = null;
+			pending = null;
+		}
+	}
+
+	/**
+	 * Reads the comments and the problem definition. The first line that contains clauses is stored in {@link #pending}.
+	 *
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private void readHeader() throws ParseException, IOException {
+		String line = readNonEmptyLine();
+		for (; line != null; line = readNonEmptyLine()) {
+			final Matcher matcher = commentPattern.matcher(line);
+			if (matcher.matches()) {
+				readComment(matcher.group(1));
+			} else {
+				break;
+			}
+		}
+		if (line == null) {
+			throw new ParseException("Invalid problem format", lineNumber - 1);
+		}
+		final Matcher matcher = problemPattern.matcher(line);
+		if (!matcher.find()) {
+			throw new ParseException("Invalid problem format", lineNumber - 1);
+		}
+		try {
+			variableCount = Integer.parseInt(matcher.group(1));
+		} catch (final NumberFormatException e) {
+			throw new ParseException("Variable count is not an integer", lineNumber - 1);
+		}
+		try {
+			clauseCount = Integer.parseInt(matcher.group(2));
+		} catch (final NumberFormatException e) {
+			throw new ParseException("Clause count is not an integer", lineNumber - 1);
+		}
+
+		final String trail = line.substring(matcher.end());
+		if (trail.trim().isEmpty()) {
+			for (line = readNonEmptyLine(); line != null; line = readNonEmptyLine()) {
+				final Matcher commentMatcher = commentPattern.matcher(line);
+				if (commentMatcher.matches()) {
+					readComment(commentMatcher.group(1));
+				} else {
+					setPending(line);
+					break;
+				}
+			}
+		} else {
+			setPending(trail);
+		}
+	}
+
+	/**
+	 * Re-reads the given part of the last line when parsing the clauses.
+	 */
+	private void setPending(String line) {
+		final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		pending = Arrays.copyOf(bytes, bytes.length + 1);
+		pending[bytes.length] = '\n';
+		pendingIndex = 0;
+		lineNumber--;
+	}
+
+	/**
+	 * Reads the next line that does not only consist of whitespace.
+	 *
+	 * @return the line without its line break or {@code null} if the end of the input is reached.
+	 */
+	private String readNonEmptyLine() throws IOException {
+		while (true) {
+			int length = 0;
+			int c = nextByte();
+			if (c < 0) {
+				return null;
+			}
+			for (; (c >= 0) && (c != '\n'); c = nextByte()) {
+				if (length == lineBuffer.length) {
+					lineBuffer = Arrays.copyOf(lineBuffer, 2 * length);
+				}
+				lineBuffer[length++] = (byte) c;
+			}
+			if (c == '\n') {
+				lineNumber++;
+			}
+			if ((length > 0) && (lineBuffer[length - 1] == '\r')) {
+				length--;
+			}
+			final String line = new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+			if (!line.trim().isEmpty()) {
+				return line;
+			}
+		}
+	}
+
+	/**
+	 * Reads all clauses. Each clause is parsed directly into an int array.
+	 *
+	 * @return all clauses; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private ClauseList readClauseLiterals() throws ParseException, IOException {
+		final ClauseList clauses = new ClauseList(Math.max(clauseCount, 0));
+		final int maxVariable = indexVariables.size() - 1;
+		int[] literals = new int[16];
+		int size = 0;
+
+		int c = nextByte();
+		while (c >= 0) {
+			if (c == '\n') {
+				lineNumber++;
+				c = nextByte();
+				if (c == DIMACSConstants.COMMENT.charAt(0)) {
+					do {
+						c = nextByte();
+					} while ((c >= 0) && (c != '\n'));
+				}
+			} else if (isWhitespace(c)) {
+				c = nextByte();
+			} else {
+				final boolean negative = c == '-';
+				if (negative) {
+					c = nextByte();
+				}
+				long value = 0;
+				int digits = 0;
+				boolean valid = true;
+				for (; (c >= 0) && (c != '\n') && !isWhitespace(c); c = nextByte()) {
+					if ((c < '0') || (c > '9') || (value > Integer.MAX_VALUE)) {
+						valid = false;
+					} else {
+						value = (value * 10) + (c - '0');
+					}
+					digits++;
+				}
+				if (!valid || (digits == 0) || (value > Integer.MAX_VALUE)) {
+					throw new ParseException("Illegal literal", lineNumber);
+				}
+				if (value == 0) {
+					if (negative || (digits > 1)) {
+						throw new ParseException("Illegal literal", lineNumber);
+					}
+					if (size == 0) {
+						throw new ParseException("Empty clause", lineNumber);
+					}
+					clauses.add(new LiteralSet(Arrays.copyOf(literals, size), Order.UNORDERED));
+					size = 0;
+				} else {
+					if (value > maxVariable) {
+						throw new ParseException("Variable count is smaller than given literal", lineNumber);
+					}
+					if (size == literals.length) {
+						literals = Arrays.copyOf(literals, 2 * size);
+					}
+					literals[size++] = negative ? (int) -value : (int) value;
+				}
+			}
+		}
+		if (size > 0) {
+			clauses.add(new LiteralSet(Arrays.copyOf(literals, size), Order.UNORDERED));
+		}
+		return clauses;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\t') || (c == '\r') || (c == '\f') || (c == 0x0B);
+	}
+
+	/**
+	 * @return the next byte of the input or -1 if the end of the input is reached.
+	 */
+	private int nextByte() throws IOException {
+		if (pending != null) {
+			if (pendingIndex < pending.length) {
+				return pending[pendingIndex++] & 0xFF;
+			}
+			pending = null;
+		}
+		if (!buffer.hasRemaining()) {
+			if (source == null) {
+				return -1;
+			}
+			int length;
+			do {
+				length = source.read(readBuffer);
+			} while (length == 0);
+			if (length < 0) {
+				return -1;
+			}
+			buffer = ByteBuffer.wrap(readBuffer, 0, length);
+		}
+		return buffer.get() & 0xFF;
+	}
+
 	private void readComments(final LineIterator lineIterator) {
 		for (String line = lineIterator.currentLine(); line != null; line = lineIterator.get()) {
 			final Matcher matcher = commentPattern.matcher(line);
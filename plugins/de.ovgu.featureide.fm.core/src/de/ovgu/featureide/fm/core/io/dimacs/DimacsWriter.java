@@ -20,6 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
@@ -33,6 +39,8 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
  */
 public class DimacsWriter {
 
+	private static final int BUFFER_SIZE = 1 << 15;
+
 	/** Whether the writer should write a variable directory listing the names of the variables. */
 	private boolean writingVariableDirectory = true;
 
@@ -61,7 +69,7 @@ public class DimacsWriter {
 			throw new IllegalArgumentException();
 		}
 		this.cnf = cnf;
-		this.projectionVariables = projectionVariables.clone();
+		this.projectionVariables = projectionVariables == null ? null : projectionVariables.clone();
 	}
 
 	/**
@@ -96,6 +104,48 @@ public class DimacsWriter {
 		return sb.toString();
 	}
 
+	/**
+	 * Writes the DIMACS CNF file format directly to the given stream (using UTF-8), without creating a string of the whole document. The stream is not
+	 * closed.
+	 *
+	 * @param out the stream to write to; not null
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(OutputStream out) throws IOException {
+		final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		final StringBuilder sb = new StringBuilder(2 * BUFFER_SIZE);
+		final char[] chars = new char[2 * BUFFER_SIZE];
+		if (writingVariableDirectory) {
+			final String[] names = cnf.getVariables().getNames();
+			for (int i = 1; i < names.length; i++) {
+				writeVariableDirectoryEntry(sb, i, names[i]);
+				flush(writer, sb, chars, false);
+			}
+		}
+		writeProjectionLine(sb);
+		writeProblem(sb);
+		for (final LiteralSet clause : cnf.getClauses()) {
+			writeClause(sb, cnf.getInternalVariables().convertToInternal(clause));
+			flush(writer, sb, chars, false);
+		}
+		flush(writer, sb, chars, true);
+		writer.flush();
+	}
+
+	/**
+	 * Passes the content of the string builder to the writer, if it exceeds the buffer size or {@code force} is {@code true}.
+	 */
+	private void flush(Writer writer, StringBuilder sb, char[] chars, boolean force) throws IOException {
+		if (force || (sb.length() >= BUFFER_SIZE)) {
+			for (int start = 0; start < sb.length(); start += chars.length) {
+				final int end = Math.min(start + chars.length, sb.length());
+				sb.getChars(start, end, chars, 0);
+				writer.write(chars, 0, end - start);
+			}
+			sb.setLength(0);
+		}
+	}
+
 	/**
 	 * Writes the variable directory.
 	 *
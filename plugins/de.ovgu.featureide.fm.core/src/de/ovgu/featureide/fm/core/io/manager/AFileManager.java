@@ -319,7 +319,20 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 	}
 
 	protected void resetSnapshot(int changeIndicator) {
-		snapshot = null;
+		if (!keepsSnapshot(changeIndicator)) {
+			snapshot = null;
+		}
+	}
+
+	/**
+	 * Is called after the variable object was edited. Decides whether the current snapshot still equals the variable object. Snapshots are no copy-on-write
+	 * structures, so any actual change requires a new (full) copy with the next call of {@link #getSnapshot()}.
+	 *
+	 * @param changeIndicator the change indicator of the edit operation.
+	 * @return {@code true} if the edit did not change the variable object and the snapshot can be kept, {@code false} if it must be discarded.
+	 */
+	protected boolean keepsSnapshot(int changeIndicator) {
+		return false;
 	}
 
 	public void setModifying(boolean modifying) {
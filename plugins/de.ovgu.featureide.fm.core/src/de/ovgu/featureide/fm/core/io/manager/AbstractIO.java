@@ -104,6 +104,19 @@ public abstract class AbstractIO<T> {
 
 	public final FileHandler<T> getFileHandler(Path path) {
 		final FileHandler<T> fileHandler = new FileHandler<>(path, null, null);
+
+		final IPersistentFormat<T> streamFormat = getFormatManager().getFormatByContent(path);
+		if ((streamFormat != null) && streamFormat.supportsStreamRead()) {
+			try {
+				fileHandler.setObject(getFactoryManager().getFactory(path, streamFormat).create());
+				fileHandler.setFormat(streamFormat);
+				fileHandler.read();
+			} catch (final NoSuchExtensionException e) {
+				fileHandler.getLastProblems().add(new Problem(e));
+			}
+			return fileHandler;
+		}
+
 		final String content = fileHandler.readContent();
 
 		if (content != null) {
@@ -41,6 +41,10 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 	public static final int CHANGE_MANUAL = 2;
 	public static final int CHANGE_AUTOMATIC = 3;
 	public static final int CHANGE_CONFIGURABLE_ATTRIBUTE = 4;
+
+	/**
+	 * Indicates that an edit did not change the variable object at all (e.g., it was only read). Then, the current snapshot is kept.
+	 */
 	public static final int CHANGE_NOTHING = Integer.MAX_VALUE;
 
 	public static ConfigurationManager getInstance(Path path) {
@@ -72,6 +76,11 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 		return (IConfigurationFormat) super.getFormat();
 	}
 
+	@Override
+	protected boolean keepsSnapshot(int changeIndicator) {
+		return changeIndicator == CHANGE_NOTHING;
+	}
+
 	@Override
 	protected Configuration copyObject(Configuration oldObject) {
 		return oldObject.clone();
@@ -44,6 +44,10 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	public static final int CHANGE_ORDER = 3;
 	public static final int CHANGE_GRAPHICS = 4;
 	public static final int CHANGE_MODEL_PROPERTY = 5;
+
+	/**
+	 * Indicates that an edit did not change the variable object at all (e.g., it was only read). Then, the current snapshot is kept.
+	 */
 	public static final int CHANGE_NOTHING = Integer.MAX_VALUE;
 
 	private FeatureModelFormula persistentFormula = null;
@@ -135,6 +139,12 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		}
 	}
 
+	@Override
+	protected boolean keepsSnapshot(int changeIndicator) {
+		// Any other change indicator may come with changes to features or constraints (e.g., a feature's description), which are not tracked
+		return changeIndicator == CHANGE_NOTHING;
+	}
+
 	@Override
 	protected void setPersistentObject(IFeatureModel persistentObject) {
 		super.setPersistentObject(persistentObject);
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
@@ -60,6 +61,8 @@ public class SimpleFileHandler<T> {
 
 	private String content;
 
+	private boolean streamed;
+
 	/**
 	 * Retrieves the file name of a {@link Path} without its extension.
 	 *
@@ -204,6 +207,9 @@ public class SimpleFileHandler<T> {
 
 	public boolean read() {
 		problemList.clear();
+		if ((format != null) && format.supportsStreamRead()) {
+			return parseStream();
+		}
 		return parse(readContent());
 	}
 
@@ -212,12 +218,23 @@ public class SimpleFileHandler<T> {
 		return parse(getContent(inputStream));
 	}
 
+	/**
+	 * Returns the content of the file that was read last. If the file was parsed as a stream (see {@link IPersistentFormat#supportsStreamRead()}), the content
+	 * is read from the file on the first call of this method.
+	 *
+	 * @return the file content
+	 */
 	public String getRawContent() {
+		if ((content == null) && streamed) {
+			streamed = false;
+			readContent();
+		}
 		return content;
 	}
 
 	String readContent() {
 		content = null;
+		streamed = false;
 		if (Files.exists(path)) {
 			try {
 				content = new String(FileSystem.read(path), DEFAULT_CHARSET);
@@ -261,6 +278,26 @@ public class SimpleFileHandler<T> {
 		return !problemList.containsError();
 	}
 
+	/**
+	 * Parses the file directly from an input stream without reading its whole content into memory.
+	 */
+	boolean parseStream() {
+		content = null;
+		if (Files.exists(path)) {
+			streamed = true;
+			try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+				final List<Problem> parsingProblemList = format.getInstance().read(object, inputStream, path);
+				problemList.addAll(parsingProblemList);
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+			}
+		} else {
+			problemList.add(new Problem(new FileNotFoundException(path.toString())));
+		}
+
+		return !problemList.containsError();
+	}
+
 	public boolean write() {
 		problemList.clear();
 		try {
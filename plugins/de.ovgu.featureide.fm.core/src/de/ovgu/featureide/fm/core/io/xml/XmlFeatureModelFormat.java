@@ -27,6 +27,8 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -62,6 +64,7 @@ import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 
 /**
@@ -447,20 +450,30 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	}
 
 	protected String getDescription(final Node e) {
-		String description = e.getTextContent();
+		final String description = e.getTextContent();
+		return description != null ? normalizeDescription(description) : null;
+	}
+
+	/**
+	 * Removes line breaks and indentation that were added to the XML, but don't belong to the actual description.
+	 */
+	static String normalizeDescription(String description) {
 		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
 		// belong to the actual description.
-		if (description != null) {
-			description = description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
-		}
-		return description;
+		return description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
 	}
 
 	/**
 	 * Reads the tag string from the xml file into a set of tags for a constraint
 	 */
 	protected Set<String> getTags(final Node e) {
-		final String tags = e.getTextContent();
+		return splitTags(e.getTextContent());
+	}
+
+	/**
+	 * Splits a comma-separated tag string into a set of tags.
+	 */
+	static Set<String> splitTags(String tags) {
 		final String[] tagArray = tags.split(",");
 		final Set<String> tagSet = new HashSet<>();
 
@@ -708,6 +721,21 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		return ID;
 	}
 
+	@Override
+	public boolean supportsStreamRead() {
+		return true;
+	}
+
+	/**
+	 * Reads the feature model directly from the given stream without creating a DOM.
+	 *
+	 * @see XmlFeatureModelStreamReader
+	 */
+	@Override
+	public ProblemList read(IFeatureModel object, InputStream source, Path path) {
+		return new XmlFeatureModelStreamReader(object, validator).read(source);
+	}
+
 	@Override
 	public boolean supportsContent(CharSequence content) {
 		return super.supportsContent(content, CONTENT_REGEX);
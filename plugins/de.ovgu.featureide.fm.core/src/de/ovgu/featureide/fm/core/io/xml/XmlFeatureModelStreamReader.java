@@ -0,0 +1,527 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ABSTRACT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMMENTS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.HIDDEN;
+import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
+import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.prop4j.And;
+import org.prop4j.AtMost;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads a feature model in the FeatureIDE XML format directly from StAX events.<br> In contrast to {@link XmlFeatureModelFormat#read(IFeatureModel,
+ * CharSequence)}, neither the file content nor a DOM is held in memory. Features and constraints are created as soon as their elements are read. References
+ * to feature names (in constraints and the feature order) are checked after the document was read completely, so the order of the sections does not
+ * matter.
+ *
+ * @author agent
+ */
+class XmlFeatureModelStreamReader implements XMLFeatureModelTags {
+
+	private final IFeatureModel object;
+	private final IFeatureNameValidator validator;
+	private final ProblemList problems = new ProblemList();
+
+	private final List<String> referencedNames = new ArrayList<>();
+	private final List<Integer> referenceLines = new ArrayList<>();
+
+	private IFeatureModelFactory factory;
+	private XMLStreamReader reader;
+
+	XmlFeatureModelStreamReader(IFeatureModel object, IFeatureNameValidator validator) {
+		this.object = object;
+		this.validator = validator;
+	}
+
+	public ProblemList read(InputStream source) {
+		try {
+			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			reader = inputFactory.createXMLStreamReader(source);
+			try {
+				readDocument();
+			} finally {
+				reader.close();
+			}
+		} catch (final XMLStreamException e) {
+			problems.add(new Problem(e, e.getLocation() != null ? e.getLocation().getLineNumber() : 0));
+		} catch (final UnsupportedModelException e) {
+			problems.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	private void readDocument() throws XMLStreamException, UnsupportedModelException {
+		object.reset();
+		factory = FMFactoryManager.getInstance().getFactory(object);
+
+		if (!nextChild() || !FEATURE_MODEL.equals(reader.getLocalName())) {
+			throw new UnsupportedModelException("Node " + FEATURE_MODEL + " not defined!", 0);
+		}
+		final int featureModelLine = getLine();
+
+		final List<String> featureOrder = new ArrayList<>();
+		boolean structDefined = false;
+		while (nextChild()) {
+			switch (reader.getLocalName()) {
+			case STRUCT:
+				if (structDefined) {
+					addWarning("Multiple nodes of " + STRUCT + " defined.", getLine());
+				}
+				structDefined = true;
+				readFeatures(null);
+				break;
+			case CONSTRAINTS:
+				readConstraints();
+				break;
+			case COMMENTS:
+				readComments();
+				break;
+			case FEATURE_ORDER:
+				readFeatureOrder(featureOrder);
+				break;
+			case CALCULATIONS:
+				readCalculations();
+				break;
+			case PROPERTIES:
+				readFeatureModelProperties();
+				break;
+			default:
+				skipElement();
+				break;
+			}
+		}
+
+		if (!structDefined) {
+			throw new UnsupportedModelException("Node " + STRUCT + " not defined!", featureModelLine);
+		}
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		}
+		for (int i = 0; i < referencedNames.size(); i++) {
+			final String name = referencedNames.get(i);
+			if (object.getFeature(name) == null) {
+				throw new UnsupportedModelException("Feature \"" + name + "\" does not exists", referenceLines.get(i));
+			}
+		}
+		if (!featureOrder.isEmpty()) {
+			object.setFeatureOrderList(featureOrder);
+		}
+	}
+
+	private void readFeatures(IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextChild()) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case DESCRIPTION:
+				if (parent != null) {
+					final String description = readText();
+					if (!description.isEmpty()) {
+						parent.getProperty().setDescription(XmlFeatureModelFormat.normalizeDescription(description));
+					}
+				} else {
+					addWarning("Misplaced description element", getLine());
+					skipElement();
+				}
+				break;
+			case GRAPHICS:
+			case PROPERTY:
+				if (parent != null) {
+					readProperty(parent.getCustomProperties(), GRAPHICS.equals(nodeName) ? GRAPHICS : null);
+				} else {
+					addWarning("Misplaced " + nodeName + " element", getLine());
+					skipElement();
+				}
+				break;
+			case AND:
+			case OR:
+			case ALT:
+			case FEATURE:
+				readFeature(parent, nodeName);
+				break;
+			default:
+				addWarning("Unknown feature type: " + nodeName, getLine());
+				skipElement();
+				break;
+			}
+		}
+	}
+
+	private void readFeature(IFeature parent, String nodeName) throws XMLStreamException, UnsupportedModelException {
+		final int line = getLine();
+		boolean mandatory = false;
+		boolean _abstract = false;
+		boolean hidden = false;
+		String name = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(ABSTRACT)) {
+				_abstract = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(MANDATORY)) {
+				mandatory = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(NAME)) {
+				name = attributeValue;
+			} else if (attributeName.equals(HIDDEN)) {
+				hidden = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(COORDINATES)) {
+				// Legacy case, for backwards compatibility
+			} else {
+				addWarning("Unknown feature attribute: " + attributeName, line);
+			}
+		}
+
+		if (object.getFeature(name) != null) {
+			throw new UnsupportedModelException("Duplicate entry for feature: " + name, line);
+		}
+		if ((validator != null) && !validator.isValidFeatureName(name)) {
+			problems.add(new Problem(name + " is not a valid feature name", line, Severity.ERROR));
+		}
+
+		final IFeature feature = factory.createFeature(object, name);
+		feature.getStructure().setMandatory(true);
+		switch (nodeName) {
+		case AND:
+			feature.getStructure().setAnd();
+			break;
+		case OR:
+			feature.getStructure().setOr();
+			break;
+		case ALT:
+			feature.getStructure().setAlternative();
+			break;
+		default:
+			break;
+		}
+		feature.getStructure().setAbstract(_abstract);
+		feature.getStructure().setMandatory(mandatory);
+		feature.getStructure().setHidden(hidden);
+
+		object.addFeature(feature);
+		if (parent == null) {
+			object.getStructure().setRoot(feature.getStructure());
+		} else {
+			parent.getStructure().addChild(feature.getStructure());
+		}
+		readFeatures(feature);
+	}
+
+	private void readConstraints() throws XMLStreamException, UnsupportedModelException {
+		final int constraintsLine = getLine();
+		while (nextChild()) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(RULE)) {
+				final int line = getLine();
+				final IConstraint constraint = factory.createConstraint(object, null);
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (!attributeName.equals(COORDINATES)) {
+						addWarning("Unknown constraint attribute: " + attributeName, line);
+					}
+				}
+				final LinkedList<Node> constraintNodeList = readConstraintNodes(constraint);
+				if (constraintNodeList.isEmpty()) {
+					addWarning("Missing elements", constraintsLine);
+				} else if (constraintNodeList.size() > 1) {
+					addWarning("Too many elements", constraintsLine);
+				} else {
+					constraint.setNode(constraintNodeList.getFirst());
+					object.addConstraint(constraint);
+				}
+			} else {
+				addWarning("Unknown constraint node: " + nodeName, getLine());
+				skipElement();
+			}
+		}
+	}
+
+	private LinkedList<Node> readConstraintNodes(IConstraint parent) throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<Node> nodes = new LinkedList<>();
+		while (nextChild()) {
+			final String nodeName = reader.getLocalName();
+			final int line = getLine();
+			switch (nodeName) {
+			case DESCRIPTION:
+				if (parent != null) {
+					parent.setDescription(XmlFeatureModelFormat.normalizeDescription(readText()));
+				} else {
+					addWarning("Misplaced description element", line);
+					skipElement();
+				}
+				break;
+			case GRAPHICS:
+			case PROPERTY:
+				if (parent != null) {
+					readProperty(parent.getCustomProperties(), GRAPHICS.equals(nodeName) ? GRAPHICS : null);
+				} else {
+					addWarning("Misplaced " + nodeName + " element", line);
+					skipElement();
+				}
+				break;
+			case TAGS:
+				if (parent != null) {
+					parent.setTags(XmlFeatureModelFormat.splitTags(readText()));
+				} else {
+					addWarning("Misplaced tags element", line);
+					skipElement();
+				}
+				break;
+			case DISJ:
+				nodes.add(new Or(readConstraintNodes(null)));
+				break;
+			case CONJ:
+				nodes.add(new And(readConstraintNodes(null)));
+				break;
+			case EQ: {
+				final LinkedList<Node> children = readOperands(2, line);
+				nodes.add(new Equals(children.get(0), children.get(1)));
+				break;
+			}
+			case IMP: {
+				final LinkedList<Node> children = readOperands(2, line);
+				nodes.add(new Implies(children.get(0), children.get(1)));
+				break;
+			}
+			case NOT:
+				nodes.add(new Not(readOperands(1, line).getFirst()));
+				break;
+			case ATMOST1:
+				nodes.add(new AtMost(1, readConstraintNodes(null)));
+				break;
+			case VAR:
+				final String featureName = readText();
+				referencedNames.add(featureName);
+				referenceLines.add(line);
+				nodes.add(new Literal(featureName));
+				break;
+			default:
+				addWarning("Unknown constraint type: " + nodeName, line);
+				skipElement();
+				break;
+			}
+		}
+		return nodes;
+	}
+
+	private LinkedList<Node> readOperands(int minimumNumber, int line) throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<Node> children = readConstraintNodes(null);
+		if (children.size() < minimumNumber) {
+			throw new UnsupportedModelException("Missing elements", line);
+		}
+		return children;
+	}
+
+	private void readComments() throws XMLStreamException {
+		while (nextChild()) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(readText());
+			} else {
+				addWarning("Unknown comment attribute: " + nodeName, getLine());
+				skipElement();
+			}
+		}
+	}
+
+	private void readFeatureOrder(List<String> featureOrder) throws XMLStreamException, UnsupportedModelException {
+		final int line = getLine();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				referencedNames.add(attributeValue);
+				referenceLines.add(line);
+				featureOrder.add(attributeValue);
+			} else {
+				throw new UnsupportedModelException("Unknown feature order attribute: " + attributeName, line);
+			}
+		}
+		while (nextChild()) {
+			readFeatureOrder(featureOrder);
+		}
+	}
+
+	private void readCalculations() throws XMLStreamException {
+		final int line = getLine();
+		for (final String key : new String[] { CALCULATE_AUTO, CALCULATE_CONSTRAINTS, CALCULATE_FEATURES, CALCULATE_REDUNDANT, CALCULATE_TAUTOLOGY }) {
+			final String value = reader.getAttributeValue(null, key);
+			if (value != null) {
+				if (object.getProperty().has(key, CALCULATIONS)) {
+					addWarning("Redundant property definition for key: " + key, line);
+				} else {
+					object.getProperty().set(key, CALCULATIONS, value);
+				}
+			}
+		}
+		skipElement();
+	}
+
+	private void readFeatureModelProperties() throws XMLStreamException {
+		while (nextChild()) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case GRAPHICS:
+			case CALCULATIONS:
+				readProperty(object.getProperty(), nodeName);
+				break;
+			case PROPERTY:
+				readProperty(object.getProperty(), null);
+				break;
+			default:
+				skipElement();
+				break;
+			}
+		}
+	}
+
+	private void readProperty(IPropertyContainer properties, String type) throws XMLStreamException {
+		final int line = getLine();
+		final String key = reader.getAttributeValue(null, KEY);
+		final String value = reader.getAttributeValue(null, VALUE);
+		if ((key == null) || (value == null)) {
+			addWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, line);
+		} else {
+			if (type == null) {
+				final String dataType = reader.getAttributeValue(null, TYPE);
+				type = dataType != null ? dataType : TYPE_CUSTOM;
+			}
+			if (properties.has(key, type)) {
+				addWarning("Redundant property definition for key: " + key, line);
+			} else {
+				properties.set(key, type, value);
+			}
+		}
+		skipElement();
+	}
+
+	/**
+	 * Moves the reader to the start of the next child element of the current element or to the end of the current element.
+	 *
+	 * @return {@code true} if the reader is at the start of a child element, {@code false} if it is at the end of the current element (or document).
+	 */
+	private boolean nextChild() throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the reader to the end of the current element.
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Reads the text content of the current element (including the text of all nested elements) and moves the reader to the end of the element.
+	 *
+	 * @return the text content
+	 */
+	private String readText() throws XMLStreamException {
+		final StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				sb.append(reader.getText());
+				break;
+			default:
+				break;
+			}
+		}
+		return sb.toString();
+	}
+
+	private int getLine() {
+		return reader.getLocation().getLineNumber();
+	}
+
+	private void addWarning(String message, int line) {
+		problems.add(new Problem(message, line, Severity.WARNING));
+	}
+
+}
@@ -0,0 +1,443 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Processes items in a sequence of stages that run concurrently. The items are created by a {@link Source} and are handed from one stage to the next via
+ * bounded blocking queues. Thus, a stage waits (without polling) if there is no input, and a fast stage waits if the next stage cannot keep up. Each stage
+ * has its own number of worker threads and records its own {@link Stage statistics}.<br> <br> If a stage fails to process an item, the error is passed to
+ * the {@link ErrorHandler}, the item is dropped, and the stage continues with the next item.
+ *
+ * @param <T> the type of the processed items
+ *
+ * @author agent
+ */
+public class Pipeline<T> implements LongRunningMethod<Boolean> {
+
+	/**
+	 * Receives the items of a stage and hands them to the next stage. Blocks if the input queue of the next stage is full.
+	 */
+	@FunctionalInterface
+	public interface Output<T> {
+
+		void put(T item) throws InterruptedException;
+
+	}
+
+	/**
+	 * Creates all items of a pipeline.
+	 */
+	@FunctionalInterface
+	public interface Source<T> {
+
+		void produce(Output<T> output) throws Exception;
+
+	}
+
+	/**
+	 * Processes a single item. The item is passed to the next stage afterwards, unless an exception is thrown.
+	 */
+	@FunctionalInterface
+	public interface Task<T> {
+
+		void process(T item) throws Exception;
+
+	}
+
+	/**
+	 * Processes a single item and decides, which items are passed to the next stage (e.g., none, to collect all items and pass them in a different order).
+	 */
+	@FunctionalInterface
+	public interface Processor<T> {
+
+		void process(T item, Output<T> output) throws Exception;
+
+		/**
+		 * Called once after all items of this stage were processed.
+		 *
+		 * @param output the output of this stage
+		 * @throws Exception if an error occurs
+		 */
+		default void finish(Output<T> output) throws Exception {}
+
+	}
+
+	/**
+	 * Handles an error that occurred while processing an item.
+	 */
+	@FunctionalInterface
+	public interface ErrorHandler<T> {
+
+		/**
+		 * @param stage the stage in which the error occurred
+		 * @param item the item that could not be processed or {@code null} if the error did not occur for a specific item
+		 * @param exception the error
+		 */
+		void handleError(Stage stage, T item, Exception exception);
+
+	}
+
+	/**
+	 * A stage of the pipeline, which also records statistics about its work.
+	 */
+	public static final class Stage {
+
+		private final String name;
+		private final int parallelism;
+
+		private final AtomicInteger processedItems = new AtomicInteger();
+		private final AtomicInteger failedItems = new AtomicInteger();
+		private final AtomicLong processingTime = new AtomicLong();
+		private final AtomicLong blockedTime = new AtomicLong();
+		private final AtomicLong startTime = new AtomicLong();
+		private final AtomicLong endTime = new AtomicLong();
+
+		private Stage(String name, int parallelism) {
+			this.name = name;
+			this.parallelism = parallelism;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		/**
+		 * @return the number of items that were processed successfully
+		 */
+		public int getProcessedItems() {
+			return processedItems.get();
+		}
+
+		/**
+		 * @return the number of items that could not be processed
+		 */
+		public int getFailedItems() {
+			return failedItems.get();
+		}
+
+		/**
+		 * @return the time in milliseconds that all workers of this stage spent processing items, without the time they were blocked by the next stage
+		 */
+		public long getProcessingTime() {
+			return TimeUnit.NANOSECONDS.toMillis(processingTime.get() - blockedTime.get());
+		}
+
+		/**
+		 * @return the time in milliseconds that all workers of this stage were blocked, because the input queue of the next stage was full
+		 */
+		public long getBlockedTime() {
+			return TimeUnit.NANOSECONDS.toMillis(blockedTime.get());
+		}
+
+		/**
+		 * @return the time in milliseconds from the start of the first worker until the end of the last worker (or until now, if the stage is still running)
+		 */
+		public long getElapsedTime() {
+			final long start = startTime.get();
+			if (start == 0) {
+				return 0;
+			}
+			final long end = endTime.get();
+			return TimeUnit.NANOSECONDS.toMillis((end == 0 ? System.nanoTime() : end) - start);
+		}
+
+		/**
+		 * @return the number of processed items per second
+		 */
+		public double getThroughput() {
+			final long elapsedTime = getElapsedTime();
+			return elapsedTime == 0 ? 0 : (processedItems.get() * 1000.0) / elapsedTime;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s [parallelism=%d, processed=%d, failed=%d, throughput=%.2f/s, processing=%dms, blocked=%dms, elapsed=%dms]", name,
+					parallelism, getProcessedItems(), getFailedItems(), getThroughput(), getProcessingTime(), getBlockedTime(), getElapsedTime());
+		}
+
+	}
+
+	private static final Object END = new Object();
+
+	private final List<Stage> stages = new ArrayList<>();
+	private final List<Processor<T>> processors = new ArrayList<>();
+
+	private final Source<T> source;
+	private final int queueCapacity;
+
+	private ErrorHandler<T> errorHandler = (stage, item, exception) -> Logger.logError(exception);
+
+	private final List<Thread> threads = new ArrayList<>();
+	private final AtomicBoolean failed = new AtomicBoolean();
+	private final AtomicBoolean canceled = new AtomicBoolean();
+
+	/**
+	 * @param sourceName the name of the first stage
+	 * @param source creates the items
+	 * @param queueCapacity the maximum number of items in the input queue of each stage
+	 */
+	public Pipeline(String sourceName, Source<T> source, int queueCapacity) {
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+		}
+		this.source = source;
+		this.queueCapacity = queueCapacity;
+		stages.add(new Stage(sourceName, 1));
+	}
+
+	/**
+	 * Appends a stage that passes each successfully processed item to the next stage.
+	 *
+	 * @param name the name of the stage
+	 * @param parallelism the number of worker threads
+	 * @param task the work for each item
+	 * @return this pipeline
+	 */
+	public Pipeline<T> addStage(String name, int parallelism, Task<T> task) {
+		return addProcessingStage(name, parallelism, (item, output) -> {
+			task.process(item);
+			output.put(item);
+		});
+	}
+
+	/**
+	 * Appends a stage that decides itself, which items are passed to the next stage.
+	 *
+	 * @param name the name of the stage
+	 * @param parallelism the number of worker threads
+	 * @param processor the work for each item
+	 * @return this pipeline
+	 */
+	public Pipeline<T> addProcessingStage(String name, int parallelism, Processor<T> processor) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism of stage " + name + " must be positive: " + parallelism);
+		}
+		stages.add(new Stage(name, parallelism));
+		processors.add(processor);
+		return this;
+	}
+
+	public void setErrorHandler(ErrorHandler<T> errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @return all stages, starting with the source
+	 */
+	public List<Stage> getStages() {
+		return Collections.unmodifiableList(stages);
+	}
+
+	/**
+	 * Runs the pipeline until all items passed all stages.
+	 *
+	 * @return {@code true} if all items were processed without errors
+	 */
+	@Override
+	public Boolean execute(IMonitor<Boolean> monitor) throws Exception {
+		final int numberOfStages = stages.size();
+		final List<BlockingQueue<Object>> queues = new ArrayList<>(numberOfStages);
+		queues.add(null);
+		int numberOfThreads = 1;
+		for (int i = 1; i < numberOfStages; i++) {
+			queues.add(new ArrayBlockingQueue<>(queueCapacity));
+			numberOfThreads += stages.get(i).parallelism;
+		}
+
+		final CountDownLatch finished = new CountDownLatch(numberOfThreads);
+		failed.set(false);
+		canceled.set(false);
+		synchronized (threads) {
+			threads.clear();
+			threads.add(new Thread(() -> runSource(queues, finished), stages.get(0).name));
+			for (int i = 1; i < numberOfStages; i++) {
+				final int stageIndex = i;
+				final Stage stage = stages.get(i);
+				final AtomicInteger activeWorkers = new AtomicInteger(stage.parallelism);
+				for (int j = 0; j < stage.parallelism; j++) {
+					threads.add(new Thread(() -> runWorker(stageIndex, queues, activeWorkers, finished), stage.name + " " + j));
+				}
+			}
+			for (final Thread thread : threads) {
+				thread.start();
+			}
+		}
+
+		try {
+			while (!finished.await(100, TimeUnit.MILLISECONDS)) {
+				monitor.checkCancel();
+			}
+		} catch (final MethodCancelException | InterruptedException e) {
+			cancel();
+			throw e;
+		}
+		if (canceled.get()) {
+			throw new MethodCancelException();
+		}
+		return !failed.get();
+	}
+
+	/**
+	 * Stops all workers. Items that are not processed yet are discarded.
+	 */
+	public void cancel() {
+		canceled.set(true);
+		synchronized (threads) {
+			for (final Thread thread : threads) {
+				thread.interrupt();
+			}
+		}
+	}
+
+	private void runSource(List<BlockingQueue<Object>> queues, CountDownLatch finished) {
+		final Stage stage = stages.get(0);
+		final long start = System.nanoTime();
+		stage.startTime.compareAndSet(0, start);
+		try {
+			source.produce(createOutput(stage, 1, queues));
+			endStage(1, queues);
+		} catch (final InterruptedException | MethodCancelException e) {
+			cancel();
+		} catch (final Exception e) {
+			failed.set(true);
+			errorHandler.handleError(stage, null, e);
+			endStage(1, queues);
+		} finally {
+			final long end = System.nanoTime();
+			stage.processingTime.addAndGet(end - start);
+			stage.endTime.set(end);
+			finished.countDown();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void runWorker(int stageIndex, List<BlockingQueue<Object>> queues, AtomicInteger activeWorkers, CountDownLatch finished) {
+		final Stage stage = stages.get(stageIndex);
+		final Processor<T> processor = processors.get(stageIndex - 1);
+		final BlockingQueue<Object> input = queues.get(stageIndex);
+		final Output<T> output = createOutput(stage, stageIndex + 1, queues);
+		stage.startTime.compareAndSet(0, System.nanoTime());
+		try {
+			while (true) {
+				final Object next = input.take();
+				if (next == END) {
+					break;
+				}
+				final T item = (T) next;
+				final long start = System.nanoTime();
+				try {
+					processor.process(item, output);
+					stage.processedItems.incrementAndGet();
+				} catch (final InterruptedException | MethodCancelException e) {
+					cancel();
+					return;
+				} catch (final Exception e) {
+					stage.failedItems.incrementAndGet();
+					failed.set(true);
+					errorHandler.handleError(stage, item, e);
+				} finally {
+					stage.processingTime.addAndGet(System.nanoTime() - start);
+				}
+			}
+			if (activeWorkers.decrementAndGet() == 0) {
+				final long start = System.nanoTime();
+				try {
+					processor.finish(output);
+				} catch (final InterruptedException | MethodCancelException e) {
+					cancel();
+					return;
+				} catch (final Exception e) {
+					failed.set(true);
+					errorHandler.handleError(stage, null, e);
+				} finally {
+					stage.processingTime.addAndGet(System.nanoTime() - start);
+				}
+				stage.endTime.set(System.nanoTime());
+				endStage(stageIndex + 1, queues);
+			}
+		} catch (final InterruptedException e) {
+			cancel();
+		} finally {
+			finished.countDown();
+		}
+	}
+
+	/**
+	 * Signals all workers of the given stage that there is no more input.
+	 */
+	private void endStage(int stageIndex, List<BlockingQueue<Object>> queues) {
+		if (stageIndex < stages.size()) {
+			final BlockingQueue<Object> queue = queues.get(stageIndex);
+			try {
+				for (int i = 0; i < stages.get(stageIndex).parallelism; i++) {
+					queue.put(END);
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private Output<T> createOutput(Stage stage, int nextStageIndex, List<BlockingQueue<Object>> queues) {
+		// items of the source are counted when they are handed over
+		final boolean isSource = nextStageIndex == 1;
+		if (nextStageIndex < stages.size()) {
+			final BlockingQueue<Object> queue = queues.get(nextStageIndex);
+			return item -> {
+				if (!queue.offer(item)) {
+					final long start = System.nanoTime();
+					queue.put(item);
+					stage.blockedTime.addAndGet(System.nanoTime() - start);
+				}
+				if (isSource) {
+					stage.processedItems.incrementAndGet();
+				}
+			};
+		} else {
+			return item -> {
+				if (isSource) {
+					stage.processedItems.incrementAndGet();
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Transforms propositional formulas into CNF. Uses the distributive law as long as the number of resulting clauses stays below a given threshold. Otherwise,
+ * sub formulas are replaced by auxiliary variables (Tseitin transformation).<br> Each auxiliary variable is defined to be equivalent to the sub formula it
+ * replaces. Thus, the resulting CNF has the same number of solutions as the original formula.
+ *
+ * @author agent
+ */
+public class HybridCNFTransformer {
+
+	private static final long MAX_ESTIMATE = Integer.MAX_VALUE;
+
+	private final int distributionThreshold;
+	private final Supplier<String> auxiliaryVariableSupplier;
+
+	private IMonitor<?> monitor = new NullMonitor<>();
+
+	/**
+	 * @param distributionThreshold the maximum number of clauses that may result from applying the distributive law to a disjunction
+	 * @param auxiliaryVariableSupplier creates a new unique name for each auxiliary variable
+	 */
+	public HybridCNFTransformer(int distributionThreshold, Supplier<String> auxiliaryVariableSupplier) {
+		this.distributionThreshold = Math.max(1, distributionThreshold);
+		this.auxiliaryVariableSupplier = auxiliaryVariableSupplier;
+	}
+
+	public void setMonitor(IMonitor<?> monitor) {
+		if (monitor != null) {
+			this.monitor = monitor;
+		}
+	}
+
+	/**
+	 * Transforms the given formula into a list of clauses.
+	 *
+	 * @param node the formula
+	 * @return the clauses of the resulting CNF (each clause is an {@link Or} node containing only {@link Literal literals})
+	 */
+	public List<Node> transform(Node node) {
+		final Node nnf = node.clone().eliminateNonCNFOperators().deMorgan();
+		final List<Node> clauses = new ArrayList<>();
+		transform(nnf, clauses);
+		return clauses;
+	}
+
+	private void transform(Node node, List<Node> clauses) {
+		monitor.checkCancel();
+		if (node instanceof Literal) {
+			clauses.add(new Or(node.clone()));
+		} else if (node instanceof And) {
+			for (final Node child : node.getChildren()) {
+				transform(child, clauses);
+			}
+		} else {
+			final List<Node> children = new ArrayList<>();
+			collect(node, Or.class, children);
+
+			final List<Integer> conjunctionIndexes = new ArrayList<>();
+			for (int i = 0; i < children.size(); i++) {
+				if (children.get(i) instanceof And) {
+					conjunctionIndexes.add(i);
+				}
+			}
+			Collections.sort(conjunctionIndexes, Comparator.comparingLong((Integer i) -> estimateClauses(children.get(i))).reversed());
+			for (int i = 0; (i < conjunctionIndexes.size()) && (estimateClauses(children) > distributionThreshold); i++) {
+				final int index = conjunctionIndexes.get(i);
+				children.set(index, defineAuxiliaryVariable(children.get(index), clauses));
+			}
+			distribute(children, clauses);
+		}
+	}
+
+	/**
+	 * Creates a new auxiliary variable that is equivalent to the given conjunction and adds the defining clauses.
+	 *
+	 * @param conjunction the conjunction to replace
+	 * @param clauses clauses to add to; out variable
+	 * @return the positive literal of the new auxiliary variable
+	 */
+	private Literal defineAuxiliaryVariable(Node conjunction, List<Node> clauses) {
+		final String auxiliaryVariable = auxiliaryVariableSupplier.get();
+		final List<Node> conjuncts = new ArrayList<>();
+		collect(conjunction, And.class, conjuncts);
+
+		// auxiliary variable implies each conjunct
+		for (final Node conjunct : conjuncts) {
+			transform(new Or(new Literal(auxiliaryVariable, false), conjunct), clauses);
+		}
+
+		// conjunction implies auxiliary variable
+		final List<Node> negatedConjuncts = new ArrayList<>(conjuncts.size() + 1);
+		for (final Node conjunct : conjuncts) {
+			negatedConjuncts.add(new Not(conjunct.clone()).deMorgan());
+		}
+		negatedConjuncts.add(new Literal(auxiliaryVariable, true));
+		transform(new Or(negatedConjuncts), clauses);
+
+		return new Literal(auxiliaryVariable, true);
+	}
+
+	private void distribute(List<Node> disjuncts, List<Node> clauses) {
+		final Node cnf = new CNFDistributiveLawTransformer().transform(new Or(disjuncts).simplifyTree());
+		for (final Node clause : cnf.getChildren()) {
+			clauses.add((clause instanceof Or) ? clause : new Or(clause));
+		}
+	}
+
+	/**
+	 * Collects all children of the given node while flattening nested nodes of the same type.
+	 */
+	private static void collect(Node node, Class<? extends Node> type, List<Node> children) {
+		for (final Node child : node.getChildren()) {
+			if (type.isInstance(child)) {
+				collect(child, type, children);
+			} else {
+				children.add(child);
+			}
+		}
+	}
+
+	private long estimateClauses(List<Node> disjuncts) {
+		long product = 1;
+		for (final Node disjunct : disjuncts) {
+			product = multiply(product, estimateClauses(disjunct));
+		}
+		return product;
+	}
+
+	private long estimateClauses(Node node) {
+		if (node instanceof Literal) {
+			return 1;
+		} else if (node instanceof And) {
+			long sum = 0;
+			for (final Node child : node.getChildren()) {
+				sum = Math.min(MAX_ESTIMATE, sum + estimateClauses(child));
+			}
+			return sum;
+		} else {
+			return estimateClauses(Arrays.asList(node.getChildren()));
+		}
+	}
+
+	private static long multiply(long a, long b) {
+		return ((a >= MAX_ESTIMATE) || (b >= MAX_ESTIMATE)) ? MAX_ESTIMATE : Math.min(MAX_ESTIMATE, a * b);
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package org.prop4j.explain.solvers;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -67,4 +68,15 @@ public interface MusExtractor extends MutableSatSolver {
 	 * @throws IllegalStateException if the formula in this solver is satisfiable
 	 */
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException;
+
+	/**
+	 * Returns an iterator over the minimal unsatisfiable subsets of the problem referenced by index. Implementations may compute the subsets lazily while
+	 * iterating.
+	 *
+	 * @return an iterator over the minimal unsatisfiable subsets of the problem referenced by index
+	 * @throws IllegalStateException if the formula in this solver is satisfiable
+	 */
+	public default Iterator<Set<Integer>> getMinimalUnsatisfiableSubsetIndexIterator() throws IllegalStateException {
+		return getAllMinimalUnsatisfiableSubsetIndexes().iterator();
+	}
 }
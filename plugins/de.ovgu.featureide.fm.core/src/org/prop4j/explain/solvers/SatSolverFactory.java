@@ -58,4 +58,16 @@ public abstract class SatSolverFactory {
 	 * @return an instance of {@link MusExtractor}
 	 */
 	public abstract MusExtractor getMusExtractor();
+
+	/**
+	 * Returns an instance of {@link MusExtractor} whose effort for each request is bounded by the given budget. By default, the budget is ignored and the
+	 * result of {@link #getMusExtractor()} is returned.
+	 *
+	 * @param timeout the timeout for each request in milliseconds; zero or less means no timeout
+	 * @param maximumMusCount the maximum number of MUSes returned for each request; zero or less means no limit
+	 * @return an instance of {@link MusExtractor}
+	 */
+	public MusExtractor getMusExtractor(long timeout, int maximumMusCount) {
+		return getMusExtractor();
+	}
 }
@@ -0,0 +1,406 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.prop4j.Node;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.VarOrderHeap;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * <p> A MUS extractor using an incremental Sat4J oracle, in which each clause is guarded by a selector variable. A single MUS is computed by deletion-based
+ * shrinking of the unsatisfiable core of the oracle. Further MUSes are enumerated lazily using a second oracle that keeps track of the already explored clause
+ * subsets (MARCO). The oracle is reused for all requests until the clauses of the problem change. </p>
+ *
+ * <p> The effort for each request is bounded by a {@link #setTimeout(long) timeout} and a {@link #setMaximumMusCount(int) maximum number of MUSes}. If the
+ * timeout is exceeded, only the MUSes that were minimized completely before are returned. Thus, a request may return no MUS at all. Then,
+ * {@link #getMinimalUnsatisfiableSubsetIndexes()} returns an empty set and callers can fall back to another explanation (or none). </p>
+ *
+ * @author agent
+ */
+public class Sat4jIncrementalMusExtractor extends Sat4jMutableSatSolver implements MusExtractor {
+
+	/** The timeout for each request in milliseconds. Zero or less means no timeout. */
+	private long timeout = 0;
+	/** The maximum number of MUSes returned for each request. Zero or less means no limit. */
+	private int maximumMusCount = 0;
+
+	/** The oracle in which each clause is guarded by a selector variable. Created lazily and reset when the clauses change. */
+	private Solver<?> selectorOracle;
+	/** The clauses of the problem as Sat4J indexes. Created and reset together with the selector oracle. */
+	private int[][] clauseLiterals;
+	/** The Sat4J index of the first selector variable. Created and reset together with the selector oracle. */
+	private int selectorOffset;
+
+	/**
+	 * Returns the timeout for each request.
+	 *
+	 * @return the timeout in milliseconds; zero or less means no timeout
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the timeout for each request.
+	 *
+	 * @param timeout the timeout in milliseconds; zero or less means no timeout
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Returns the maximum number of MUSes returned for each request.
+	 *
+	 * @return the maximum number of MUSes; zero or less means no limit
+	 */
+	public int getMaximumMusCount() {
+		return maximumMusCount;
+	}
+
+	/**
+	 * Sets the maximum number of MUSes returned for each request.
+	 *
+	 * @param maximumMusCount the maximum number of MUSes; zero or less means no limit
+	 */
+	public void setMaximumMusCount(int maximumMusCount) {
+		this.maximumMusCount = maximumMusCount;
+	}
+
+	@Override
+	public int addClause(Node clause) {
+		selectorOracle = null;
+		return super.addClause(clause);
+	}
+
+	@Override
+	protected Node removeClause(int index) {
+		selectorOracle = null;
+		return super.removeClause(index);
+	}
+
+	@Override
+	public Set<Node> getMinimalUnsatisfiableSubset() throws IllegalStateException {
+		return getClauseSetFromIndexSet(getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> If the timeout is exceeded before the first MUS has been minimized completely, an empty set is returned, which marks the result as incomplete. </p>
+	 */
+	@Override
+	public Set<Integer> getMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		final Iterator<Set<Integer>> it = getMinimalUnsatisfiableSubsetIndexIterator();
+		return it.hasNext() ? it.next() : Collections.<Integer> emptySet();
+	}
+
+	@Override
+	public List<Set<Node>> getAllMinimalUnsatisfiableSubsets() throws IllegalStateException {
+		return getClauseSetsFromIndexSets(getAllMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Override
+	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		final List<Set<Integer>> muses = new ArrayList<>();
+		for (final Iterator<Set<Integer>> it = getMinimalUnsatisfiableSubsetIndexIterator(); it.hasNext();) {
+			muses.add(it.next());
+		}
+		return muses;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> The MUSes are computed lazily. The budget of the request starts with the call of this method and ends as soon as the timeout is exceeded or the
+	 * maximum number of MUSes has been returned. The returned iterator must not be used after the problem has been modified. </p>
+	 */
+	@Override
+	public Iterator<Set<Integer>> getMinimalUnsatisfiableSubsetIndexIterator() throws IllegalStateException {
+		if (isSatisfiable()) {
+			throw new IllegalStateException("Problem is satisfiable");
+		}
+		if (selectorOracle == null) {
+			initSelectorOracle();
+		}
+		return new MusIterator();
+	}
+
+	/**
+	 * Creates the selector oracle from the current clauses.
+	 */
+	private void initSelectorOracle() {
+		final int clauseCount = getClauseCount();
+		selectorOffset = getOracle().nVars() + 1;
+		clauseLiterals = new int[clauseCount][];
+
+		final Solver<?> oracle = (Solver<?>) SolverFactory.newDefault();
+		oracle.setDBSimplificationAllowed(false);
+		oracle.setVerbose(false);
+		oracle.newVar((selectorOffset + clauseCount) - 1);
+		oracle.setExpectedNumberOfClauses(clauseCount);
+		for (int i = 0; i < clauseCount; i++) {
+			final Node clause = getClause(i);
+			final int[] literals = clause.getChildren().length == 0 ? new int[0] : getVectorFromClause(clause).toArray();
+			clauseLiterals[i] = literals;
+			final int[] guardedLiterals = new int[literals.length + 1];
+			System.arraycopy(literals, 0, guardedLiterals, 0, literals.length);
+			guardedLiterals[literals.length] = -(selectorOffset + i);
+			try {
+				oracle.addClause(new VecInt(guardedLiterals));
+			} catch (final ContradictionException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		selectorOracle = oracle;
+	}
+
+	/**
+	 * Lazily enumerates the MUSes of the current problem. Each seed, i.e., a subset of the clauses that has neither been explored as a subset of a satisfiable
+	 * subset nor as a superset of a MUS, is either grown to a maximal satisfiable subset or shrunk to a MUS. Explored subsets are blocked in the map oracle.
+	 */
+	private class MusIterator implements Iterator<Set<Integer>> {
+
+		private final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		private final int[] assumptions = getVectorFromAssumptions().toArray();
+		private final int clauseCount = clauseLiterals.length;
+		private final Solver<?> mapOracle;
+
+		private Set<Integer> next = null;
+		private int musCount = 0;
+		private boolean done = false;
+
+		private MusIterator() {
+			mapOracle = (Solver<?>) SolverFactory.newDefault();
+			mapOracle.setVerbose(false);
+			mapOracle.setTimeoutMs(timeout > 0 ? timeout : Integer.MAX_VALUE);
+			mapOracle.setOrder(new VarOrderHeap(new PositiveLiteralSelectionStrategy()));
+			mapOracle.newVar(clauseCount);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ((next == null) && !done) {
+				next = computeNext();
+				if (next == null) {
+					done = true;
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public Set<Integer> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final Set<Integer> mus = next;
+			next = null;
+			musCount++;
+			if ((maximumMusCount > 0) && (musCount >= maximumMusCount)) {
+				done = true;
+			}
+			return mus;
+		}
+
+		private Set<Integer> computeNext() {
+			try {
+				while (mapOracle.isSatisfiable(true)) {
+					final List<Integer> seed = new ArrayList<>(clauseCount);
+					for (final int literal : mapOracle.model()) {
+						if (literal > 0) {
+							seed.add(literal - 1);
+						}
+					}
+					if (isSatisfiable(seed)) {
+						blockSubsets(grow(seed));
+					} else {
+						final Set<Integer> mus = shrink(seed);
+						try {
+							blockSupersets(mus);
+						} catch (final ContradictionException e) {
+							done = true;
+						}
+						return mus;
+					}
+				}
+			} catch (final ContradictionException e) {
+			} catch (final TimeoutException e) {
+				// Subsets that were not minimized completely are no MUSes and are therefore not returned
+			}
+			return null;
+		}
+
+		/**
+		 * Adds clauses to the given satisfiable subset until it is a maximal satisfiable subset.
+		 */
+		private List<Integer> grow(List<Integer> subset) throws TimeoutException {
+			final boolean[] contained = new boolean[clauseCount];
+			for (final int index : subset) {
+				contained[index] = true;
+			}
+			addSatisfiedClauses(subset, contained);
+			for (int i = 0; i < clauseCount; i++) {
+				if (!contained[i]) {
+					subset.add(i);
+					if (isSatisfiable(subset)) {
+						contained[i] = true;
+						addSatisfiedClauses(subset, contained);
+					} else {
+						subset.remove(subset.size() - 1);
+					}
+				}
+			}
+			return subset;
+		}
+
+		/**
+		 * Adds all clauses that are satisfied by the current model of the selector oracle.
+		 */
+		private void addSatisfiedClauses(List<Integer> subset, boolean[] contained) {
+			final int[] model = selectorOracle.model();
+			for (int i = 0; i < clauseCount; i++) {
+				if (!contained[i]) {
+					for (final int literal : clauseLiterals[i]) {
+						final int var = Math.abs(literal);
+						if ((var <= model.length) && (model[var - 1] == literal)) {
+							contained[i] = true;
+							subset.add(i);
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Removes clauses from the given unsatisfiable subset until it is minimal. After each unsatisfiable check, the subset is reduced to the core returned
+		 * by the oracle.
+		 *
+		 * @return a MUS
+		 * @throws TimeoutException if the timeout is exceeded
+		 */
+		private Set<Integer> shrink(List<Integer> subset) throws TimeoutException {
+			List<Integer> current = getCore(subset);
+			int position = 0;
+			while (position < current.size()) {
+				final List<Integer> candidate = new ArrayList<>(current);
+				candidate.remove(position);
+				if (isSatisfiable(candidate)) {
+					position++;
+				} else {
+					final List<Integer> core = getCore(candidate);
+					final List<Integer> criticalClauses = current.subList(0, position);
+					current = new ArrayList<>(criticalClauses);
+					for (final int index : core) {
+						if (!criticalClauses.contains(index)) {
+							current.add(index);
+						}
+					}
+				}
+			}
+			return new TreeSet<>(current);
+		}
+
+		/**
+		 * Returns the clauses of the given subset that are part of the last unsatisfiable core of the selector oracle.
+		 */
+		private List<Integer> getCore(List<Integer> subset) {
+			final IVecInt explanation = selectorOracle.unsatExplanation();
+			if (explanation == null) {
+				return subset;
+			}
+			final boolean[] inCore = new boolean[clauseCount];
+			for (int i = 0; i < explanation.size(); i++) {
+				final int index = explanation.get(i) - selectorOffset;
+				if ((index >= 0) && (index < clauseCount)) {
+					inCore[index] = true;
+				}
+			}
+			final List<Integer> core = new ArrayList<>(subset.size());
+			for (final int index : subset) {
+				if (inCore[index]) {
+					core.add(index);
+				}
+			}
+			return core;
+		}
+
+		private boolean isSatisfiable(List<Integer> subset) throws TimeoutException {
+			final long remainingTime = deadline - System.currentTimeMillis();
+			if (remainingTime <= 0) {
+				throw new TimeoutException();
+			}
+			selectorOracle.setTimeoutMs(Math.min(remainingTime, Integer.MAX_VALUE));
+			final VecInt selectors = new VecInt(assumptions.length + subset.size());
+			for (final int assumption : assumptions) {
+				selectors.push(assumption);
+			}
+			for (final int index : subset) {
+				selectors.push(selectorOffset + index);
+			}
+			return selectorOracle.isSatisfiable(selectors, false);
+		}
+
+		/**
+		 * Blocks all subsets of the given maximal satisfiable subset.
+		 */
+		private void blockSubsets(List<Integer> subset) throws ContradictionException {
+			final boolean[] contained = new boolean[clauseCount];
+			for (final int index : subset) {
+				contained[index] = true;
+			}
+			final VecInt clause = new VecInt(clauseCount - subset.size());
+			for (int i = 0; i < clauseCount; i++) {
+				if (!contained[i]) {
+					clause.push(i + 1);
+				}
+			}
+			mapOracle.addClause(clause);
+		}
+
+		/**
+		 * Blocks all supersets of the given MUS.
+		 */
+		private void blockSupersets(Set<Integer> mus) throws ContradictionException {
+			final VecInt clause = new VecInt(mus.size());
+			for (final int index : mus) {
+				clause.push(-(index + 1));
+			}
+			mapOracle.addClause(clause);
+		}
+	}
+}
@@ -44,4 +44,12 @@ public class Sat4jSatSolverFactory extends SatSolverFactory {
 	public Sat4jMusExtractor getMusExtractor() {
 		return new Sat4jMusExtractor();
 	}
+
+	@Override
+	public Sat4jIncrementalMusExtractor getMusExtractor(long timeout, int maximumMusCount) {
+		final Sat4jIncrementalMusExtractor musExtractor = new Sat4jIncrementalMusExtractor();
+		musExtractor.setTimeout(timeout);
+		musExtractor.setMaximumMusCount(maximumMusCount);
+		return musExtractor;
+	}
 }
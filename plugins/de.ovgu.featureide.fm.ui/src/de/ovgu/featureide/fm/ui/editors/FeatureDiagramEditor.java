@@ -256,6 +256,11 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	private NameTypeSelectionAction longNamesAction;
 	private final List<Action> actions = new ArrayList<>();
 
+	/**
+	 * The analyzer of the last completed analysis. Its results are reused for the analysis of the next edit.
+	 */
+	private volatile FeatureModelAnalyzer lastAnalyzer;
+
 	private int index;
 
 	private final JobToken analysisToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
@@ -575,7 +580,8 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 					return true;
 				}
 
-				final AnalysesCollection analysisResults = localAnalyzer.analyzeFeatureModel(monitor);
+				final AnalysesCollection analysisResults = localAnalyzer.analyzeFeatureModel(lastAnalyzer, monitor);
+				lastAnalyzer = localAnalyzer;
 				refreshGraphics(analysisResults);
 				return true;
 			}
@@ -32,10 +32,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_MO
 import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GIVEN_FEATURE_MODEL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.VALID_COMMA_;
 
+import java.math.BigInteger;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -96,6 +98,7 @@ import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
@@ -103,6 +106,7 @@ import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationMatrix;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.PropagationSession;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.configuration.TreeElement;
@@ -209,6 +213,15 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 
 	protected final JobToken updateToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
+	/**
+	 * Keeps the solver for propagating the selection of the configuration between updates.
+	 */
+	private PropagationSession propagationSession;
+	/**
+	 * The formula for which the modal implication graph was requested in the background.
+	 */
+	private FeatureModelFormula modalImplicationGraphFormula;
+
 	/**
 	 * The item the toolTip belongs to.
 	 */
@@ -714,13 +727,18 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(true));
 		} else {
-			final long number = conflicting ? 0 : LongRunningWrapper.runMethod(propagator.number(250));
+			final BigInteger exactNumber = conflicting ? BigInteger.ZERO : LongRunningWrapper.runMethod(propagator.countSolutions(250));
 			sb.append(valid ? VALID_COMMA_ : INVALID_COMMA_);
-			if (number < 0) {
-				sb.append(MORE_THAN);
-				sb.append(-1 - number);
+			if (exactNumber != null) {
+				sb.append(exactNumber);
 			} else {
-				sb.append(number);
+				final long number = LongRunningWrapper.runMethod(propagator.number(250));
+				if (number < 0) {
+					sb.append(MORE_THAN);
+					sb.append(-1 - number);
+				} else {
+					sb.append(number);
+				}
 			}
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(false));
@@ -825,11 +843,40 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		final ConfigurationManager configurationManager = configurationEditor.getConfigurationManager();
 		final FeatureModelManager featureModelManager = configurationEditor.getFeatureModelManager();
 		if ((configurationManager != null) && (featureModelManager != null)) {
-			return new ConfigurationPropagator(featureModelManager.getPersistentFormula(), configurationManager.getSnapshot());
+			final FeatureModelFormula formula = featureModelManager.getPersistentFormula();
+			final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configurationManager.getSnapshot());
+			propagator.setUseModalImplicationGraph(isModalImplicationGraphAvailable(formula));
+			return propagator;
 		}
 		return null;
 	}
 
+	/**
+	 * Building the modal implication graph can take long for large feature models. Thus, it is only used once it is cached and is built in the
+	 * background otherwise.
+	 *
+	 * @param formula the formula of the feature model
+	 * @return whether the modal implication graph of the given formula is already cached
+	 */
+	private synchronized boolean isModalImplicationGraphAvailable(FeatureModelFormula formula) {
+		if (formula.getCachedElement(new ModalImplicationGraphCreator()) != null) {
+			return true;
+		}
+		if (modalImplicationGraphFormula != formula) {
+			modalImplicationGraphFormula = formula;
+			LongRunningWrapper.getRunner(monitor -> formula.getModalImplicationGraph(), "Building Modal Implication Graph").schedule();
+		}
+		return false;
+	}
+
+	private synchronized PropagationSession getPropagationSession(ConfigurationPropagator propagator) {
+		if ((propagationSession == null) || (propagationSession.getFormula() != propagator.getFormula())
+			|| ((propagationSession.getModalImplicationGraph() == null) && propagator.isUseModalImplicationGraph())) {
+			propagationSession = propagator.createPropagationSession();
+		}
+		return propagationSession;
+	}
+
 	protected void changeSelection(final TreeItem item, final boolean select) {
 		final Selection manualSelection = ((SelectableFeature) item.getData()).getManual();
 		switch (manualSelection) {
@@ -1216,15 +1263,15 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 					updateJob = LongRunningWrapper.getRunner(propagator.resetAutomatic());
 				} else {
 					final TreeItem topItem = tree.getTopItem();
-					if (topItem != null) {
-						final List<SelectableFeature> featureOrder = Arrays.asList((SelectableFeature) (topItem.getData()));
-						updateJob = LongRunningWrapper.getRunner(propagator.update(true, featureOrder));
-					} else {
-						updateJob = LongRunningWrapper.getRunner(propagator.update(true));
-					}
+					final List<SelectableFeature> featureOrder =
+						topItem != null ? Arrays.asList((SelectableFeature) (topItem.getData())) : Collections.<SelectableFeature> emptyList();
+					updateJob = LongRunningWrapper.getRunner(propagator.update(getPropagationSession(propagator), true, featureOrder));
 				}
+				// the incremental update only returns the changed features
 				updateFeatures.clear();
-				updateFeatures.addAll(configuration.getFeatures());
+				if (conflicting) {
+					updateFeatures.addAll(configuration.getFeatures());
+				}
 			}
 			break;
 		}
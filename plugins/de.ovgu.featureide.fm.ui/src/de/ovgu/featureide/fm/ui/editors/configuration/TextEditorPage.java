@@ -117,7 +117,7 @@ public class TextEditorPage extends TextEditor implements IConfigurationEditorPa
 		final ConfigurationManager configurationManager = configurationEditor.getConfigurationManager();
 		if (configurationManager != null) {
 			final ProblemList lastProblems =
-				configurationManager.processObject(config -> updateConfiguration(configurationManager, config), ConfigurationManager.CHANGE_NOTHING);
+				configurationManager.processObject(config -> updateConfiguration(configurationManager, config), ConfigurationManager.CHANGE_ALL);
 			if (lastProblems.containsError()) {
 				configurationManager.resetSnapshot();
 			}
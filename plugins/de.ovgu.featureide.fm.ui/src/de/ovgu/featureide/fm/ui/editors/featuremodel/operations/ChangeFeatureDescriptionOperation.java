@@ -64,6 +64,6 @@ public class ChangeFeatureDescriptionOperation extends AbstractFeatureModelOpera
 
 	@Override
 	protected int getChangeIndicator() {
-		return FeatureModelManager.CHANGE_MODEL_PROPERTY;
+		return FeatureModelManager.CHANGE_ATTRIBUTES;
 	}
 }
@@ -38,6 +38,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.TIMEOUT_STRING
 import static de.ovgu.featureide.fm.core.localization.StringTable.WAITING_FOR_SUBTASKS_TO_FINISH;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WAITING_FOR_SUBTASK_TO_FINISH;
 
+import java.math.BigInteger;
 import java.util.ConcurrentModificationException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -460,12 +461,17 @@ public class ViewContentProvider implements IStructuredContentProvider, ITreeCon
 		}
 		final ConfigurationAnalyzer analyzer = new ConfigurationAnalyzer(model, new Configuration(model));
 		analyzer.setIncludeAbstractFeatures(!ignoreAbstractFeatures);
-		final long number = analyzer.number(TIMEOUT_CONFIGURATION);
+		final BigInteger exactNumber = analyzer.countSolutions(TIMEOUT_CONFIGURATION);
 		String s = "";
-		if (number < 0) {
-			s += MORE_THAN + (-1 - number);
+		if (exactNumber != null) {
+			s += exactNumber;
 		} else {
-			s += number;
+			final long number = analyzer.number(TIMEOUT_CONFIGURATION);
+			if (number < 0) {
+				s += MORE_THAN + (-1 - number);
+			} else {
+				s += number;
+			}
 		}
 		s += " " + variants;
 		p.addChild(s);
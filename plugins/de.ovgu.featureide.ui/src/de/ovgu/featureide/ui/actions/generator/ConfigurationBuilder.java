@@ -23,15 +23,15 @@ package de.ovgu.featureide.ui.actions.generator;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CASA_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CHVATAL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.COUNTING___;
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ICPL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.YASA;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
@@ -41,6 +41,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -51,11 +52,13 @@ import org.eclipse.jdt.internal.core.JavaProject;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
-import de.ovgu.featureide.fm.core.job.IRunner;
-import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.Pipeline;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Output;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Processor;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Stage;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
@@ -121,29 +124,35 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private int built;
 
 	/**
-	 * This flag indicates that all jobs should be aborted.
+	 * Saves the time of start.
 	 */
-	boolean cancelGeneratorJobs = false;
+	protected long time;
 
 	/**
-	 * Saves the time of start.
+	 * Which configurations should be built.
 	 */
-	protected long time;
+	BuildType buildType;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * The pipeline that builds the configurations. Each configuration passes the stages sampling, sorting (if necessary), composition, compilation, and
+	 * testing (if possible).
 	 */
-	boolean finish = false;
+	private volatile Pipeline<BuilderConfiguration> pipeline;
 
 	/**
-	 * Which configurations should be built.
+	 * Receives the configurations found by the {@link AConfigurationGenerator}.
 	 */
-	BuildType buildType;
+	private volatile Output<BuilderConfiguration> samplingOutput;
+
+	/**
+	 * The monitor of the {@link AConfigurationGenerator}, which is canceled if the build is aborted.
+	 */
+	private final IMonitor<List<LiteralSet>> samplingMonitor = new ProgressMonitor<>(STAGE_SAMPLING, new NullProgressMonitor());
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The count of how many configurations were found by the {@link AConfigurationGenerator}.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private final AtomicInteger found = new AtomicInteger();
 
 	public AbstractConfigurationSorter sorter;
 
@@ -154,21 +163,19 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private AConfigurationGenerator configurationGenerator;
 
 	/**
-	 * Gets the first entry of configurations or <code>null</code> if there is none.
-	 *
-	 * @return The first entry
-	 */
-	public synchronized BuilderConfiguration getConfiguration() {
-		return sorter.getConfiguration();
-	}
-
-	/**
-	 * Adds the given configuration to configurations.
+	 * Passes the given configuration to the next stage of the build pipeline. Waits if the next stage cannot keep up.
 	 *
 	 * @param configuration to add
+	 * @throws MethodCancelException if the build was aborted
 	 */
-	public synchronized void addConfiguration(BuilderConfiguration configuration) {
-		sorter.addConfiguration(configuration);
+	public void addConfiguration(BuilderConfiguration configuration) {
+		found.incrementAndGet();
+		try {
+			samplingOutput.put(configuration);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MethodCancelException();
+		}
 	}
 
 	// TODO revise long parameter list
@@ -292,8 +299,6 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		RemoveBaseMarkerFromSourceFolderFiles();
 		final Job job = new Job(jobName) {
 
-			private IRunner<List<LiteralSet>> configurationBuilderJob;
-
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
@@ -304,23 +309,16 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					}
 
 					time = System.currentTimeMillis();
-
-					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
-						}
-					} else {
-						newgeneratorJobs(1);
+					final Pipeline<BuilderConfiguration> buildPipeline = createPipeline();
+					pipeline = buildPipeline;
+					try {
+						buildPipeline.execute(new ProgressMonitor<>(getTaskName(), monitor));
+					} catch (final MethodCancelException e) {
+						// the configurations that were built so far are kept
+					} catch (final Exception e) {
+						LOGGER.logError(e);
 					}
-					configurationBuilderJob = LongRunningWrapper.getRunner(configurationGenerator, "Create Configurations " + id++);
-					configurationBuilderJob.schedule();
-					showStatistics(monitor);
+					logStatistics(buildPipeline);
 					if (outputType != OutputType.PROJECT) {
 						try {
 							folder.refreshLocal(IResource.DEPTH_INFINITE, null);
@@ -329,87 +327,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
 					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
-					}
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
-			private void showStatistics(IProgressMonitor monitor) {
-				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
-						monitor.setTaskName(getTaskName());
-						if (monitor.isCanceled()) {
-							cancelGenerationJobs();
-							configurationBuilderJob.cancel();
-							return;
-						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					System.err.println(configurationBuilderJob.getStatus());
-
-					if (!sorter.isSorted()) {
-						final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
-						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
-					}
-					finish();
-
-					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
-						}
-					}
-
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
-
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
-				}
-			}
-
 		};
 		job.setPriority(Job.LONG);
 		job.schedule();
@@ -542,48 +465,124 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
+	 * Creates the pipeline that builds the configurations. The stages communicate via bounded queues, such that the sampling waits if the following stages
+	 * cannot keep up and vice versa.
 	 *
-	 * @param count The amount of Generators that will be created.
+	 * @return The build pipeline
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
+	private Pipeline<BuilderConfiguration> createPipeline() {
+		final Pipeline<BuilderConfiguration> buildPipeline = new Pipeline<>(STAGE_SAMPLING, this::sample, QUEUE_CAPACITY);
+		buildPipeline.setErrorHandler((stage, configuration, e) -> LOGGER
+				.logError((configuration != null) ? ERROR_IN_CONFIGURATION + configuration : stage.getName() + " failed", e));
+
+		if (!sorter.isSorted()) {
+			// the sorter needs all configurations before the first one can be built
+			buildPipeline.addProcessingStage(STAGE_SORTING, 1, new Processor<BuilderConfiguration>() {
+
+				@Override
+				public void process(BuilderConfiguration configuration, Output<BuilderConfiguration> output) {
+					sorter.addConfiguration(configuration);
+				}
+
+				@Override
+				public void finish(Output<BuilderConfiguration> output) throws InterruptedException {
+					final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), globalMonitor);
+					configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
+					for (BuilderConfiguration configuration = sorter.getConfiguration(); configuration != null; configuration = sorter.getConfiguration()) {
+						output.put(configuration);
+					}
+				}
+			});
 		}
 
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
+		final int processors = Runtime.getRuntime().availableProcessors();
+		int compositionJobs = 1;
+		if (featureProject.getComposer().canGeneratInParallelJobs()) {
+			compositionJobs = processors * 2;
+			if (buildType == BuildType.ALL_CURRENT) {
+				compositionJobs = (int) Math.max(1, Math.min(compositionJobs, configurationNumber));
+			}
 		}
 
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+		final Generator generator = new Generator(this);
+		if ((outputType == OutputType.PRODUCT) && isJavaProject()) {
+			final JavaCompiler compiler = new JavaCompiler(this);
+			buildPipeline.addStage(STAGE_COMPOSITION, compositionJobs, generator::compose);
+			if (runTests && Generator.JUNIT_INSTALLED) {
+				buildPipeline.addStage(STAGE_COMPILATION, processors, compiler::compile);
+				buildPipeline.addStage(STAGE_TEST, processors, configuration -> {
+					final IFolder binFolder = compiler.getOutputFolder(configuration);
+					try {
+						new TestRunner(binFolder, testResults, this).runTests(configuration);
+					} finally {
+						binFolder.delete(true, null);
+					}
+					builtConfiguration();
+				});
+			} else {
+				buildPipeline.addStage(STAGE_COMPILATION, processors, configuration -> {
+					compiler.compile(configuration).delete(true, null);
+					builtConfiguration();
+				});
+			}
+		} else {
+			buildPipeline.addStage(STAGE_COMPOSITION, compositionJobs, configuration -> {
+				generator.compose(configuration);
+				builtConfiguration();
+			});
 		}
+		return buildPipeline;
 	}
 
 	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
+	 * The source of the build pipeline. Runs the {@link AConfigurationGenerator}, which passes each found configuration to
+	 * {@link #addConfiguration(BuilderConfiguration)}.
 	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
+	private void sample(Output<BuilderConfiguration> output) throws Exception {
+		samplingOutput = output;
+		configurationGenerator.execute(samplingMonitor);
+	}
+
+	private boolean isJavaProject() {
+		try {
+			return featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
 	}
 
 	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
+	 * Logs the duration of the build and the statistics of each stage of the build pipeline.
 	 */
-	public void cancelGenerationJobs() {
-		cancelGeneratorJobs = true;
+	private void logStatistics(Pipeline<BuilderConfiguration> buildPipeline) {
+		final long duration = System.currentTimeMillis() - time;
+		final long s = (duration / 1000) % 60;
+		final long min = (duration / (60 * 1000)) % 60;
+		final long h = duration / (60 * 60 * 1000);
+		final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+
+		if (built > configurationNumber) {
+			built = (int) configurationNumber;
+		}
+		final StringBuilder sb = new StringBuilder();
+		sb.append(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
+		for (final Stage stage : buildPipeline.getStages()) {
+			sb.append('\n');
+			sb.append(stage);
+		}
+		LOGGER.logInfo(sb.toString());
 	}
 
 	/**
-	 * This is called if the main job has finished and no more configurations will be added.
+	 * This is called if the main job is canceled and the sampling and all stages of the build pipeline should finish.
 	 */
-	public void finish() {
-		finish = true;
+	public void cancelGenerationJobs() {
+		samplingMonitor.cancel();
+		final Pipeline<BuilderConfiguration> buildPipeline = pipeline;
+		if (buildPipeline != null) {
+			buildPipeline.cancel();
+		}
 	}
 
 	/**
@@ -599,7 +598,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			final long h = duration / (60 * 60 * 1000);
 			t = " " + h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 		}
-		final long buffer = sorter.getBufferSize();
+		final long buffer = Math.max(0, found.get() - built);
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
 			+ " buffered)" + " Expected time: " + t;
 	}
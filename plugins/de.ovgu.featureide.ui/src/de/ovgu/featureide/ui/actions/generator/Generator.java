@@ -20,10 +20,7 @@
  */
 package de.ovgu.featureide.ui.actions.generator;
 
-import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
-import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GENERATOR_NR_;
-import static de.ovgu.featureide.fm.core.localization.StringTable.WILL_BE_RESTARTED_;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,7 +37,6 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
@@ -57,164 +53,76 @@ import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.ui.UIPlugin;
 
 /**
- * This {@link Job} builds all configurations of the corresponding {@link ConfigurationBuilder}
+ * Builds the configurations of the corresponding {@link ConfigurationBuilder}. Is used by the composition stage of the build pipeline, which calls
+ * {@link #compose(BuilderConfiguration)} from several threads concurrently.
  *
  * @author Jens Meinicke
  */
 @SuppressWarnings(RESTRICTION)
-public class Generator extends Thread implements IConfigurationBuilderBasics {
+public class Generator implements IConfigurationBuilderBasics {
 
 	protected static final String JAVA_NATURE = "org.eclipse.jdt.core.javanature";
 
-	/**
-	 * A counter that shows how many configurations are built by this job
-	 */
-	int generated = 0;
+	static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
 
 	/**
-	 * The builder containing this job
+	 * The builder containing this generator
 	 */
-	ConfigurationBuilder builder;
+	final ConfigurationBuilder builder;
 
 	/**
-	 * The number of this job.
+	 *
+	 * @param builder The {@link ConfigurationBuilder} containing the {@link Generator}
 	 */
-	public int nr;
-
-	private JavaCompiler compiler;
-
-	private TestRunner testRunner;
-
-	private BuilderConfiguration configuration;
-
-	private static boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+	public Generator(ConfigurationBuilder builder) {
+		this.builder = builder;
+	}
 
 	/**
+	 * Builds the given configuration depending on the output type of the builder.
 	 *
-	 * @param nr The number of the job
-	 * @param builder The {@link ConfigurationBuilder} containing the {@link Generator}
+	 * @param configuration The configuration to build
 	 */
-	public Generator(int nr, ConfigurationBuilder builder) {
-		this.nr = nr;
-		this.builder = builder;
+	void compose(BuilderConfiguration configuration) {
+		final String name = configuration.getName();
+
 		switch (builder.outputType) {
 		case CONFIGURATION:
+			final XMLConfFormat format = new XMLConfFormat();
+			final java.nio.file.Path outputPath = EclipseFileSystem.getPath(builder.folder).resolve(name + "." + format.getSuffix());
+			SimpleFileHandler.save(outputPath, configuration, format);
 			break;
 		case PRODUCT:
-			try {
-				if (builder.featureProject.getProject().hasNature(JAVA_NATURE)) {
-					compiler = new JavaCompiler(nr, this);
-					if (JUNIT_INSTALLED) {
-						testRunner = new TestRunner(compiler.tmp, builder.testResults, builder);
-					}
-				}
-			} catch (final CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			} catch (final Exception e2) {
-				System.out.println(e2);
-			} catch (final Error e3) {
-				System.out.println(e3);
-			}
+			builder.featureProject.getComposer().buildConfiguration(builder.folder.getFolder(name), configuration, name);
 			break;
 		case PROJECT:
+			final String separator;
+			switch (builder.buildType) {
+			case ALL_CURRENT:
+				separator = SEPARATOR_CONFIGURATION;
+				break;
+			case ALL_VALID:
+				separator = SEPARATOR_VARIANT;
+				break;
+			case INTEGRATION:
+				separator = SEPARATOR_INTEGRATION;
+				break;
+			case RANDOM:
+				separator = SEPARATOR_RANDOM;
+				break;
+			case T_WISE:
+				separator = SEPARATOR_T_WISE;
+				break;
+			default:
+				throw new RuntimeException(builder.buildType + " not supported");
+			}
+			buildConfiguration(builder.featureProject.getProjectName() + separator + name, configuration);
 			break;
 		default:
 			break;
 		}
 	}
 
-	/**
-	 * Generates the configurations of CongfigurationBuilder.configurations
-	 */
-	@Override
-	public void run() {
-		try {
-			while (true) {
-				synchronized (this) {
-					if (builder.cancelGeneratorJobs) {
-						builder.generatorJobs.remove(this);
-						return;
-					}
-					if (builder.sorter.getBufferSize() == 0) {
-						while ((builder.sorter.getBufferSize() == 0) || !builder.sorter.isSorted()) {
-							/** the job waits for a new configuration to build **/
-							try {
-								Thread.sleep(1000);
-								if (((builder.sorter.getBufferSize() == 0) && builder.finish) || builder.cancelGeneratorJobs) {
-									return;
-								}
-							} catch (final InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
-				configuration = builder.getConfiguration();
-				if (configuration == null) {
-					continue;
-				}
-				final String name = configuration.getName();
-
-				switch (builder.outputType) {
-				case CONFIGURATION:
-					final XMLConfFormat format = new XMLConfFormat();
-					final java.nio.file.Path outputPath = EclipseFileSystem.getPath(builder.folder).resolve(name + "." + format.getSuffix());
-					SimpleFileHandler.save(outputPath, configuration, format);
-					break;
-				case PRODUCT:
-					builder.featureProject.getComposer().buildConfiguration(builder.folder.getFolder(name), configuration, name);
-					break;
-				case PROJECT:
-					final String separator;
-					switch (builder.buildType) {
-					case ALL_CURRENT:
-						separator = SEPARATOR_CONFIGURATION;
-						break;
-					case ALL_VALID:
-						separator = SEPARATOR_VARIANT;
-						break;
-					case INTEGRATION:
-						separator = SEPARATOR_INTEGRATION;
-						break;
-					case RANDOM:
-						separator = SEPARATOR_RANDOM;
-						break;
-					case T_WISE:
-						separator = SEPARATOR_T_WISE;
-						break;
-					default:
-						throw new RuntimeException(builder.buildType + " not supported");
-					}
-					buildConfiguration(builder.featureProject.getProjectName() + separator + name, configuration);
-					break;
-				default:
-					break;
-				}
-
-				if (compiler != null) {
-					compiler.compile(configuration);
-					if (builder.runTests) {
-						if (JUNIT_INSTALLED) {
-							testRunner.runTests(configuration);
-						}
-					}
-				}
-
-				builder.builtConfiguration();
-			}
-		} catch (final Exception e) {
-			UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + configuration, e);
-			/**
-			 * If there is any build error the configuration will be built again. And because this job is terminated a new one will be created.
-			 */
-			UIPlugin.getDefault().logWarning(THE_GENERATOR_NR_ + nr + WILL_BE_RESTARTED_);
-			builder.createNewGenerator(nr);
-		} finally {
-			builder.generatorJobs.remove(this);
-		}
-		return;
-	}
-
 	/**
 	 * Builds the configuration in a new project with the given name.
 	 *
@@ -106,6 +106,20 @@ public interface IConfigurationBuilderBasics {
 	String FOLDER_NAME_CURRENT = "currentproducts";
 	String TEMPORARY_BIN_FOLDER = ".tmpBin";
 
+	/**
+	 * Names of the stages of the build pipeline.
+	 */
+	String STAGE_SAMPLING = "Sampling";
+	String STAGE_SORTING = "Sorting";
+	String STAGE_COMPOSITION = "Composition";
+	String STAGE_COMPILATION = "Compilation";
+	String STAGE_TEST = "Test";
+
+	/**
+	 * The maximum number of configurations that wait for the next stage of the build pipeline.
+	 */
+	int QUEUE_CAPACITY = 16;
+
 	String PROBLEM_MARKER = CorePlugin.PLUGIN_ID + ".variantMarker";
 	String ERROR_IGNOR_RAW_TYPE = "raw type";
 	String ERROR_IGNOR_SERIIZABLE = SERIALIZABLE_CLASS;
@@ -39,69 +39,68 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the configurations that were built by the {@link Generator}. Each configuration is compiled into its own temporary folder, such that several
+ * configurations can be compiled concurrently.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
 	/**
-	 * The parent folder of the generated variants
+	 *
+	 * @param builder The builder holding this compiler
 	 */
-	final IFolder tmp;
+	public JavaCompiler(ConfigurationBuilder builder) {
+		this.builder = builder;
+	}
 
 	/**
+	 * Returns the temporary folder that contains the binary files of the given configuration.
 	 *
-	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param configuration The configuration
+	 * @return The folder for the binary files
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
-
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
-		if (!tmp.exists()) {
-			try {
-				tmp.create(true, true, null);
-			} catch (final CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			}
-		}
-
+	IFolder getOutputFolder(BuilderConfiguration configuration) {
+		return builder.tmp.getFolder(COMPILER + configuration.getName());
 	}
 
 	/**
 	 * Compiles the given configuration.
 	 *
 	 * @param configuration The configuration to build
+	 * @return The folder containing the binary files
 	 * @throws CoreException
 	 */
-	protected void compile(BuilderConfiguration configuration) throws CoreException {
+	protected IFolder compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		final IFolder tmp = getOutputFolder(configuration);
+		if (tmp.exists()) {
+			tmp.delete(true, null);
 		}
-		compile(configuration.getName());
+		tmp.create(true, true, null);
+		compile(configuration.getName(), tmp);
+		return tmp;
 	}
 
 	/**
 	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
 	 *
 	 * @param confName
+	 * @param tmp The folder for the binary files
 	 */
-	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+	private void compile(String confName, IFolder tmp) {
+		final LinkedList<IFile> files = getJavaFiles(builder.folder.getFolder(confName));
 		final LinkedList<String> options = new LinkedList<>();
 		for (final IFile file : files) {
 			options.add(setupPath(file));
@@ -113,12 +112,12 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		options.add("-d");
 		options.add(setupPath(tmp.getRawLocation().toOSString()));
 		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		options.add(builder.classpath);
 
 		final String output = process(options);
 		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
 	}
 
@@ -21,7 +21,6 @@
 package de.ovgu.featureide.ui.actions.generator.configuration;
 
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
@@ -43,36 +42,8 @@ import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
  */
 public abstract class ACNFConfigurationGenerator extends AConfigurationGenerator {
 
-	private class Consumer implements Runnable {
-
-		private boolean run = true;
-
-		@Override
-		public void run() {
-			final LinkedBlockingQueue<LiteralSet> resultQueue = gen.getResultQueue();
-			while (run) {
-				try {
-					final LiteralSet take = resultQueue.take();
-					generateConfiguration(take);
-				} catch (final InterruptedException e) {
-					break;
-				}
-			}
-			setConfigurationNumber(gen.getResult().getResult().size());
-			for (final LiteralSet c : resultQueue) {
-				generateConfiguration(c);
-			}
-		}
-
-		public void stop() {
-			run = false;
-		}
-
-	}
-
 	protected final CNF noAbstractCNF;
 	private final Configuration configuration = new Configuration(snapshot);
-	private IConfigurationGenerator gen;
 
 	private void generateConfiguration(LiteralSet solution) {
 		configuration.resetValues();
@@ -97,18 +68,16 @@ public abstract class ACNFConfigurationGenerator extends AConfigurationGenerator
 
 	@Override
 	public List<LiteralSet> execute(IMonitor<List<LiteralSet>> monitor) throws Exception {
-		gen = getGenerator(noAbstractCNF, (int) builder.configurationNumber);
-		final Consumer consumer = new Consumer();
-		final Thread thread = new Thread(consumer);
-		thread.start();
+		final IConfigurationGenerator gen = getGenerator(noAbstractCNF, (int) builder.configurationNumber);
+		// configurations are passed to the builder as soon as they are found, the generator waits if the builder cannot keep up
+		gen.setResultConsumer(this::generateConfiguration);
 		try {
 			LongRunningWrapper.runMethod(gen, monitor.subTask(1));
 		} catch (final Exception e) {
 			handleException(e);
 			throw e;
 		}
-		consumer.stop();
-		thread.interrupt();
+		setConfigurationNumber((int) confs);
 		return null;
 	}
 
@@ -72,7 +72,7 @@ public class CurrentConfigurationsGenerator extends AConfigurationGenerator {
 					}
 				}
 			} catch (final MethodCancelException e) {
-				builder.finish();
+				// no more configurations are added, the ones found so far are still built
 			} catch (final CoreException e) {
 				UIPlugin.getDefault().logError(e);
 			}
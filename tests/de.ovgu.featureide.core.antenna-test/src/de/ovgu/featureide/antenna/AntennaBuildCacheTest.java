@@ -0,0 +1,120 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.antenna;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.eclipse.core.resources.IFile;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AntennaBuildCache}.
+ *
+ * @author agent
+ */
+public class AntennaBuildCacheTest {
+
+	private static IFile createFile(String name) {
+		return (IFile) Proxy.newProxyInstance(IFile.class.getClassLoader(), new Class<?>[] { IFile.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return name;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	private static AntennaBuildCache.Entry createEntry(byte[] contentHash, int configurationHash, int featureModelHash) {
+		return new AntennaBuildCache.Entry(contentHash, configurationHash, featureModelHash, new HashSet<>(Arrays.asList("A", "B")), Collections.emptyList());
+	}
+
+	@Test
+	public void contentHashDependsOnLines() {
+		final byte[] hash = AntennaBuildCache.computeContentHash(Arrays.asList("//#if A", "int a;", "//#endif"));
+		assertArrayEquals(hash, AntennaBuildCache.computeContentHash(Arrays.asList("//#if A", "int a;", "//#endif")));
+		assertFalse(Arrays.equals(hash, AntennaBuildCache.computeContentHash(Arrays.asList("//#if B", "int a;", "//#endif"))));
+		assertFalse(Arrays.equals(hash, AntennaBuildCache.computeContentHash(Arrays.asList("//#if A", "int a;"))));
+	}
+
+	@Test
+	public void contentHashDistinguishesLineBreaks() {
+		assertFalse(Arrays.equals(AntennaBuildCache.computeContentHash(Arrays.asList("ab", "c")),
+				AntennaBuildCache.computeContentHash(Arrays.asList("a", "bc"))));
+	}
+
+	@Test
+	public void entryMatchesOnlyUnchangedInput() {
+		final byte[] contentHash = AntennaBuildCache.computeContentHash(Arrays.asList("int a;"));
+		final AntennaBuildCache.Entry entry = createEntry(contentHash, 1, 2);
+
+		assertTrue(entry.matches(AntennaBuildCache.computeContentHash(Arrays.asList("int a;")), 1, 2));
+		assertFalse(entry.matches(AntennaBuildCache.computeContentHash(Arrays.asList("int b;")), 1, 2));
+		assertFalse(entry.matches(contentHash, 3, 2));
+		assertFalse(entry.matches(contentHash, 1, 3));
+	}
+
+	@Test
+	public void retainRemovesOtherFiles() {
+		final IFile file1 = createFile("A.java");
+		final IFile file2 = createFile("B.java");
+		final AntennaBuildCache.Entry entry1 = createEntry(new byte[] { 1 }, 1, 1);
+		final AntennaBuildCache.Entry entry2 = createEntry(new byte[] { 2 }, 1, 1);
+
+		final AntennaBuildCache cache = new AntennaBuildCache();
+		cache.put(file1, entry1);
+		cache.put(file2, entry2);
+		assertSame(entry1, cache.get(file1));
+		assertSame(entry2, cache.get(file2));
+
+		cache.retain(Arrays.asList(file1));
+		assertSame(entry1, cache.get(file1));
+		assertNull(cache.get(file2));
+
+		cache.retain(Collections.emptyList());
+		assertNull(cache.get(file1));
+	}
+
+	@Test
+	public void clearRemovesAllFiles() {
+		final IFile file = createFile("A.java");
+		final AntennaBuildCache cache = new AntennaBuildCache();
+		cache.put(file, createEntry(new byte[] { 1 }, 1, 1));
+		assertNotNull(cache.get(file));
+		cache.clear();
+		assertNull(cache.get(file));
+	}
+
+}
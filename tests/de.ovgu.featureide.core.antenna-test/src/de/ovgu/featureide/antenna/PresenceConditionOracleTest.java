@@ -0,0 +1,187 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.antenna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+import de.ovgu.featureide.core.builder.preprocessor.PresenceConditionOracle;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+
+/**
+ * Tests for {@link PresenceConditionOracle}.
+ *
+ * @author agent
+ */
+public class PresenceConditionOracleTest {
+
+	private static final String[] FEATURE_NAMES = { "A", "B", "X", "Y", "Z", "Unknown" };
+
+	private IFeatureModel featureModel;
+
+	@Before
+	public void loadFeatureModel() throws IOException {
+		final Path modelFile = Files.createTempFile("model", ".xml");
+		Files.write(modelFile, Arrays.asList( //
+				"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>", //
+				"<featureModel>", //
+				"	<struct>", //
+				"		<and abstract=\"true\" mandatory=\"true\" name=\"Root\">", //
+				"			<feature mandatory=\"true\" name=\"A\"/>", //
+				"			<feature mandatory=\"true\" name=\"B\"/>", //
+				"			<feature name=\"X\"/>", //
+				"			<feature name=\"Y\"/>", //
+				"			<feature name=\"Z\"/>", //
+				"		</and>", //
+				"	</struct>", //
+				"	<constraints>", //
+				"		<rule>", //
+				"			<imp>", //
+				"				<var>X</var>", //
+				"				<var>Y</var>", //
+				"			</imp>", //
+				"		</rule>", //
+				"	</constraints>", //
+				"</featureModel>"), StandardCharsets.UTF_8);
+		featureModel = FeatureModelManager.load(modelFile);
+		Files.delete(modelFile);
+	}
+
+	@Test
+	public void memorizesPresenceConditionsIndependentOfNestingOrder() throws TimeoutException {
+		final PresenceConditionOracle oracle = new PresenceConditionOracle(new FeatureModelFormula(featureModel));
+		final Node expression = new Literal("Z");
+
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(expression, Arrays.asList(new Literal("X"), new Literal("Y"))));
+		final int numberOfSolverCalls = oracle.getNumberOfSolverCalls();
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(new Literal("Z"), Arrays.asList(new Literal("Y"), new Literal("X"))));
+		assertEquals(numberOfSolverCalls, oracle.getNumberOfSolverCalls());
+
+		assertEquals(AnnotationStatus.SUPERFLUOUS, oracle.getStatus(new Literal("Y"), Arrays.asList(new Literal("X"))));
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(new Literal("Y"), Arrays.asList(new Literal("Z"))));
+		assertEquals(AnnotationStatus.DEAD, oracle.getStatus(new Literal("X"), Arrays.asList(new Literal("Y", false))));
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(new Literal("X"), Collections.<Node> emptyList()));
+	}
+
+	@Test
+	public void removesClausesAfterContradiction() throws TimeoutException {
+		final PresenceConditionOracle oracle = new PresenceConditionOracle(new FeatureModelFormula(featureModel));
+		// The clause (-A | -B) contradicts the core features A and B, the clause (X | Y) must not remain in the solver either.
+		final Node notBoth = new Or(new Literal("A", false), new Literal("B", false));
+		final Node xOrY = new Or(new Literal("X"), new Literal("Y"));
+
+		assertEquals(AnnotationStatus.DEAD, oracle.getStatus(notBoth, Arrays.asList(xOrY)));
+		assertEquals(AnnotationStatus.DEAD, oracle.getStatus(xOrY, Arrays.asList(notBoth)));
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(new Literal("Y", false), Collections.<Node> emptyList()));
+		assertEquals(AnnotationStatus.NORMAL, oracle.getStatus(new Literal("X", false), Arrays.asList(new Literal("Z"))));
+	}
+
+	@Test
+	public void matchesCompleteSatisfiabilityCheck() throws TimeoutException {
+		final PresenceConditionOracle oracle = new PresenceConditionOracle(new FeatureModelFormula(featureModel));
+		final Node featureModelNode = AdvancedNodeCreator.createNodes(featureModel);
+		final Random random = new Random(314159);
+		for (int i = 0; i < 500; i++) {
+			final Node expression = createRandomNode(random, 2);
+			final List<Node> nestedExpressions = new ArrayList<>();
+			for (int j = random.nextInt(3); j > 0; j--) {
+				nestedExpressions.add(createRandomNode(random, 1));
+			}
+			assertEquals(expression + " " + nestedExpressions, getStatus(featureModelNode, expression, nestedExpressions),
+					oracle.getStatus(expression, nestedExpressions));
+		}
+	}
+
+	@Test
+	public void detectsVoidFeatureModel() throws TimeoutException {
+		featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel, new Not(new Literal("A"))));
+		final PresenceConditionOracle oracle = new PresenceConditionOracle(new FeatureModelFormula(featureModel));
+		assertTrue(oracle.isVoidFeatureModel());
+		assertEquals(AnnotationStatus.VOID, oracle.getStatus(new Literal("X"), Collections.<Node> emptyList()));
+	}
+
+	private static Node createRandomNode(Random random, int depth) {
+		if ((depth == 0) || random.nextBoolean()) {
+			return new Literal(FEATURE_NAMES[random.nextInt(FEATURE_NAMES.length)], random.nextBoolean());
+		}
+		final Node left = createRandomNode(random, depth - 1);
+		final Node right = createRandomNode(random, depth - 1);
+		switch (random.nextInt(4)) {
+		case 0:
+			return new And(left, right);
+		case 1:
+			return new Or(left, right);
+		case 2:
+			return new Implies(left, right);
+		default:
+			return new Not(left);
+		}
+	}
+
+	/**
+	 * Computes the status of an annotation with separate satisfiability checks on the complete feature model formula.
+	 */
+	private static AnnotationStatus getStatus(Node featureModelNode, Node expression, List<Node> nestedExpressions) throws TimeoutException {
+		if (!new SatSolver(expression, 1000).hasSolution()) {
+			return AnnotationStatus.CONTRADICTION;
+		}
+		if (!new SatSolver(new Not(expression), 1000).hasSolution()) {
+			return AnnotationStatus.TAUTOLOGY;
+		}
+		final List<Node> context = new ArrayList<>();
+		context.add(featureModelNode);
+		context.addAll(nestedExpressions);
+		if (!new SatSolver(new And(new And(context), expression), 1000).hasSolution()) {
+			return AnnotationStatus.DEAD;
+		}
+		if (!new SatSolver(new And(new And(context), new Not(expression)), 1000).hasSolution()) {
+			return AnnotationStatus.SUPERFLUOUS;
+		}
+		return AnnotationStatus.NORMAL;
+	}
+
+}
@@ -0,0 +1,170 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.attributes.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.attributes.FMAttributesLibrary;
+import de.ovgu.featureide.fm.attributes.base.IExtendedFeature;
+import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.base.impl.ExtendedFeature;
+import de.ovgu.featureide.fm.attributes.base.impl.ExtendedFeatureModel;
+import de.ovgu.featureide.fm.attributes.base.impl.ExtendedFeatureModelFactory;
+import de.ovgu.featureide.fm.attributes.base.impl.LongFeatureAttribute;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer;
+import de.ovgu.featureide.fm.attributes.computations.impl.AttributeOptimizer.Optimum;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the exact minimum and maximum attribute sums of the {@link AttributeOptimizer}.
+ *
+ * @author agent
+ */
+public class TAttributeOptimizer {
+
+	private static final ExtendedFeatureModelFactory factory = new ExtendedFeatureModelFactory();
+
+	@Before
+	public void prepareWorkbench() {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+		LibraryManager.registerLibrary(FMAttributesLibrary.getInstance());
+	}
+
+	@Test
+	public void testSandwichModelLong() {
+		final ExtendedFeatureModel model = Commons.getSandwitchModel();
+		final FeatureModelFormula formula = new FeatureModelFormula(model);
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("Full Grain ", Selection.SELECTED);
+
+		final AttributeOptimizer optimizer = new AttributeOptimizer(formula, "Calories");
+		assertEquals(679L, optimizer.getMaximum(configuration).getValue());
+		assertEquals(203L, optimizer.getMinimum(configuration).getValue());
+		assertEquals(getSum(formula, "Calories", optimizer.getMaximum(null).getSolution()), optimizer.getMaximum(null).getValue().doubleValue(), 0);
+	}
+
+	@Test
+	public void testSandwichModelDouble() {
+		final ExtendedFeatureModel model = Commons.getSandwitchModel();
+		final FeatureModelFormula formula = new FeatureModelFormula(model);
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("Full Grain ", Selection.SELECTED);
+
+		final AttributeOptimizer optimizer = new AttributeOptimizer(formula, "Price");
+		final Optimum maximum = optimizer.getMaximum(configuration);
+		assertTrue(maximum.getValue() instanceof Double);
+		assertEquals(8.7, maximum.getValue().doubleValue(), 1e-9);
+		assertEquals(1.99, optimizer.getMinimum(configuration).getValue().doubleValue(), 1e-9);
+		assertTrue(maximum.getSelectedFeatures().contains(model.getFeature("Full Grain ")));
+	}
+
+	/**
+	 * Compares the optimum with all configurations of a model with cross-tree constraints, which are not considered by the estimations.
+	 */
+	@Test
+	public void testCrossTreeConstraints() {
+		final ExtendedFeatureModel model = Commons.getSandwitchModel();
+		model.addConstraint(factory.createConstraint(model, new Implies(new Literal("Full Grain "), new Not(new Literal("Cheddar")))));
+		model.addConstraint(factory.createConstraint(model, new Implies(new Literal("Lettuce"), new Literal("Flatbread"))));
+		final FeatureModelFormula formula = new FeatureModelFormula(model);
+
+		for (final String attributeName : new String[] { "Calories", "Price" }) {
+			double maximum = Double.NEGATIVE_INFINITY;
+			double minimum = Double.POSITIVE_INFINITY;
+			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(formula.getCNF()));
+			for (final LiteralSet solution : solutions) {
+				final double sum = getSum(formula, attributeName, solution);
+				maximum = Math.max(maximum, sum);
+				minimum = Math.min(minimum, sum);
+			}
+			final AttributeOptimizer optimizer = new AttributeOptimizer(formula, attributeName);
+			final Optimum optimum = optimizer.getMaximum(null);
+			assertEquals(attributeName, maximum, optimum.getValue().doubleValue(), 1e-9);
+			assertEquals(attributeName, maximum, getSum(formula, attributeName, optimum.getSolution()), 1e-9);
+			assertEquals(attributeName, minimum, optimizer.getMinimum(null).getValue().doubleValue(), 1e-9);
+		}
+	}
+
+	@Test
+	public void testContradictingConfiguration() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.getSandwitchModel());
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("Full Grain ", Selection.SELECTED);
+		configuration.setManual("Bread", Selection.UNSELECTED);
+		assertNull(new AttributeOptimizer(formula, "Calories").getMaximum(configuration));
+	}
+
+	/**
+	 * Uses values above 2^53, whose sums cannot be represented exactly as double.
+	 */
+	@Test
+	public void testExactLongSum() {
+		final ExtendedFeatureModel model = factory.create();
+		model.createDefaultValues("Test");
+		final IExtendedFeature root = (IExtendedFeature) model.getStructure().getRoot().getFeature();
+		final long[] values = { (1L << 53) + 1, (1L << 53) + 3, 1, -((1L << 53) + 1) };
+		for (int i = 0; i < values.length; i++) {
+			final ExtendedFeature feature = factory.createFeature(model, "F" + i);
+			feature.addAttribute(new LongFeatureAttribute(feature, "Value", "", values[i], false, false));
+			model.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		final FeatureModelFormula formula = new FeatureModelFormula(model);
+		final AttributeOptimizer optimizer = new AttributeOptimizer(formula, "Value");
+		assertEquals((1L << 54) + 5, optimizer.getMaximum(null).getValue());
+		assertEquals(-((1L << 53) + 1), optimizer.getMinimum(null).getValue());
+	}
+
+	private static double getSum(FeatureModelFormula formula, String attributeName, LiteralSet solution) {
+		final CNF cnf = formula.getCNF();
+		double sum = 0;
+		for (final int literal : solution.getLiterals()) {
+			if ((literal > 0) && !cnf.getVariables().isAuxiliary(literal)) {
+				final IExtendedFeature feature = (IExtendedFeature) formula.getFeatureModel().getFeature(cnf.getVariables().getName(literal));
+				for (final IFeatureAttribute attribute : feature.getAttributes()) {
+					if (attribute.getName().equals(attributeName) && (attribute.getValue() != null)) {
+						sum += ((Number) attribute.getValue()).doubleValue();
+					}
+				}
+			}
+		}
+		return sum;
+	}
+
+}
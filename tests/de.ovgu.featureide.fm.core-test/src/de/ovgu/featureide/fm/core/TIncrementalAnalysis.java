@@ -0,0 +1,154 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.IncrementalAnalysis.EditType;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.functional.Functional;
+
+/**
+ * Tests whether {@link FeatureModelAnalyzer#analyzeFeatureModel(FeatureModelAnalyzer, de.ovgu.featureide.fm.core.job.monitor.IMonitor)} computes the same
+ * results as a complete analysis of the edited feature model.
+ *
+ * @author agent
+ */
+public class TIncrementalAnalysis {
+
+	private static final String[] MODELS = { "berkeley_db_model.xml", "200-100.xml", "issue_264_model_optional.xml" };
+
+	private static final int NUMBER_OF_EDITS = 10;
+
+	private void testEdits(EditType expectedEditType, Consumer<IFeatureModel> edit) {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final FeatureModelFormula previousFormula = new FeatureModelFormula(featureModel);
+			final FeatureModelAnalyzer previousAnalyzer = new FeatureModelAnalyzer(previousFormula);
+			previousAnalyzer.analyzeFeatureModel(null);
+
+			for (int i = 0; i < NUMBER_OF_EDITS; i++) {
+				final IFeatureModel editedFeatureModel = featureModel.clone();
+				edit.accept(editedFeatureModel);
+
+				final FeatureModelFormula editedFormula = new FeatureModelFormula(editedFeatureModel);
+				final EditType editType = IncrementalAnalysis.getEditType(previousFormula.getCNF(), editedFormula.getCNF());
+				if ((editType != EditType.NONE) && (editType != expectedEditType)) {
+					assertEquals(modelName, expectedEditType, editType);
+				}
+
+				final FeatureModelAnalyzer incrementalAnalyzer = new FeatureModelAnalyzer(editedFormula);
+				incrementalAnalyzer.analyzeFeatureModel(previousAnalyzer, null);
+				final FeatureModelAnalyzer analyzer = new FeatureModelAnalyzer(editedFeatureModel);
+				analyzer.analyzeFeatureModel(null);
+
+				assertEquals(modelName, analyzer.isValid(null), incrementalAnalyzer.isValid(null));
+				assertEquals(modelName, getNames(analyzer.getCoreFeatures(null)), getNames(incrementalAnalyzer.getCoreFeatures(null)));
+				assertEquals(modelName, getNames(analyzer.getDeadFeatures(null)), getNames(incrementalAnalyzer.getDeadFeatures(null)));
+				assertEquals(modelName, getNames(analyzer.getFalseOptionalFeatures(null)), getNames(incrementalAnalyzer.getFalseOptionalFeatures(null)));
+				for (final IFeature feature : editedFeatureModel.getFeatures()) {
+					assertEquals(feature.getName(), analyzer.getFeatureProperties(feature).toString(),
+							incrementalAnalyzer.getFeatureProperties(feature).toString());
+				}
+			}
+		}
+	}
+
+	private static List<String> getNames(List<IFeature> features) {
+		return Functional.mapToList(features, IFeature::getName);
+	}
+
+	private static IFeature getRandomFeature(IFeatureModel featureModel, Random random) {
+		final List<IFeature> features = new ArrayList<>(featureModel.getFeatures());
+		return features.get(random.nextInt(features.size()));
+	}
+
+	@Test
+	public void testAddConstraint() {
+		final Random random = new Random(314159);
+		testEdits(EditType.RESTRICTING, featureModel -> {
+			final IFeature feature1 = getRandomFeature(featureModel, random);
+			final IFeature feature2 = getRandomFeature(featureModel, random);
+			featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel,
+					new Implies(new Literal(feature1.getName()), new Not(new Literal(feature2.getName())))));
+		});
+	}
+
+	@Test
+	public void testRemoveConstraint() {
+		final Random random = new Random(271828);
+		testEdits(EditType.RELAXING, featureModel -> {
+			final int numberOfConstraints = featureModel.getConstraintCount();
+			if (numberOfConstraints > 0) {
+				featureModel.removeConstraint(random.nextInt(numberOfConstraints));
+			}
+		});
+	}
+
+	@Test
+	public void testSetMandatory() {
+		final Random random = new Random(161803);
+		testEdits(EditType.RESTRICTING, featureModel -> {
+			final IFeatureStructure structure = getRandomFeature(featureModel, random).getStructure();
+			if (!structure.isRoot() && structure.getParent().isAnd()) {
+				structure.setMandatory(true);
+			}
+		});
+	}
+
+	@Test
+	public void testSetOptional() {
+		final Random random = new Random(141421);
+		testEdits(EditType.RELAXING, featureModel -> {
+			final IFeatureStructure structure = getRandomFeature(featureModel, random).getStructure();
+			if (!structure.isRoot()) {
+				structure.setMandatory(false);
+			}
+		});
+	}
+
+	@Test
+	public void testChangeToAlternative() {
+		final Random random = new Random(173205);
+		testEdits(EditType.RESTRICTING, featureModel -> {
+			final IFeatureStructure structure = getRandomFeature(featureModel, random).getStructure();
+			if (structure.isOr()) {
+				structure.changeToAlternative();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,127 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether {@link CoreDeadAnalysisMIG} computes the same results as {@link CoreDeadAnalysis}.
+ *
+ * @author agent
+ */
+public class TCoreDeadAnalysisMIG {
+
+	private static final int NUMBER_OF_ASSUMPTION_SETS = 50;
+
+	private static int[] getSortedLiterals(LiteralSet literalSet) {
+		final int[] literals = literalSet.getLiterals().clone();
+		Arrays.sort(literals);
+		return literals;
+	}
+
+	private static void testRandomAssumptions(IFeatureModel featureModel) {
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final CNF cnf = formula.getCNF();
+		final ModalImplicationGraph mig = formula.getModalImplicationGraph();
+		final int numberOfVariables = cnf.getVariables().size();
+		final Random random = new Random(314159);
+
+		for (int i = 0; i < NUMBER_OF_ASSUMPTION_SETS; i++) {
+			final int numberOfAssumptions = random.nextInt(Math.min(numberOfVariables, 5)) + (i == 0 ? 0 : 1);
+			final int[] assumptions = new int[numberOfAssumptions];
+			for (int j = 0; j < numberOfAssumptions; j++) {
+				final int variable = random.nextInt(numberOfVariables) + 1;
+				assumptions[j] = random.nextBoolean() ? variable : -variable;
+			}
+			final LiteralSet assumptionSet = new LiteralSet(assumptions);
+
+			final CoreDeadAnalysis expectedAnalysis = new CoreDeadAnalysis(cnf);
+			expectedAnalysis.setAssumptions(assumptionSet);
+			final CoreDeadAnalysisMIG actualAnalysis = new CoreDeadAnalysisMIG(cnf, mig);
+			actualAnalysis.setAssumptions(assumptionSet);
+
+			final String message = featureModel.getSourceFile() + " " + assumptionSet;
+			assertArrayEquals(message, getSortedLiterals(LongRunningWrapper.runMethod(expectedAnalysis)),
+					getSortedLiterals(LongRunningWrapper.runMethod(actualAnalysis)));
+		}
+	}
+
+	@Test
+	public void testSmallModels() {
+		testRandomAssumptions(Commons.loadTestFeatureModelFromFile("car.xml"));
+		testRandomAssumptions(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"));
+	}
+
+	@Test
+	public void testMediumModel() {
+		testRandomAssumptions(Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml"));
+	}
+
+	@Test
+	public void testLargeModel() {
+		testRandomAssumptions(Commons.loadBenchmarkFeatureModelFromFile("1000-100.xml"));
+	}
+
+	@Test
+	public void testWithoutComplexClauses() {
+		final List<String> names = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			names.add("F" + i);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		cnf.addClause(new LiteralSet(-1, 2));
+		cnf.addClause(new LiteralSet(-2, 3));
+		cnf.addClause(new LiteralSet(-3, -4));
+		cnf.addClause(new LiteralSet(4, 5));
+		cnf.addClause(new LiteralSet(-6, 1));
+		cnf.addClause(new LiteralSet(-6, -3));
+		final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, false));
+		assertEquals(0, mig.getComplexClauses().size());
+
+		final CoreDeadAnalysisMIG analysis = new CoreDeadAnalysisMIG(cnf, mig);
+		analysis.setAssumptions(new LiteralSet(1));
+		assertArrayEquals(new int[] { -6, -4, 2, 3, 5 }, getSortedLiterals(LongRunningWrapper.runMethod(analysis)));
+		assertEquals(0, analysis.getNumberOfSolverCalls());
+
+		analysis.setAssumptions(new LiteralSet(1, 4));
+		assertEquals(0, LongRunningWrapper.runMethod(analysis).size());
+		assertEquals(0, analysis.getNumberOfSolverCalls());
+	}
+
+}
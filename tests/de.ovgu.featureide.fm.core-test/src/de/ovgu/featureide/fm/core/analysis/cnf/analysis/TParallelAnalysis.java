@@ -0,0 +1,117 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether the parallel execution of {@link CoreDeadAnalysis}, {@link AtomicSetAnalysis}, and {@link IndependentRedundancyAnalysis} computes the same
+ * results as the sequential execution.
+ *
+ * @author agent
+ */
+public class TParallelAnalysis {
+
+	private static final String[] MODELS = { "berkeley_db_model.xml", "200-100-hidden.xml", "500-101.xml", "issue_264_model_alternative.xml" };
+
+	private static final int NUMBER_OF_THREADS = 4;
+
+	private static CNF getCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	private static <T> T execute(AbstractAnalysis<T> analysis, int numberOfThreads) {
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setTimeout(60000);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+	@Test
+	public void testCoreDeadAnalysis() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = getCNF(modelName);
+			final LiteralSet expected = execute(new CoreDeadAnalysis(cnf), 1);
+			final LiteralSet actual = execute(new CoreDeadAnalysis(cnf), NUMBER_OF_THREADS);
+			assertEquals(modelName, expected, actual);
+		}
+	}
+
+	@Test
+	public void testCoreDeadAnalysisWithAssumptions() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = getCNF(modelName);
+			final LiteralSet assumptions = new LiteralSet(cnf.getVariables().size());
+
+			final CoreDeadAnalysis sequentialAnalysis = new CoreDeadAnalysis(cnf);
+			sequentialAnalysis.setAssumptions(assumptions);
+			final CoreDeadAnalysis parallelAnalysis = new CoreDeadAnalysis(cnf);
+			parallelAnalysis.setAssumptions(assumptions);
+
+			assertEquals(modelName, execute(sequentialAnalysis, 1), execute(parallelAnalysis, NUMBER_OF_THREADS));
+		}
+	}
+
+	@Test
+	public void testAtomicSetAnalysis() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = getCNF(modelName);
+			final List<LiteralSet> expected = execute(new AtomicSetAnalysis(cnf), 1);
+			final List<LiteralSet> actual = execute(new AtomicSetAnalysis(cnf), NUMBER_OF_THREADS);
+			assertEquals(modelName, expected, actual);
+		}
+	}
+
+	@Test
+	public void testIndependentRedundancyAnalysis() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+			final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+			final Variables variables = cnf.getVariables();
+			final List<LiteralSet> clauses = new ArrayList<>();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				final IFeature parent = FeatureUtils.getParent(feature);
+				if (parent != null) {
+					clauses.add(new LiteralSet(variables.getVariable(parent.getName(), false), variables.getVariable(feature.getName(), true)));
+				}
+			}
+
+			final List<LiteralSet> expected = execute(new IndependentRedundancyAnalysis(cnf, clauses), 1);
+			final List<LiteralSet> actual = execute(new IndependentRedundancyAnalysis(cnf, clauses), NUMBER_OF_THREADS);
+			assertEquals(modelName, expected, actual);
+		}
+	}
+
+}
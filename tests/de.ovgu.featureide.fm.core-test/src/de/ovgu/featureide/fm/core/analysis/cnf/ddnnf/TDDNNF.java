@@ -0,0 +1,349 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.ddnnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.DDNNFRandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationAnalyzer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests the solution count of {@link DDNNF} against the enumeration of {@link CountSolutionsAnalysis}.
+ *
+ * @author agent
+ */
+public class TDDNNF {
+
+	private static long enumerate(CNF cnf, int... assumptions) {
+		final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(cnf);
+		analysis.setAssumptions(new LiteralSet(assumptions));
+		final Long count = LongRunningWrapper.runMethod(analysis);
+		return count == null ? 0 : count;
+	}
+
+	@Test
+	public void testRandomCNFs() {
+		final Random random = new Random(314159);
+		for (int i = 0; i < 500; i++) {
+			final int numberOfVariables = 1 + random.nextInt(10);
+			final List<String> names = new ArrayList<>();
+			for (int j = 1; j <= numberOfVariables; j++) {
+				names.add("v" + j);
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			final int numberOfClauses = random.nextInt(3 * numberOfVariables);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] literals = new int[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+				}
+				final LiteralSet clause = new LiteralSet(literals).clean();
+				if (clause != null) {
+					cnf.addClause(clause);
+				}
+			}
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			final int assumption = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			assertEquals(cnf.getClauseString(), BigInteger.valueOf(enumerate(cnf)), ddnnf.countSolutions());
+			assertEquals(cnf.getClauseString(), BigInteger.valueOf(enumerate(cnf, assumption)), ddnnf.countSolutions(new LiteralSet(assumption)));
+		}
+	}
+
+	private static double getMaximum(CNF cnf, double[] weights, int assumption) {
+		final int numberOfVariables = cnf.getVariables().size();
+		double maximum = Double.NEGATIVE_INFINITY;
+		solutionLoop: for (int i = 0; i < (1 << numberOfVariables); i++) {
+			final int[] solution = new int[numberOfVariables];
+			for (int var = 1; var <= numberOfVariables; var++) {
+				solution[var - 1] = ((i >> (var - 1)) & 1) == 1 ? var : -var;
+			}
+			if (solution[Math.abs(assumption) - 1] != assumption) {
+				continue;
+			}
+			for (final LiteralSet clause : cnf.getClauses()) {
+				if (!isSatisfied(clause, solution)) {
+					continue solutionLoop;
+				}
+			}
+			maximum = Math.max(maximum, getValue(weights, solution));
+		}
+		return maximum;
+	}
+
+	private static boolean isSatisfied(LiteralSet clause, int[] solution) {
+		for (final int literal : clause.getLiterals()) {
+			if (solution[Math.abs(literal) - 1] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static double getValue(double[] weights, int[] solution) {
+		double value = 0;
+		for (final int literal : solution) {
+			if (literal > 0) {
+				value += weights[literal];
+			}
+		}
+		return value;
+	}
+
+	@Test
+	public void testMaximumSolution() {
+		final Random random = new Random(161803);
+		for (int i = 0; i < 300; i++) {
+			final int numberOfVariables = 1 + random.nextInt(10);
+			final List<String> names = new ArrayList<>();
+			final double[] weights = new double[numberOfVariables + 1];
+			for (int j = 1; j <= numberOfVariables; j++) {
+				names.add("v" + j);
+				weights[j] = random.nextInt(21) - 10;
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			final int numberOfClauses = random.nextInt(3 * numberOfVariables);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] literals = new int[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+				}
+				final LiteralSet clause = new LiteralSet(literals).clean();
+				if (clause != null) {
+					cnf.addClause(clause);
+				}
+			}
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			final int assumption = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			final double expected = getMaximum(cnf, weights, assumption);
+			final LiteralSet solution = ddnnf.getMaximumSolution(weights, new LiteralSet(assumption));
+			if (expected == Double.NEGATIVE_INFINITY) {
+				assertNull(cnf.getClauseString(), solution);
+			} else {
+				assertEquals(cnf.getClauseString(), numberOfVariables, solution.size());
+				assertTrue(cnf.getClauseString(), solution.containsAll(new LiteralSet(assumption)));
+				for (final LiteralSet clause : cnf.getClauses()) {
+					assertTrue(cnf.getClauseString(), isSatisfied(clause, solution.getLiterals()));
+				}
+				assertEquals(cnf.getClauseString(), expected, getValue(weights, solution.getLiterals()), 0);
+			}
+		}
+	}
+
+	/**
+	 * Uses weights above 2^53, whose sums cannot be represented exactly as double.
+	 */
+	@Test
+	public void testMaximumSolutionLong() {
+		final Random random = new Random(141421);
+		for (int i = 0; i < 300; i++) {
+			final int numberOfVariables = 1 + random.nextInt(10);
+			final List<String> names = new ArrayList<>();
+			final long[] weights = new long[numberOfVariables + 1];
+			for (int j = 1; j <= numberOfVariables; j++) {
+				names.add("v" + j);
+				weights[j] = (random.nextBoolean() ? 1 : -1) * ((1L << 53) + random.nextInt(16));
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			final int numberOfClauses = random.nextInt(3 * numberOfVariables);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] literals = new int[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+				}
+				final LiteralSet clause = new LiteralSet(literals).clean();
+				if (clause != null) {
+					cnf.addClause(clause);
+				}
+			}
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			Long expected = null;
+			solutionLoop: for (int k = 0; k < (1 << numberOfVariables); k++) {
+				final int[] solution = new int[numberOfVariables];
+				for (int var = 1; var <= numberOfVariables; var++) {
+					solution[var - 1] = ((k >> (var - 1)) & 1) == 1 ? var : -var;
+				}
+				for (final LiteralSet clause : cnf.getClauses()) {
+					if (!isSatisfied(clause, solution)) {
+						continue solutionLoop;
+					}
+				}
+				final long value = getValue(weights, solution);
+				expected = (expected == null) ? value : Math.max(expected, value);
+			}
+			final LiteralSet solution = ddnnf.getMaximumSolution(weights, null);
+			if (expected == null) {
+				assertNull(cnf.getClauseString(), solution);
+			} else {
+				assertEquals(cnf.getClauseString(), expected.longValue(), getValue(weights, solution.getLiterals()));
+			}
+		}
+	}
+
+	private static long getValue(long[] weights, int[] solution) {
+		long value = 0;
+		for (final int literal : solution) {
+			if (literal > 0) {
+				value += weights[literal];
+			}
+		}
+		return value;
+	}
+
+	@Test
+	public void testUniformSampling() {
+		final Random random = new Random(271828);
+		for (int i = 0; i < 50; i++) {
+			final int numberOfVariables = 1 + random.nextInt(6);
+			final List<String> names = new ArrayList<>();
+			for (int j = 1; j <= numberOfVariables; j++) {
+				names.add("v" + j);
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			final int numberOfClauses = random.nextInt(2 * numberOfVariables);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] literals = new int[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+				}
+				final LiteralSet clause = new LiteralSet(literals).clean();
+				if (clause != null) {
+					cnf.addClause(clause);
+				}
+			}
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			final int assumption = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			final long count = enumerate(cnf, assumption);
+			final DDNNFSampler sampler = new DDNNFSampler(ddnnf, new LiteralSet(assumption));
+			assertEquals(cnf.getClauseString(), BigInteger.valueOf(count), sampler.countSolutions());
+			if (count == 0) {
+				assertNull(cnf.getClauseString(), sampler.sample(random));
+				continue;
+			}
+
+			final int samplesPerSolution = 2000;
+			final HashMap<LiteralSet, Integer> frequencies = new HashMap<>();
+			for (int j = 0; j < (count * samplesPerSolution); j++) {
+				final LiteralSet solution = sampler.sample(random);
+				assertEquals(cnf.getClauseString(), numberOfVariables, solution.size());
+				assertTrue(cnf.getClauseString(), solution.containsAll(new LiteralSet(assumption)));
+				frequencies.merge(solution, 1, Integer::sum);
+			}
+			assertEquals(cnf.getClauseString(), count, frequencies.size());
+			for (final LiteralSet solution : frequencies.keySet()) {
+				for (final LiteralSet clause : cnf.getClauses()) {
+					assertTrue(cnf.getClauseString(), isSatisfied(clause, solution.getLiterals()));
+				}
+				assertEquals(cnf.getClauseString(), samplesPerSolution, frequencies.get(solution), samplesPerSolution / 5);
+			}
+		}
+	}
+
+	@Test
+	public void testUniformSampleWithoutDuplicates() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"));
+		final long count = enumerate(formula.getCNF());
+		final DDNNFRandomConfigurationGenerator generator =
+			new DDNNFRandomConfigurationGenerator(formula.getCNF(), formula.getElement(new DDNNFCreator()), Integer.MAX_VALUE);
+		generator.setRandom(new Random(0));
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator);
+		assertEquals(count, sample.size());
+		assertEquals(count, new HashSet<>(sample).size());
+		for (final LiteralSet solution : sample) {
+			for (final LiteralSet clause : formula.getCNF().getClauses()) {
+				assertTrue(isSatisfied(clause, solution.getLiterals()));
+			}
+		}
+	}
+
+	@Test
+	public void testFeatureModel() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"));
+		final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+		assertEquals(BigInteger.valueOf(enumerate(formula.getCNF())), ddnnf.countSolutions());
+		final int feature = formula.getVariables().getVariable("UndirectedWithEdges");
+		assertEquals(BigInteger.valueOf(enumerate(formula.getCNF(), feature)), ddnnf.countSolutions(new LiteralSet(feature)));
+		assertEquals(BigInteger.valueOf(enumerate(formula.getCNF(), -feature)), ddnnf.countSolutions(new LiteralSet(-feature)));
+	}
+
+	@Test
+	public void testUnsatisfiable() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("unsatisfiable.xml"));
+		assertEquals(BigInteger.ZERO, formula.getElement(new DDNNFCreator()).countSolutions());
+	}
+
+	@Test(timeout = 60000, expected = RuntimeTimeoutException.class)
+	public void testTimeout() throws Exception {
+		final Random random = new Random(141421);
+		final int numberOfVariables = 200;
+		final List<String> names = new ArrayList<>();
+		for (int j = 1; j <= numberOfVariables; j++) {
+			names.add("v" + j);
+		}
+		final CNF cnf = new CNF(new Variables(names));
+		for (int j = 0; j < (2 * numberOfVariables); j++) {
+			final int[] literals = new int[3];
+			for (int k = 0; k < literals.length; k++) {
+				literals[k] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			}
+			final LiteralSet clause = new LiteralSet(literals).clean();
+			if (clause != null) {
+				cnf.addClause(clause);
+			}
+		}
+		final DDNNFCompiler compiler = new DDNNFCompiler(cnf);
+		compiler.setTimeout(1);
+		compiler.execute(new NullMonitor<DDNNF>());
+	}
+
+	@Test
+	public void testBoundedCount() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"));
+		final ConfigurationAnalyzer analyzer = new ConfigurationAnalyzer(formula, new Configuration(formula));
+		final BigInteger count = analyzer.countSolutions(60000);
+		assertNotNull(count);
+		assertEquals(analyzer.countSolutions(), count);
+		assertEquals(count.longValue(), analyzer.number(1000));
+	}
+
+}
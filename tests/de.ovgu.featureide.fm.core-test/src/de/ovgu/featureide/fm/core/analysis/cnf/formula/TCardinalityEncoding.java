@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CardinalityEncoding;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether the {@link CardinalityEncoding#SequentialCounter sequential counter} encoding preserves the solutions of a feature model.
+ *
+ * @author agent
+ */
+public class TCardinalityEncoding {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private static IFeature addChild(IFeatureModel featureModel, IFeature parent, String name, boolean mandatory) {
+		final IFeature feature = factory.createFeature(featureModel, name);
+		featureModel.addFeature(feature);
+		feature.getStructure().setMandatory(mandatory);
+		parent.getStructure().addChild(feature.getStructure());
+		return feature;
+	}
+
+	private static Literal[] addGroup(IFeatureModel featureModel, IFeature parent, String prefix, int numberOfChildren) {
+		final Literal[] literals = new Literal[numberOfChildren];
+		for (int i = 0; i < numberOfChildren; i++) {
+			literals[i] = new Literal(addChild(featureModel, parent, prefix + i, false).getName(), (i % 3) != 2);
+		}
+		return literals;
+	}
+
+	private static IFeatureModel createFeatureModel() {
+		final IFeatureModel featureModel = factory.create();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+
+		final IFeature alternative = addChild(featureModel, root, "Alternative", true);
+		addGroup(featureModel, alternative, "A", 12);
+		alternative.getStructure().setAlternative();
+
+		final IFeature or = addChild(featureModel, root, "Or", false);
+		final Literal[] orLiterals = addGroup(featureModel, or, "B", 10);
+		or.getStructure().setOr();
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Choose(3, (Object[]) orLiterals)));
+
+		final IFeature and = addChild(featureModel, root, "And", false);
+		final Literal[] andLiterals = addGroup(featureModel, and, "C", 9);
+		featureModel.addConstraint(factory.createConstraint(featureModel, new And(new AtMost(2, (Object[]) andLiterals), new Literal("Root"))));
+		return featureModel;
+	}
+
+	private static List<IFeatureModel> getFeatureModels() {
+		final List<IFeatureModel> featureModels = new ArrayList<>();
+		featureModels.add(createFeatureModel());
+		featureModels.add(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		featureModels.add(Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_alternative.xml"));
+		return featureModels;
+	}
+
+	@Test
+	public void testSolutionCount() {
+		for (final IFeatureModel featureModel : getFeatureModels()) {
+			final CNF pairwiseCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.Pairwise).getCNF();
+			final CNF sequentialCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.SequentialCounter).getCNF();
+			assertEquals(LongRunningWrapper.runMethod(new DDNNFCompiler(pairwiseCNF)).countSolutions(),
+					LongRunningWrapper.runMethod(new DDNNFCompiler(sequentialCNF)).countSolutions());
+		}
+	}
+
+	@Test
+	public void testAuxiliaryVariables() {
+		final IFeatureModel featureModel = createFeatureModel();
+		final CNF pairwiseCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.Pairwise).getCNF();
+		final CNF sequentialCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.SequentialCounter).getCNF();
+		final Variables pairwiseVariables = pairwiseCNF.getVariables();
+		final Variables sequentialVariables = sequentialCNF.getVariables();
+
+		assertEquals(featureModel.getNumberOfFeatures(), pairwiseVariables.size());
+		assertTrue(sequentialVariables.size() > featureModel.getNumberOfFeatures());
+		assertTrue(sequentialCNF.getClauses().size() < pairwiseCNF.getClauses().size());
+		for (int i = 1; i <= featureModel.getNumberOfFeatures(); i++) {
+			assertEquals(pairwiseVariables.getName(i), sequentialVariables.getName(i));
+			assertFalse(sequentialVariables.isAuxiliary(i));
+		}
+		for (int i = featureModel.getNumberOfFeatures() + 1; i <= sequentialVariables.size(); i++) {
+			assertTrue(sequentialVariables.isAuxiliary(i));
+		}
+
+		final LiteralSet pairwiseCoreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(pairwiseCNF));
+		final LiteralSet sequentialCoreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(sequentialCNF));
+		assertEquals(pairwiseVariables.convertToString(pairwiseCoreDead, true, true), sequentialVariables.convertToString(sequentialCoreDead, true, true));
+	}
+
+	@Test
+	public void testNegatedConstraint() {
+		final IFeatureModel featureModel = createFeatureModel();
+		final IFeature root = featureModel.getStructure().getRoot().getFeature();
+		final Literal[] literals = addGroup(featureModel, root, "D", 10);
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Not(new AtMost(1, (Object[]) literals))));
+		final CNF pairwiseCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.Pairwise).getCNF();
+		final CNF sequentialCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.SequentialCounter).getCNF();
+		assertEquals(LongRunningWrapper.runMethod(new DDNNFCompiler(pairwiseCNF)).countSolutions(),
+				LongRunningWrapper.runMethod(new DDNNFCompiler(sequentialCNF)).countSolutions());
+	}
+
+}
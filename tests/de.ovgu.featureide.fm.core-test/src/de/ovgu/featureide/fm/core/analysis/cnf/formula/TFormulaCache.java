@@ -0,0 +1,187 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CardinalityEncoding;
+import de.ovgu.featureide.fm.core.io.binary.BinaryCNFFormat;
+import de.ovgu.featureide.fm.core.io.binary.BinaryMIGFormat;
+
+/**
+ * Tests the {@link FormulaCache} and the binary formats for {@link CNF} and {@link ModalImplicationGraph}.
+ *
+ * @author agent
+ */
+public class TFormulaCache {
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("formulacache");
+		FormulaCache.setCacheDirectory(directory);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FormulaCache.setCacheDirectory(null);
+		for (final Path file : listFiles()) {
+			Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testCNFFormat() throws IOException {
+		final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml")).getCNF();
+		final Path path = directory.resolve("test.cnf.bin");
+		final byte[] key = new byte[] { 1, 2, 3 };
+		new BinaryCNFFormat().write(path, cnf, key);
+
+		final CNF readCNF = new BinaryCNFFormat().read(path, key);
+		assertEquals(cnf.getVariables(), readCNF.getVariables());
+		assertEquals(cnf.getClauses(), readCNF.getClauses());
+		assertNull(new BinaryCNFFormat().read(path, new byte[] { 1, 2 }));
+		assertNull(new BinaryMIGFormat().read(path, key));
+	}
+
+	@Test
+	public void testMIGFormat() throws IOException {
+		final ModalImplicationGraph mig = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"))
+				.getElement(new ModalImplicationGraphCreator());
+		final Path path = directory.resolve("test.mig.bin");
+		final byte[] key = new byte[0];
+		new BinaryMIGFormat().write(path, mig, key);
+
+		final ModalImplicationGraph readMIG = new BinaryMIGFormat().read(path, key);
+		assertEquals(mig.getAdjList().size(), readMIG.getAdjList().size());
+		for (int i = 0; i < mig.getAdjList().size(); i++) {
+			final Vertex vertex = mig.getAdjList().get(i);
+			final Vertex readVertex = readMIG.getAdjList().get(i);
+			assertEquals(vertex.getVar(), readVertex.getVar());
+			assertEquals(vertex.getId(), readVertex.getId());
+			assertEquals(vertex.isCore(), readVertex.isCore());
+			assertEquals(vertex.isDead(), readVertex.isDead());
+			assertArrayEquals(vertex.getStrongEdges(), readVertex.getStrongEdges());
+			assertArrayEquals(vertex.getComplexClauses(), readVertex.getComplexClauses());
+		}
+		assertEquals(mig.getComplexClauses(), readMIG.getComplexClauses());
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+		final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+		assertEquals(1, listFiles().size());
+
+		final CNF cachedCNF = new FeatureModelFormula(featureModel).getCNF();
+		assertTrue(cachedCNF instanceof FeatureModelCNF);
+		assertEquals(cnf, cachedCNF);
+		assertEquals(1, listFiles().size());
+
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.getElement(new ModalImplicationGraphCreator());
+		assertEquals(2, listFiles().size());
+
+		final String[] names = cnf.getVariables().getNames();
+		featureModel.addConstraint(DefaultFeatureModelFactory.getInstance().createConstraint(featureModel,
+				new Implies(new Literal(names[names.length - 1]), new Literal(names[names.length - 2]))));
+		final CNF changedCNF = new FeatureModelFormula(featureModel).getCNF();
+		assertFalse(cnf.equals(changedCNF));
+		assertEquals(3, listFiles().size());
+	}
+
+	@Test
+	public void testKey() {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+		final byte[] key = FormulaCache.computeKey(new FeatureModelFormula(featureModel), "cnf");
+		assertArrayEquals(key, FormulaCache.computeKey(new FeatureModelFormula(featureModel.clone()), "cnf"));
+		assertFalse(Arrays.equals(key, FormulaCache.computeKey(new FeatureModelFormula(featureModel), "mig")));
+		assertFalse(Arrays.equals(key, FormulaCache.computeKey(new FeatureModelFormula(featureModel, CardinalityEncoding.Pairwise, 4), "cnf")));
+
+		IFeatureStructure optionalStructure = null;
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			if (!structure.isMandatory() && structure.getParent().isAnd()) {
+				optionalStructure = structure;
+				break;
+			}
+		}
+		optionalStructure.setMandatory(true);
+		assertFalse(Arrays.equals(key, FormulaCache.computeKey(new FeatureModelFormula(featureModel), "cnf")));
+		optionalStructure.setMandatory(false);
+		assertArrayEquals(key, FormulaCache.computeKey(new FeatureModelFormula(featureModel), "cnf"));
+
+		FormulaCache.setCacheDirectory(null);
+		assertNull(FormulaCache.computeKey(new FeatureModelFormula(featureModel), "cnf"));
+	}
+
+	@Test
+	public void testReplaceReadFile() throws IOException {
+		final CNF cnf = new FeatureModelFormula(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml")).getCNF();
+		final Path path = directory.resolve("test.cnf.bin");
+		final byte[] key = new byte[] { 1 };
+		new BinaryCNFFormat().write(path, cnf, key);
+		assertEquals(cnf.getClauses(), new BinaryCNFFormat().read(path, key).getClauses());
+
+		new BinaryCNFFormat().write(path, cnf, new byte[] { 2 });
+		assertNull(new BinaryCNFFormat().read(path, key));
+		Files.delete(path);
+		assertNull(new BinaryCNFFormat().read(path, key));
+	}
+
+	private List<Path> listFiles() throws IOException {
+		final List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			stream.forEach(files::add);
+		}
+		return files;
+	}
+
+}
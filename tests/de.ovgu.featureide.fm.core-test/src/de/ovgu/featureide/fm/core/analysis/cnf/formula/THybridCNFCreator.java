@@ -0,0 +1,227 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.DDNNFRandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CardinalityEncoding;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether the {@link HybridCNFCreator} preserves the solutions of a feature model.
+ *
+ * @author agent
+ */
+public class THybridCNFCreator {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private static IFeatureModel createFeatureModel(int numberOfFeatures) {
+		final IFeatureModel featureModel = factory.create();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final IFeature feature = factory.createFeature(featureModel, "F" + i);
+			featureModel.addFeature(feature);
+			feature.getStructure().setMandatory(false);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		return featureModel;
+	}
+
+	private static Node createRandomNode(Random random, int numberOfFeatures, int depth) {
+		if ((depth == 0) || (random.nextInt(4) == 0)) {
+			return new Literal("F" + random.nextInt(numberOfFeatures), random.nextBoolean());
+		}
+		final Node[] children = new Node[2 + random.nextInt(2)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createRandomNode(random, numberOfFeatures, depth - 1);
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new And(children);
+		case 1:
+			return new Or(children);
+		case 2:
+			return new Not(new And(children));
+		case 3:
+			return new Implies(children[0], children[1]);
+		default:
+			return new Equals(children[0], children[1]);
+		}
+	}
+
+	private static BigInteger countSolutions(CNF cnf) {
+		return LongRunningWrapper.runMethod(new DDNNFCompiler(cnf)).countSolutions();
+	}
+
+	@Test
+	public void testRandomConstraints() {
+		final Random random = new Random(271828);
+		for (int i = 0; i < 200; i++) {
+			final int numberOfFeatures = 4 + random.nextInt(6);
+			final IFeatureModel featureModel = createFeatureModel(numberOfFeatures);
+			for (int j = random.nextInt(3); j >= 0; j--) {
+				featureModel.addConstraint(factory.createConstraint(featureModel, createRandomNode(random, numberOfFeatures, 4)));
+			}
+			final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+			final CNF cnf = formula.getCNF();
+			final CNF hybridCNF = formula.getElement(new HybridCNFCreator(1 + random.nextInt(4)));
+			assertEquals(featureModel.getConstraints().toString(), countSolutions(cnf), countSolutions(hybridCNF));
+		}
+	}
+
+	/**
+	 * Selects the hybrid CNF via the distribution threshold of the formula and compares all solutions projected on the feature variables.
+	 */
+	@Test
+	public void testFormulaDistributionThreshold() {
+		final Random random = new Random(314159);
+		boolean hasAuxiliaryVariables = false;
+		for (int i = 0; i < 50; i++) {
+			final int numberOfFeatures = 4 + random.nextInt(6);
+			final IFeatureModel featureModel = createFeatureModel(numberOfFeatures);
+			for (int j = random.nextInt(3); j >= 0; j--) {
+				featureModel.addConstraint(factory.createConstraint(featureModel, createRandomNode(random, numberOfFeatures, 4)));
+			}
+			final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+			final CNF hybridCNF = new FeatureModelFormula(featureModel, CardinalityEncoding.Pairwise, 1 + random.nextInt(4)).getCNF();
+			hasAuxiliaryVariables |= hybridCNF.getVariables().size() > cnf.getVariables().size();
+
+			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(cnf));
+			final List<LiteralSet> hybridSolutions = LongRunningWrapper.runMethod(new AllConfigurationGenerator(hybridCNF));
+			assertEquals(featureModel.getConstraints().toString(), solutions.size(), hybridSolutions.size());
+			assertEquals(featureModel.getConstraints().toString(), new HashSet<>(solutions), new HashSet<>(hybridSolutions));
+		}
+		assertTrue(hasAuxiliaryVariables);
+	}
+
+	@Test
+	public void testDisjunctionOfConjunctions() {
+		final int numberOfTerms = 12;
+		final IFeatureModel featureModel = createFeatureModel(2 * numberOfTerms);
+		final Node[] terms = new Node[numberOfTerms];
+		for (int i = 0; i < numberOfTerms; i++) {
+			terms[i] = new And(new Literal("F" + (2 * i)), new Literal("F" + ((2 * i) + 1)));
+		}
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Or(terms)));
+
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final CNF cnf = formula.getCNF();
+		final CNF hybridCNF = formula.getElement(new HybridCNFCreator());
+		final Variables variables = hybridCNF.getVariables();
+
+		assertEquals(1 << numberOfTerms, cnf.getClauses().size() - (2 * numberOfTerms) - 1);
+		assertTrue(hybridCNF.getClauses().size() < (10 * numberOfTerms));
+		assertEquals(countSolutions(cnf), countSolutions(hybridCNF));
+		for (int i = featureModel.getNumberOfFeatures() + 1; i <= variables.size(); i++) {
+			assertTrue(variables.isAuxiliary(i));
+		}
+	}
+
+	/**
+	 * Uses a model in which some conjunctions are always or never satisfied, such that their auxiliary variables are core or dead.
+	 */
+	@Test
+	public void testAuxiliaryVariablesAreHidden() {
+		final int numberOfTerms = 6;
+		final IFeatureModel featureModel = createFeatureModel(2 * numberOfTerms);
+		final Node[] terms = new Node[numberOfTerms];
+		for (int i = 0; i < numberOfTerms; i++) {
+			terms[i] = new And(new Literal("F" + (2 * i)), new Literal("F" + ((2 * i) + 1)));
+		}
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Or(terms)));
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Literal("F0", false)));
+		featureModel.addConstraint(factory.createConstraint(featureModel, new And("F2", "F3")));
+
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final CNF cnf = formula.getCNF();
+		final CNF hybridCNF = formula.getElement(new HybridCNFCreator(8));
+		final Variables variables = hybridCNF.getVariables();
+		final int numberOfFeatures = featureModel.getNumberOfFeatures();
+		assertTrue(variables.size() > numberOfFeatures);
+
+		final LiteralSet coreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(hybridCNF));
+		final LiteralSet featureCoreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf));
+		boolean auxiliaryCoreDead = false;
+		for (final int literal : coreDead.getLiterals()) {
+			auxiliaryCoreDead |= variables.isAuxiliary(literal);
+		}
+		assertTrue(auxiliaryCoreDead);
+		assertEquals(new HashSet<>(cnf.getVariables().convertToString(featureCoreDead, true, true)),
+				new HashSet<>(variables.convertToString(coreDead, true, true)));
+
+		final List<LiteralSet> allConfigurations = LongRunningWrapper.runMethod(new AllConfigurationGenerator(hybridCNF));
+		assertEquals(countSolutions(cnf), BigInteger.valueOf(allConfigurations.size()));
+		assertValidConfigurations(cnf, allConfigurations);
+		assertEquals(new HashSet<>(LongRunningWrapper.runMethod(new AllConfigurationGenerator(cnf))), new HashSet<>(allConfigurations));
+
+		assertValidConfigurations(cnf, LongRunningWrapper.runMethod(new RandomConfigurationGenerator(hybridCNF, 20)));
+		assertValidConfigurations(cnf, LongRunningWrapper.runMethod(new DDNNFRandomConfigurationGenerator(hybridCNF, 20)));
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(hybridCNF, 2));
+		assertFalse(sample.isEmpty());
+		assertValidConfigurations(cnf, sample);
+	}
+
+	private static void assertValidConfigurations(CNF cnf, List<LiteralSet> configurations) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (final LiteralSet configuration : configurations) {
+			assertEquals(cnf.getVariables().size(), configuration.size());
+			for (final int literal : configuration.getLiterals()) {
+				assertFalse(cnf.getVariables().isAuxiliary(literal));
+			}
+			assertEquals(SatResult.TRUE, solver.hasSolution(configuration));
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the sequential and parallel enumeration of the {@link AllConfigurationGenerator}.
+ *
+ * @author agent
+ */
+public class TAllConfigurationGenerator {
+
+	private static final String[] MODELS = { "car.xml", "gpl_medium_model.xml" };
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	private static List<LiteralSet> enumerate(CNF cnf, int maxNumber, int numberOfThreads, int numberOfCubeVariables, LiteralSet assumptions) {
+		final AllConfigurationGenerator generator = new AllConfigurationGenerator(cnf, maxNumber);
+		generator.setNumberOfThreads(numberOfThreads);
+		generator.setNumberOfCubeVariables(numberOfCubeVariables);
+		generator.setAssumptions(assumptions);
+		return LongRunningWrapper.runMethod(generator);
+	}
+
+	private static void assertAllSolutions(CNF cnf, BigInteger expectedCount, LiteralSet assumptions, List<LiteralSet> solutions) {
+		assertEquals(expectedCount, BigInteger.valueOf(solutions.size()));
+		assertEquals(solutions.size(), new HashSet<>(solutions).size());
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (final LiteralSet solution : solutions) {
+			assertEquals(SatResult.TRUE, solver.hasSolution(solution));
+			if (assumptions != null) {
+				assertTrue(solution.containsAll(assumptions));
+			}
+		}
+	}
+
+	@Test
+	public void testSequential() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			assertAllSolutions(cnf, ddnnf.countSolutions(), null, enumerate(cnf, Integer.MAX_VALUE, 1, -1, null));
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+			final List<LiteralSet> solutions = enumerate(cnf, Integer.MAX_VALUE, 4, -1, null);
+			assertAllSolutions(cnf, ddnnf.countSolutions(), null, solutions);
+			assertEquals(solutions, enumerate(cnf, Integer.MAX_VALUE, 2, 5, null));
+		}
+	}
+
+	@Test
+	public void testAssumptions() {
+		final CNF cnf = loadCNF("gpl_medium_model.xml");
+		final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+		final LiteralSet assumptions = new LiteralSet(cnf.getVariables().getVariable("Weighted", true), cnf.getVariables().getVariable("Undirected", false));
+		final BigInteger expectedCount = ddnnf.countSolutions(assumptions);
+		assertAllSolutions(cnf, expectedCount, assumptions, enumerate(cnf, Integer.MAX_VALUE, 1, -1, assumptions));
+		assertAllSolutions(cnf, expectedCount, assumptions, enumerate(cnf, Integer.MAX_VALUE, 4, 3, assumptions));
+	}
+
+	@Test
+	public void testLimit() {
+		final CNF cnf = loadCNF("gpl_medium_model.xml");
+		final List<LiteralSet> solutions = enumerate(cnf, Integer.MAX_VALUE, 4, 5, null);
+		assertEquals(solutions.subList(0, 100), enumerate(cnf, 100, 4, 5, null));
+		assertEquals(100, enumerate(cnf, 100, 1, -1, null).size());
+	}
+
+	@Test
+	public void testManyCubes() {
+		final CNF cnf = loadCNF("gpl_medium_model.xml");
+		final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFCompiler(cnf));
+		// Each worker reuses its solver for many cubes
+		final List<LiteralSet> solutions = enumerate(cnf, Integer.MAX_VALUE, 1, 6, null);
+		assertAllSolutions(cnf, ddnnf.countSolutions(), null, solutions);
+		assertEquals(solutions, enumerate(cnf, Integer.MAX_VALUE, 3, 6, null));
+	}
+
+	@Test
+	public void testUnordered() {
+		final CNF cnf = loadCNF("gpl_medium_model.xml");
+		final List<LiteralSet> solutions = enumerate(cnf, Integer.MAX_VALUE, 4, 5, null);
+		final AllConfigurationGenerator generator = new AllConfigurationGenerator(cnf);
+		generator.setNumberOfThreads(4);
+		generator.setNumberOfCubeVariables(5);
+		generator.setOrdered(false);
+		final List<LiteralSet> unorderedSolutions = LongRunningWrapper.runMethod(generator);
+		assertEquals(solutions.size(), unorderedSolutions.size());
+		assertEquals(new HashSet<>(solutions), new HashSet<>(unorderedSolutions));
+
+		final AllConfigurationGenerator limitedGenerator = new AllConfigurationGenerator(cnf, 100);
+		limitedGenerator.setNumberOfThreads(4);
+		limitedGenerator.setNumberOfCubeVariables(5);
+		limitedGenerator.setOrdered(false);
+		assertEquals(100, LongRunningWrapper.runMethod(limitedGenerator).size());
+	}
+
+}
@@ -0,0 +1,89 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the parallel execution of the {@link TWiseConfigurationGenerator}.
+ *
+ * @author agent
+ */
+public class TParallelTWiseConfigurationGenerator {
+
+	private static final String[] MODELS = { "berkeley_db_model.xml", "gpl_medium_model.xml" };
+
+	private static List<LiteralSet> sample(CNF cnf, int numberOfThreads, boolean independentIterations) {
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(cnf, 2);
+		generator.setRandom(new Random(1));
+		generator.setIterations(3);
+		generator.setIndependentIterations(independentIterations);
+		generator.setNumberOfThreads(numberOfThreads);
+		return LongRunningWrapper.runMethod(generator);
+	}
+
+	private static void checkSample(CNF cnf, List<LiteralSet> sample) {
+		final SampleTester tester = new SampleTester(cnf);
+		tester.setSample(sample);
+		assertFalse(tester.hasInvalidSolutions());
+		assertEquals(1.0, tester.getCoverage(new TWiseCoverageCriterion(cnf, 2)), 0);
+	}
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	@Test
+	public void testSolverPool() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final List<LiteralSet> sample = sample(cnf, 4, false);
+			checkSample(cnf, sample);
+			assertEquals(modelName, sample, sample(cnf, 4, false));
+			assertEquals(modelName, sample, sample(cnf, 1, false));
+			assertEquals(modelName, sample, sample(cnf, 2, false));
+			assertEquals(modelName, sample, sample(cnf, 3, false));
+		}
+	}
+
+	@Test
+	public void testIndependentIterations() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = loadCNF(modelName);
+			final List<LiteralSet> sample = sample(cnf, 1, true);
+			checkSample(cnf, sample);
+			assertEquals(modelName, sample, sample(cnf, 4, true));
+		}
+	}
+
+}
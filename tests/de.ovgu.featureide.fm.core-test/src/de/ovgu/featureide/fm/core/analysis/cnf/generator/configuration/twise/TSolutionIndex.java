@@ -0,0 +1,123 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Tests the {@link SolutionIndex} against a linear scan of the stored solutions.
+ *
+ * @author agent
+ */
+public class TSolutionIndex {
+
+	private static final int VARIABLES = 20;
+	private static final int CAPACITY = 150;
+
+	private static LiteralSet randomSolution(Random random) {
+		final int[] literals = new int[VARIABLES];
+		for (int i = 0; i < VARIABLES; i++) {
+			literals[i] = random.nextBoolean() ? (i + 1) : -(i + 1);
+		}
+		return new LiteralSet(literals, Order.INDEX, false);
+	}
+
+	private static int[] randomCombination(Random random, int t) {
+		final int[] combination = new int[t];
+		for (int i = 0; i < t; i++) {
+			final int var = random.nextInt(VARIABLES) + 1;
+			combination[i] = random.nextBoolean() ? var : -var;
+		}
+		return combination;
+	}
+
+	private static boolean isCompatible(LiteralSet solution, int[] literals) {
+		return (solution != null) && !solution.hasConflicts(new LiteralSet(literals));
+	}
+
+	@Test
+	public void testCompatibleSolutions() {
+		final Random random = new Random(0);
+		final SolutionIndex index = new SolutionIndex(VARIABLES, CAPACITY);
+		for (int round = 0; round < 400; round++) {
+			index.add(randomSolution(random));
+			final int[] combination = randomCombination(random, 1 + random.nextInt(4));
+
+			final long[] candidates = index.getCompatibleSolutions(combination);
+			boolean expected = false;
+			for (int i = 0; i < CAPACITY; i++) {
+				final boolean compatible = isCompatible(index.get(i), combination);
+				expected |= compatible;
+				assertEquals(compatible, ((i >>> 6) < candidates.length) && ((candidates[i >>> 6] & (1L << i)) != 0));
+			}
+			assertEquals(expected, index.hasCompatibleSolution(null, combination));
+			assertEquals(expected, !SolutionIndex.isEmpty(candidates));
+		}
+	}
+
+	@Test
+	public void testCandidates() {
+		final Random random = new Random(1);
+		final SolutionIndex index = new SolutionIndex(VARIABLES, CAPACITY);
+		final int[] selection = { 1, -2 };
+		long[] candidates = index.getCompatibleSolutions(selection);
+		assertEquals(-1, index.getLastSolution(candidates));
+
+		int last = -1;
+		for (int round = 0; round < 400; round++) {
+			final LiteralSet solution = randomSolution(random);
+			final int position = index.add(solution);
+			if (position >= 0) {
+				final boolean compatible = isCompatible(solution, selection);
+				candidates = SolutionIndex.setBit(candidates, position, compatible);
+				if (compatible) {
+					last = position;
+				} else if (position == last) {
+					last = -1;
+				}
+			}
+			if (last >= 0) {
+				assertEquals(last, index.getLastSolution(candidates));
+			}
+			final int[] combination = randomCombination(random, 2);
+			boolean expected = false;
+			for (int i = 0; i < CAPACITY; i++) {
+				final long bit = (i >>> 6) < candidates.length ? candidates[i >>> 6] & (1L << i) : 0;
+				expected |= (bit != 0) && isCompatible(index.get(i), combination);
+			}
+			assertEquals(expected, index.hasCompatibleSolution(candidates, combination));
+		}
+
+		index.retainCompatibleSolutions(candidates, -1);
+		assertTrue(SolutionIndex.isEmpty(candidates));
+		assertFalse(index.hasCompatibleSolution(candidates, new int[0]));
+	}
+
+}
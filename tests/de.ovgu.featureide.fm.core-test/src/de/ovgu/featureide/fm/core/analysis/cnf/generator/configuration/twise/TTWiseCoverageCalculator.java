@@ -0,0 +1,146 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link TWiseCoverageCalculator} against the {@link TWiseConfigurationStatistic}.
+ *
+ * @author agent
+ */
+public class TTWiseCoverageCalculator {
+
+	private static final String[] MODELS = { "berkeley_db_model.xml", "gpl_medium_model.xml" };
+
+	private static List<LiteralSet> createSample(CNF cnf, int size, long seed) {
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(cnf, size);
+		generator.setRandom(new Random(seed));
+		final List<LiteralSet> sample = new ArrayList<>(LongRunningWrapper.runMethod(generator));
+		// add a partial configuration
+		final int[] literals = Arrays.copyOf(sample.get(0).getLiterals(), cnf.getVariables().size());
+		Arrays.fill(literals, literals.length / 2, literals.length, 0);
+		sample.add(new LiteralSet(literals, LiteralSet.Order.INDEX, false));
+		return sample;
+	}
+
+	private static TWiseConfigurationStatistic calculateExpected(TWiseConfigurationUtil util, PresenceConditionManager manager, List<LiteralSet> sample,
+			int t) {
+		final TWiseConfigurationStatistic statistic = new TWiseConfigurationStatistic();
+		statistic.setT(t);
+		statistic.calculate(util, sample, manager.getGroupedPresenceConditions());
+		return statistic;
+	}
+
+	private static void assertStatisticEquals(TWiseConfigurationStatistic expected, TWiseConfigurationStatistic actual) {
+		assertEquals(expected.getNumberOfValidConditions(), actual.getNumberOfValidConditions());
+		assertEquals(expected.getNumberOfInvalidConditions(), actual.getNumberOfInvalidConditions());
+		assertEquals(expected.getNumberOfCoveredConditions(), actual.getNumberOfCoveredConditions());
+		assertEquals(expected.getNumberOfUncoveredConditions(), actual.getNumberOfUncoveredConditions());
+		assertArrayEquals(expected.getConfigValues(), actual.getConfigValues(), 1e-9);
+		assertArrayEquals(expected.getConfigValues2(), actual.getConfigValues2(), 0);
+	}
+
+	@Test
+	public void testStatistic() {
+		for (final String modelName : MODELS) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final TWiseConfigurationUtil util = new TWiseConfigurationUtil(new AdvancedSatSolver(cnf));
+			final PresenceConditionManager manager =
+				new PresenceConditionManager(util, TWiseConfigurationGenerator.convertLiterals(cnf.getVariables().getLiterals()));
+			final List<LiteralSet> sample = createSample(cnf, 10, 0);
+			for (int t = 1; t <= 3; t++) {
+				final TWiseConfigurationStatistic expected = calculateExpected(util, manager, sample, t);
+				for (final int numberOfThreads : new int[] { 1, 4 }) {
+					final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, manager.getGroupedPresenceConditions(), t);
+					calculator.setNumberOfThreads(numberOfThreads);
+					calculator.setSharedValues(true);
+					calculator.addConfigurations(sample);
+					assertStatisticEquals(expected, calculator.calculate());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalUpdates() {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml")).getCNF();
+		final TWiseConfigurationUtil util = new TWiseConfigurationUtil(new AdvancedSatSolver(cnf));
+		final PresenceConditionManager manager =
+			new PresenceConditionManager(util, TWiseConfigurationGenerator.convertLiterals(cnf.getVariables().getLiterals()));
+		final List<LiteralSet> sample = createSample(cnf, 80, 1);
+
+		final TWiseCoverageCalculator calculator = new TWiseCoverageCalculator(util, manager.getGroupedPresenceConditions(), 2);
+		calculator.setSharedValues(true);
+		calculator.setNumberOfThreads(2);
+		calculator.addConfigurations(sample.subList(0, 40));
+		calculator.calculate();
+		calculator.addConfigurations(sample.subList(40, sample.size()));
+		for (int slot = 0; slot < sample.size(); slot += 3) {
+			calculator.removeConfiguration(slot);
+		}
+		assertEquals(sample.size(), calculator.getNumberOfSlots());
+		final TWiseConfigurationStatistic actual = calculator.calculate();
+
+		final List<LiteralSet> remaining = new ArrayList<>();
+		for (int slot = 0; slot < sample.size(); slot++) {
+			if (calculator.getConfiguration(slot) != null) {
+				remaining.add(calculator.getConfiguration(slot));
+			}
+		}
+		assertEquals(remaining.size(), calculator.getNumberOfConfigurations());
+		final TWiseConfigurationStatistic expected = calculateExpected(util, manager, remaining, 2);
+		assertEquals(expected.getNumberOfValidConditions(), actual.getNumberOfValidConditions());
+		assertEquals(expected.getNumberOfInvalidConditions(), actual.getNumberOfInvalidConditions());
+		assertEquals(expected.getNumberOfCoveredConditions(), actual.getNumberOfCoveredConditions());
+		assertEquals(expected.getNumberOfUncoveredConditions(), actual.getNumberOfUncoveredConditions());
+
+		final double[] actualValues2 = actual.getConfigValues2();
+		final double[] expectedValues2 = expected.getConfigValues2();
+		for (int slot = 0, i = 0; slot < sample.size(); slot++) {
+			if (calculator.getConfiguration(slot) == null) {
+				assertEquals(0, actualValues2[slot], 0);
+			} else {
+				assertEquals(expectedValues2[i++], actualValues2[slot], 0);
+			}
+		}
+
+		final int slot = calculator.addConfiguration(sample.get(0));
+		assertEquals(0, slot);
+	}
+
+}
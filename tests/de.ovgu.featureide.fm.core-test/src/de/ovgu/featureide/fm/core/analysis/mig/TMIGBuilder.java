@@ -0,0 +1,107 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether the {@link MIGBuilder} based on the {@link SparseAdjMatrix} builds the same modal implication graph as the {@link ReferenceMIGBuilder}
+ * based on a dense adjacency matrix.
+ *
+ * @author agent
+ */
+public class TMIGBuilder {
+
+	private static final String[] MODELS = { "500-100.xml", "apl_model.xml", "basic.xml", "berkeley_db_model.xml", "car.xml", "gpl_medium_model.xml",
+		"false_optional_test.xml", "model_with_redundant_constraints.xml", "simple.xml" };
+
+	@Test
+	public void testStrongEdgeDetection() {
+		for (final String model : MODELS) {
+			compare(model, true);
+		}
+	}
+
+	@Test
+	public void testWithoutStrongEdgeDetection() {
+		for (final String model : MODELS) {
+			compare(model, false);
+		}
+	}
+
+	private static void compare(String model, boolean detectStrong) {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(model)).getCNF();
+		final ModalImplicationGraph expected = LongRunningWrapper.runMethod(new ReferenceMIGBuilder(cnf, detectStrong));
+		final ModalImplicationGraph actual = LongRunningWrapper.runMethod(new MIGBuilder(cnf, detectStrong));
+
+		assertEquals(model, new HashSet<>(expected.getComplexClauses()), new HashSet<>(actual.getComplexClauses()));
+
+		final List<Vertex> expectedVertices = expected.getAdjList();
+		final List<Vertex> actualVertices = actual.getAdjList();
+		assertEquals(model, expectedVertices.size(), actualVertices.size());
+		for (int i = 0; i < expectedVertices.size(); i++) {
+			final Vertex expectedVertex = expectedVertices.get(i);
+			final Vertex actualVertex = actualVertices.get(i);
+			final String message = model + " " + expectedVertex.getVar();
+			assertEquals(message, expectedVertex.getVar(), actualVertex.getVar());
+			assertEquals(message, expectedVertex.isCore(), actualVertex.isCore());
+			assertEquals(message, expectedVertex.isDead(), actualVertex.isDead());
+			assertEquals(message, toSet(expectedVertex.getStrongEdges()), toSet(actualVertex.getStrongEdges()));
+			assertEquals(message, getClauses(expected, expectedVertex), getClauses(actual, actualVertex));
+		}
+	}
+
+	private static Set<Integer> toSet(int[] array) {
+		final Set<Integer> set = new HashSet<>();
+		if (array != null) {
+			for (final int element : array) {
+				set.add(element);
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Resolves the weak edges of a vertex, i.e., the indices of its complex clauses.
+	 */
+	private static Set<LiteralSet> getClauses(ModalImplicationGraph mig, Vertex vertex) {
+		final Set<LiteralSet> clauses = new HashSet<>();
+		if (vertex.getComplexClauses() != null) {
+			for (final int index : vertex.getComplexClauses()) {
+				clauses.add(mig.getComplexClauses().get(index));
+			}
+		}
+		return clauses;
+	}
+
+}
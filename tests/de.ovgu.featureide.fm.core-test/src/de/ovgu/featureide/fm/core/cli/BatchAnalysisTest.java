@@ -0,0 +1,192 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ovgu.featureide.Commons;
+
+/**
+ * Tests the batch analysis of the command line interface.
+ *
+ * @author agent
+ */
+public class BatchAnalysisTest {
+
+	private final static Path modelDirectory = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void readsManifest() throws IOException {
+		final Path directory = temporaryFolder.getRoot().toPath();
+		final Path subDirectory = Files.createDirectory(directory.resolve("models"));
+		Files.copy(modelDirectory.resolve("car.xml"), directory.resolve("car.xml"));
+		Files.copy(modelDirectory.resolve("basic.xml"), subDirectory.resolve("basic.xml"));
+		Files.copy(modelDirectory.resolve("simple.xml"), subDirectory.resolve("simple.xml"));
+
+		final Path manifest = directory.resolve("manifest.txt");
+		Files.write(manifest, Arrays.asList("# comment", "", "  car.xml  ", "models"), StandardCharsets.UTF_8);
+
+		final List<String> lines = runBatchAnalysis("-list", manifest.toString(), "-a", "valid");
+		assertEquals(3, lines.size());
+		for (final String modelName : Arrays.asList("car.xml", "basic.xml", "simple.xml")) {
+			final String line = getLine(lines, modelName);
+			assertTrue(line, line.contains("\"status\":\"ok\""));
+			assertTrue(line, line.contains("\"valid\":true"));
+		}
+	}
+
+	@Test
+	public void writesJSONLines() throws IOException {
+		final List<String> lines = runBatchAnalysis("-fm", modelDirectory.resolve("car.xml").toString(), "-a", "valid,coredead,count", "-format", "jsonl");
+		assertEquals(1, lines.size());
+		final String line = lines.get(0);
+		assertTrue(line, line.startsWith("{") && line.endsWith("}"));
+		assertTrue(line, line.contains("\"status\":\"ok\""));
+		assertTrue(line, line.contains("\"features\":16"));
+		assertTrue(line, line.contains("\"valid\":true"));
+		assertTrue(line, line.contains("\"core\":[\"Car\",\"Carbody\",\"Gearbox\",\"Automatic\",\"GearboxTest\"]"));
+		assertTrue(line, line.contains("\"dead\":[\"Manual\",\"Bluetooth\"]"));
+		assertTrue(line, line.contains("\"count\":7"));
+		assertTrue(line, !line.contains("\"error\""));
+	}
+
+	@Test
+	public void writesCSV() throws IOException {
+		final Path unsatisfiableModel = modelDirectory.resolve("unsatisfiable.xml");
+		final List<String> lines = runBatchAnalysis("-fm", modelDirectory.resolve("car.xml").toString(), "-list", createManifest(unsatisfiableModel).toString(),
+				"-a", "valid,coredead,count", "-format", "csv");
+		assertEquals(3, lines.size());
+		assertEquals("model;status;time;features;constraints;valid;core;dead;count", lines.get(0));
+
+		final String[] carColumns = getLine(lines, "car.xml").split(";", -1);
+		assertEquals(9, carColumns.length);
+		assertEquals("ok", carColumns[1]);
+		assertEquals("16", carColumns[3]);
+		assertEquals("true", carColumns[5]);
+		assertEquals("5", carColumns[6]);
+		assertEquals("2", carColumns[7]);
+		assertEquals("7", carColumns[8]);
+
+		final String[] unsatisfiableColumns = getLine(lines, "unsatisfiable.xml").split(";", -1);
+		assertEquals(9, unsatisfiableColumns.length);
+		assertEquals("false", unsatisfiableColumns[5]);
+		assertEquals("0", unsatisfiableColumns[8]);
+	}
+
+	@Test
+	public void quotesCSVFields() throws IOException {
+		final Path modelFile = temporaryFolder.newFolder("a;b").toPath().resolve("car.xml");
+		Files.copy(modelDirectory.resolve("car.xml"), modelFile);
+
+		final List<String> lines = runBatchAnalysis("-fm", modelFile.toString(), "-a", "valid", "-format", "csv");
+		assertEquals(2, lines.size());
+		final String line = lines.get(1);
+		final String quotedModel = "\"" + modelFile.toString().replace("\"", "\"\"") + "\"";
+		assertTrue(line, line.startsWith(quotedModel + ";ok;"));
+		assertEquals(6, line.substring(quotedModel.length()).split(";", -1).length);
+	}
+
+	@Test
+	public void escapesJSONStrings() throws IOException {
+		final Path directory = temporaryFolder.getRoot().toPath();
+		final Path modelFile = directory.resolve("escape.xml");
+		Files.write(modelFile, Arrays.asList( //
+				"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>", //
+				"<featureModel>", //
+				"	<struct>", //
+				"		<and mandatory=\"true\" name=\"Root &quot;quoted&quot; \\ name&#9;\">", //
+				"			<feature mandatory=\"true\" name=\"Child\"/>", //
+				"		</and>", //
+				"	</struct>", //
+				"</featureModel>"), StandardCharsets.UTF_8);
+
+		final List<String> lines = runBatchAnalysis("-fm", modelFile.toString(), "-a", "coredead");
+		assertEquals(1, lines.size());
+		final String line = lines.get(0);
+		assertTrue(line, line.contains("\"core\":[\"Root \\\"quoted\\\" \\\\ name\\t\",\"Child\"]"));
+	}
+
+	@Test
+	public void reportsErrors() throws IOException {
+		final Path directory = temporaryFolder.getRoot().toPath();
+		final Path brokenModel = directory.resolve("broken.xml");
+		Files.write(brokenModel, Arrays.asList("<featureModel><struct>"), StandardCharsets.UTF_8);
+
+		final List<String> lines = runBatchAnalysis("-list", createManifest(brokenModel).toString(), "-fm", modelDirectory.resolve("car.xml").toString());
+		assertEquals(2, lines.size());
+		final String brokenLine = getLine(lines, "broken.xml");
+		assertTrue(brokenLine, brokenLine.contains("\"status\":\"error\""));
+		assertTrue(brokenLine, brokenLine.contains("\"error\":"));
+		assertTrue(getLine(lines, "car.xml").contains("\"status\":\"ok\""));
+	}
+
+	@Test
+	public void reportsTimeouts() throws IOException {
+		final List<String> lines = runBatchAnalysis("-fm", modelDirectory.resolve("500-100.xml").toString(), "-a", "count", "-timeout", "1");
+		assertEquals(1, lines.size());
+		final String line = lines.get(0);
+		assertTrue(line, line.contains("\"status\":\"timeout\""));
+		assertTrue(line, !line.contains("\"count\""));
+	}
+
+	private Path createManifest(Path model) throws IOException {
+		final Path manifest = Files.createTempFile(temporaryFolder.getRoot().toPath(), "manifest", ".txt");
+		Files.write(manifest, Arrays.asList(model.toAbsolutePath().toString()), StandardCharsets.UTF_8);
+		return manifest;
+	}
+
+	private static String getLine(List<String> lines, String modelName) {
+		for (final String line : lines) {
+			if (line.contains(modelName)) {
+				return line;
+			}
+		}
+		throw new AssertionError("No result for " + modelName);
+	}
+
+	private List<String> runBatchAnalysis(String... args) throws IOException {
+		final Path outFile = Files.createTempFile(temporaryFolder.getRoot().toPath(), "output", "");
+		final List<String> argList = new ArrayList<>(Arrays.asList(args));
+		argList.add("-o");
+		argList.add(outFile.toString());
+		argList.add("-threads");
+		argList.add("2");
+		new BatchAnalysis().run(argList);
+		return Files.readAllLines(outFile, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,107 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationAnalyzer;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Stage;
+
+/**
+ * Tests the variant build pipeline of the command line interface.
+ *
+ * @author agent
+ */
+public class BuildVariantsTest {
+
+	private final static Path modelDirectory = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath();
+
+	@Test
+	public void writesAllConfigurations() throws IOException {
+		final Path modelFile = modelDirectory.resolve("car.xml");
+		final Path outputDirectory = Files.createTempDirectory("variants");
+		try {
+			final BuildVariants function = new BuildVariants();
+			function.run(Arrays.asList("-fm", modelFile.toString(), "-o", outputDirectory.toString(), "-a", "all", "-p", "writing=3", "-q", "2"));
+
+			final List<Stage> statistics = function.getLastStatistics();
+			assertEquals(2, statistics.size());
+			assertEquals(BuildVariants.STAGE_SAMPLING, statistics.get(0).getName());
+			assertEquals(7, statistics.get(0).getProcessedItems());
+			assertEquals(BuildVariants.STAGE_WRITING, statistics.get(1).getName());
+			assertEquals(3, statistics.get(1).getParallelism());
+			assertEquals(7, statistics.get(1).getProcessedItems());
+			assertEquals(0, statistics.get(1).getFailedItems());
+
+			final IFeatureModel featureModel = FeatureModelManager.load(modelFile);
+			final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+			final List<Path> files;
+			try (Stream<Path> list = Files.list(outputDirectory)) {
+				files = list.collect(Collectors.toList());
+			}
+			assertEquals(7, files.size());
+			for (final Path file : files) {
+				final Configuration configuration = new Configuration(formula);
+				SimpleFileHandler.load(file, configuration, new XMLConfFormat());
+				assertTrue(file.toString(), new ConfigurationAnalyzer(formula, configuration).isValid());
+			}
+		} finally {
+			try (Stream<Path> walk = Files.walk(outputDirectory)) {
+				walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+	@Test
+	public void limitsSampleSize() throws IOException {
+		final Path modelFile = modelDirectory.resolve("car.xml");
+		final Path outputDirectory = Files.createTempDirectory("variants");
+		try {
+			final BuildVariants function = new BuildVariants();
+			function.run(Arrays.asList("-fm", modelFile.toString(), "-o", outputDirectory.toString(), "-a", "random", "-l", "3"));
+			assertEquals(3, function.getLastStatistics().get(1).getProcessedItems());
+		} finally {
+			try (Stream<Path> walk = Files.walk(outputDirectory)) {
+				walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the incremental propagation of {@link PropagationSession} (with and without a modal implication graph) against the complete propagation of {@link ConfigurationPropagator.UpdateMethod}.<br> Both must yield the same automatic selection for all features, including manually selected features that are redundant.
+ *
+ * @author agent
+ */
+public class TPropagationSession {
+
+	private static final Selection[] SELECTIONS = { Selection.SELECTED, Selection.UNSELECTED, Selection.UNDEFINED };
+
+	private void testRandomSelections(IFeatureModel featureModel, int numberOfSteps, boolean redundantManual, boolean useModalImplicationGraph) {
+		final Random random = new Random(271828);
+		final Random orderRandom = new Random(314159);
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final Configuration incrementalConfiguration = new Configuration(formula);
+		final Configuration configuration = new Configuration(formula);
+		final ConfigurationPropagator incrementalPropagator = new ConfigurationPropagator(formula, incrementalConfiguration);
+		final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configuration);
+		incrementalPropagator.setUseModalImplicationGraph(useModalImplicationGraph);
+		final PropagationSession session = incrementalPropagator.createPropagationSession();
+
+		final List<SelectableFeature> features = new ArrayList<>(incrementalConfiguration.getFeatures());
+		List<SelectableFeature> incrementalFeatureOrder = Collections.emptyList();
+		List<SelectableFeature> featureOrder = Collections.emptyList();
+		for (int step = 0; step < numberOfSteps; step++) {
+			final List<Selection> oldAutomatic = new ArrayList<>();
+			for (final SelectableFeature feature : features) {
+				oldAutomatic.add(feature.getAutomatic());
+			}
+
+			final Collection<SelectableFeature> changedFeatures =
+				LongRunningWrapper.runMethod(incrementalPropagator.update(session, redundantManual, incrementalFeatureOrder));
+			LongRunningWrapper.runMethod(propagator.update(redundantManual, featureOrder));
+
+			for (int i = 0; i < features.size(); i++) {
+				final SelectableFeature feature = features.get(i);
+				final SelectableFeature expectedFeature = configuration.getSelectableFeature(feature.getName());
+				assertEquals(feature.getName(), expectedFeature.getManual(), feature.getManual());
+				assertEquals(feature.getName(), expectedFeature.getAutomatic(), feature.getAutomatic());
+				if (oldAutomatic.get(i) != feature.getAutomatic()) {
+					assertTrue(feature.getName(), changedFeatures.contains(feature));
+				}
+			}
+
+			final SelectableFeature feature = features.get(random.nextInt(features.size()));
+			if (feature.getAutomatic() == Selection.UNDEFINED) {
+				final Selection selection = SELECTIONS[random.nextInt(SELECTIONS.length)];
+				incrementalConfiguration.setManual(feature, selection);
+				configuration.setManual(feature.getName(), selection);
+			}
+			// Consider the manual selection of a random feature last, as the configuration editor does for the top item.
+			final SelectableFeature lastFeature = features.get(orderRandom.nextInt(features.size()));
+			incrementalFeatureOrder = Collections.singletonList(lastFeature);
+			featureOrder = Collections.singletonList(configuration.getSelectableFeature(lastFeature.getName()));
+		}
+	}
+
+	@Test
+	public void testSmallModel() {
+		testRandomSelections(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"), 200, false, false);
+	}
+
+	@Test
+	public void testSmallModelRedundant() {
+		testRandomSelections(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"), 200, true, false);
+	}
+
+	@Test
+	public void testLargeModel() {
+		testRandomSelections(Commons.loadBenchmarkFeatureModelFromFile("1000-100.xml"), 100, false, false);
+	}
+
+	@Test
+	public void testSmallModelMIG() {
+		testRandomSelections(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"), 200, false, true);
+	}
+
+	@Test
+	public void testSmallModelRedundantMIG() {
+		testRandomSelections(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"), 200, true, true);
+	}
+
+	@Test
+	public void testLargeModelMIG() {
+		testRandomSelections(Commons.loadBenchmarkFeatureModelFromFile("1000-100.xml"), 100, false, true);
+	}
+
+}
@@ -0,0 +1,174 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.ddnnf.DDNNFCompiler;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests whether the {@link CNFModelComparator} classifies edits in the same way as the {@link ModelComparator} and computes the correct number of added and
+ * removed products.
+ *
+ * @author agent
+ */
+public class TCNFModelComparator {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private static IFeatureModel createFeatureModel(int numberOfFeatures) {
+		final IFeatureModel featureModel = factory.create();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		root.getStructure().setAbstract(true);
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final IFeature feature = factory.createFeature(featureModel, "F" + i);
+			featureModel.addFeature(feature);
+			feature.getStructure().setMandatory(false);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		return featureModel;
+	}
+
+	private static Node createRandomNode(Random random, int numberOfFeatures, int depth) {
+		if ((depth == 0) || (random.nextInt(3) == 0)) {
+			return new Literal("F" + random.nextInt(numberOfFeatures), random.nextBoolean());
+		}
+		final Node[] children = new Node[2];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createRandomNode(random, numberOfFeatures, depth - 1);
+		}
+		switch (random.nextInt(4)) {
+		case 0:
+			return new And(children);
+		case 1:
+			return new Or(children);
+		case 2:
+			return new Not(new Or(children));
+		default:
+			return new Implies(children[0], children[1]);
+		}
+	}
+
+	private static BigInteger countSolutions(IFeatureModel featureModel) {
+		final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+		for (final String name : cnf.getVariables().getNames()) {
+			if ((name != null) && Variables.isAuxiliary(name)) {
+				return null;
+			}
+		}
+		return LongRunningWrapper.runMethod(new DDNNFCompiler(cnf)).countSolutions();
+	}
+
+	@Test
+	public void testForFeatureIDEaddedProducts() throws FileNotFoundException, UnsupportedModelException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_optional.xml");
+		final IFeatureModel fmGen = Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_alternative.xml");
+
+		final CNFModelComparator comparator = new CNFModelComparator(1000000, true);
+		assertEquals(Comparison.GENERALIZATION, comparator.compare(fm, fmGen));
+		assertNull(comparator.getRemovedProductExample());
+		assertNotNull(comparator.getAddedProductExample());
+		assertEquals(BigInteger.ZERO, comparator.getRemovedProducts());
+		assertTrue(comparator.getAddedProducts().signum() > 0);
+
+		final CNFModelComparator reverseComparator = new CNFModelComparator(1000000, true);
+		assertEquals(Comparison.SPECIALIZATION, reverseComparator.compare(fmGen, fm));
+		assertEquals(comparator.getAddedProducts(), reverseComparator.getRemovedProducts());
+		assertEquals(BigInteger.ZERO, reverseComparator.getAddedProducts());
+	}
+
+	@Test
+	public void testRefactoring() throws FileNotFoundException, UnsupportedModelException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_optional.xml");
+
+		final CNFModelComparator comparator = new CNFModelComparator(1000000, true);
+		assertEquals(Comparison.REFACTORING, comparator.compare(fm, fm.clone()));
+		assertTrue(comparator.getAddedClauses().isEmpty());
+		assertTrue(comparator.getRemovedClauses().isEmpty());
+		assertEquals(BigInteger.ZERO, comparator.getAddedProducts());
+		assertEquals(BigInteger.ZERO, comparator.getRemovedProducts());
+	}
+
+	@Test
+	public void testRandomEdits() {
+		final Random random = new Random(314159);
+		for (int i = 0; i < 100; i++) {
+			final int numberOfFeatures = 3 + random.nextInt(5);
+			final IFeatureModel oldModel = createFeatureModel(numberOfFeatures);
+			for (int j = random.nextInt(3); j >= 0; j--) {
+				oldModel.addConstraint(factory.createConstraint(oldModel, createRandomNode(random, numberOfFeatures, 3)));
+			}
+			final IFeatureModel newModel = oldModel.clone();
+			if (random.nextBoolean()) {
+				final IConstraint constraint = newModel.getConstraints().get(random.nextInt(newModel.getConstraintCount()));
+				newModel.removeConstraint(constraint);
+			} else {
+				newModel.addConstraint(factory.createConstraint(newModel, createRandomNode(random, numberOfFeatures, 3)));
+			}
+			if (random.nextInt(4) == 0) {
+				final IFeature feature = factory.createFeature(newModel, "F" + numberOfFeatures);
+				newModel.addFeature(feature);
+				feature.getStructure().setMandatory(random.nextBoolean());
+				newModel.getStructure().getRoot().addChild(feature.getStructure());
+			}
+
+			final String message = oldModel.getConstraints() + " -> " + newModel.getConstraints();
+			final CNFModelComparator comparator = new CNFModelComparator(1000000, true);
+			final Comparison comparison = comparator.compare(oldModel, newModel);
+			assertEquals(message, new ModelComparator(1000000).compare(oldModel, newModel), comparison);
+
+			final BigInteger oldCount = countSolutions(oldModel);
+			final BigInteger newCount = countSolutions(newModel);
+			if ((oldCount != null) && (newCount != null) && comparator.getAddedFeatures().isEmpty()) {
+				assertEquals(message, newCount.subtract(oldCount), comparator.getAddedProducts().subtract(comparator.getRemovedProducts()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the streaming mode of configuration generators in combination with the {@link ConfigurationListWriter}.
+ *
+ * @author agent
+ */
+public class TConfigurationListWriter {
+
+	@Test
+	public void testStreaming() throws IOException {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml")).getCNF();
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(new AllConfigurationGenerator(cnf));
+		final String expected = new ConfigurationListFormat().write(new SolutionList(cnf.getVariables(), sample));
+
+		final Path file = Files.createTempFile("configurations", ".csv");
+		try {
+			final AllConfigurationGenerator generator = new AllConfigurationGenerator(cnf);
+			final List<LiteralSet> result;
+			try (ConfigurationListWriter writer = new ConfigurationListWriter(file, cnf.getVariables())) {
+				generator.setResultConsumer(writer);
+				result = LongRunningWrapper.runMethod(generator);
+				assertEquals(sample.size(), writer.getConfigurationCount());
+			}
+			assertTrue(result.isEmpty());
+			assertTrue(generator.getResultQueue().isEmpty());
+			assertEquals(expected, new String(Files.readAllBytes(file), SimpleFileHandler.DEFAULT_CHARSET));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+
+/**
+ * Tests that the snapshot of a {@link ConfigurationManager} is only kept if an edit did not change the configuration.
+ *
+ * @author agent
+ */
+public class TConfigurationManagerSnapshot {
+
+	private Path modelPath;
+	private Path configurationPath;
+	private FeatureModelManager featureModelManager;
+	private ConfigurationManager manager;
+	private String featureName;
+
+	@Before
+	public void setUp() throws IOException {
+		modelPath = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath().resolve("car.xml").toAbsolutePath();
+		featureModelManager = FeatureModelManager.getInstance(modelPath);
+		assertNotNull(featureModelManager);
+
+		final Configuration configuration = new Configuration(featureModelManager.getPersistentFormula());
+		featureName = featureModelManager.getSnapshot().getStructure().getRoot().getChildren().get(0).getFeature().getName();
+		configurationPath = Files.createTempFile("snapshot", ".xml");
+		Files.write(configurationPath, new XMLConfFormat().write(configuration).getBytes());
+
+		manager = ConfigurationManager.getInstance(configurationPath);
+		assertNotNull(manager);
+		manager.linkFeatureModel(featureModelManager);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ConfigurationManager.removeInstance(configurationPath, ConfigurationManager.class);
+		FeatureModelManager.removeInstance(modelPath, FeatureModelManager.class);
+		Files.deleteIfExists(configurationPath);
+	}
+
+	@Test
+	public void testKeepSnapshotIfNothingChanged() {
+		final Configuration snapshot = manager.getSnapshot();
+		manager.processObject(manager.getFormat().getInstance()::write, ConfigurationManager.CHANGE_NOTHING);
+		assertSame(snapshot, manager.getSnapshot());
+	}
+
+	@Test
+	public void testCopySnapshotIfSourceIsReadIntoConfiguration() {
+		final Configuration snapshot = manager.getSnapshot();
+		assertEquals(Selection.UNDEFINED, snapshot.getSelectableFeature(featureName).getManual());
+
+		final Configuration changedConfiguration = new Configuration(featureModelManager.getPersistentFormula());
+		changedConfiguration.setManual(featureName, Selection.SELECTED);
+		final String source = manager.getFormat().getInstance().write(changedConfiguration);
+
+		// same edit as in the text page of the configuration editor
+		final boolean error =
+			manager.processObject(config -> manager.getFormat().getInstance().read(config, source), ConfigurationManager.CHANGE_ALL).containsError();
+		assertFalse(error);
+
+		final Configuration newSnapshot = manager.getSnapshot();
+		assertNotSame(snapshot, newSnapshot);
+		assertEquals(Selection.SELECTED, newSnapshot.getSelectableFeature(featureName).getManual());
+	}
+
+}
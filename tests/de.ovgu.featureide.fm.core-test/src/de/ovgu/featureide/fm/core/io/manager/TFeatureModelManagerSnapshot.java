@@ -0,0 +1,99 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Tests that the snapshot of a {@link FeatureModelManager} is only copied again if an edit requires it.
+ *
+ * @author agent
+ */
+public class TFeatureModelManagerSnapshot {
+
+	private static final String PROPERTY_KEY = "snapshotTest";
+	private static final String PROPERTY_TYPE = "custom";
+
+	private Path path;
+	private FeatureModelManager manager;
+
+	@Before
+	public void setUp() {
+		path = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).toPath().resolve("car.xml").toAbsolutePath();
+		manager = FeatureModelManager.getInstance(path);
+		assertNotNull(manager);
+	}
+
+	@After
+	public void tearDown() {
+		FeatureModelManager.removeInstance(path, FeatureModelManager.class);
+	}
+
+	@Test
+	public void testKeepSnapshotIfNothingChanged() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		manager.editObject(fm -> {}, FeatureModelManager.CHANGE_NOTHING);
+		assertSame(snapshot, manager.getSnapshot());
+	}
+
+	@Test
+	public void testCopySnapshotOnModelPropertyChange() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		manager.editObject(fm -> fm.getProperty().set(PROPERTY_KEY, PROPERTY_TYPE, "1"), FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		final IFeatureModel newSnapshot = manager.getSnapshot();
+		assertNotSame(snapshot, newSnapshot);
+		assertEquals("1", newSnapshot.getProperty().get(PROPERTY_KEY, PROPERTY_TYPE));
+	}
+
+	@Test
+	public void testCopySnapshotOnDescriptionChange() {
+		final String rootName = manager.getSnapshot().getStructure().getRoot().getFeature().getName();
+		manager.editObject(fm -> fm.getFeature(rootName).getProperty().setDescription("first"), FeatureModelManager.CHANGE_ATTRIBUTES);
+		assertEquals("first", manager.getSnapshot().getFeature(rootName).getProperty().getDescription());
+
+		// a feature's description is no model property, but the snapshot must not become stale even if an edit uses this change indicator
+		manager.editObject(fm -> fm.getFeature(rootName).getProperty().setDescription("second"), FeatureModelManager.CHANGE_MODEL_PROPERTY);
+		assertEquals("second", manager.getSnapshot().getFeature(rootName).getProperty().getDescription());
+	}
+
+	@Test
+	public void testCopySnapshotOnStructuralChange() {
+		final IFeatureModel snapshot = manager.getSnapshot();
+		final String rootName = snapshot.getStructure().getRoot().getFeature().getName();
+		manager.editObject(fm -> fm.getFeature(rootName).getStructure().setAbstract(false), FeatureModelManager.CHANGE_DEPENDENCIES);
+		final IFeatureModel newSnapshot = manager.getSnapshot();
+		assertNotSame(snapshot, newSnapshot);
+		assertEquals(false, newSnapshot.getFeature(rootName).getStructure().isAbstract());
+	}
+
+}
@@ -0,0 +1,123 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Tests the streaming reader of the {@link XmlFeatureModelFormat} against the DOM-based reader.
+ *
+ * @author agent
+ */
+public class TXmlFeatureModelStreamReader {
+
+	@Test
+	public void testSameModelAsDOMReader() throws IOException {
+		final File[] files = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).listFiles(new Commons.FileFilterByExtension("xml"));
+		assertTrue(files.length > 0);
+		for (final File file : files) {
+			final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+
+			final IFeatureModel domModel = DefaultFeatureModelFactory.getInstance().create();
+			final ProblemList domProblems = format.getInstance().read(domModel, content);
+
+			final IFeatureModel streamModel = DefaultFeatureModelFactory.getInstance().create();
+			final ProblemList streamProblems;
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				streamProblems = format.getInstance().read(streamModel, in, file.toPath());
+			}
+
+			assertEquals(file.getName(), domProblems.containsError(), streamProblems.containsError());
+			assertEquals(file.getName(), domModel.getNumberOfFeatures(), streamModel.getNumberOfFeatures());
+			assertEquals(file.getName(), domModel.getConstraintCount(), streamModel.getConstraintCount());
+			assertEquals(file.getName(), format.write(domModel), format.write(streamModel));
+		}
+	}
+
+	@Test
+	public void testUnknownFeatureInConstraint() {
+		final String content = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+			+ "<featureModel>\n" //
+			+ "\t<struct>\n" //
+			+ "\t\t<and name=\"Root\">\n" //
+			+ "\t\t\t<feature name=\"A\"/>\n" //
+			+ "\t\t</and>\n" //
+			+ "\t</struct>\n" //
+			+ "\t<constraints>\n" //
+			+ "\t\t<rule>\n" //
+			+ "\t\t\t<imp>\n" //
+			+ "\t\t\t\t<var>A</var>\n" //
+			+ "\t\t\t\t<var>B</var>\n" //
+			+ "\t\t\t</imp>\n" //
+			+ "\t\t</rule>\n" //
+			+ "\t</constraints>\n" //
+			+ "</featureModel>\n";
+
+		final IFeatureModel model = DefaultFeatureModelFactory.getInstance().create();
+		final ProblemList problems =
+			new XmlFeatureModelFormat().read(model, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null);
+		assertTrue(problems.containsError());
+		final Problem error = problems.getErrors().get(0);
+		assertEquals(12, error.getLine());
+	}
+
+	@Test
+	public void testMissingStruct() {
+		final String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<featureModel>\n\t<constraints/>\n</featureModel>\n";
+
+		final IFeatureModel model = DefaultFeatureModelFactory.getInstance().create();
+		final ProblemList problems =
+			new XmlFeatureModelFormat().read(model, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null);
+		assertTrue(problems.containsError());
+		assertNotNull(problems.getErrors().get(0).getMessage());
+	}
+
+	@Test
+	public void testMalformedDocument() {
+		final String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<featureModel>\n\t<struct>\n\t\t<feature name=\"Root\">\n\t</struct>\n</featureModel>\n";
+
+		final IFeatureModel model = DefaultFeatureModelFactory.getInstance().create();
+		final ProblemList problems =
+			new XmlFeatureModelFormat().read(model, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null);
+		assertTrue(problems.containsError());
+		assertFalse(problems.getErrors().get(0).getLine() < 1);
+	}
+
+}
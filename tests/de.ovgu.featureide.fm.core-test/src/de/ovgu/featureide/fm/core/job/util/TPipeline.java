@@ -0,0 +1,183 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Output;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Processor;
+import de.ovgu.featureide.fm.core.job.util.Pipeline.Stage;
+
+/**
+ * Tests for {@link Pipeline}.
+ *
+ * @author agent
+ */
+public class TPipeline {
+
+	private static final int NUMBER_OF_ITEMS = 200;
+
+	private static Pipeline.Source<Integer> createSource(int numberOfItems) {
+		return output -> {
+			for (int i = 0; i < numberOfItems; i++) {
+				output.put(i);
+			}
+		};
+	}
+
+	@Test
+	public void allItemsPassAllStages() throws Exception {
+		final AtomicInteger firstStage = new AtomicInteger();
+		final List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+		final Pipeline<Integer> pipeline = new Pipeline<>("source", createSource(NUMBER_OF_ITEMS), 4);
+		pipeline.addStage("first", 3, item -> {
+			firstStage.incrementAndGet();
+		});
+		pipeline.addStage("second", 2, result::add);
+
+		assertTrue(pipeline.execute(new NullMonitor<>()));
+		assertEquals(NUMBER_OF_ITEMS, firstStage.get());
+		assertEquals(NUMBER_OF_ITEMS, result.size());
+		Collections.sort(result);
+		for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+			assertEquals(i, result.get(i).intValue());
+		}
+		for (final Stage stage : pipeline.getStages()) {
+			assertEquals(stage.getName(), NUMBER_OF_ITEMS, stage.getProcessedItems());
+			assertEquals(stage.getName(), 0, stage.getFailedItems());
+		}
+		assertEquals(3, pipeline.getStages().get(1).getParallelism());
+	}
+
+	@Test
+	public void collectingStageChangesOrder() throws Exception {
+		final List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+		final Pipeline<Integer> pipeline = new Pipeline<>("source", createSource(NUMBER_OF_ITEMS), 2);
+		pipeline.addProcessingStage("reverse", 1, new Processor<Integer>() {
+
+			private final List<Integer> items = new ArrayList<>();
+
+			@Override
+			public void process(Integer item, Output<Integer> output) {
+				items.add(item);
+			}
+
+			@Override
+			public void finish(Output<Integer> output) throws InterruptedException {
+				Collections.reverse(items);
+				for (final Integer item : items) {
+					output.put(item);
+				}
+			}
+		});
+		pipeline.addStage("collect", 1, result::add);
+
+		assertTrue(pipeline.execute(new NullMonitor<>()));
+		assertEquals(NUMBER_OF_ITEMS, result.size());
+		for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+			assertEquals(NUMBER_OF_ITEMS - i - 1, result.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void failedItemsAreDropped() throws Exception {
+		final AtomicInteger errors = new AtomicInteger();
+		final List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+		final Pipeline<Integer> pipeline = new Pipeline<>("source", createSource(NUMBER_OF_ITEMS), 4);
+		pipeline.addStage("odd", 2, item -> {
+			if ((item % 2) == 0) {
+				throw new IllegalStateException();
+			}
+		});
+		pipeline.addStage("collect", 1, result::add);
+		pipeline.setErrorHandler((stage, item, exception) -> {
+			assertEquals("odd", stage.getName());
+			assertTrue(exception instanceof IllegalStateException);
+			errors.incrementAndGet();
+		});
+
+		assertFalse(pipeline.execute(new NullMonitor<>()));
+		assertEquals(NUMBER_OF_ITEMS / 2, errors.get());
+		assertEquals(NUMBER_OF_ITEMS / 2, result.size());
+		assertEquals(NUMBER_OF_ITEMS / 2, pipeline.getStages().get(1).getFailedItems());
+		assertEquals(NUMBER_OF_ITEMS / 2, pipeline.getStages().get(1).getProcessedItems());
+		for (final Integer item : result) {
+			assertEquals(1, item % 2);
+		}
+	}
+
+	@Test
+	public void queuesAreBounded() throws Exception {
+		final int capacity = 2;
+		final AtomicInteger produced = new AtomicInteger();
+		final AtomicInteger maximumBuffered = new AtomicInteger();
+		final Pipeline<Integer> pipeline = new Pipeline<>("source", output -> {
+			for (int i = 0; i < 50; i++) {
+				produced.incrementAndGet();
+				output.put(i);
+			}
+		}, capacity);
+		final AtomicInteger consumed = new AtomicInteger();
+		pipeline.addStage("slow", 1, item -> {
+			maximumBuffered.accumulateAndGet(produced.get() - consumed.getAndIncrement(), Math::max);
+			Thread.sleep(1);
+		});
+
+		assertTrue(pipeline.execute(new NullMonitor<>()));
+		assertEquals(50, consumed.get());
+		// one item in process, the queue, and one item that is about to be put by the source
+		assertTrue(String.valueOf(maximumBuffered.get()), maximumBuffered.get() <= (capacity + 2));
+	}
+
+	@Test
+	public void cancelStopsAllStages() throws Exception {
+		final Pipeline<Integer> pipeline = new Pipeline<>("source", output -> {
+			int i = 0;
+			while (true) {
+				output.put(i++);
+			}
+		}, 4);
+		pipeline.addStage("cancel", 2, item -> {
+			if (item == 100) {
+				throw new MethodCancelException();
+			}
+		});
+		pipeline.addStage("last", 2, item -> {});
+
+		try {
+			pipeline.execute(new NullMonitor<>());
+			fail();
+		} catch (final MethodCancelException e) {}
+	}
+
+}
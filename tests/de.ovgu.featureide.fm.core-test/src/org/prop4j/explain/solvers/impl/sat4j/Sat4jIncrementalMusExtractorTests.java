@@ -0,0 +1,114 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.explain.solvers.MusExtractorTests;
+
+/**
+ * Tests for {@link Sat4jIncrementalMusExtractor}.
+ *
+ * @author agent
+ */
+public class Sat4jIncrementalMusExtractorTests extends MusExtractorTests {
+
+	@Override
+	protected Sat4jIncrementalMusExtractor getInstance() {
+		return new Sat4jIncrementalMusExtractor();
+	}
+
+	@Test
+	public void testAllMuses() {
+		final Sat4jIncrementalMusExtractor solver = getInstance();
+		solver.addFormula(new And("A", new Literal("A", false), new Or(new Literal("A", false), "B"), new Literal("B", false)));
+		final Set<Set<Integer>> expected = new HashSet<>();
+		expected.add(new TreeSet<>(Arrays.asList(0, 1)));
+		expected.add(new TreeSet<>(Arrays.asList(0, 2, 3)));
+		final List<Set<Integer>> actual = solver.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, new HashSet<>(actual));
+	}
+
+	@Test
+	public void testMaximumMusCount() {
+		final Sat4jIncrementalMusExtractor solver = getInstance();
+		solver.setMaximumMusCount(1);
+		solver.addFormula(new And("A", new Literal("A", false), new Or(new Literal("A", false), "B"), new Literal("B", false)));
+		assertEquals(1, solver.getAllMinimalUnsatisfiableSubsetIndexes().size());
+	}
+
+	@Test
+	public void testMusIterator() {
+		final Sat4jIncrementalMusExtractor solver = getInstance();
+		solver.addFormula(new And("A", "B", "C", new Or(new Literal("A", false), new Literal("B", false)), new Or(new Literal("B", false), new Literal("C", false)),
+				new Or(new Literal("A", false), new Literal("C", false))));
+		final Iterator<Set<Integer>> it = solver.getMinimalUnsatisfiableSubsetIndexIterator();
+		final Set<Set<Integer>> muses = new HashSet<>();
+		while (it.hasNext()) {
+			final Set<Integer> mus = it.next();
+			assertEquals(3, mus.size());
+			assertTrue(muses.add(mus));
+		}
+		assertEquals(3, muses.size());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testMusPushPop() {
+		final Sat4jIncrementalMusExtractor solver = getInstance();
+		solver.addFormula(new Or(new Literal("A", false), "B"));
+		solver.push();
+		solver.addAssumption("A", true);
+		solver.addAssumption("B", false);
+		assertEquals(new TreeSet<>(Arrays.asList(0)), solver.getMinimalUnsatisfiableSubsetIndexes());
+		solver.pop();
+		solver.push();
+		solver.addFormula(new Literal("B", false));
+		solver.addAssumption("A", true);
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1)), solver.getMinimalUnsatisfiableSubsetIndexes());
+		solver.pop();
+	}
+
+	@Test
+	public void testTimeoutBeforeFirstMus() throws InterruptedException {
+		final Sat4jIncrementalMusExtractor solver = getInstance();
+		solver.setTimeout(1);
+		solver.addFormula(new And("A", new Literal("A", false), new Or(new Literal("A", false), "B"), new Literal("B", false)));
+		final Iterator<Set<Integer>> it = solver.getMinimalUnsatisfiableSubsetIndexIterator();
+		Thread.sleep(10);
+		// Subsets that are not minimized completely must not be returned as MUS
+		assertFalse(it.hasNext());
+	}
+}
@@ -21,8 +21,14 @@
 package org.prop4j.transform;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 
 import org.junit.Rule;
@@ -33,6 +39,8 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
 
 /**
@@ -299,6 +307,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -310,6 +319,7 @@ public class DimacsReaderTests {
 		final Node expected = new And(new Or("Variable\twith\twhitespace", new Literal("  Surrounding whitespace  ", false)),
 				new Or(" ", "  Surrounding whitespace  ", new Literal("Variable\twith\twhitespace", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -320,6 +330,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("1", new Literal("c 3 Foo", false)), new Or("2", "c 3 Foo", new Literal("1", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -330,6 +341,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -340,6 +352,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -350,6 +363,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -360,6 +374,7 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
 	}
 
 	@Test
@@ -370,6 +385,33 @@ public class DimacsReaderTests {
 		final Node actual = r.read(s);
 		final Node expected = new And(new Or("Foo", new Literal("3", false)), new Or("Bar", "3", new Literal("Foo", false)));
 		assertEquals(expected, actual);
+		testCNFEquals(r, s, expected);
+	}
+
+	@Test
+	public void testCNFLineNumber() throws IOException {
+		try {
+			new DimacsReader().readCNF(toStream("" + "c comment\n" + "p cnf 3 2\n" + "1 -3 0\n" + "\n" + "2 x -1 0"));
+			fail();
+		} catch (final ParseException e) {
+			assertEquals(5, e.getErrorOffset());
+		}
+	}
+
+	@Test
+	public void testCNFFile() throws ParseException, IOException {
+		final Path file = Files.createTempFile("dimacs", ".dimacs");
+		try {
+			final String s = "" + "c 1 Foo\n" + "c 2 Bar\n" + "c 3 Baz\n" + "p cnf 3 2\n" + "1 -3 0\n" + "2 3 -1 0";
+			Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+			final DimacsReader r = new DimacsReader();
+			r.setReadingVariableDirectory(true);
+			final CNF actual = r.readCNF(file);
+			final Node expected = new And(new Or("Foo", new Literal("Baz", false)), new Or("Bar", "Baz", new Literal("Foo", false)));
+			assertEquals(Nodes.convertNF(actual.getVariables(), expected, true, true), actual.getClauses());
+		} finally {
+			Files.delete(file);
+		}
 	}
 
 	private void testEquals(String s) throws ParseException, IOException {
@@ -379,13 +421,27 @@ public class DimacsReaderTests {
 	private void testEquals(String s, Node expected) throws ParseException, IOException {
 		final Node actual = new DimacsReader().read(s);
 		assertEquals(expected, actual);
+		testCNFEquals(new DimacsReader(), s, expected);
+	}
+
+	private void testCNFEquals(DimacsReader r, String s, Node expected) throws ParseException, IOException {
+		final CNF actual = r.readCNF(toStream(s));
+		assertEquals(Nodes.convertNF(actual.getVariables(), expected, true, true), actual.getClauses());
 	}
 
 	private void testException(String s) throws ParseException, IOException {
+		try {
+			new DimacsReader().readCNF(toStream(s));
+			fail();
+		} catch (final ParseException e) {}
 		exception.expect(ParseException.class);
 		new DimacsReader().read(s);
 	}
 
+	private InputStream toStream(String s) {
+		return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+	}
+
 	private Node getDefaultExpected() {
 		return new And(new Or("1", new Literal("3", false)), new Or("2", "3", new Literal("1", false)));
 	}
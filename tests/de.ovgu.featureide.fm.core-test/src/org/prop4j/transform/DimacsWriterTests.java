@@ -22,6 +22,10 @@ package org.prop4j.transform;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -95,6 +99,7 @@ public class DimacsWriterTests {
 		final String actual = w.write();
 		final String expected = getDirectoryExpected() + getDefaultExpected();
 		assertEquals(expected, actual);
+		assertEquals(expected, writeToStream(w));
 	}
 
 	private void testEquals(Node in) {
@@ -106,6 +111,17 @@ public class DimacsWriterTests {
 		w.setWritingVariableDirectory(false);
 		final String actual = w.write();
 		assertEquals(expected, actual);
+		assertEquals(expected, writeToStream(w));
+	}
+
+	private String writeToStream(DimacsWriter w) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			w.write(out);
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
 	}
 
 	private String getDirectoryExpected() {